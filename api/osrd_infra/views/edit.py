@@ -246,4 +246,6 @@ def edit_infra(infra, operations):
 
         result.append(operation(namespace, manifest))
 
+    # bump the modification date, which is the version of the infra clients keep copies of
+    infra.save()
     return Response(result)
@@ -39,13 +39,19 @@ class InfraView(
 
     @action(detail=True, methods=["get"])
     def railjson(self, request, pk=None):
-        cache_key = f"osrd.infra.{pk}"
-        infra = cache.get(cache_key)
-        if infra is not None:
-            return Response(infra)
-        infra = railjson_serialize_infra(self.get_object())
-        cache.set(cache_key, infra, timeout=settings.CACHE_TIMEOUT)
-        return Response(infra)
+        infra = self.get_object()
+        # the modification date changes on every edit, which lets clients keep a copy of the infra
+        version = infra.modified.isoformat()
+        etag = f'"{version}"'
+        if request.headers.get("If-None-Match") == etag:
+            return Response(status=304, headers={"ETag": etag})
+
+        cache_key = f"osrd.infra.{pk}.{version}"
+        railjson = cache.get(cache_key)
+        if railjson is None:
+            railjson = railjson_serialize_infra(infra)
+            cache.set(cache_key, railjson, timeout=settings.CACHE_TIMEOUT)
+        return Response(railjson, headers={"ETag": etag})
 
     @action(detail=True, methods=["post"])
     def edit(self, request, pk=None):
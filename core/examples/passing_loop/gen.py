@@ -0,0 +1,43 @@
+from pathlib import Path
+
+from railjson_generator import (
+    InfraBuilder,
+    ApplicableDirection,
+)
+
+CURRENT_DIR = Path(__file__).parent
+
+# GENERATE INFRA
+builder = InfraBuilder()
+
+# Create track sections: a line which splits into two tracks of different lengths, which join again
+track_in = builder.add_track_section(length=1000, label="track_in")
+track_short = builder.add_track_section(length=1000, label="track_short")
+track_long = builder.add_track_section(length=1500, label="track_long")
+track_out = builder.add_track_section(length=1000, label="track_out")
+
+# Set coordinates
+track_in.begin().set_coords(0, 0)
+track_in.end().set_coords(1000, 0)
+track_short.begin().set_coords(1000, 0)
+track_short.end().set_coords(2000, 0)
+track_long.begin().set_coords(1000, 0)
+track_long.end().set_coords(2000, 500)
+track_out.begin().set_coords(2000, 0)
+track_out.end().set_coords(3000, 0)
+
+# Add switches
+builder.add_switch(track_in.end(), track_short.begin(), track_long.begin())
+builder.add_switch(track_out.begin(), track_short.end(), track_long.end())
+
+# Add detector and signals
+for track in [track_in, track_short, track_long, track_out]:
+    detector = track.add_detector(position=track.length / 2)
+    track.add_signal(detector.position, ApplicableDirection.NORMAL, detector)
+    track.add_signal(detector.position, ApplicableDirection.REVERSE, detector)
+
+# Build infra
+infra = builder.build()
+
+# Save railjson
+infra.save(CURRENT_DIR / "infra.json")
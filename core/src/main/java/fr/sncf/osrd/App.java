@@ -17,6 +17,7 @@ public class App {
         commands.put("pretty-print-signals", new PrettyPrintCommand());
         commands.put("api", new ApiServerCommand());
         commands.put("interactive", new InteractiveCommand());
+        commands.put("decode-trace", new DecodeTraceCommand());
 
         // prepare the command line parser
         var argsParserBuilder = JCommander.newBuilder();
@@ -5,7 +5,6 @@ import java.util.Map;
 import com.squareup.moshi.Json;
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
-import com.squareup.moshi.Types;
 import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
@@ -18,13 +17,10 @@ public final class InfraCacheStatusEndpoint implements Take {
     private InfraManager infraManager;
      
 
-    private static final JsonAdapter<Map<String, SerializedInfraCache>> adapter;
-
-    static {
-        Moshi moshi = new Moshi.Builder().build();
-        var type = Types.newParameterizedType(Map.class, String.class, SerializedInfraCache.class);
-        adapter = moshi.adapter(type);
-    }
+    private static final JsonAdapter<SerializedCacheStatus> adapter = new Moshi
+            .Builder()
+            .build()
+            .adapter(SerializedCacheStatus.class);
 
     public InfraCacheStatusEndpoint(InfraManager infraManager) {
         this.infraManager = infraManager;
@@ -32,28 +28,78 @@ public final class InfraCacheStatusEndpoint implements Take {
 
     @Override
     public Response act(Request req) {
-        Map<String, SerializedInfraCache> res = new HashMap<>();
+        Map<String, SerializedInfraCache> infras = new HashMap<>();
         infraManager.forEach((infraId, infraCacheEntry) -> {
-            res.put(infraId, SerializedInfraCache.from(infraCacheEntry));
+            infras.put(infraId, SerializedInfraCache.from(infraCacheEntry));
         });
+        var res = new SerializedCacheStatus(infras, SerializedCacheStats.from(infraManager));
         return new RsJson(new RsWithBody(adapter.toJson(res)));
     }
 
+    private static final class SerializedCacheStatus {
+        public Map<String, SerializedInfraCache> infras;
+
+        public SerializedCacheStats stats;
+
+        public SerializedCacheStatus(Map<String, SerializedInfraCache> infras, SerializedCacheStats stats) {
+            this.infras = infras;
+            this.stats = stats;
+        }
+    }
+
+    private static final class SerializedCacheStats {
+        public long hits;
+
+        public long misses;
+
+        public long evictions;
+
+        /** The estimated heap size of all cached infras, in bytes */
+        @Json(name = "cache_size")
+        public long cacheSize;
+
+        @Json(name = "max_cache_size")
+        public long maxCacheSize;
+
+        public SerializedCacheStats(long hits, long misses, long evictions, long cacheSize, long maxCacheSize) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.cacheSize = cacheSize;
+            this.maxCacheSize = maxCacheSize;
+        }
+
+        static SerializedCacheStats from(InfraManager infraManager) {
+            var stats = infraManager.stats;
+            return new SerializedCacheStats(
+                stats.hits.get(),
+                stats.misses.get(),
+                stats.evictions.get(),
+                infraManager.getCacheSize(),
+                infraManager.maxCacheSize);
+        }
+    }
+
     private static final class SerializedInfraCache {
         public InfraStatus status;
 
         @Json(name = "last_status")
         public InfraStatus lastStatus;
+
+        @Json(name = "estimated_size")
+        public long estimatedSize;
         
-        public SerializedInfraCache(InfraStatus status, InfraStatus lastStatus) {
+        public SerializedInfraCache(InfraStatus status, InfraStatus lastStatus, long estimatedSize) {
             this.status = status;
             this.lastStatus = lastStatus;
+            this.estimatedSize = estimatedSize;
         }
 
         static SerializedInfraCache from(InfraCacheEntry entry) {
             return new SerializedInfraCache(
                 entry.status,
-                entry.lastStatus);
+                entry.lastStatus,
+                entry.estimatedSize);
         }
     }
 }
\ No newline at end of file
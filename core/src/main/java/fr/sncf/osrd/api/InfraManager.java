@@ -7,9 +7,18 @@ import fr.sncf.osrd.railjson.schema.infra.RJSInfra;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import com.squareup.moshi.JsonDataException;
 import org.slf4j.Logger;
@@ -19,12 +28,53 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 public class InfraManager {
     static final Logger logger = LoggerFactory.getLogger(InfraManager.class);
 
+    /** The share of the maximum heap size the cache can use, when no explicit budget is given */
+    public static final double DEFAULT_CACHE_HEAP_RATIO = 0.5;
+
+    /**
+     * A rough estimate of the number of heap bytes retained by a parsed infra, per byte of RailJSON.
+     * There's no cheap way to measure the retained size of an object graph, so the size of the
+     * downloaded RailJSON is used as a proxy.
+     */
+    static final long RETAINED_BYTES_PER_JSON_BYTE = 4;
+
     private final ConcurrentHashMap<String, InfraCacheEntry> infraCache = new ConcurrentHashMap<>();
 
+    /** The maximum estimated heap size of all cached infras, in bytes */
+    public final long maxCacheSize;
+
+    /**
+     * How long infras which failed to load stay in the cache, in nanoseconds. Error entries are kept a while
+     * so that the cache status shows them, but expire as they don't count in the budget of the cache.
+     */
+    long errorLifetime = TimeUnit.MINUTES.toNanos(10);
+
+    /** A logical clock, used to find the least recently used cache entry */
+    private final AtomicLong accessClock = new AtomicLong();
+
+    public final CacheStats stats = new CacheStats();
+
     public void forEach(BiConsumer<String, InfraCacheEntry> action) {
         infraCache.forEach(action);
     }
 
+    /** Returns the sum of the estimated sizes of all cached infras, in bytes */
+    public long getCacheSize() {
+        long size = 0;
+        for (var cacheEntry : infraCache.values())
+            size += cacheEntry.estimatedSize;
+        return size;
+    }
+
+    public static final class CacheStats {
+        /** The number of loads which were served from the cache, or waited for an ongoing download */
+        public final AtomicLong hits = new AtomicLong();
+        /** The number of loads which triggered a download */
+        public final AtomicLong misses = new AtomicLong();
+        /** The number of infras which were dropped from the cache to stay below the budget */
+        public final AtomicLong evictions = new AtomicLong();
+    }
+
     public static final class InfraLoadException extends Exception {
         private static final long serialVersionUID = 4291184310194002894L;
 
@@ -64,6 +114,7 @@ public class InfraManager {
 
     public enum InfraStatus {
         INITIALIZING(false),
+        LOADING_SNAPSHOT(false),
         DOWNLOADING(false),
         PARSING_JSON(false),
         PARSING_INFRA(false),
@@ -71,7 +122,9 @@ public class InfraManager {
         ERROR(true);
 
         static {
-            INITIALIZING.transitions = new InfraStatus[] { DOWNLOADING };
+            INITIALIZING.transitions = new InfraStatus[] { LOADING_SNAPSHOT, DOWNLOADING };
+            // if there is no usable snapshot of the infra, it is downloaded
+            LOADING_SNAPSHOT.transitions = new InfraStatus[] { CACHED, DOWNLOADING, ERROR };
             DOWNLOADING.transitions = new InfraStatus[] { PARSING_JSON, ERROR };
             PARSING_JSON.transitions = new InfraStatus[] { PARSING_INFRA, ERROR };
             PARSING_INFRA.transitions = new InfraStatus[] { CACHED, ERROR };
@@ -96,28 +149,75 @@ public class InfraManager {
         }
     }
 
+    /**
+     * A cache entry is written by the thread which loads the infra, and read by all the others.
+     * Threads which need the infra wait for the completion of the entry's future, so that
+     * a loading infra doesn't hold any lock.
+     */
     public static final class InfraCacheEntry {
-        public InfraStatus status = InfraStatus.INITIALIZING;
-        public InfraStatus lastStatus = null;
-        public Exception lastError = null;
-        public Infra infra = null;
+        public volatile InfraStatus status = InfraStatus.INITIALIZING;
+        public volatile InfraStatus lastStatus = null;
+        public volatile Exception lastError = null;
+        public volatile Infra infra = null;
+
+        /** The estimated heap size retained by the infra, in bytes */
+        public volatile long estimatedSize = 0;
+
+        /** The value of the access clock the last time this entry was loaded */
+        volatile long lastAccess = 0;
+
+        /** When the entry failed to load, as given by System.nanoTime() */
+        volatile long errorTime = 0;
+
+        /** Completed when the entry reaches a stable state */
+        private final CompletableFuture<Infra> future = new CompletableFuture<>();
 
         void transitionTo(InfraStatus newStatus) {
             assert status.canTransitionTo(newStatus);
             this.lastStatus = this.status;
             this.status = newStatus;
-            if (newStatus.isStable)
-                this.notifyAll();
         }
 
+        /** Stores the loaded infra, and wakes up the threads waiting for it */
+        public void registerInfra(Infra infra, long estimatedSize) {
+            this.infra = infra;
+            this.estimatedSize = estimatedSize;
+            transitionTo(InfraStatus.CACHED);
+            future.complete(infra);
+        }
+
+        /** Stores the loading error, and forwards it to the threads waiting for the infra */
         public void registerError(Exception error) {
+            this.errorTime = System.nanoTime();
             transitionTo(InfraStatus.ERROR);
             this.lastError = error;
+            future.completeExceptionally(error);
         }
 
-        public void waitUntilStable() throws InterruptedException {
-            while (!status.isStable)
-                this.wait();
+        /** Waits for the entry to reach a stable state, and returns its infra */
+        public Infra waitForInfra() throws InfraLoadException, InterruptedException {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                throw new InfraLoadException("cached exception", lastStatus, lastError);
+            }
+        }
+    }
+
+    /** Counts the number of bytes read from the wrapped source */
+    private static final class CountingSource extends ForwardingSource {
+        long bytesRead = 0;
+
+        CountingSource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            var res = super.read(sink, byteCount);
+            if (res > 0)
+                bytesRead += res;
+            return res;
         }
     }
 
@@ -128,9 +228,53 @@ public class InfraManager {
     private final String baseUrl;
     private final String authorizationToken;
 
+    /** The directory infra snapshots are saved into, or null if snapshots are disabled */
+    private final Path snapshotDir;
+
+    /** Whether to build the route contraction hierarchy of infras, which speeds up pathfinding */
+    private final boolean buildRouteHierarchy;
+
+    /** Creates an infra manager, whose cache can use a share of the maximum heap size */
     public InfraManager(String baseUrl, String authorizationToken) {
+        this(baseUrl, authorizationToken, (long) (Runtime.getRuntime().maxMemory() * DEFAULT_CACHE_HEAP_RATIO));
+    }
+
+    /** Creates an infra manager, whose cached infras shouldn't use more than maxCacheSize bytes */
+    public InfraManager(String baseUrl, String authorizationToken, long maxCacheSize) {
+        this(baseUrl, authorizationToken, maxCacheSize, null);
+    }
+
+    /**
+     * Creates an infra manager
+     * @param baseUrl the base URL of the middleware
+     * @param authorizationToken the token sent to the middleware, or null
+     * @param maxCacheSize the maximum estimated size of the cached infras, in bytes
+     * @param snapshotDir where to save infra snapshots, or null to disable snapshots
+     */
+    public InfraManager(String baseUrl, String authorizationToken, long maxCacheSize, Path snapshotDir) {
+        this(baseUrl, authorizationToken, maxCacheSize, snapshotDir, false);
+    }
+
+    /**
+     * Creates an infra manager
+     * @param baseUrl the base URL of the middleware
+     * @param authorizationToken the token sent to the middleware, or null
+     * @param maxCacheSize the maximum estimated size of the cached infras, in bytes
+     * @param snapshotDir where to save infra snapshots, or null to disable snapshots
+     * @param buildRouteHierarchy whether to preprocess the route graph of infras for faster pathfinding
+     */
+    public InfraManager(
+            String baseUrl,
+            String authorizationToken,
+            long maxCacheSize,
+            Path snapshotDir,
+            boolean buildRouteHierarchy
+    ) {
         this.baseUrl = baseUrl;
         this.authorizationToken = authorizationToken;
+        this.maxCacheSize = maxCacheSize;
+        this.snapshotDir = snapshotDir;
+        this.buildRouteHierarchy = buildRouteHierarchy;
     }
 
     private Request buildRequest(String endpointUrl) {
@@ -140,6 +284,39 @@ public class InfraManager {
         return builder.build();
     }
 
+    private Infra loadInfra(InfraCacheEntry cacheEntry, String infraId) throws InfraLoadException {
+        // a saved snapshot spares both the download and the parsing of the infra
+        if (snapshotDir != null) {
+            cacheEntry.transitionTo(InfraStatus.LOADING_SNAPSHOT);
+            var infra = loadSnapshot(cacheEntry, infraId);
+            if (infra != null)
+                return infra;
+        }
+        return downloadInfra(cacheEntry, infraId);
+    }
+
+    /** Caches the infra saved in a snapshot, or returns null if there is no usable snapshot */
+    private Infra loadSnapshot(InfraCacheEntry cacheEntry, String infraId) throws InfraLoadException {
+        InfraSnapshot.Snapshot snapshot;
+        try {
+            snapshot = InfraSnapshot.load(snapshotDir, infraId);
+        } catch (InterruptedIOException e) {
+            cacheEntry.registerError(e);
+            throw new InfraLoadException("interrupted while loading the infra snapshot", cacheEntry.lastStatus, e);
+        }
+        if (snapshot == null)
+            return null;
+
+        var infra = snapshot.infra;
+        if (buildRouteHierarchy && infra.routeGraph.getDistHierarchy() == null) {
+            logger.info("building the route hierarchy of infra {}", infraId);
+            infra.routeGraph.buildDistHierarchy();
+        }
+        logger.info("successfuly cached infra {} from its snapshot", infraId);
+        cacheEntry.registerInfra(infra, snapshot.estimatedSize);
+        return infra;
+    }
+
     @SuppressFBWarnings({"RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE", "NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE"})
     private Infra downloadInfra(InfraCacheEntry cacheEntry, String infraId) throws InfraLoadException {
         // create a request
@@ -151,17 +328,19 @@ public class InfraManager {
             logger.info("starting to download {}", endpointUrl);
             cacheEntry.transitionTo(InfraStatus.DOWNLOADING);
 
-            var response = httpClient.newCall(request).execute();
-            if (!response.isSuccessful()) 
-                throw new UnexpectedHttpResponse(response);
-
-            // Parse the response
-            logger.info("parsing the JSON of {}", endpointUrl);
-            cacheEntry.transitionTo(InfraStatus.PARSING_JSON);
-
             RJSInfra rjsInfra;
-            try (var body = response.body()) {
-                rjsInfra = RJSInfra.adapter.fromJson(body.source());
+            long jsonSize;
+            try (var response = httpClient.newCall(request).execute()) {
+                if (!response.isSuccessful())
+                    throw new UnexpectedHttpResponse(response);
+
+                // Parse the response
+                logger.info("parsing the JSON of {}", endpointUrl);
+                cacheEntry.transitionTo(InfraStatus.PARSING_JSON);
+
+                var countingSource = new CountingSource(response.body().source());
+                rjsInfra = RJSInfra.adapter.fromJson(Okio.buffer(countingSource));
+                jsonSize = countingSource.bytesRead;
             }
 
             if (rjsInfra == null)
@@ -170,12 +349,19 @@ public class InfraManager {
             // Parse railjson into a proper infra
             logger.info("parsing the infra of {}", endpointUrl);
             cacheEntry.transitionTo(InfraStatus.PARSING_INFRA);
-            var infra = RailJSONParser.parse(rjsInfra);
+            var infra = RailJSONParser.parseAndRelease(rjsInfra);
+            if (buildRouteHierarchy) {
+                logger.info("building the route hierarchy of {}", endpointUrl);
+                infra.routeGraph.buildDistHierarchy();
+            }
+
+            var estimatedSize = jsonSize * RETAINED_BYTES_PER_JSON_BYTE;
+            if (snapshotDir != null)
+                saveSnapshot(infraId, infra, estimatedSize);
 
             // Cache the infra
             logger.info("successfuly cached {}", endpointUrl);
-            cacheEntry.infra = infra; 
-            cacheEntry.transitionTo(InfraStatus.CACHED);
+            cacheEntry.registerInfra(infra, estimatedSize);
             return infra;
         } catch (IOException | InvalidInfraException | UnexpectedHttpResponse | JsonDataException e) {
             cacheEntry.registerError(e);
@@ -183,29 +369,83 @@ public class InfraManager {
         }
     }
 
+    /** Saves the snapshot of an infra. As the snapshot is only an optimization, failures are only logged */
+    private void saveSnapshot(String infraId, Infra infra, long estimatedSize) throws InterruptedIOException {
+        try {
+            InfraSnapshot.save(snapshotDir, infraId, infra, estimatedSize);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            logger.warn("failed to save the snapshot of infra {}", infraId, e);
+        }
+    }
+
     /** Load an infra given an id. Cache infra for optimized future call */
     @SuppressFBWarnings({"REC_CATCH_EXCEPTION"})
     public Infra load(String infraId) throws InfraLoadException, InterruptedException {
         try {
-            var prevCacheEntry = infraCache.putIfAbsent(infraId, new InfraCacheEntry());
-            var cacheEntry = infraCache.get(infraId);
-
-            synchronized (cacheEntry) {
-                // if there was no cache entry, download the infra again
-                if (prevCacheEntry == null || cacheEntry.status == InfraStatus.ERROR)
-                    return downloadInfra(cacheEntry, infraId);
-
-                // otherwise, wait for the infra to reach a stable state
-                cacheEntry.waitUntilStable();
-                if (cacheEntry.status == InfraStatus.CACHED)
-                    return cacheEntry.infra;
-                if (cacheEntry.status == InfraStatus.ERROR)
-                    throw new InfraLoadException("cached exception", cacheEntry.lastStatus, cacheEntry.lastError);
-                throw new InfraLoadException("invalid status after waitUntilStable", cacheEntry.status);
+            var newCacheEntry = new InfraCacheEntry();
+            var cacheEntry = infraCache.putIfAbsent(infraId, newCacheEntry);
+
+            // infras which failed to load are downloaded again
+            if (cacheEntry != null && cacheEntry.status == InfraStatus.ERROR
+                    && infraCache.replace(infraId, cacheEntry, newCacheEntry))
+                cacheEntry = null;
+
+            // if there was no cache entry, load the infra
+            if (cacheEntry == null) {
+                stats.misses.incrementAndGet();
+                newCacheEntry.lastAccess = accessClock.incrementAndGet();
+                try {
+                    return loadInfra(newCacheEntry, infraId);
+                } finally {
+                    evictEntries(newCacheEntry);
+                }
             }
+
+            // otherwise, wait for the infra to reach a stable state
+            stats.hits.incrementAndGet();
+            cacheEntry.lastAccess = accessClock.incrementAndGet();
+            return cacheEntry.waitForInfra();
         } catch (Exception e) {
             logger.error("exception while loading infra", e);
             throw e;
         }
     }
+
+    /** Drops expired errors, then evicts the least recently used stable entries until the cache fits in its budget */
+    private synchronized void evictEntries(InfraCacheEntry loadedEntry) {
+        var now = System.nanoTime();
+        for (var mapEntry : infraCache.entrySet()) {
+            var cacheEntry = mapEntry.getValue();
+            if (cacheEntry.status == InfraStatus.ERROR && now - cacheEntry.errorTime >= errorLifetime
+                    && infraCache.remove(mapEntry.getKey(), cacheEntry))
+                logger.info("dropped the loading error of infra {} from the cache", mapEntry.getKey());
+        }
+
+        while (true) {
+            long cacheSize = 0;
+            String evictedId = null;
+            InfraCacheEntry evictedEntry = null;
+            for (var mapEntry : infraCache.entrySet()) {
+                var cacheEntry = mapEntry.getValue();
+                cacheSize += cacheEntry.estimatedSize;
+                // entries which are still loading are needed by some thread
+                if (cacheEntry == loadedEntry || !cacheEntry.status.isStable)
+                    continue;
+                if (evictedEntry == null || cacheEntry.lastAccess < evictedEntry.lastAccess) {
+                    evictedId = mapEntry.getKey();
+                    evictedEntry = cacheEntry;
+                }
+            }
+
+            if (cacheSize <= maxCacheSize || evictedEntry == null)
+                return;
+
+            if (infraCache.remove(evictedId, evictedEntry)) {
+                logger.info("evicted infra {} from the cache ({} bytes)", evictedId, evictedEntry.estimatedSize);
+                stats.evictions.incrementAndGet();
+            }
+        }
+    }
 }
@@ -0,0 +1,268 @@
+package fr.sncf.osrd.api;
+
+import fr.sncf.osrd.infra.Infra;
+import fr.sncf.osrd.railjson.schema.infra.RJSInfra;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * <p>An on-disk copy of a built infra, which spares both its download and its parsing when the core restarts.</p>
+ *
+ * <p>A snapshot file starts with a header, followed by the java serialization of the infra:</p>
+ * <ul>
+ *  <li>the magic bytes and the version of the snapshot format</li>
+ *  <li>the size and CRC32 checksum of the serialized infra</li>
+ *  <li>the estimated heap size of the infra</li>
+ *  <li>the version of the RailJSON format the infra was parsed from</li>
+ * </ul>
+ *
+ * <p>A snapshot is stale when any of these versions differ from the expected ones, and corrupt when its
+ * checksum doesn't match. Both are deleted when loaded. Snapshots are checked without asking the middleware,
+ * so that, just like cached infras, they aren't updated when an infra is edited.</p>
+ */
+public final class InfraSnapshot {
+    static final Logger logger = LoggerFactory.getLogger(InfraSnapshot.class);
+
+    static final String MAGIC = "OSRDINFRASNAPSHOT";
+    private static final byte[] MAGIC_BYTES = MAGIC.getBytes(StandardCharsets.US_ASCII);
+
+    /** Must be incremented on every change of the snapshot format, or of the serialized form of the infra */
+    static final int FORMAT_VERSION = 2;
+
+    /** The offset of the payload size and checksum, which are written once the infra is serialized */
+    private static final long CHECKSUM_OFFSET = MAGIC_BYTES.length + Integer.BYTES;
+
+    /**
+     * Java serialization recurses along object references. As track sections and routes reference
+     * their neighbors, the recursion gets as deep as the network is large, which is why snapshots are
+     * written and read by a thread with a large stack.
+     */
+    static final long STACK_SIZE = 1L << 30;
+
+    /** Only classes of the infra and of the standard library can be read from a snapshot */
+    private static final ObjectInputFilter CLASS_FILTER =
+            ObjectInputFilter.Config.createFilter("fr.sncf.osrd.**;java.**;!*");
+
+    private InfraSnapshot() {
+    }
+
+    /** A loaded snapshot */
+    public static final class Snapshot {
+        public final Infra infra;
+
+        /** The estimated heap size retained by the infra, in bytes */
+        public final long estimatedSize;
+
+        Snapshot(Infra infra, long estimatedSize) {
+            this.infra = infra;
+            this.estimatedSize = estimatedSize;
+        }
+    }
+
+    /** Returns the path of the snapshot of an infra */
+    static Path getPath(Path snapshotDir, String infraId) {
+        // the infra id is encoded so that it can't escape the snapshot directory
+        var fileName = URLEncoder.encode(infraId, StandardCharsets.UTF_8) + ".snapshot";
+        return snapshotDir.resolve(fileName);
+    }
+
+    /** Runs a task in a thread with a large stack, and forwards its result */
+    private static <T> T runWithLargeStack(String name, Callable<T> task) throws IOException, ClassNotFoundException {
+        var future = new FutureTask<>(task);
+        var thread = new Thread(null, future, name, STACK_SIZE);
+        thread.start();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for " + name);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof ClassNotFoundException)
+                throw (ClassNotFoundException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof StackOverflowError)
+                throw new IOException("the infra is too deep to be serialized", cause);
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Saves the snapshot of an infra. The snapshot is written to a temporary file, which
+     * replaces the previous snapshot once complete.
+     * @param snapshotDir the directory snapshots are stored into
+     * @param infraId the identifier of the infra
+     * @param infra the infra to save
+     * @param estimatedSize the estimated heap size retained by the infra
+     */
+    public static void save(Path snapshotDir, String infraId, Infra infra, long estimatedSize) throws IOException {
+        Files.createDirectories(snapshotDir);
+        var path = getPath(snapshotDir, infraId);
+        var tmpPath = Files.createTempFile(snapshotDir, "infra", ".tmp");
+        try {
+            try (var channel = FileChannel.open(tmpPath, StandardOpenOption.WRITE)) {
+                var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.write(MAGIC_BYTES);
+                out.writeInt(FORMAT_VERSION);
+                // the payload size and checksum are only known once the infra is serialized
+                out.writeLong(0);
+                out.writeLong(0);
+                out.writeLong(estimatedSize);
+                out.writeUTF(RJSInfra.CURRENT_VERSION);
+                out.flush();
+                var payloadOffset = channel.position();
+
+                var checksum = new CRC32();
+                var objects = new ObjectOutputStream(new CheckedOutputStream(out, checksum));
+                runWithLargeStack("infra snapshot writer", () -> {
+                    objects.writeObject(infra);
+                    return null;
+                });
+                objects.flush();
+
+                var sizeAndChecksum = ByteBuffer.allocate(2 * Long.BYTES);
+                sizeAndChecksum.putLong(channel.position() - payloadOffset);
+                sizeAndChecksum.putLong(checksum.getValue());
+                sizeAndChecksum.flip();
+                channel.write(sizeAndChecksum, CHECKSUM_OFFSET);
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("saved the infra snapshot {}", path);
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            Files.deleteIfExists(tmpPath);
+            if (e instanceof IOException)
+                throw (IOException) e;
+            throw new IOException("failed to serialize the infra", e);
+        }
+    }
+
+    /**
+     * Loads the snapshot of an infra. Snapshots which are stale or can't be read are deleted.
+     * @param snapshotDir the directory snapshots are stored into
+     * @param infraId the identifier of the infra
+     * @return the saved infra, or null if there is no usable snapshot
+     */
+    public static Snapshot load(Path snapshotDir, String infraId) throws InterruptedIOException {
+        var path = getPath(snapshotDir, infraId);
+        try {
+            var snapshot = read(path);
+            if (snapshot != null)
+                return snapshot;
+            logger.info("the snapshot of infra {} is stale or corrupt", infraId);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            logger.warn("failed to read the infra snapshot {}", path, e);
+        }
+        delete(snapshotDir, infraId);
+        return null;
+    }
+
+    /** Deletes the snapshot of an infra, if there is one */
+    public static void delete(Path snapshotDir, String infraId) {
+        var path = getPath(snapshotDir, infraId);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("failed to delete the infra snapshot {}", path, e);
+        }
+    }
+
+    /** The header of a snapshot */
+    private static final class Header {
+        final long payloadSize;
+        final long checksum;
+        final long estimatedSize;
+
+        Header(long payloadSize, long checksum, long estimatedSize) {
+            this.payloadSize = payloadSize;
+            this.checksum = checksum;
+            this.estimatedSize = estimatedSize;
+        }
+    }
+
+    /** Reads the header of a snapshot, or returns null if the header is stale */
+    private static Header readHeader(Path path, DataInputStream in) throws IOException {
+        var magic = new byte[MAGIC_BYTES.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC_BYTES)) {
+            logger.warn("{} is not an infra snapshot", path);
+            return null;
+        }
+        if (in.readInt() != FORMAT_VERSION)
+            return null;
+        var header = new Header(in.readLong(), in.readLong(), in.readLong());
+        if (!RJSInfra.CURRENT_VERSION.equals(in.readUTF()))
+            return null;
+        return header;
+    }
+
+    /** Checks the size and checksum of the payload, which directly follows the header */
+    private static boolean checkPayload(Header header, InputStream in) throws IOException {
+        var checksum = new CRC32();
+        var checkedIn = new CheckedInputStream(in, checksum);
+        var buffer = new byte[1 << 16];
+        long payloadSize = 0;
+        int res;
+        while ((res = checkedIn.read(buffer)) != -1)
+            payloadSize += res;
+        return payloadSize == header.payloadSize && checksum.getValue() == header.checksum;
+    }
+
+    /** Reads a snapshot, or returns null if it is stale or corrupt */
+    private static Snapshot read(Path path) throws IOException, ClassNotFoundException {
+        // check the integrity of the payload before deserializing anything
+        Header header;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            header = readHeader(path, in);
+            if (header == null || !checkPayload(header, in))
+                return null;
+        }
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (readHeader(path, in) == null)
+                return null;
+            var objects = new ObjectInputStream(in);
+            objects.setObjectInputFilter(CLASS_FILTER);
+            var infra = runWithLargeStack("infra snapshot reader", objects::readObject);
+            if (!(infra instanceof Infra))
+                return null;
+            return new Snapshot((Infra) infra, header.estimatedSize);
+        }
+    }
+}
@@ -42,18 +42,38 @@ public abstract class PathfindingEndpoint implements Take {
         public final PathfindingWaypoint[][] waypoints;
         public final String infra;
 
+        /** How many alternative paths to return, in addition to the shortest one. Only used for routes */
+        @Json(name = "max_alternatives")
+        public final int maxAlternatives;
+
+        /** How much of the length of an alternative can be shared with the other returned paths, from 0 to 1 */
+        @Json(name = "max_overlap")
+        public final Double maxOverlap;
+
         public PathfindingRequest(PathfindingWaypoint[][] waypoints, String infra) {
+            this(waypoints, infra, 0, null);
+        }
+
+        /** Creates a pathfinding request which asks for alternative paths */
+        public PathfindingRequest(
+                PathfindingWaypoint[][] waypoints,
+                String infra,
+                int maxAlternatives,
+                Double maxOverlap
+        ) {
             this.waypoints = waypoints;
             this.infra = infra;
+            this.maxAlternatives = maxAlternatives;
+            this.maxOverlap = maxOverlap;
         }
     }
 
-    @SuppressFBWarnings({"URF_UNREAD_FIELD"})
+    @SuppressFBWarnings({"URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD"})
     protected static class TrackSectionRangeResult {
         @Json(name = "track_section")
-        private final String trackSection;
-        private final double begin;
-        private final double end;
+        public final String trackSection;
+        public final double begin;
+        public final double end;
 
         protected TrackSectionRangeResult(String trackSection, double beginPosition, double endPosition) {
             this.trackSection = trackSection;
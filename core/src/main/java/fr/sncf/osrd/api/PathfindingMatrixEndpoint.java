@@ -0,0 +1,252 @@
+package fr.sncf.osrd.api;
+
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.api.InfraManager.InfraLoadException;
+import fr.sncf.osrd.infra.Infra;
+import fr.sncf.osrd.infra.routegraph.Route;
+import fr.sncf.osrd.infra.routegraph.RouteLocation;
+import fr.sncf.osrd.utils.graph.DijkstraSearch;
+import fr.sncf.osrd.utils.graph.DistCostFunction;
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import fr.sncf.osrd.utils.graph.path.FullPathArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.rq.RqPrint;
+import org.takes.rs.RsJson;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithBody;
+import org.takes.rs.RsWithStatus;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Finds the shortest route path from each origin to each destination.
+ * Waypoints are resolved once, and a single search per origin finds the paths to all the destinations.
+ * Origins are searched from in parallel.
+ */
+public class PathfindingMatrixEndpoint extends PathfindingEndpoint {
+    static final Logger logger = LoggerFactory.getLogger(PathfindingMatrixEndpoint.class);
+
+    /** The maximum number of origin and destination pairs a request can ask paths for */
+    static final int MAX_PAIRS = 10_000;
+
+    public static final JsonAdapter<PathfindingMatrixRequest> adapterMatrixRequest = new Moshi
+            .Builder()
+            .build()
+            .adapter(PathfindingMatrixRequest.class)
+            .failOnUnknown();
+
+    public static final JsonAdapter<PathfindingMatrixResult> adapterResult = new Moshi
+            .Builder()
+            .build()
+            .adapter(PathfindingMatrixResult.class)
+            .failOnUnknown();
+
+    /** The pool origins are searched from, which is shared by all concurrent requests */
+    private final ForkJoinPool pool;
+
+    /** Creates a pathfinding matrix endpoint, which runs as many searches as there are processors */
+    public PathfindingMatrixEndpoint(InfraManager infraManager) {
+        this(infraManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    public PathfindingMatrixEndpoint(InfraManager infraManager, int parallelism) {
+        super(infraManager);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    private static final class InvalidWaypointException extends Exception {
+        private static final long serialVersionUID = -2516432718463574036L;
+
+        InvalidWaypointException(String message) {
+            super(message);
+        }
+    }
+
+    /** Finds the route locations of each place, which is a set of waypoints */
+    private static List<List<RouteLocation>> parsePlaces(
+            Infra infra,
+            PathfindingWaypoint[][] places,
+            String placeType
+    ) throws InvalidWaypointException {
+        var res = new ArrayList<List<RouteLocation>>();
+        for (int i = 0; i < places.length; i++) {
+            var routeLocations = new ArrayList<RouteLocation>();
+            for (var waypoint : places[i]) {
+                var edge = infra.trackGraph.trackSectionMap.get(waypoint.trackSection);
+                if (edge == null)
+                    throw new InvalidWaypointException(
+                            String.format("Couldn't find track section '%s'", waypoint.trackSection));
+                if (waypoint.offset < 0 || waypoint.offset > edge.length)
+                    throw new InvalidWaypointException(String.format(
+                            "'%f' is an invalid offset for the track section '%s'",
+                            waypoint.offset, waypoint.trackSection));
+                PathfindingRoutesEndpoint.addRouteLocations(edge, waypoint, routeLocations);
+            }
+            if (routeLocations.isEmpty())
+                throw new InvalidWaypointException(
+                        String.format("The waypoints of %s %d aren't on any route", placeType, i));
+            res.add(routeLocations);
+        }
+        return res;
+    }
+
+    @Override
+    public Response act(Request req) throws IOException, InterruptedException {
+        var body = new RqPrint(req).printBody();
+        var request = adapterMatrixRequest.fromJson(body);
+        if (request == null)
+            return new RsWithStatus(new RsText("missing request body"), 400);
+        if (request.origins == null || request.destinations == null)
+            return new RsWithStatus(new RsText("missing origins or destinations"), 400);
+        var pairCount = Math.multiplyFull(request.origins.length, request.destinations.length);
+        if (pairCount > MAX_PAIRS)
+            return new RsWithStatus(new RsText(String.format(
+                    "too many origin and destination pairs, the maximum is %d", MAX_PAIRS)), 400);
+
+        // load infra
+        Infra infra;
+        try {
+            infra = infraManager.load(request.infra);
+        } catch (InfraLoadException | InterruptedException e) {
+            return new RsWithStatus(new RsText(
+                    String.format("Error loading infrastructure '%s'%n%s", request.infra, e.getMessage())), 400);
+        }
+
+        // resolve the waypoints once for all the searches
+        List<List<RouteLocation>> origins;
+        List<List<RouteLocation>> destinations;
+        try {
+            origins = parsePlaces(infra, request.origins, "origin");
+            destinations = parsePlaces(infra, request.destinations, "destination");
+        } catch (InvalidWaypointException e) {
+            return new RsWithStatus(new RsText(e.getMessage()), 400);
+        }
+
+        // all the route locations of the destinations are the goals of each search
+        var goals = new ArrayList<BasicPathNode<Route>>();
+        var goalDestinations = new ArrayList<Integer>();
+        for (int i = 0; i < destinations.size(); i++) {
+            for (var location : destinations.get(i)) {
+                goals.add(new BasicPathNode<>(location.route, location.offset));
+                goalDestinations.add(i);
+            }
+        }
+
+        // search from all the origins in parallel
+        var searches = new ArrayList<Future<List<BasicPathNode<Route>>>>();
+        for (var origin : origins) {
+            var starts = new ArrayList<BasicPathNode<Route>>();
+            for (var location : origin)
+                starts.add(new BasicPathNode<>(location.route, location.offset));
+            searches.add(pool.submit(() -> DijkstraSearch.findShortestPaths(
+                    infra.routeGraph, starts, new DistCostFunction<>(), goals)));
+        }
+
+        var result = new PathfindingMatrixResult(request.includePaths);
+        for (var search : searches) {
+            List<BasicPathNode<Route>> pathsToGoals;
+            try {
+                pathsToGoals = search.get();
+            } catch (ExecutionException e) {
+                // the waypoints were checked, so a failed search is an internal error
+                logger.error("pathfinding matrix search failed", e.getCause());
+                for (var otherSearch : searches)
+                    otherSearch.cancel(false);
+                return new RsWithStatus(new RsText(
+                        String.format("pathfinding failed: %s", e.getCause())), 500);
+            }
+
+            // keep the shortest path to any location of each destination
+            var pathsToDestinations = new ArrayList<BasicPathNode<Route>>();
+            for (int i = 0; i < destinations.size(); i++)
+                pathsToDestinations.add(null);
+            for (int i = 0; i < goals.size(); i++) {
+                var path = pathsToGoals.get(i);
+                if (path == null)
+                    continue;
+                int destination = goalDestinations.get(i);
+                var bestPath = pathsToDestinations.get(destination);
+                if (bestPath == null || path.cost < bestPath.cost)
+                    pathsToDestinations.set(destination, path);
+            }
+            result.addOrigin(pathsToDestinations);
+        }
+        return new RsJson(new RsWithBody(adapterResult.toJson(result)));
+    }
+
+    @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public static final class PathfindingMatrixRequest {
+        /** Infra id */
+        public final String infra;
+
+        /** The places paths start from. Each place is a set of waypoints, any of which can start a path */
+        public final PathfindingWaypoint[][] origins;
+
+        /** The places paths go to. Each place is a set of waypoints, any of which can end a path */
+        public final PathfindingWaypoint[][] destinations;
+
+        /** Whether to return the routes of the paths, in addition to their length */
+        @Json(name = "include_paths")
+        public final boolean includePaths;
+
+        /** Creates a pathfinding matrix request */
+        public PathfindingMatrixRequest(
+                String infra,
+                PathfindingWaypoint[][] origins,
+                PathfindingWaypoint[][] destinations,
+                boolean includePaths
+        ) {
+            this.infra = infra;
+            this.origins = origins;
+            this.destinations = destinations;
+            this.includePaths = includePaths;
+        }
+    }
+
+    @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public static final class PathfindingMatrixResult {
+        /** The length of the shortest path from each origin to each destination, or null if there is none */
+        public final List<List<Double>> distances = new ArrayList<>();
+
+        /** The routes of each path, if requested */
+        public final List<List<List<String>>> paths;
+
+        private PathfindingMatrixResult(boolean includePaths) {
+            paths = includePaths ? new ArrayList<>() : null;
+        }
+
+        private void addOrigin(List<BasicPathNode<Route>> pathsToDestinations) {
+            var originDistances = new ArrayList<Double>();
+            var originPaths = new ArrayList<List<String>>();
+            for (var path : pathsToDestinations) {
+                originDistances.add(path == null ? null : path.cost);
+                originPaths.add(path == null ? null : getRouteIds(path));
+            }
+            distances.add(originDistances);
+            if (paths != null)
+                paths.add(originPaths);
+        }
+
+        private static List<String> getRouteIds(BasicPathNode<Route> path) {
+            var res = new ArrayList<String>();
+            Route lastRoute = null;
+            for (var node : FullPathArray.from(path).pathNodes) {
+                if (node.edge == lastRoute)
+                    continue;
+                res.add(node.edge.id);
+                lastRoute = node.edge;
+            }
+            return res;
+        }
+    }
+}
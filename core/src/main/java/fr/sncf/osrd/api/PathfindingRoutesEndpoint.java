@@ -13,9 +13,12 @@ import fr.sncf.osrd.infra.trackgraph.TrackSection;
 import fr.sncf.osrd.train.TrackSectionRange;
 import fr.sncf.osrd.utils.PointValue;
 import fr.sncf.osrd.utils.TrackSectionLocation;
-import fr.sncf.osrd.utils.graph.Dijkstra;
+import fr.sncf.osrd.utils.graph.AStarHeuristic;
+import fr.sncf.osrd.utils.graph.ContractionHierarchy;
+import fr.sncf.osrd.utils.graph.DijkstraSearch;
 import fr.sncf.osrd.utils.graph.DistCostFunction;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
+import fr.sncf.osrd.utils.graph.KShortestPaths;
 import fr.sncf.osrd.utils.graph.path.BasicPathNode;
 import fr.sncf.osrd.utils.graph.path.FullPathArray;
 import org.slf4j.Logger;
@@ -33,6 +36,15 @@ import java.util.*;
 public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
     static final Logger logger = LoggerFactory.getLogger(PathfindingRoutesEndpoint.class);
 
+    /** The maximum number of alternative paths a request can ask for */
+    static final int MAX_ALTERNATIVES = 10;
+
+    /** How many of the shortest paths of each step are considered for each requested alternative */
+    static final int CANDIDATES_PER_ALTERNATIVE = 3;
+
+    /** How much of the length of an alternative can be shared with other paths, if the request doesn't say */
+    static final double DEFAULT_MAX_OVERLAP = 0.8;
+
     public static final JsonAdapter<PathfindingResult> adapterResult = new Moshi
             .Builder()
             .build()
@@ -45,32 +57,32 @@ public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
     }
 
     private int tryFindPath(Infra infra,
-                            PriorityQueue<BasicPathNode<Route>> candidatePaths,
+                            List<BasicPathNode<Route>> candidatePaths,
                             DistCostFunction<Route> costFunction, ArrayList<RouteLocation> destinationWaypoints,
                             boolean isLastStep,
                             ArrayList<BasicPathNode<Route>> pathsToStep) {
-        return Dijkstra.findPaths(
+        var hierarchy = infra.routeGraph.getDistHierarchy();
+        if (hierarchy != null)
+            return findPathsWithHierarchy(hierarchy, candidatePaths, destinationWaypoints, isLastStep, pathsToStep);
+
+        // when the infra has coordinates, search towards the destination first
+        AStarHeuristic<Route> heuristic = null;
+        if (infra.routeGeometry != null)
+            heuristic = infra.routeGeometry.heuristic(destinationWaypoints);
+        var goals = new ArrayList<BasicPathNode<Route>>();
+        for (var goal : destinationWaypoints)
+            goals.add(new BasicPathNode<>(goal.route, goal.offset));
+        return DijkstraSearch.findPaths(
                 infra.routeGraph,
                 candidatePaths,
                 costFunction,
-                (pathNode) -> {
-                    for (var goalEdge : destinationWaypoints) {
-                        if (goalEdge.route != pathNode.edge || goalEdge.offset < pathNode.position)
-                            continue;
-                        var addedCost = costFunction.evaluate(
-                                goalEdge.route,
-                                pathNode.position,
-                                goalEdge.route.length
-                        );
-                        return pathNode.end(addedCost, goalEdge.route, goalEdge.offset);
-                    }
-                    return null;
-                },
-                (pathNode) -> {
+                heuristic,
+                goals,
+                (cost) -> {
                     // If we already found a path, limit the exploration to twice the current length
                     if (pathsToStep.isEmpty())
                         return false;
-                    return pathNode.cost > pathsToStep.get(0).cost * 2;
+                    return cost > pathsToStep.get(0).cost * 2;
                 },
                 (pathToGoal) -> {
                     pathsToStep.add(pathToGoal);
@@ -78,6 +90,57 @@ public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
                 });
     }
 
+    /**
+     * Finds the same paths as the dijkstra search, using the contraction hierarchy of the route graph:
+     * the shortest path to each destination waypoint, as long as it's less than twice as long as the shortest one.
+     */
+    private static int findPathsWithHierarchy(
+            ContractionHierarchy<Route> hierarchy,
+            List<BasicPathNode<Route>> candidatePaths,
+            ArrayList<RouteLocation> destinationWaypoints,
+            boolean isLastStep,
+            ArrayList<BasicPathNode<Route>> pathsToStep
+    ) {
+        var query = hierarchy.query();
+        var paths = new ArrayList<BasicPathNode<Route>>();
+        for (var goal : destinationWaypoints) {
+            var path = query.findPath(candidatePaths, goal.route, goal.offset);
+            if (path != null)
+                paths.add(path);
+        }
+        if (paths.isEmpty())
+            return 0;
+        paths.sort(Comparator.comparingDouble(path -> path.cost));
+        if (isLastStep) {
+            pathsToStep.add(paths.get(0));
+            return 1;
+        }
+        var maxCost = paths.get(0).cost * 2;
+        for (var path : paths)
+            if (path.cost <= maxCost)
+                pathsToStep.add(path);
+        return pathsToStep.size();
+    }
+
+    /** Adds the locations of the routes which go through a waypoint, in the direction of the waypoint */
+    static void addRouteLocations(
+            TrackSection trackSection,
+            PathfindingWaypoint waypoint,
+            List<RouteLocation> routeLocations
+    ) {
+        trackSection.getRoutes(waypoint.direction).findOverlappingIntervals(
+                routeFragment -> {
+                    var trackOffset = waypoint.offset - routeFragment.begin;
+                    if (routeFragment.direction == EdgeDirection.STOP_TO_START)
+                        trackOffset = routeFragment.end - waypoint.offset;
+                    var offset = routeFragment.routeOffset + trackOffset;
+                    routeLocations.add(new RouteLocation(routeFragment.route, offset));
+                },
+                waypoint.offset,
+                waypoint.offset
+        );
+    }
+
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
@@ -87,6 +150,9 @@ public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
             var request = adapterRequest.fromJson(body);
             if (request == null)
                 return new RsWithStatus(new RsText("missing request body"), 400);
+            if (request.maxOverlap != null && !(request.maxOverlap >= 0 && request.maxOverlap <= 1))
+                return new RsWithStatus(new RsText(String.format(
+                        "'%s' is an invalid max_overlap, it must be between 0 and 1", request.maxOverlap)), 400);
 
             var reqWaypoints = request.waypoints;
 
@@ -119,23 +185,13 @@ public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
                                 String.format("Path location %d is placed on a track section that has no route (%s)",
                                         i, edge.id)
                         ), 400);
-                    edge.getRoutes(stopWaypoint.direction).findOverlappingIntervals(
-                            routeFragment -> {
-                                var trackOffset = stopWaypoint.offset - routeFragment.begin;
-                                if (routeFragment.direction == EdgeDirection.STOP_TO_START)
-                                    trackOffset = routeFragment.end - stopWaypoint.offset;
-                                var offset = routeFragment.routeOffset + trackOffset;
-                                stopWaypoints.add(new RouteLocation(routeFragment.route, offset));
-                            },
-                            stopWaypoint.offset,
-                            stopWaypoint.offset
-                    );
+                    addRouteLocations(edge, stopWaypoint, stopWaypoints);
                 }
                 waypoints[i] = stopWaypoints;
             }
 
             var costFunction = new DistCostFunction<Route>();
-            var candidatePaths = Dijkstra.<Route>makePriorityQueue();
+            var candidatePaths = new ArrayList<BasicPathNode<Route>>();
             for (var startWaypoint : waypoints[0])
                 candidatePaths.add(new BasicPathNode<>(startWaypoint.route, startWaypoint.offset));
 
@@ -178,43 +234,16 @@ public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
 
             var finalPathsToGoal = filterPathSteps(pathsToGoal);
 
-            var res = new PathfindingResult();
-            for (var path : finalPathsToGoal) {
-                var routeBeginLoc = pathNodeToRouteLocation(path.pathNodes.get(0));
-                var beginLoc = routeBeginLoc.getTrackSectionLocation();
-                var routeEndLoc = pathNodeToRouteLocation(path.pathNodes.get(path.pathNodes.size() - 1));
-                var endLoc = routeEndLoc.getTrackSectionLocation();
-
-                var routes = new ArrayList<Route>();
-                for (var node : path.pathNodes) {
-                    if (routes.isEmpty() || routes.get(routes.size() - 1) != node.edge)
-                        routes.add(node.edge);
-                }
+            var res = makeResult(finalPathsToGoal);
 
-                for (int j = 0; j < routes.size(); j++) {
-                    TrackSectionLocation begin = null;
-                    TrackSectionLocation end = null;
-                    if (j == 0)
-                        begin = beginLoc;
-                    if (j == routes.size() - 1)
-                        end = endLoc;
-                    var route = routes.get(j);
-                    var trackSections = Route.routesToTrackSectionRange(
-                            Collections.singletonList(route), begin, end);
-                    if (j == 0) {
-                        // Add the given origin location to the steps output
-                        var firstTrack = trackSections.get(0);
-                        var newStep = new PathfindingResult.StepResult(firstTrack.edge, firstTrack.getBeginPosition());
-                        res.addStep(newStep);
-                    }
-                    res.add(route, trackSections);
-                    if (j == routes.size() - 1) {
-                        // Add the given destination location to the steps output
-                        var lastTrack = trackSections.get(trackSections.size() - 1);
-                        var newStep = new PathfindingResult.StepResult(lastTrack.edge, lastTrack.getEndPosition());
-                        res.addStep(newStep);
-                    }
-                }
+            var maxAlternatives = Math.min(request.maxAlternatives, MAX_ALTERNATIVES);
+            if (maxAlternatives > 0) {
+                var maxOverlap = request.maxOverlap == null ? DEFAULT_MAX_OVERLAP : request.maxOverlap;
+                var alternatives = new ArrayList<PathfindingResult>();
+                var stepPaths = new ArrayList<>(finalPathsToGoal);
+                for (var alternative : findAlternatives(infra, stepPaths, maxAlternatives, maxOverlap))
+                    alternatives.add(makeResult(alternative));
+                res.alternatives = alternatives;
             }
             return new RsJson(new RsWithBody(adapterResult.toJson(res)));
         } catch (Throwable ex) {
@@ -223,6 +252,124 @@ public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
         }
     }
 
+    /** Creates the result of a path, given the path of each step */
+    private PathfindingResult makeResult(Collection<FullPathArray<Route, BasicPathNode<Route>>> stepPaths) {
+        var res = new PathfindingResult();
+        for (var path : stepPaths) {
+            var routeBeginLoc = pathNodeToRouteLocation(path.pathNodes.get(0));
+            var beginLoc = routeBeginLoc.getTrackSectionLocation();
+            var routeEndLoc = pathNodeToRouteLocation(path.pathNodes.get(path.pathNodes.size() - 1));
+            var endLoc = routeEndLoc.getTrackSectionLocation();
+
+            var routes = new ArrayList<Route>();
+            for (var node : path.pathNodes) {
+                if (routes.isEmpty() || routes.get(routes.size() - 1) != node.edge)
+                    routes.add(node.edge);
+            }
+
+            for (int j = 0; j < routes.size(); j++) {
+                TrackSectionLocation begin = null;
+                TrackSectionLocation end = null;
+                if (j == 0)
+                    begin = beginLoc;
+                if (j == routes.size() - 1)
+                    end = endLoc;
+                var route = routes.get(j);
+                var trackSections = Route.routesToTrackSectionRange(
+                        Collections.singletonList(route), begin, end);
+                if (j == 0) {
+                    // Add the given origin location to the steps output
+                    var firstTrack = trackSections.get(0);
+                    var newStep = new PathfindingResult.StepResult(firstTrack.edge, firstTrack.getBeginPosition());
+                    res.addStep(newStep);
+                }
+                res.add(route, trackSections);
+                if (j == routes.size() - 1) {
+                    // Add the given destination location to the steps output
+                    var lastTrack = trackSections.get(trackSections.size() - 1);
+                    var newStep = new PathfindingResult.StepResult(lastTrack.edge, lastTrack.getEndPosition());
+                    res.addStep(newStep);
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Finds the shortest alternatives to a path, which go through the same locations at each step.
+     * Each alternative only differs from the path on a single step, and is one of the shortest loopless paths
+     * of this step. Alternatives which share more than maxOverlap of their length with the path, or with
+     * a shorter alternative, are skipped.
+     */
+    private static List<List<FullPathArray<Route, BasicPathNode<Route>>>> findAlternatives(
+            Infra infra,
+            List<FullPathArray<Route, BasicPathNode<Route>>> stepPaths,
+            int maxAlternatives,
+            double maxOverlap
+    ) {
+        var costFunction = new DistCostFunction<Route>();
+        var candidates = new ArrayList<List<FullPathArray<Route, BasicPathNode<Route>>>>();
+        for (int i = 0; i < stepPaths.size(); i++) {
+            var shortestStepPaths = KShortestPaths.find(
+                    infra.routeGraph,
+                    costFunction,
+                    stepPaths.get(i).end,
+                    1 + maxAlternatives * CANDIDATES_PER_ALTERNATIVE);
+            for (int j = 1; j < shortestStepPaths.size(); j++) {
+                var candidate = new ArrayList<>(stepPaths);
+                candidate.set(i, FullPathArray.from(shortestStepPaths.get(j)));
+                candidates.add(candidate);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(PathfindingRoutesEndpoint::getCost));
+
+        var keptRoutes = new ArrayList<Set<Route>>();
+        keptRoutes.add(getRoutes(stepPaths));
+        var res = new ArrayList<List<FullPathArray<Route, BasicPathNode<Route>>>>();
+        for (var candidate : candidates) {
+            if (res.size() == maxAlternatives)
+                break;
+            var routes = getRoutes(candidate);
+            var length = getLength(routes);
+            var overlaps = false;
+            for (var otherRoutes : keptRoutes) {
+                var sharedRoutes = new HashSet<>(routes);
+                sharedRoutes.retainAll(otherRoutes);
+                if (getLength(sharedRoutes) > maxOverlap * length) {
+                    overlaps = true;
+                    break;
+                }
+            }
+            if (overlaps)
+                continue;
+            keptRoutes.add(routes);
+            res.add(candidate);
+        }
+        return res;
+    }
+
+    private static double getCost(List<FullPathArray<Route, BasicPathNode<Route>>> stepPaths) {
+        var res = 0.;
+        for (var stepPath : stepPaths)
+            res += stepPath.end.cost;
+        return res;
+    }
+
+    private static Set<Route> getRoutes(List<FullPathArray<Route, BasicPathNode<Route>>> stepPaths) {
+        var res = new HashSet<Route>();
+        for (var stepPath : stepPaths)
+            for (var node : stepPath.pathNodes)
+                res.add(node.edge);
+        return res;
+    }
+
+    private static double getLength(Set<Route> routes) {
+        var res = 0.;
+        for (var route : routes)
+            res += route.length;
+        return res;
+    }
+
     /** This function select for each step the path to use. To do so we start from the end (since there is only
      *  one path). Then we take paths following the chain.
      */
@@ -261,6 +408,9 @@ public class PathfindingRoutesEndpoint extends PathfindingEndpoint {
         public final List<RouteResult> path;
         public final List<StepResult> steps;
 
+        /** Other paths through the same steps, by increasing length, if the request asked for some */
+        public List<PathfindingResult> alternatives;
+
         private PathfindingResult() {
             path = new ArrayList<>();
             steps = new ArrayList<>();
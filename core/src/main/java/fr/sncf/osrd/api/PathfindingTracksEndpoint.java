@@ -6,7 +6,9 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.api.InfraManager.InfraLoadException;
 import fr.sncf.osrd.infra.Infra;
 import fr.sncf.osrd.infra.trackgraph.TrackSection;
-import fr.sncf.osrd.utils.graph.BiDijkstra;
+import fr.sncf.osrd.utils.TrackSectionLocation;
+import fr.sncf.osrd.utils.graph.AStarHeuristic;
+import fr.sncf.osrd.utils.graph.DijkstraSearch;
 import fr.sncf.osrd.utils.graph.DistCostFunction;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
 import fr.sncf.osrd.utils.graph.path.BasicDirPathNode;
@@ -20,6 +22,7 @@ import org.takes.rs.RsWithBody;
 import org.takes.rs.RsWithStatus;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 public class PathfindingTracksEndpoint extends PathfindingEndpoint {
     public static final JsonAdapter<TrackSectionRangeResult[][]> adapterResult = new Moshi
@@ -75,32 +78,19 @@ public class PathfindingTracksEndpoint extends PathfindingEndpoint {
             }
 
             var costFunction = new DistCostFunction<TrackSection>();
-            var candidatePaths = BiDijkstra.<TrackSection>makePriorityQueue();
-            candidatePaths.addAll(waypoints[0]);
+            var startPaths = waypoints[0];
 
             var pathsToGoal = new ArrayList<BasicDirPathNode<TrackSection>>();
 
             // Compute the paths from the entry waypoint to the exit waypoint
             for (int i = 1; i < waypoints.length; i++) {
                 var destinationWaypoints = waypoints[i];
-
-                var found = BiDijkstra.findPaths(
+                var found = DijkstraSearch.findPaths(
                         infra.trackGraph,
-                        candidatePaths,
+                        startPaths,
                         costFunction,
-                        (pathNode) -> {
-                            for (var goalEdge : destinationWaypoints) {
-                                if (goalEdge.edge != pathNode.edge)
-                                    continue;
-                                var addedCost = costFunction.evaluate(
-                                        goalEdge.edge,
-                                        pathNode.position,
-                                        goalEdge.edge.length
-                                );
-                                return pathNode.end(addedCost, goalEdge.edge, goalEdge.position, goalEdge.direction);
-                            }
-                            return null;
-                        },
+                        makeHeuristic(infra, destinationWaypoints),
+                        destinationWaypoints,
                         (pathToGoal) -> {
                             pathsToGoal.add(pathToGoal);
                             return false;
@@ -109,10 +99,9 @@ public class PathfindingTracksEndpoint extends PathfindingEndpoint {
                 if (found == 0)
                     return new RsWithStatus(new RsText("No path could be found"), 400);
 
-                candidatePaths.clear();
                 var lastStop = pathsToGoal.get(pathsToGoal.size() - 1);
                 var newCandidate = new BasicDirPathNode<>(lastStop.edge, lastStop.position, lastStop.direction);
-                candidatePaths.add(newCandidate);
+                startPaths = new ArrayList<>(List.of(newCandidate));
             }
 
             var result = new TrackSectionRangeResult[reqWaypoints.length - 1][];
@@ -128,6 +117,19 @@ public class PathfindingTracksEndpoint extends PathfindingEndpoint {
         }
     }
 
+    /** Creates an A* estimate of the distance to the goals, if the infra has coordinates */
+    private static AStarHeuristic<TrackSection> makeHeuristic(
+            Infra infra,
+            ArrayList<BasicDirPathNode<TrackSection>> goals
+    ) {
+        if (infra.trackGeometry == null)
+            return null;
+        var goalLocations = new ArrayList<TrackSectionLocation>();
+        for (var goal : goals)
+            goalLocations.add(new TrackSectionLocation(goal.edge, goal.position));
+        return infra.trackGeometry.heuristic(goalLocations);
+    }
+
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
     private TrackSectionRangeResult[] fullPathToTrackSectionRange(
             FullPathArray<TrackSection, BasicDirPathNode<TrackSection>> path
@@ -0,0 +1,183 @@
+package fr.sncf.osrd.api;
+
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.api.InfraManager.InfraLoadException;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResult;
+import fr.sncf.osrd.infra.Infra;
+import fr.sncf.osrd.railjson.parser.RJSRollingStockParser;
+import fr.sncf.osrd.railjson.parser.RJSSimulationParser;
+import fr.sncf.osrd.railjson.parser.exceptions.InvalidRollingStock;
+import fr.sncf.osrd.railjson.schema.RJSSimulation;
+import fr.sncf.osrd.railjson.schema.common.ID;
+import fr.sncf.osrd.railjson.schema.rollingstock.RJSRollingResistance;
+import fr.sncf.osrd.railjson.schema.rollingstock.RJSRollingStock;
+import fr.sncf.osrd.railjson.schema.schedule.RJSAllowance;
+import fr.sncf.osrd.railjson.schema.schedule.RJSTrainPhase;
+import fr.sncf.osrd.railjson.schema.schedule.RJSTrainSchedule;
+import fr.sncf.osrd.railjson.schema.successiontable.RJSTrainSuccessionTable;
+import fr.sncf.osrd.train.RollingStock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqPrint;
+import org.takes.rs.RsJson;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithBody;
+import org.takes.rs.RsWithStatus;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent simulations on the same infra, in parallel.
+ * Rolling stocks are parsed once, and shared by all the scenarios.
+ */
+public class SimulationBatchEndpoint implements Take {
+    static final Logger logger = LoggerFactory.getLogger(SimulationBatchEndpoint.class);
+
+    private final InfraManager infraManager;
+
+    /** The pool scenarios are simulated on, which is shared by all concurrent requests */
+    private final ForkJoinPool pool;
+
+    public static final JsonAdapter<BatchSimulationRequest> adapterRequest = new Moshi
+            .Builder()
+            .add(ID.Adapter.FACTORY)
+            .add(RJSRollingResistance.adapter)
+            .add(RJSTrainPhase.adapter)
+            .add(RJSAllowance.adapter)
+            .build()
+            .adapter(BatchSimulationRequest.class);
+
+    public static final JsonAdapter<BatchSimulationResult> adapterResult = new Moshi
+            .Builder()
+            .build()
+            .adapter(BatchSimulationResult.class);
+
+    /** Creates a batch simulation endpoint, which runs as many simulations as there are processors */
+    public SimulationBatchEndpoint(InfraManager infraManager) {
+        this(infraManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SimulationBatchEndpoint(InfraManager infraManager, int parallelism) {
+        this.infraManager = infraManager;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public Response act(Request req) throws IOException, InvalidRollingStock, InterruptedException {
+        // Parse request input
+        var body = new RqPrint(req).printBody();
+        var request = adapterRequest.fromJson(body);
+        if (request == null)
+            return new RsWithStatus(new RsText("missing request body"), 400);
+        if (request.scenarios == null)
+            return new RsWithStatus(new RsText("missing scenarios"), 400);
+
+        // load infra
+        Infra infra;
+        try {
+            infra = infraManager.load(request.infra);
+        } catch (InfraLoadException | InterruptedException e) {
+            return new RsWithStatus(new RsText(
+                    String.format("Error loading infrastructure '%s'%n%s", request.infra, e.getMessage())), 400);
+        }
+
+        // parse the rolling stocks once for all the scenarios
+        var rollingStocks = new HashMap<String, RollingStock>();
+        if (request.rollingStocks != null) {
+            for (var rjsRollingStock : request.rollingStocks) {
+                var rollingStock = RJSRollingStockParser.parse(rjsRollingStock);
+                rollingStocks.put(rollingStock.id, rollingStock);
+            }
+        }
+
+        // start all the simulations
+        var simulations = new HashMap<String, Future<SimulationResult>>();
+        for (var scenarioEntry : request.scenarios.entrySet()) {
+            var scenario = scenarioEntry.getValue();
+            simulations.put(scenarioEntry.getKey(), pool.submit(() -> {
+                var rjsSimulation = new RJSSimulation(
+                        new ArrayList<>(), scenario.trainSchedules, scenario.trainSuccessionTables);
+                var trainSchedules = RJSSimulationParser.parse(infra, rjsSimulation, rollingStocks);
+                var trainSuccessionTables = RJSSimulationParser.parseTrainSuccessionTables(rjsSimulation);
+                return SimulationEndpoint.simulate(infra, trainSchedules, trainSuccessionTables);
+            }));
+        }
+
+        // wait for the results. a failed scenario doesn't prevent others from completing
+        var result = new BatchSimulationResult();
+        for (var simulationEntry : simulations.entrySet()) {
+            var scenarioName = simulationEntry.getKey();
+            try {
+                result.results.put(scenarioName, simulationEntry.getValue().get());
+            } catch (ExecutionException e) {
+                logger.warn("scenario {} failed", scenarioName, e.getCause());
+                result.errors.put(scenarioName, e.getCause().toString());
+            }
+        }
+        return new RsJson(new RsWithBody(adapterResult.toJson(result)));
+    }
+
+    @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public static final class BatchSimulationRequest {
+        /** Infra id */
+        public final String infra;
+
+        /** The rolling stocks used by the scenarios */
+        @Json(name = "rolling_stocks")
+        public List<RJSRollingStock> rollingStocks;
+
+        /** The simulations to run, by scenario name */
+        public Map<String, BatchScenario> scenarios;
+
+        /** Create BatchSimulationRequest */
+        public BatchSimulationRequest(
+                String infra,
+                List<RJSRollingStock> rollingStocks,
+                Map<String, BatchScenario> scenarios
+        ) {
+            this.infra = infra;
+            this.rollingStocks = rollingStocks;
+            this.scenarios = scenarios;
+        }
+    }
+
+    @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public static final class BatchScenario {
+        /** A list of trains plannings */
+        @Json(name = "train_schedules")
+        public List<RJSTrainSchedule> trainSchedules;
+
+        /** A list of trains successions tables */
+        @Json(name = "train_succession_tables")
+        public List<RJSTrainSuccessionTable> trainSuccessionTables;
+
+        public BatchScenario(
+                List<RJSTrainSchedule> trainSchedules,
+                List<RJSTrainSuccessionTable> trainSuccessionTables
+        ) {
+            this.trainSchedules = trainSchedules;
+            this.trainSuccessionTables = trainSuccessionTables;
+        }
+    }
+
+    @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public static final class BatchSimulationResult {
+        /** The results of the successful scenarios */
+        public Map<String, SimulationResult> results = new HashMap<>();
+
+        /** The error messages of the failed scenarios */
+        public Map<String, String> errors = new HashMap<>();
+    }
+}
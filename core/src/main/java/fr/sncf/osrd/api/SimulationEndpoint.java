@@ -1,5 +1,6 @@
 package fr.sncf.osrd.api;
 
+import com.carrotsearch.hppc.DoubleArrayList;
 import com.squareup.moshi.Json;
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
@@ -9,6 +10,7 @@ import fr.sncf.osrd.train.TrainSchedule;
 import fr.sncf.osrd.api.InfraManager.InfraLoadException;
 import fr.sncf.osrd.infra.Infra;
 import fr.sncf.osrd.infra.routegraph.Route;
+import fr.sncf.osrd.infra_state.regulator.TrainSuccessionTable;
 import fr.sncf.osrd.infra_state.routes.RouteState;
 import fr.sncf.osrd.infra_state.routes.RouteStatus;
 import fr.sncf.osrd.infra_state.SignalState;
@@ -30,18 +32,24 @@ import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.changelog.ChangeConsumer;
 import fr.sncf.osrd.simulation.changelog.ChangeConsumerMultiplexer;
 import fr.sncf.osrd.train.Train;
+import fr.sncf.osrd.train.TrainPath;
 import fr.sncf.osrd.train.events.TrainCreatedEvent;
 import fr.sncf.osrd.utils.CurveSimplification;
 import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
+import org.takes.rq.RqHeaders;
 import org.takes.rq.RqPrint;
 import org.takes.rs.RsJson;
 import org.takes.rs.RsText;
 import org.takes.rs.RsWithBody;
+import org.takes.rs.RsWithHeader;
 import org.takes.rs.RsWithStatus;
+import org.takes.rs.RsWithType;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 
 public class SimulationEndpoint implements Take {
     private final InfraManager infraManager;
@@ -93,34 +101,79 @@ public class SimulationEndpoint implements Take {
             var trainSchedules = RJSSimulationParser.parse(infra, rjsSimulation);
             var trainSuccessionTables = RJSSimulationParser.parseTrainSuccessionTables(rjsSimulation);
 
-            // create the simulation and his changelog
-            var changeConsumers = new ArrayList<ChangeConsumer>();
-            var multiplexer = new ChangeConsumerMultiplexer(changeConsumers);
-            var sim = Simulation.createFromInfraAndSuccessions(infra, trainSuccessionTables, 0, multiplexer);
-            var resultLog = new ArrayResultLog(infra, sim);
-            multiplexer.add(resultLog);
-
-            // insert the train start events into the simulation
-            for (var trainSchedule : trainSchedules)
-                TrainCreatedEvent.plan(sim, trainSchedule);
-
-            // run the simulation loop
-            while (!sim.isSimulationOver())
-                sim.step();
-
-            // Check number of reached stops is what we expect
-            resultLog.validate();
-
-            // Simplify data
-            resultLog.simplify();
+            // the results can be streamed while the simulation runs
+            if (accepts(req, SimulationResultStream.MEDIA_TYPE)) {
+                var resultStream = new SimulationResultStream(infra, trainSchedules, trainSuccessionTables);
+                return new RsWithType(new RsWithBody(resultStream), SimulationResultStream.MEDIA_TYPE);
+            }
 
-            return new RsJson(new RsWithBody(adapterResult.toJson(resultLog.result)));
+            var result = simulate(infra, trainSchedules, trainSuccessionTables);
+            if (accepts(req, SimulationResultColumnar.MEDIA_TYPE))
+                return columnarResponse(req, result);
+            return new RsJson(new RsWithBody(adapterResult.toJson(result)));
         } catch (Throwable ex) {
             ex.printStackTrace(System.err);
             throw ex;
         }
     }
 
+    /** Checks whether the client accepts the given media type */
+    static boolean accepts(Request req, String mediaType) throws IOException {
+        return hasHeaderValue(req, "Accept", mediaType);
+    }
+
+    private static boolean hasHeaderValue(Request req, String header, String value) throws IOException {
+        for (var headerValue : new RqHeaders.Base(req).header(header))
+            if (headerValue.contains(value))
+                return true;
+        return false;
+    }
+
+    /** Encodes the result in the columnar format, compressed if the client supports it */
+    private static Response columnarResponse(Request req, SimulationResult result) throws IOException {
+        var encoded = SimulationResultColumnar.encode(result);
+        Response response;
+        if (hasHeaderValue(req, "Accept-Encoding", "gzip")) {
+            var compressed = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(encoded);
+            }
+            response = new RsWithHeader(new RsWithBody(compressed.toByteArray()), "Content-Encoding", "gzip");
+        } else {
+            response = new RsWithBody(encoded);
+        }
+        return new RsWithType(response, SimulationResultColumnar.MEDIA_TYPE);
+    }
+
+    /** Runs a simulation of the given trains, and returns its simplified results */
+    public static SimulationResult simulate(
+            Infra infra,
+            List<TrainSchedule> trainSchedules,
+            List<TrainSuccessionTable> trainSuccessionTables
+    ) throws SimulationError {
+        // create the simulation and his changelog
+        var changeConsumers = new ArrayList<ChangeConsumer>();
+        var multiplexer = new ChangeConsumerMultiplexer(changeConsumers);
+        var sim = Simulation.createFromInfraAndSuccessions(infra, trainSuccessionTables, 0, multiplexer);
+        var resultLog = new ArrayResultLog(infra, sim);
+        multiplexer.add(resultLog);
+
+        // insert the train start events into the simulation
+        for (var trainSchedule : trainSchedules)
+            TrainCreatedEvent.plan(sim, trainSchedule);
+
+        // run the simulation loop
+        while (!sim.isSimulationOver())
+            sim.step();
+
+        // Check number of reached stops is what we expect
+        resultLog.validate();
+
+        // Simplify data
+        resultLog.simplify();
+        return resultLog.result;
+    }
+
 
 
     @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
@@ -173,11 +226,38 @@ public class SimulationEndpoint implements Take {
         public final HashMap<String, TrainSchedule> trainSchedules = new HashMap<>();
         public final Simulation sim;
 
+        /** The raw position and speed updates of the trains which weren't simplified yet */
+        private final HashMap<String, TrainLog> trainLogs = new HashMap<>();
+
         public ArrayResultLog(Infra infra, Simulation sim) {
             this.infra = infra;
             this.sim = sim;
         }
 
+        /**
+         * The positions and speeds of a train, as they are logged.
+         * Locations on track sections are only resolved once the curves are simplified,
+         * as most points are dropped by the simplification.
+         */
+        private static final class TrainLog {
+            final TrainSchedule schedule;
+            final DoubleArrayList times = new DoubleArrayList();
+            final DoubleArrayList headPositions = new DoubleArrayList();
+            final DoubleArrayList tailPositions = new DoubleArrayList();
+            final DoubleArrayList speeds = new DoubleArrayList();
+
+            TrainLog(TrainSchedule schedule) {
+                this.schedule = schedule;
+            }
+
+            void add(double time, double headPosition, double tailPosition, double speed) {
+                times.add(time);
+                headPositions.add(headPosition);
+                tailPositions.add(tailPosition);
+                speeds.add(speed);
+            }
+        }
+
         /** Returns the train result for a given train */
         public SimulationResultTrain getTrainResult(String trainId) {
             var trainResult = result.trains.get(trainId);
@@ -190,19 +270,37 @@ public class SimulationEndpoint implements Take {
 
         /** Ensures that the results are valid, throws a SimulationError otherwise */
         public void validate() throws SimulationError {
-            for (var trainName : result.trains.keySet()) {
-                var trainResult = result.trains.get(trainName);
-                var nStopReached = trainResult.stopReaches.size();
-                var trainSchedule = trainSchedules.get(trainName);
-                var expectedStopReached = trainSchedule.stops.size();
-                if (nStopReached != expectedStopReached) {
-                    var err = String.format("Train '%s', unexpected stop number: expected %d, got %d",
-                            trainName, expectedStopReached, nStopReached);
-                    throw new SimulationError(err);
-                }
+            for (var trainName : result.trains.keySet())
+                validate(trainName);
+        }
+
+        /** Ensures that the results of a train are valid, throws a SimulationError otherwise */
+        public void validate(String trainName) throws SimulationError {
+            var trainResult = result.trains.get(trainName);
+            var nStopReached = trainResult.stopReaches.size();
+            var trainSchedule = trainSchedules.get(trainName);
+            var expectedStopReached = trainSchedule.stops.size();
+            if (nStopReached != expectedStopReached) {
+                var err = String.format("Train '%s', unexpected stop number: expected %d, got %d",
+                        trainName, expectedStopReached, nStopReached);
+                throw new SimulationError(err);
             }
         }
 
+        /** The only changes the results are built from, the others don't need to be created */
+        private static final Set<Class<? extends Change>> CONSUMED_CHANGES = Set.of(
+                RouteState.RouteStatusChange.class,
+                Train.TrainStateChange.class,
+                TrainCreatedEvent.TrainPlannedCreation.class,
+                SignalState.SignalAspectChange.class,
+                RestartTrainPlanned.class
+        );
+
+        @Override
+        public boolean consumes(Class<? extends Change> changeType) {
+            return CONSUMED_CHANGES.contains(changeType);
+        }
+
         @Override
         public void changeCreationCallback(Change change) { }
 
@@ -216,13 +314,11 @@ public class SimulationEndpoint implements Take {
                 result.routesStatus.add(new SimulationResultRouteStatus(sim.getTime(), route, newStatus));
             } else if (change.getClass() == Train.TrainStateChange.class) {
                 var trainStateChange = (Train.TrainStateChange) change;
-                var trainResult = getTrainResult(trainStateChange.trainID);
-                var train = trainSchedules.get(trainStateChange.trainID);
+                var trainLog = trainLogs.get(trainStateChange.trainID);
+                var trainLength = trainLog.schedule.rollingStock.length;
                 for (var pos : trainStateChange.positionUpdates) {
-                    trainResult.headPositions.add(new SimulationResultPosition(pos.time, pos.pathPosition, train));
-                    var tailPathPosition = Math.max(0, pos.pathPosition - train.rollingStock.length);
-                    trainResult.tailPositions.add(new SimulationResultPosition(pos.time, tailPathPosition, train));
-                    trainResult.speeds.add(new SimulationResultSpeed(pos.time, pos.speed, pos.pathPosition));
+                    var tailPathPosition = Math.max(0, pos.pathPosition - trainLength);
+                    trainLog.add(pos.time, pos.pathPosition, tailPathPosition, pos.speed);
                 }
             } else if (change.getClass() == TrainCreatedEvent.TrainPlannedCreation.class) {
                 // Cache train schedule
@@ -230,11 +326,11 @@ public class SimulationEndpoint implements Take {
                 trainSchedules.put(trainCreationPlanned.schedule.trainID, trainCreationPlanned.schedule);
                 // Initial position and speed
                 var train = trainCreationPlanned.schedule;
-                var trainResult = getTrainResult(train.trainID);
+                getTrainResult(train.trainID);
+                var trainLog = new TrainLog(train);
+                trainLogs.put(train.trainID, trainLog);
                 var creationTime = trainCreationPlanned.eventId.scheduledTime;
-                trainResult.headPositions.add(new SimulationResultPosition(creationTime, 0, train));
-                trainResult.tailPositions.add(new SimulationResultPosition(creationTime, 0, train));
-                trainResult.speeds.add(new SimulationResultSpeed(creationTime, train.initialSpeed, 0));
+                trainLog.add(creationTime, 0, 0, train.initialSpeed);
             } else if (change.getClass() == SignalState.SignalAspectChange.class) {
                 var aspectChange = (SignalState.SignalAspectChange) change;
                 var signal = infra.signals.get(aspectChange.signalIndex).id;
@@ -251,42 +347,73 @@ public class SimulationEndpoint implements Take {
             }
         }
 
-        private ArrayList<SimulationResultPosition> simplifyPositions(
-                ArrayList<SimulationResultPosition> positions) {
-            return CurveSimplification.rdp(
-                    positions,
+        /** Simplifies a position curve, and resolves the track locations of the remaining points */
+        private static ArrayList<SimulationResultPosition> simplifyPositions(
+                TrainSchedule schedule,
+                double[] times,
+                double[] positions,
+                int size
+        ) {
+            var kept = CurveSimplification.rdpIndexes(
+                    size,
                     5.,
                     (point, start, end) -> {
-                        if (Math.abs(start.time - end.time) < 0.000001)
-                            return Math.abs(point.pathOffset - start.pathOffset);
-                        var proj = start.pathOffset + (point.time - start.time)
-                                * (end.pathOffset - start.pathOffset) / (end.time - start.time);
-                        return Math.abs(point.pathOffset - proj);
+                        if (Math.abs(times[start] - times[end]) < 0.000001)
+                            return Math.abs(positions[point] - positions[start]);
+                        var proj = positions[start] + (times[point] - times[start])
+                                * (positions[end] - positions[start]) / (times[end] - times[start]);
+                        return Math.abs(positions[point] - proj);
                     }
             );
+            var cursor = new TrainPath.LocationCursor(schedule.plannedPath);
+            var res = new ArrayList<SimulationResultPosition>(kept.length);
+            for (var index : kept) {
+                var location = cursor.findLocation(positions[index]);
+                res.add(new SimulationResultPosition(
+                        times[index], positions[index], location.edge.id, location.offset));
+            }
+            return res;
         }
 
         /** Simplifies the results using the Ramer-Douglas-Peucker algorithm */
         public ArrayResultLog simplify() {
-            for (var train : result.trains.values()) {
-                train.headPositions = simplifyPositions((ArrayList<SimulationResultPosition>) train.headPositions);
-                train.tailPositions = simplifyPositions((ArrayList<SimulationResultPosition>) train.tailPositions);
-
-                var speeds = (ArrayList<SimulationResultSpeed>) train.speeds;
-                train.speeds = CurveSimplification.rdp(
-                        speeds,
-                        0.2,
-                        (point, start, end) -> {
-                            if (Math.abs(start.position - end.position) < 0.000001)
-                                return Math.abs(point.speed - start.speed);
-                            var proj = start.speed + (point.position - start.position)
-                                    * (end.speed - start.speed) / (end.position - start.position);
-                            return Math.abs(point.speed - proj);
-                        }
-                );
-            }
+            for (var trainId : result.trains.keySet())
+                simplify(trainId);
             return this;
         }
+
+        /**
+         * Simplifies the results of a single train using the Ramer-Douglas-Peucker algorithm.
+         * The raw positions of the train are dropped once simplified.
+         */
+        public void simplify(String trainId) {
+            var trainLog = trainLogs.remove(trainId);
+            if (trainLog == null)
+                return;
+            var train = result.trains.get(trainId);
+            var size = trainLog.times.size();
+            var times = trainLog.times.buffer;
+            var headPositions = trainLog.headPositions.buffer;
+            train.headPositions = simplifyPositions(trainLog.schedule, times, headPositions, size);
+            train.tailPositions = simplifyPositions(trainLog.schedule, times, trainLog.tailPositions.buffer, size);
+
+            var speeds = trainLog.speeds.buffer;
+            var kept = CurveSimplification.rdpIndexes(
+                    size,
+                    0.2,
+                    (point, start, end) -> {
+                        if (Math.abs(headPositions[start] - headPositions[end]) < 0.000001)
+                            return Math.abs(speeds[point] - speeds[start]);
+                        var proj = speeds[start] + (headPositions[point] - headPositions[start])
+                                * (speeds[end] - speeds[start]) / (headPositions[end] - headPositions[start]);
+                        return Math.abs(speeds[point] - proj);
+                    }
+            );
+            var simplifiedSpeeds = new ArrayList<SimulationResultSpeed>(kept.length);
+            for (var index : kept)
+                simplifiedSpeeds.add(new SimulationResultSpeed(times[index], speeds[index], headPositions[index]));
+            train.speeds = simplifiedSpeeds;
+        }
     }
 
     @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
@@ -331,12 +458,11 @@ public class SimulationEndpoint implements Take {
         @Json(name = "path_offset")
         public final double pathOffset;
 
-        SimulationResultPosition(double time, double pathOffset, TrainSchedule trainSchedule) {
+        SimulationResultPosition(double time, double pathOffset, String trackSection, double offset) {
             this.time = time;
             this.pathOffset = pathOffset;
-            var location = trainSchedule.plannedPath.findLocation(pathOffset);
-            this.trackSection = location.edge.id;
-            this.offset = location.offset;
+            this.trackSection = trackSection;
+            this.offset = offset;
         }
     }
 
@@ -368,6 +494,24 @@ public class SimulationEndpoint implements Take {
             this.endTrackSection = end.edge.id;
             this.endOffset = end.getEndPosition();
         }
+
+        SimulationResultRouteStatus(
+                double time,
+                String routeId,
+                RouteStatus status,
+                String startTrackSection,
+                double startOffset,
+                String endTrackSection,
+                double endOffset
+        ) {
+            this.time = time;
+            this.routeId = routeId;
+            this.status = status;
+            this.startTrackSection = startTrackSection;
+            this.startOffset = startOffset;
+            this.endTrackSection = endTrackSection;
+            this.endOffset = endOffset;
+        }
     }
 
     @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
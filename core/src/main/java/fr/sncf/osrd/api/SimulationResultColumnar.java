@@ -0,0 +1,398 @@
+package fr.sncf.osrd.api;
+
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResult;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultPosition;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultRouteStatus;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultSignalChange;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultSpeed;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultStopReach;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultTrain;
+import fr.sncf.osrd.infra_state.routes.RouteStatus;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>A compact binary encoding of simulation results, which avoids repeating field names for every point.</p>
+ *
+ * <p>Doubles are big endian, integers are unsigned variable length integers (7 bits per byte, least significant
+ * group first, with the high bit set on all the bytes but the last). The layout is the following:</p>
+ * <ul>
+ *  <li>the magic bytes and the version of the format, as a big endian int</li>
+ *  <li>a dictionary of all the strings of the result (identifiers, route statuses and aspects).
+ *      Strings are referred to by their index in the dictionary everywhere else</li>
+ *  <li>the trains, each with its speeds, head positions, tail positions and stop reaches</li>
+ *  <li>the route status changes and the signal changes</li>
+ * </ul>
+ *
+ * <p>Curves are stored as columns: all the times, then all the offsets, and so on.
+ * The doubles of a column are XOR encoded, as in Gorilla: each value is stored as the bitwise XOR with the previous
+ * one of the column. Close values share their sign, exponent and high mantissa bits, and values with a short
+ * mantissa end with zeros, so only the meaningful bits between these runs of zeros are written:</p>
+ * <ul>
+ *  <li>0 if the value is the same as the previous one</li>
+ *  <li>10, then the meaningful bits, if they fit between the runs of zeros of the last value which had 11</li>
+ *  <li>11, then the number of leading zeros (6 bits), the number of meaningful bits minus one (6 bits),
+ *      then the meaningful bits</li>
+ * </ul>
+ * <p>Each column is padded with zeros to a whole number of bytes. Unlike a subtraction, the XOR is lossless.
+ * Simplified curves are mostly made of unrelated doubles, which only lose their shared high bits:
+ * clients which send Accept-Encoding: gzip get a compressed response.</p>
+ */
+public final class SimulationResultColumnar {
+    public static final String MEDIA_TYPE = "application/x-osrd-columnar";
+
+    static final String MAGIC = "OSRDSIMRESULT";
+
+    /** Must be incremented on every change of the format */
+    static final int FORMAT_VERSION = 2;
+
+    private SimulationResultColumnar() {
+    }
+
+    /** Assigns an index to each distinct string, in order of first appearance */
+    private static final class StringDictionary {
+        final HashMap<String, Integer> indexes = new HashMap<>();
+        final ArrayList<String> strings = new ArrayList<>();
+
+        void add(String value) {
+            if (indexes.putIfAbsent(value, strings.size()) == null)
+                strings.add(value);
+        }
+
+        int indexOf(String value) {
+            return indexes.get(value);
+        }
+    }
+
+    private static StringDictionary buildDictionary(SimulationResult result) {
+        var dictionary = new StringDictionary();
+        for (var trainEntry : result.trains.entrySet()) {
+            dictionary.add(trainEntry.getKey());
+            var train = trainEntry.getValue();
+            for (var position : train.headPositions)
+                dictionary.add(position.trackSection);
+            for (var position : train.tailPositions)
+                dictionary.add(position.trackSection);
+        }
+        for (var routeStatus : result.routesStatus) {
+            dictionary.add(routeStatus.routeId);
+            dictionary.add(routeStatus.status.name());
+            dictionary.add(routeStatus.startTrackSection);
+            dictionary.add(routeStatus.endTrackSection);
+        }
+        for (var signalChange : result.signalChanges) {
+            dictionary.add(signalChange.signalId);
+            for (var aspect : signalChange.aspects)
+                dictionary.add(aspect);
+        }
+        return dictionary;
+    }
+
+    /** Encodes simulation results */
+    public static byte[] encode(SimulationResult result) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        out.writeBytes(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+
+        var dictionary = buildDictionary(result);
+        writeVarInt(out, dictionary.strings.size());
+        for (var value : dictionary.strings)
+            out.writeUTF(value);
+
+        writeVarInt(out, result.trains.size());
+        for (var trainEntry : result.trains.entrySet()) {
+            writeVarInt(out, dictionary.indexOf(trainEntry.getKey()));
+            var train = trainEntry.getValue();
+            writeSpeeds(out, train.speeds);
+            writePositions(out, dictionary, train.headPositions);
+            writePositions(out, dictionary, train.tailPositions);
+            writeVarInt(out, train.stopReaches.size());
+            for (var stopReach : train.stopReaches) {
+                out.writeDouble(stopReach.time);
+                writeVarInt(out, stopReach.stopIndex);
+                out.writeDouble(stopReach.position);
+            }
+        }
+
+        writeVarInt(out, result.routesStatus.size());
+        for (var routeStatus : result.routesStatus) {
+            out.writeDouble(routeStatus.time);
+            writeVarInt(out, dictionary.indexOf(routeStatus.routeId));
+            writeVarInt(out, dictionary.indexOf(routeStatus.status.name()));
+            writeVarInt(out, dictionary.indexOf(routeStatus.startTrackSection));
+            out.writeDouble(routeStatus.startOffset);
+            writeVarInt(out, dictionary.indexOf(routeStatus.endTrackSection));
+            out.writeDouble(routeStatus.endOffset);
+        }
+
+        writeVarInt(out, result.signalChanges.size());
+        for (var signalChange : result.signalChanges) {
+            out.writeDouble(signalChange.time);
+            writeVarInt(out, dictionary.indexOf(signalChange.signalId));
+            writeVarInt(out, signalChange.aspects.size());
+            for (var aspect : signalChange.aspects)
+                writeVarInt(out, dictionary.indexOf(aspect));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /** Writes an unsigned integer on as few bytes as needed, 7 bits at a time */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /** Writes bits one byte at a time, most significant bit first */
+    private static final class BitWriter {
+        private final DataOutputStream out;
+        private int pending = 0;
+        private int pendingSize = 0;
+
+        BitWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        /** Writes the bitCount low bits of a value */
+        void write(long value, int bitCount) throws IOException {
+            while (bitCount > 0) {
+                var chunkSize = Math.min(bitCount, 8 - pendingSize);
+                bitCount -= chunkSize;
+                var chunk = (int) (value >>> bitCount) & ((1 << chunkSize) - 1);
+                pending = (pending << chunkSize) | chunk;
+                pendingSize += chunkSize;
+                if (pendingSize == 8) {
+                    out.writeByte(pending);
+                    pending = 0;
+                    pendingSize = 0;
+                }
+            }
+        }
+
+        /** Writes the last bits, padded with zeros */
+        void flush() throws IOException {
+            if (pendingSize == 0)
+                return;
+            out.writeByte(pending << (8 - pendingSize));
+            pending = 0;
+            pendingSize = 0;
+        }
+    }
+
+    /** Writes a column of doubles, each XOR encoded with the previous one */
+    private static <T> void writeColumn(
+            DataOutputStream out,
+            Collection<T> items,
+            ToDoubleFunction<T> getter
+    ) throws IOException {
+        var writer = new BitWriter(out);
+        var previousBits = 0L;
+        // the runs of zeros around the meaningful bits, which are reused by the next values if they fit
+        var leadingZeros = Integer.MAX_VALUE;
+        var trailingZeros = 0;
+        for (var item : items) {
+            var bits = Double.doubleToRawLongBits(getter.applyAsDouble(item));
+            var xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                writer.write(0b0, 1);
+                continue;
+            }
+            var leading = Long.numberOfLeadingZeros(xor);
+            var trailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= leadingZeros && trailing >= trailingZeros) {
+                writer.write(0b10, 2);
+                writer.write(xor >>> trailingZeros, 64 - leadingZeros - trailingZeros);
+                continue;
+            }
+            leadingZeros = leading;
+            trailingZeros = trailing;
+            var meaningfulSize = 64 - leading - trailing;
+            writer.write(0b11, 2);
+            writer.write(leading, 6);
+            writer.write(meaningfulSize - 1, 6);
+            writer.write(xor >>> trailing, meaningfulSize);
+        }
+        writer.flush();
+    }
+
+    private static void writeSpeeds(DataOutputStream out, Collection<SimulationResultSpeed> speeds)
+            throws IOException {
+        writeVarInt(out, speeds.size());
+        writeColumn(out, speeds, speed -> speed.time);
+        writeColumn(out, speeds, speed -> speed.position);
+        writeColumn(out, speeds, speed -> speed.speed);
+    }
+
+    private static void writePositions(
+            DataOutputStream out,
+            StringDictionary dictionary,
+            Collection<SimulationResultPosition> positions
+    ) throws IOException {
+        writeVarInt(out, positions.size());
+        writeColumn(out, positions, position -> position.time);
+        writeColumn(out, positions, position -> position.pathOffset);
+        for (var position : positions)
+            writeVarInt(out, dictionary.indexOf(position.trackSection));
+        writeColumn(out, positions, position -> position.offset);
+    }
+
+    /** Decodes simulation results, mostly meant for clients and tests */
+    public static SimulationResult decode(InputStream input) throws IOException {
+        var in = new DataInputStream(input);
+        var magic = new byte[MAGIC.length()];
+        in.readFully(magic);
+        if (!MAGIC.equals(new String(magic, StandardCharsets.US_ASCII)))
+            throw new IOException("not a columnar simulation result");
+        var version = in.readInt();
+        if (version != FORMAT_VERSION)
+            throw new IOException(String.format("unsupported columnar format version %d", version));
+
+        var dictionary = new String[readVarInt(in)];
+        for (int i = 0; i < dictionary.length; i++)
+            dictionary[i] = in.readUTF();
+
+        var result = new SimulationResult();
+        var trainCount = readVarInt(in);
+        for (int i = 0; i < trainCount; i++) {
+            var trainId = dictionary[readVarInt(in)];
+            var train = new SimulationResultTrain();
+            train.speeds = readSpeeds(in);
+            train.headPositions = readPositions(in, dictionary);
+            train.tailPositions = readPositions(in, dictionary);
+            var stopReachCount = readVarInt(in);
+            for (int j = 0; j < stopReachCount; j++) {
+                var time = in.readDouble();
+                var stopIndex = readVarInt(in);
+                var position = in.readDouble();
+                train.stopReaches.add(new SimulationResultStopReach(time, stopIndex, position));
+            }
+            result.trains.put(trainId, train);
+        }
+
+        var routeStatusCount = readVarInt(in);
+        for (int i = 0; i < routeStatusCount; i++) {
+            var time = in.readDouble();
+            var routeId = dictionary[readVarInt(in)];
+            var status = RouteStatus.valueOf(dictionary[readVarInt(in)]);
+            var startTrackSection = dictionary[readVarInt(in)];
+            var startOffset = in.readDouble();
+            var endTrackSection = dictionary[readVarInt(in)];
+            var endOffset = in.readDouble();
+            result.routesStatus.add(new SimulationResultRouteStatus(
+                    time, routeId, status, startTrackSection, startOffset, endTrackSection, endOffset));
+        }
+
+        var signalChangeCount = readVarInt(in);
+        for (int i = 0; i < signalChangeCount; i++) {
+            var time = in.readDouble();
+            var signalId = dictionary[readVarInt(in)];
+            var aspects = new ArrayList<String>();
+            var aspectCount = readVarInt(in);
+            for (int j = 0; j < aspectCount; j++)
+                aspects.add(dictionary[readVarInt(in)]);
+            result.signalChanges.add(new SimulationResultSignalChange(time, signalId, aspects));
+        }
+        return result;
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        var value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            var b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("invalid variable length integer");
+    }
+
+    /** Reads bits one byte at a time, most significant bit first */
+    private static final class BitReader {
+        private final DataInputStream in;
+        private int available = 0;
+        private int availableSize = 0;
+
+        BitReader(DataInputStream in) {
+            this.in = in;
+        }
+
+        /** Reads bitCount bits, which end up in the low bits of the result */
+        long read(int bitCount) throws IOException {
+            var res = 0L;
+            while (bitCount > 0) {
+                if (availableSize == 0) {
+                    available = in.readUnsignedByte();
+                    availableSize = 8;
+                }
+                var chunkSize = Math.min(bitCount, availableSize);
+                availableSize -= chunkSize;
+                bitCount -= chunkSize;
+                var chunk = (available >>> availableSize) & ((1 << chunkSize) - 1);
+                res = (res << chunkSize) | chunk;
+            }
+            return res;
+        }
+    }
+
+    private static double[] readColumn(DataInputStream in, int size) throws IOException {
+        var reader = new BitReader(in);
+        var values = new double[size];
+        var bits = 0L;
+        var leadingZeros = 0;
+        var trailingZeros = 0;
+        for (int i = 0; i < size; i++) {
+            if (reader.read(1) != 0) {
+                if (reader.read(1) != 0) {
+                    leadingZeros = (int) reader.read(6);
+                    trailingZeros = 64 - leadingZeros - ((int) reader.read(6) + 1);
+                    if (trailingZeros < 0)
+                        throw new IOException("invalid column");
+                }
+                bits ^= reader.read(64 - leadingZeros - trailingZeros) << trailingZeros;
+            }
+            values[i] = Double.longBitsToDouble(bits);
+        }
+        return values;
+    }
+
+    private static ArrayList<SimulationResultSpeed> readSpeeds(DataInputStream in) throws IOException {
+        var size = readVarInt(in);
+        var times = readColumn(in, size);
+        var positions = readColumn(in, size);
+        var speedValues = readColumn(in, size);
+        var speeds = new ArrayList<SimulationResultSpeed>(size);
+        for (int i = 0; i < size; i++)
+            speeds.add(new SimulationResultSpeed(times[i], speedValues[i], positions[i]));
+        return speeds;
+    }
+
+    private static ArrayList<SimulationResultPosition> readPositions(
+            DataInputStream in,
+            String[] dictionary
+    ) throws IOException {
+        var size = readVarInt(in);
+        var times = readColumn(in, size);
+        var pathOffsets = readColumn(in, size);
+        var trackSections = new String[size];
+        for (int i = 0; i < size; i++)
+            trackSections[i] = dictionary[readVarInt(in)];
+        var offsets = readColumn(in, size);
+        var positions = new ArrayList<SimulationResultPosition>(size);
+        for (int i = 0; i < size; i++)
+            positions.add(new SimulationResultPosition(times[i], pathOffsets[i], trackSections[i], offsets[i]));
+        return positions;
+    }
+}
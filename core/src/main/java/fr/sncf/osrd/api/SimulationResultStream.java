@@ -0,0 +1,213 @@
+package fr.sncf.osrd.api;
+
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.api.SimulationEndpoint.ArrayResultLog;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultRouteStatus;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultSignalChange;
+import fr.sncf.osrd.api.SimulationEndpoint.SimulationResultTrain;
+import fr.sncf.osrd.infra.Infra;
+import fr.sncf.osrd.infra_state.SignalState;
+import fr.sncf.osrd.infra_state.regulator.TrainSuccessionTable;
+import fr.sncf.osrd.infra_state.routes.RouteState;
+import fr.sncf.osrd.simulation.Change;
+import fr.sncf.osrd.simulation.Simulation;
+import fr.sncf.osrd.simulation.SimulationError;
+import fr.sncf.osrd.simulation.changelog.ChangeConsumer;
+import fr.sncf.osrd.simulation.changelog.ChangeConsumerMultiplexer;
+import fr.sncf.osrd.train.TrainSchedule;
+import fr.sncf.osrd.train.TrainState;
+import fr.sncf.osrd.train.events.TrainCreatedEvent;
+import okio.Buffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Streams the results of a simulation as newline delimited JSON, while the simulation runs.</p>
+ *
+ * <p>The simulation only moves forward when the stream is read, and stops as soon as some results
+ * are available. Each line is a JSON object, whose type field tells which of its fields is set:</p>
+ * <ul>
+ *  <li>route_status and signal_change records are sent as soon as the change happens</li>
+ *  <li>train records are sent, simplified, once the train reaches its destination.
+ *      Trains which never reach their destination are sent at the end of the simulation</li>
+ *  <li>an error record is sent if the simulation fails, and ends the stream</li>
+ * </ul>
+ */
+public final class SimulationResultStream extends InputStream {
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    public static final JsonAdapter<ResultRecord> adapterRecord = new Moshi
+            .Builder()
+            .build()
+            .adapter(ResultRecord.class);
+
+    private final Simulation sim;
+    private final ArrayResultLog resultLog;
+
+    /** The serialized records which were not read yet */
+    private final Buffer buffer = new Buffer();
+
+    /** Set when the simulation is over, or failed */
+    private boolean done = false;
+
+    /** Creates the simulation of the given trains, which is run as the results are read */
+    public SimulationResultStream(
+            Infra infra,
+            List<TrainSchedule> trainSchedules,
+            List<TrainSuccessionTable> trainSuccessionTables
+    ) throws SimulationError {
+        var changeConsumers = new ArrayList<ChangeConsumer>();
+        var multiplexer = new ChangeConsumerMultiplexer(changeConsumers);
+        sim = Simulation.createFromInfraAndSuccessions(infra, trainSuccessionTables, 0, multiplexer);
+        resultLog = new ArrayResultLog(infra, sim);
+        multiplexer.add(resultLog);
+        // the flusher must be called after the result log, as it moves out the results it just logged
+        multiplexer.add(new ResultFlusher());
+
+        for (var trainSchedule : trainSchedules)
+            TrainCreatedEvent.plan(sim, trainSchedule);
+    }
+
+    private void writeRecord(ResultRecord record) {
+        buffer.writeUtf8(adapterRecord.toJson(record));
+        buffer.writeByte('\n');
+    }
+
+    /** Sends the results of a train, and drops them from the result log */
+    private void flushTrain(String trainId) throws SimulationError {
+        var trainResult = resultLog.result.trains.get(trainId);
+        if (trainResult == null)
+            return;
+        resultLog.validate(trainId);
+        resultLog.simplify(trainId);
+        resultLog.result.trains.remove(trainId);
+        var record = new ResultRecord("train");
+        record.trainId = trainId;
+        record.train = trainResult;
+        writeRecord(record);
+    }
+
+    /** Sends the route and signal changes logged so far, and drops them from the result log */
+    private void flushChanges() {
+        var result = resultLog.result;
+        for (var routeStatus : result.routesStatus) {
+            var record = new ResultRecord("route_status");
+            record.routeStatus = routeStatus;
+            writeRecord(record);
+        }
+        result.routesStatus.clear();
+        for (var signalChange : result.signalChanges) {
+            var record = new ResultRecord("signal_change");
+            record.signalChange = signalChange;
+            writeRecord(record);
+        }
+        result.signalChanges.clear();
+    }
+
+    /** Runs the simulation until some results are available, or the simulation is over */
+    private void fill() {
+        try {
+            while (!done && buffer.size() == 0) {
+                if (sim.isSimulationOver()) {
+                    flushChanges();
+                    for (var trainId : new ArrayList<>(resultLog.result.trains.keySet()))
+                        flushTrain(trainId);
+                    done = true;
+                    break;
+                }
+                sim.step();
+            }
+        } catch (SimulationError | FlushError e) {
+            var error = e instanceof FlushError ? e.getCause() : e;
+            var record = new ResultRecord("error");
+            record.error = error.getMessage();
+            writeRecord(record);
+            done = true;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        fill();
+        if (buffer.size() == 0)
+            return -1;
+        return buffer.readByte() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        fill();
+        return buffer.read(b, off, len);
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(buffer.size(), Integer.MAX_VALUE);
+    }
+
+    /** Moves the results out of the result log as soon as they can be sent */
+    private final class ResultFlusher extends ChangeConsumer {
+        @Override
+        public boolean consumes(Class<? extends Change> changeType) {
+            return changeType == RouteState.RouteStatusChange.class
+                    || changeType == SignalState.SignalAspectChange.class
+                    || changeType == TrainState.TrainDisappearChange.class;
+        }
+
+        @Override
+        public void changeCreationCallback(Change change) { }
+
+        @Override
+        public void changePublishedCallback(Change change) {
+            if (change.getClass() == RouteState.RouteStatusChange.class
+                    || change.getClass() == SignalState.SignalAspectChange.class) {
+                flushChanges();
+            } else if (change.getClass() == TrainState.TrainDisappearChange.class) {
+                try {
+                    flushTrain(((TrainState.TrainDisappearChange) change).trainID);
+                } catch (SimulationError e) {
+                    throw new FlushError(e);
+                }
+            }
+        }
+    }
+
+    /** Carries the errors of the flusher through the simulation loop */
+    private static final class FlushError extends RuntimeException {
+        private static final long serialVersionUID = -2411874387424213874L;
+
+        FlushError(SimulationError cause) {
+            super(cause);
+        }
+    }
+
+    @SuppressFBWarnings("URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD")
+    public static final class ResultRecord {
+        /** Either train, route_status, signal_change or error */
+        public final String type;
+
+        @Json(name = "train_id")
+        public String trainId = null;
+
+        public SimulationResultTrain train = null;
+
+        @Json(name = "route_status")
+        public SimulationResultRouteStatus routeStatus = null;
+
+        @Json(name = "signal_change")
+        public SimulationResultSignalChange signalChange = null;
+
+        public String error = null;
+
+        public ResultRecord(String type) {
+            this.type = type;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package fr.sncf.osrd.cbtc;
 
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -46,6 +47,11 @@ public class CBTCEvent extends TimelineEvent {
     protected void onCancellation(Simulation sim) throws SimulationError {
     }
 
+    @Override
+    protected TimelineEvent copy(ForkContext context) {
+        return new CBTCEvent(eventId, train.fork(context));
+    }
+
     @Override
     public boolean deepEquals(TimelineEvent other) {
         if (!(other instanceof CBTCEvent))
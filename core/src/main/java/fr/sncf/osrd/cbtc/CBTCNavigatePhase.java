@@ -3,6 +3,7 @@ package fr.sncf.osrd.cbtc;
 import java.util.ArrayList;
 import java.util.List;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -81,6 +82,11 @@ public final class CBTCNavigatePhase extends NavigatePhase {
             return new CBTCNavigatePhaseState(this);
         }
 
+        @Override
+        public NavigatePhaseState fork(ForkContext context) {
+            return context.copy(this, original -> new CBTCNavigatePhaseState(original, context));
+        }
+
         /**
          * Create a new state related to the given phase.
          * @param phase the state-related phase
@@ -99,6 +105,11 @@ public final class CBTCNavigatePhase extends NavigatePhase {
             super(state);
         }
 
+        /** Create a copy of the given state for a fork of the simulation */
+        CBTCNavigatePhaseState(CBTCNavigatePhaseState state, ForkContext context) {
+            super(state, context);
+        }
+
         @Override
         public TrainEvolutionEvent simulate(Train train, TrainState trainState) throws SimulationError {
             // Check if we reached our goal
@@ -4,8 +4,10 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import fr.sncf.osrd.api.InfraCacheStatusEndpoint;
 import fr.sncf.osrd.api.InfraManager;
+import fr.sncf.osrd.api.PathfindingMatrixEndpoint;
 import fr.sncf.osrd.api.PathfindingRoutesEndpoint;
 import fr.sncf.osrd.api.PathfindingTracksEndpoint;
+import fr.sncf.osrd.api.SimulationBatchEndpoint;
 import fr.sncf.osrd.api.SimulationEndpoint;
 import io.sentry.Sentry;
 import org.slf4j.Logger;
@@ -24,6 +26,7 @@ import org.takes.http.BkParallel;
 import org.takes.http.BkSafe;
 import org.takes.http.BkBasic;
 import java.io.IOException;
+import java.nio.file.Path;
 
 @Parameters(commandDescription = "HTTP API server mode")
 public final class ApiServerCommand implements CliCommand {
@@ -56,12 +59,27 @@ public final class ApiServerCommand implements CliCommand {
         return middlewareBaseUrl;
     }
 
+    /** Creates the infra manager, with the cache settings given in the environment, if present */
+    private static InfraManager createInfraManager(String baseUrl, String authorizationToken) {
+        var maxCacheSize = (long) (Runtime.getRuntime().maxMemory() * InfraManager.DEFAULT_CACHE_HEAP_RATIO);
+        var envCacheSize = System.getenv("OSRD_INFRA_CACHE_MAX_SIZE_MB");
+        if (envCacheSize != null)
+            maxCacheSize = Long.parseLong(envCacheSize) * 1024 * 1024;
+
+        Path snapshotDir = null;
+        var envSnapshotDir = System.getenv("OSRD_INFRA_SNAPSHOT_DIR");
+        if (envSnapshotDir != null)
+            snapshotDir = Path.of(envSnapshotDir);
+
+        var buildRouteHierarchy = Boolean.parseBoolean(System.getenv("OSRD_ROUTE_HIERARCHY"));
+        return new InfraManager(baseUrl, authorizationToken, maxCacheSize, snapshotDir, buildRouteHierarchy);
+    }
 
     /** Run the Api Server */
     public int run() {
         FbSentry.init();
         var authorizationToken = System.getenv("FETCH_INFRA_AUTHORIZATION");
-        var infraManager = new InfraManager(getMiddlewareBaseUrl(), authorizationToken);
+        var infraManager = createInfraManager(getMiddlewareBaseUrl(), authorizationToken);
 
         try {
             // the list of endpoints
@@ -69,7 +87,9 @@ public final class ApiServerCommand implements CliCommand {
                     new FkRegex("/health", ""),
                     new FkRegex("/pathfinding/routes", new PathfindingRoutesEndpoint(infraManager)),
                     new FkRegex("/pathfinding/tracks", new PathfindingTracksEndpoint(infraManager)),
+                    new FkRegex("/pathfinding/matrix", new PathfindingMatrixEndpoint(infraManager)),
                     new FkRegex("/simulation", new SimulationEndpoint(infraManager)),
+                    new FkRegex("/simulation/batch", new SimulationBatchEndpoint(infraManager)),
                     new FkRegex("/cache_status", new InfraCacheStatusEndpoint(infraManager))
             );
 
@@ -0,0 +1,37 @@
+package fr.sncf.osrd.cli;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.converters.PathConverter;
+import fr.sncf.osrd.simulation.trace.TraceDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Parameters(commandDescription = "Prints a binary simulation trace as text")
+public final class DecodeTraceCommand implements CliCommand {
+    static final Logger logger = LoggerFactory.getLogger(DecodeTraceCommand.class);
+
+    @Parameter(
+            names = { "-i", "--input" },
+            description = "The trace file, as written by simulate --output-trace",
+            required = true,
+            converter = PathConverter.class
+    )
+    private Path inputPath;
+
+    /** Runs the command, and return a status code */
+    public int run() {
+        try (var input = new BufferedInputStream(Files.newInputStream(inputPath))) {
+            var trace = TraceDecoder.read(input);
+            trace.print(System.out);
+            return 0;
+        } catch (IOException ioException) {
+            logger.error("IO error", ioException);
+            return 1;
+        }
+    }
+}
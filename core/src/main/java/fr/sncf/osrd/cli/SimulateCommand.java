@@ -17,6 +17,7 @@ import fr.sncf.osrd.simulation.changelog.ArrayChangeLog;
 import fr.sncf.osrd.simulation.changelog.ChangeConsumer;
 import fr.sncf.osrd.simulation.changelog.ChangeConsumerMultiplexer;
 import fr.sncf.osrd.simulation.changelog.ChangeLogSummarizer;
+import fr.sncf.osrd.simulation.trace.TraceRecorder;
 import fr.sncf.osrd.train.events.TrainCreatedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +45,14 @@ public final class SimulateCommand implements CliCommand {
     )
     private Path outputChangelogPath;
 
+    @Parameter(
+            names = { "-t", "--output-trace" },
+            description = "Record a binary trace of the simulation, and write it to the given path."
+                    + " It is also written if the simulation fails",
+            converter = PathConverter.class
+    )
+    private Path outputTracePath;
+
     /** Runs the command, and return a status code */
     public int run() {
         try {
@@ -59,6 +68,12 @@ public final class SimulateCommand implements CliCommand {
             var multiplexer = new ChangeConsumerMultiplexer(changeConsumers);
             var sim = Simulation.createFromInfraAndSuccessions(config.infra, config.switchSuccessions, 0, multiplexer);
 
+            TraceRecorder traceRecorder = null;
+            if (outputTracePath != null) {
+                traceRecorder = new TraceRecorder(TraceRecorder.DEFAULT_CAPACITY, outputTracePath);
+                sim.setTraceRecorder(traceRecorder);
+            }
+
             if (config.changeReplayCheck)
                 multiplexer.add(ChangeReplayChecker.from(sim));
 
@@ -75,6 +90,8 @@ public final class SimulateCommand implements CliCommand {
                 sim.step();
 
             logger.info("done simulating");
+            if (traceRecorder != null)
+                traceRecorder.dump(outputTracePath);
             ChangeLogSummarizer.summarize(changelog);
 
             logger.debug("serializing changes");
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
+import java.util.function.IntToDoubleFunction;
 
 @SuppressFBWarnings({"URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD"})
 public final class Envelope  {
@@ -15,6 +16,9 @@ public final class Envelope  {
     public final boolean spaceContinuous;
     public final boolean continuous;
 
+    /** The time from the beginning of the envelope to each point, per part. Only computed when needed. */
+    private double[][] cumulativeTimes = null;
+
     // region CONSTRUCTORS
 
     private Envelope(EnvelopePart[] parts, boolean spaceContinuous, boolean continuous) {
@@ -71,6 +75,123 @@ public final class Envelope  {
         return parts[i];
     }
 
+    public double getBeginPos() {
+        return parts[0].getBeginPos();
+    }
+
+    public double getEndPos() {
+        return parts[parts.length - 1].getEndPos();
+    }
+
+    // endregion
+
+    // region INTERPOLATION
+
+    /** Returns the index of the first part which contains the given position, or -1 if there is none */
+    public int findPart(double position) {
+        return findPart(position, false);
+    }
+
+    /**
+     * Returns the index of the part which goes on after the given position, or -1 if there is none.
+     * Unlike findPart, when the position is the end of a part, the next part is returned.
+     */
+    public int findNextPart(double position) {
+        return findPart(position, true);
+    }
+
+    @SuppressFBWarnings({"FE_FLOATING_POINT_EQUALITY"})
+    private int findPart(double position, boolean skipEndingParts) {
+        // parts are sorted by position: look for the first part which ends after the position
+        int low = 0;
+        int high = parts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            var endPos = parts[mid].getEndPos();
+            if (endPos < position || (skipEndingParts && endPos == position))
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        if (low == parts.length || parts[low].getBeginPos() > position)
+            return -1;
+        return low;
+    }
+
+    /** Given a position return the interpolated speed */
+    public double interpolateSpeed(double position) {
+        var partIndex = findPart(position);
+        assert partIndex != -1;
+        return parts[partIndex].interpolateSpeed(position);
+    }
+
+    /** Computes, for each part, the time from the beginning of the envelope to each of its points */
+    private synchronized double[][] getCumulativeTimes() {
+        if (cumulativeTimes != null)
+            return cumulativeTimes;
+        var res = new double[parts.length][];
+        var time = 0.0;
+        for (int i = 0; i < parts.length; i++) {
+            var part = parts[i];
+            var partTimes = new double[part.pointCount()];
+            partTimes[0] = time;
+            for (int j = 0; j < part.stepCount(); j++) {
+                time += part.getStepTime(j);
+                partTimes[j + 1] = time;
+            }
+            res[i] = partTimes;
+        }
+        cumulativeTimes = res;
+        return res;
+    }
+
+    /** The time it takes to go through the whole envelope, which must be space continuous */
+    public double getTotalTime() {
+        assert spaceContinuous;
+        var times = getCumulativeTimes();
+        var lastTimes = times[times.length - 1];
+        return lastTimes[lastTimes.length - 1];
+    }
+
+    /** Given a position return the time elapsed since the beginning of the envelope, which must be space continuous */
+    public double interpolateTotalTime(double position) {
+        assert spaceContinuous;
+        var partIndex = findPart(position);
+        assert partIndex != -1;
+        var part = parts[partIndex];
+        var stepIndex = part.findStep(position);
+        return getCumulativeTimes()[partIndex][stepIndex] + part.interpolateTime(stepIndex, position);
+    }
+
+    /**
+     * Given the time elapsed since the beginning of the envelope, return the position reached.
+     * The envelope must be space continuous. Times past the end of the envelope give its end position.
+     */
+    public double interpolatePosition(double totalTime) {
+        assert spaceContinuous;
+        var times = getCumulativeTimes();
+        // find the last part which starts at or before the given time
+        int partIndex = findLastBefore(times.length, i -> times[i][0], totalTime);
+        var partTimes = times[partIndex];
+        var part = parts[partIndex];
+        int stepIndex = Math.min(findLastBefore(partTimes.length, i -> partTimes[i], totalTime), part.stepCount() - 1);
+        return part.interpolatePosition(stepIndex, totalTime - partTimes[stepIndex]);
+    }
+
+    /** Returns the last index whose value is lower or equal to the given one, or 0 if there is none */
+    private static int findLastBefore(int size, IntToDoubleFunction values, double value) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (values.applyAsDouble(mid) <= value)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return low;
+    }
+
     // endregion
 
     /** Cuts an envelope */
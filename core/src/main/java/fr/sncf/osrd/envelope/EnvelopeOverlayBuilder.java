@@ -80,6 +80,12 @@ public final class EnvelopeOverlayBuilder implements StepConsumer {
     }
 
     private void sliceBaseEnvelope() {
+        // if a new overlay starts right where the last one ended, there is nothing in between
+        if (lastOverlayEndPartIndex != -1 && !cursor.hasReachedEnd()
+                && lastOverlayEndPartIndex == cursor.getPartIndex()
+                && cursor.comparePos(lastOverlayEndPosition, cursor.getPosition()) == 0)
+            return;
+
         // cut the base envelope from the end of the last overlay to the current position, which is either
         // the end of the envelope or the start of another overlay
         EnvelopePart[] sliced;
@@ -279,6 +285,11 @@ public final class EnvelopeOverlayBuilder implements StepConsumer {
         mode = Mode.SCANNING;
     }
 
+    /** Ends the current overlay at its last point, even though it didn't meet the base envelope */
+    public void endOverlay() {
+        completeOverlay();
+    }
+
     private void internalAddOverlayStep(double position, double speed, double time) {
         overlayPartBuilder.addStep(position, speed, time);
         lastOverlaySpeed = speed;
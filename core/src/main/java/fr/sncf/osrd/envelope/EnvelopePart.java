@@ -148,6 +148,11 @@ public final class EnvelopePart {
         return speeds[pointIndex];
     }
 
+    /** The time it takes to go through the step */
+    public double getStepTime(int stepIndex) {
+        return times[stepIndex];
+    }
+
     // endregion
 
     // region CLONE
@@ -168,17 +173,23 @@ public final class EnvelopePart {
 
     // region SCAN
 
-    /** Scan the envelope from startIndex to find the first step which contains pos */
+    /** Search the envelope from startIndex to find the first step which contains pos */
     public int findStep(int startIndex, double pos) {
         assert pos >= getBeginPos();
         assert pos <= getEndPos();
-        for (int i = startIndex; i < positions.length - 1; i++) {
-            var stepBegin = positions[i];
-            var stepEnd = positions[i + 1];
-            if (pos >= stepBegin && pos <= stepEnd)
-                return i;
+        if (pos < positions[startIndex])
+            return -1;
+        // positions are strictly increasing: look for the first step which ends at or after pos
+        int low = startIndex;
+        int high = positions.length - 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid + 1] < pos)
+                low = mid + 1;
+            else
+                high = mid;
         }
-        return -1;
+        return low;
     }
 
     public int findStep(double pos) {
@@ -223,6 +234,19 @@ public final class EnvelopePart {
         );
     }
 
+    /** Given the time elapsed since the beginning of a step, return the interpolated position */
+    public double interpolatePosition(int stepIndex, double timeDelta) {
+        if (timeDelta <= 0.0)
+            return positions[stepIndex];
+        if (timeDelta >= times[stepIndex])
+            return positions[stepIndex + 1];
+        return positions[stepIndex] + EnvelopePhysics.interpolateStepPosition(
+                positions[stepIndex], positions[stepIndex + 1],
+                speeds[stepIndex], speeds[stepIndex + 1],
+                timeDelta
+        );
+    }
+
     /** Compute the time deltas between positions */
     private static double[] computeTimes(double[] positions, double[] speeds) {
         var timeDeltas = new double[positions.length - 1];
@@ -333,7 +357,8 @@ public final class EnvelopePart {
             double interpolatedTime = interpolateTime(beginStepIndex, beginPosition);
             sliced.positions[0] = beginPosition;
             sliced.speeds[0] = interpolatedSpeed;
-            sliced.times[0] = interpolatedTime;
+            // the first step now starts at beginPosition, the time spent before it isn't part of the slice anymore
+            sliced.times[0] -= interpolatedTime;
         }
         return sliced;
     }
@@ -42,6 +42,17 @@ public class EnvelopePhysics {
         return Math.abs((interpolatedSpeed - lastSpeed) / acceleration);
     }
 
+    /** Compute the position offset reached timeDelta after the beginning of the given step */
+    public static double interpolateStepPosition(
+            double lastPos, double nextPos,
+            double lastSpeed, double nextSpeed,
+            double timeDelta
+    ) {
+        var acceleration = stepAcceleration(lastPos, nextPos, lastSpeed, nextSpeed);
+        var positionDelta = lastSpeed * timeDelta + acceleration * timeDelta * timeDelta / 2;
+        return Math.min(Math.max(positionDelta, 0), nextPos - lastPos);
+    }
+
     /**
      * Computes the intersection of two envelope steps.
      * The acceleration is assumed to be constant over <b>time</b> inside a step.
@@ -0,0 +1,114 @@
+package fr.sncf.osrd.envelope_sim;
+
+/**
+ * <p>Integrates curves with a time step which adapts to the local integration error.</p>
+ *
+ * <p>The error of each step is estimated from the forces evaluated by the step itself: the fourth order result
+ * is compared with a second order one, which only uses the acceleration at the middle of the step. When both
+ * results disagree by more than the tolerance, the step is retried with a shorter time step. Otherwise, the
+ * next step is allowed to grow. Steps thus get long where the train cruises, and short where the forces
+ * applied to the train change quickly.</p>
+ */
+public final class AdaptiveIntegrationMethod implements IntegrationMethod {
+    /** How much of the estimated optimal step is used, to avoid having steps rejected over and over */
+    private static final double SAFETY_FACTOR = 0.9;
+    private static final double MIN_SCALE_FACTOR = 0.2;
+    private static final double MAX_SCALE_FACTOR = 2;
+
+    /** The shortest time step, in seconds. Steps which reach it are accepted whatever the error */
+    public final double minTimeStep;
+    /** The longest time step, in seconds */
+    public final double maxTimeStep;
+    /** The maximum position error of a step, in meters */
+    public final double positionTolerance;
+    /** The maximum speed error of a step, in m/s */
+    public final double speedTolerance;
+
+    /** Creates an adaptive integration method */
+    public AdaptiveIntegrationMethod(
+            double minTimeStep,
+            double maxTimeStep,
+            double positionTolerance,
+            double speedTolerance
+    ) {
+        assert minTimeStep > 0 && minTimeStep <= maxTimeStep;
+        assert positionTolerance > 0 && speedTolerance > 0;
+        this.minTimeStep = minTimeStep;
+        this.maxTimeStep = maxTimeStep;
+        this.positionTolerance = positionTolerance;
+        this.speedTolerance = speedTolerance;
+    }
+
+    /** Creates an adaptive integration method with steps from 0.05 to 30 seconds */
+    public AdaptiveIntegrationMethod(double positionTolerance, double speedTolerance) {
+        this(0.05, 30, positionTolerance, speedTolerance);
+    }
+
+    @Override
+    public CurveIntegrator newCurve(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            Action action,
+            double directionSign
+    ) {
+        return new AdaptiveCurveIntegrator(rollingStock, path, action, directionSign);
+    }
+
+    /** Returns how much the time step should be scaled, given the error of a step relative to the tolerance */
+    private static double scaleFactor(double relativeError) {
+        if (relativeError == 0)
+            return MAX_SCALE_FACTOR;
+        // the error is estimated using a second order step, whose local error is of the third order
+        var factor = SAFETY_FACTOR * Math.pow(relativeError, -1. / 3);
+        return Math.max(MIN_SCALE_FACTOR, Math.min(MAX_SCALE_FACTOR, factor));
+    }
+
+    private final class AdaptiveCurveIntegrator implements CurveIntegrator {
+        private final PhysicsRollingStock rollingStock;
+        private final PhysicsPath path;
+        private final Action action;
+        private final double directionSign;
+
+        /** The time step to try next, which is kept from one step to the next */
+        private double timeStep;
+
+        private AdaptiveCurveIntegrator(
+                PhysicsRollingStock rollingStock,
+                PhysicsPath path,
+                Action action,
+                double directionSign
+        ) {
+            this.rollingStock = rollingStock;
+            this.path = path;
+            this.action = action;
+            this.directionSign = directionSign;
+            // start with a small step, as curves often start where the forces change: stops, speed limits, ...
+            this.timeStep = Math.max(minTimeStep, Math.min(maxTimeStep, 1));
+        }
+
+        @Override
+        public IntegrationStep step(double position, double speed) {
+            while (true) {
+                var step = TrainPhysicsIntegrator.estimatedStep(
+                        rollingStock, path, timeStep, position, speed, action, directionSign);
+
+                // both results start at the same speed, so the position error comes from the speed error
+                var speedError = step.speedError;
+                var positionError = speedError * timeStep / 2;
+
+                // envelopes interpolate steps with a constant acceleration, which is used to find where curves
+                // intersect. The middle point of the step must thus also be close enough to this interpolation.
+                var interpolatedSpeed = speed + directionSign * step.acceleration * timeStep / 2;
+                speedError = Math.max(speedError, Math.abs(interpolatedSpeed - step.midSpeed));
+                var relativeError = Math.max(positionError / positionTolerance, speedError / speedTolerance);
+
+                var acceptedTimeStep = timeStep;
+                var nextTimeStep = timeStep * scaleFactor(relativeError);
+                timeStep = Math.max(minTimeStep, Math.min(maxTimeStep, nextTimeStep));
+                if (relativeError > 1 && acceptedTimeStep > minTimeStep)
+                    continue;
+                return step;
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package fr.sncf.osrd.envelope_sim;
+
+import fr.sncf.osrd.train.RollingStock;
+import java.util.Arrays;
+
+/**
+ * <p>Integrates the movement of many trains at once, one time step at a time.</p>
+ *
+ * <p>It computes the same steps as {@link TrainPhysicsIntegrator}, but the state and the physical coefficients
+ * of all trains are stored in parallel arrays. Each runge-kutta stage first gathers the forces which depend
+ * on the path and the tractive effort curve, then computes the acceleration of all the trains in a single loop
+ * over primitive arrays, without virtual calls nor allocations.</p>
+ *
+ * <p>All the trains of a batch go in the same direction, but each train has its own rolling stock,
+ * path and action.</p>
+ */
+public final class BatchTrainPhysicsIntegrator {
+    /** The number of trains in the batch */
+    public final int size;
+    private final double directionSign;
+
+    private final RollingStock[] rollingStocks;
+    private final PhysicsPath[] paths;
+
+    // the coefficients of the rolling stocks
+    private final double[] mass;
+    private final double[] inertia;
+    private final double[] length;
+    private final double[] resistanceA;
+    private final double[] resistanceB;
+    private final double[] resistanceC;
+    private final double[] deceleration;
+    private final double[] maxBrakingForce;
+    private final boolean[] constDeceleration;
+
+    // the action of each train, split into masks to avoid branching on the action in the main loop
+    private final Action[] actions;
+    private final double[] tractionMask;
+    private final double[] brakingMask;
+    private final boolean[] maintainSpeed;
+
+    // the state of the trains
+    private final double[] positions;
+    private final double[] speeds;
+    private final double[] accelerations;
+
+    // the state of the current runge-kutta stage
+    private final double[] stagePositionDelta;
+    private final double[] stageSpeed;
+    private final double[] weightForce;
+    /** The grade the weight force was last computed for */
+    private final double[] lastGrade;
+    private final double[] maxEffort;
+
+    /**
+     * Creates a batch of stopped trains, all at the beginning of their path and coasting
+     * @param rollingStocks the rolling stock of each train
+     * @param paths the path of each train
+     * @param directionSign +1 to integrate forward, -1 to integrate backward
+     */
+    public BatchTrainPhysicsIntegrator(RollingStock[] rollingStocks, PhysicsPath[] paths, double directionSign) {
+        assert rollingStocks.length == paths.length;
+        this.size = rollingStocks.length;
+        this.directionSign = directionSign;
+        this.rollingStocks = rollingStocks.clone();
+        this.paths = paths.clone();
+
+        mass = new double[size];
+        inertia = new double[size];
+        length = new double[size];
+        resistanceA = new double[size];
+        resistanceB = new double[size];
+        resistanceC = new double[size];
+        deceleration = new double[size];
+        maxBrakingForce = new double[size];
+        constDeceleration = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            var rollingStock = rollingStocks[i];
+            mass[i] = rollingStock.getMass();
+            inertia[i] = rollingStock.getInertia();
+            length[i] = rollingStock.getLength();
+            resistanceA[i] = rollingStock.A;
+            resistanceB[i] = rollingStock.B;
+            resistanceC[i] = rollingStock.C;
+            deceleration[i] = rollingStock.getDeceleration();
+            maxBrakingForce[i] = rollingStock.getMaxBrakingForce(0);
+            constDeceleration[i] = rollingStock.getGammaType() == RollingStock.GammaType.CONST;
+        }
+
+        actions = new Action[size];
+        tractionMask = new double[size];
+        brakingMask = new double[size];
+        maintainSpeed = new boolean[size];
+        positions = new double[size];
+        speeds = new double[size];
+        accelerations = new double[size];
+        for (int i = 0; i < size; i++)
+            setAction(i, Action.COAST);
+
+        stagePositionDelta = new double[size];
+        stageSpeed = new double[size];
+        weightForce = new double[size];
+        lastGrade = new double[size];
+        Arrays.fill(lastGrade, Double.NaN);
+        maxEffort = new double[size];
+    }
+
+    /** Sets the position and speed of a train */
+    public void setState(int train, double position, double speed) {
+        positions[train] = position;
+        speeds[train] = speed;
+    }
+
+    /** Sets the action a train makes during the next steps */
+    public void setAction(int train, Action action) {
+        actions[train] = action;
+        tractionMask[train] = action == Action.ACCELERATE || action == Action.MAINTAIN ? 1 : 0;
+        brakingMask[train] = action == Action.BRAKE ? 1 : 0;
+        maintainSpeed[train] = action == Action.MAINTAIN;
+    }
+
+    public Action getAction(int train) {
+        return actions[train];
+    }
+
+    public double getPosition(int train) {
+        return positions[train];
+    }
+
+    public double getSpeed(int train) {
+        return speeds[train];
+    }
+
+    /** The mean acceleration of a train during the last step */
+    public double getAcceleration(int train) {
+        return accelerations[train];
+    }
+
+    /** Moves all the trains by one time step, using the same runge-kutta method as TrainPhysicsIntegrator */
+    public void step(double timeStep) {
+        var halfStep = timeStep / 2;
+        for (int i = 0; i < size; i++) {
+            stagePositionDelta[i] = 0;
+            stageSpeed[i] = speeds[i];
+        }
+        // accelerations holds the weighted sum of the accelerations of the stages, until the last one
+        integrateStage(halfStep, 1, true);
+        integrateStage(halfStep, 2, false);
+        integrateStage(timeStep, 2, false);
+        integrateStage(timeStep, 1, false);
+
+        for (int i = 0; i < size; i++) {
+            var speed = speeds[i];
+            var meanAcceleration = accelerations[i] / 6.;
+            var speedDelta = directionSign * meanAcceleration * timeStep;
+            positions[i] += positionDelta(speed, speedDelta, timeStep);
+            speeds[i] = speed + speedDelta;
+            accelerations[i] = meanAcceleration;
+        }
+    }
+
+    /**
+     * Computes a runge-kutta stage for all trains, from the state of the previous stage
+     * @param timeStep the time step of the stage
+     * @param weight the weight of the acceleration of the stage in the mean acceleration of the step
+     * @param isFirstStage whether the sum of accelerations has to be reset
+     */
+    private void integrateStage(double timeStep, double weight, boolean isFirstStage) {
+        // gather the forces which depend on the path and the effort curve of each train
+        for (int i = 0; i < size; i++) {
+            var headLocation = positions[i] + stagePositionDelta[i];
+            var tailLocation = Math.max(0, headLocation - length[i]);
+            var averageGrade = paths[i].getAverageGrade(tailLocation, headLocation);
+            // trains spend most of their steps on a constant grade, where the weight force doesn't change
+            if (Double.doubleToRawLongBits(averageGrade) != Double.doubleToRawLongBits(lastGrade[i])) {
+                var angle = Math.atan(averageGrade / 1000.0);
+                weightForce[i] = -mass[i] * 9.81 * Math.sin(angle);
+                lastGrade[i] = averageGrade;
+            }
+            maxEffort[i] = rollingStocks[i].getMaxEffort(stageSpeed[i]);
+        }
+
+        for (int i = 0; i < size; i++) {
+            var speed = stageSpeed[i];
+            var absSpeed = Math.abs(speed);
+            var rollingResistance = resistanceA[i] + resistanceB[i] * absSpeed + resistanceC[i] * absSpeed * absSpeed;
+            var tractionForce = tractionMask[i] * maxEffort[i];
+            var brakingForce = brakingMask[i] * maxBrakingForce[i];
+
+            double acceleration;
+            if (brakingForce > 0 && constDeceleration[i]) {
+                acceleration = deceleration[i];
+            } else {
+                var otherForce = tractionForce + weightForce[i];
+                var oppositeForce = rollingResistance + brakingForce;
+                if (speed == 0 && directionSign > 0 && Math.abs(otherForce) < oppositeForce)
+                    acceleration = 0.0;
+                else if (speed >= 0.0)
+                    acceleration = (otherForce - oppositeForce) / inertia[i];
+                else
+                    acceleration = (otherForce + oppositeForce) / inertia[i];
+                // when maintaining speed, the full traction force is only used if it can't keep the train's speed
+                if (maintainSpeed[i] && acceleration >= 0)
+                    acceleration = 0.0;
+            }
+
+            if (isFirstStage)
+                accelerations[i] = acceleration;
+            else
+                accelerations[i] += weight * acceleration;
+            var speedDelta = directionSign * acceleration * timeStep;
+            stagePositionDelta[i] = positionDelta(speed, speedDelta, timeStep);
+            stageSpeed[i] = speed + speedDelta;
+        }
+    }
+
+    private double positionDelta(double speed, double speedDelta, double timeStep) {
+        var positionDelta = Math.copySign(speed * timeStep + 0.5 * speedDelta * timeStep, directionSign);
+        if (Math.abs(positionDelta) < TrainPhysicsIntegrator.POSITION_EPSILON)
+            return 0;
+        return positionDelta;
+    }
+}
@@ -0,0 +1,22 @@
+package fr.sncf.osrd.envelope_sim;
+
+/** Splits the curves computed by a pipeline into integration steps */
+public interface IntegrationMethod {
+    /** Integrates the steps of a single curve */
+    interface CurveIntegrator {
+        /** Integrates the next step of the curve, from the given position and speed */
+        IntegrationStep step(double position, double speed);
+    }
+
+    /** Creates an integrator for a new curve, which may keep some state from one step to the next */
+    CurveIntegrator newCurve(PhysicsRollingStock rollingStock, PhysicsPath path, Action action, double directionSign);
+
+    /** Integrates curves with a constant time step */
+    static IntegrationMethod fixed(double timeStep) {
+        return (rollingStock, path, action, directionSign) -> (position, speed) -> TrainPhysicsIntegrator.step(
+                rollingStock, path, timeStep, position, speed, action, directionSign);
+    }
+
+    /** The method used by pipelines which aren't given one: a constant 4 seconds time step */
+    IntegrationMethod DEFAULT = fixed(4);
+}
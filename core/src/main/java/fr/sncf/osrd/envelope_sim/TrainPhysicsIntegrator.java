@@ -38,6 +38,39 @@ public final class TrainPhysicsIntegrator {
             double initialSpeed,
             Action action,
             double directionSign
+    ) {
+        return estimatedStep(rollingStock, path, timeStep, initialLocation, initialSpeed, action, directionSign);
+    }
+
+    /** An integration step, along with what is needed to estimate its error */
+    static final class EstimatedIntegrationStep extends IntegrationStep {
+        /**
+         * The speed delta between this step and a second order step, which uses the acceleration
+         * at the middle of the step. Both use the same evaluations of the forces.
+         */
+        final double speedError;
+        /**
+         * The speed at the middle of the step, found by integrating the acceleration of the stages
+         * as a quadratic function of time
+         */
+        final double midSpeed;
+
+        private EstimatedIntegrationStep(IntegrationStep step, double speedError, double midSpeed) {
+            super(step.timeDelta, step.positionDelta, step.endSpeed, step.acceleration);
+            this.speedError = speedError;
+            this.midSpeed = midSpeed;
+        }
+    }
+
+    /** Simulates train movement, and estimates the error of the step without evaluating the forces again */
+    static EstimatedIntegrationStep estimatedStep(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            double timeStep,
+            double initialLocation,
+            double initialSpeed,
+            Action action,
+            double directionSign
     ) {
         var integrator = new TrainPhysicsIntegrator(rollingStock, path, action, directionSign);
         var halfStep = timeStep / 2;
@@ -52,7 +85,16 @@ public final class TrainPhysicsIntegrator {
                 + 2 * step3.acceleration
                 + step4.acceleration
         ) / 6.;
-        return newtonStep(timeStep, initialSpeed, meanAcceleration, directionSign);
+        var speedError = Math.abs(meanAcceleration - step2.acceleration) * timeStep;
+        var firstHalfAcceleration = (
+                5 * step1.acceleration
+                + 4 * step2.acceleration
+                + 4 * step3.acceleration
+                - step4.acceleration
+        ) / 12.;
+        var midSpeed = initialSpeed + directionSign * firstHalfAcceleration * halfStep;
+        var res = newtonStep(timeStep, initialSpeed, meanAcceleration, directionSign);
+        return new EstimatedIntegrationStep(res, speedError, midSpeed);
     }
 
     private IntegrationStep step(double timeStep, double location, double speed) {
@@ -140,10 +182,11 @@ public final class TrainPhysicsIntegrator {
             double acceleration,
             double directionSign
     ) {
-        var newSpeed = currentSpeed + directionSign * acceleration * timeStep;
+        var speedDelta = directionSign * acceleration * timeStep;
+        var newSpeed = currentSpeed + speedDelta;
 
-        // dx = currentSpeed * dt + 1/2 * acceleration * dt * dt
-        var positionDelta = currentSpeed * timeStep + 0.5 * acceleration * timeStep * timeStep;
+        // dx = currentSpeed * dt + 1/2 * dv * dt, where the speed delta takes the integration direction into account
+        var positionDelta = currentSpeed * timeStep + 0.5 * speedDelta * timeStep;
 
         // Used to integrate backwards or forwards, takes the sign of directionSign with the magnitude of positionDelta
         positionDelta = Math.copySign(positionDelta, directionSign);
@@ -2,12 +2,12 @@ package fr.sncf.osrd.envelope_sim.overlays;
 
 import fr.sncf.osrd.envelope.StepConsumer;
 import fr.sncf.osrd.envelope_sim.Action;
+import fr.sncf.osrd.envelope_sim.IntegrationMethod;
 import fr.sncf.osrd.envelope_sim.PhysicsPath;
 import fr.sncf.osrd.envelope_sim.PhysicsRollingStock;
-import fr.sncf.osrd.envelope_sim.TrainPhysicsIntegrator;
 
 public class EnvelopeAcceleration {
-    /** Accelerate, storing the resulting steps into consumer */
+    /** Accelerate with a constant time step, storing the resulting steps into consumer */
     public static void accelerate(
             PhysicsRollingStock rollingStock,
             PhysicsPath path,
@@ -16,10 +16,23 @@ public class EnvelopeAcceleration {
             double startSpeed,
             StepConsumer consumer
     ) {
+        accelerate(rollingStock, path, IntegrationMethod.fixed(timeStep), startPosition, startSpeed, consumer);
+    }
+
+    /** Accelerate, storing the resulting steps into consumer */
+    public static void accelerate(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            IntegrationMethod integrationMethod,
+            double startPosition,
+            double startSpeed,
+            StepConsumer consumer
+    ) {
+        var integrator = integrationMethod.newCurve(rollingStock, path, Action.ACCELERATE, 1);
         double position = startPosition;
         double speed = startSpeed;
         while (true) {
-            var step = TrainPhysicsIntegrator.step(rollingStock, path, timeStep, position, speed, Action.ACCELERATE, 1);
+            var step = integrator.step(position, speed);
             position += step.positionDelta;
             speed = step.endSpeed;
             if (consumer.addStep(position, speed, step.timeDelta))
@@ -2,12 +2,12 @@ package fr.sncf.osrd.envelope_sim.overlays;
 
 import fr.sncf.osrd.envelope.StepConsumer;
 import fr.sncf.osrd.envelope_sim.Action;
+import fr.sncf.osrd.envelope_sim.IntegrationMethod;
 import fr.sncf.osrd.envelope_sim.PhysicsPath;
 import fr.sncf.osrd.envelope_sim.PhysicsRollingStock;
-import fr.sncf.osrd.envelope_sim.TrainPhysicsIntegrator;
 
 public class EnvelopeCoasting {
-    /** Generate a coasting curve overlay */
+    /** Generate a coasting curve overlay, integrating with a constant time step */
     public static void coast(
             PhysicsRollingStock rollingStock,
             PhysicsPath path,
@@ -17,11 +17,25 @@ public class EnvelopeCoasting {
             StepConsumer consumer,
             double directionSign
     ) {
+        var integrationMethod = IntegrationMethod.fixed(timeStep);
+        coast(rollingStock, path, integrationMethod, startPosition, startSpeed, consumer, directionSign);
+    }
+
+    /** Generate a coasting curve overlay */
+    public static void coast(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            IntegrationMethod integrationMethod,
+            double startPosition,
+            double startSpeed,
+            StepConsumer consumer,
+            double directionSign
+    ) {
+        var integrator = integrationMethod.newCurve(rollingStock, path, Action.COAST, directionSign);
         double position = startPosition;
         double speed = startSpeed;
         while (true) {
-            var step = TrainPhysicsIntegrator.step(rollingStock, path, timeStep, position, speed,
-                    Action.COAST, directionSign);
+            var step = integrator.step(position, speed);
             position += step.positionDelta;
             speed = step.endSpeed;
             if (consumer.addStep(position, speed, step.timeDelta))
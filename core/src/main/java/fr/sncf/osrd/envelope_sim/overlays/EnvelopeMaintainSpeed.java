@@ -2,27 +2,39 @@ package fr.sncf.osrd.envelope_sim.overlays;
 
 import fr.sncf.osrd.envelope.StepConsumer;
 import fr.sncf.osrd.envelope_sim.Action;
+import fr.sncf.osrd.envelope_sim.IntegrationMethod;
 import fr.sncf.osrd.envelope_sim.PhysicsPath;
 import fr.sncf.osrd.envelope_sim.PhysicsRollingStock;
-import fr.sncf.osrd.envelope_sim.TrainPhysicsIntegrator;
 
 public class EnvelopeMaintainSpeed {
+    /** Generate an overlay under a constant speed curve, integrating with a constant time step */
+    public static void maintain(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            double timeStep,
+            double startPosition,
+            double startSpeed,
+            StepConsumer consumer
+    ) {
+        maintain(rollingStock, path, IntegrationMethod.fixed(timeStep), startPosition, startSpeed, consumer);
+    }
+
     /** Generate an overlay under a constant speed curve.
      * This method is called when scanning a constant speed profile and detecting a slope so high that the train cannot
      * physically maintain the target speed */
     public static void maintain(
             PhysicsRollingStock rollingStock,
             PhysicsPath path,
-            double timeStep,
+            IntegrationMethod integrationMethod,
             double startPosition,
             double startSpeed,
             StepConsumer consumer
     ) {
+        var integrator = integrationMethod.newCurve(rollingStock, path, Action.MAINTAIN, 1);
         double position = startPosition;
         double speed = startSpeed;
         while (true) {
-            var step = TrainPhysicsIntegrator.step(rollingStock, path, timeStep, position, speed,
-                    Action.MAINTAIN, 1);
+            var step = integrator.step(position, speed);
             position += step.positionDelta;
             speed = step.endSpeed;
             if (consumer.addStep(position, speed, step.timeDelta))
@@ -1,6 +1,7 @@
 package fr.sncf.osrd.envelope_sim.pipelines;
 
 import fr.sncf.osrd.envelope.*;
+import fr.sncf.osrd.envelope_sim.IntegrationMethod;
 import fr.sncf.osrd.envelope_sim.PhysicsPath;
 import fr.sncf.osrd.envelope_sim.PhysicsRollingStock;
 import fr.sncf.osrd.envelope_sim.overlays.EnvelopeAcceleration;
@@ -26,43 +27,102 @@ public class MaxEffortEnvelope {
     /** Generate acceleration curves overlay everywhere the max speed envelope increase with a discontinuity */
     public static Envelope addAccelerationCurves(PhysicsRollingStock rollingStock,
                                                  PhysicsPath path,
+                                                 IntegrationMethod integrationMethod,
                                                  Envelope maxSpeedProfile,
                                                  double initialSpeed) {
         var overlayBuilder = EnvelopeOverlayBuilder.forward(maxSpeedProfile);
         overlayBuilder.startDiscontinuousOverlay(ACCELERATION, initialSpeed);
-        EnvelopeAcceleration.accelerate(rollingStock, path, 4, 0, initialSpeed, overlayBuilder);
+        EnvelopeAcceleration.accelerate(rollingStock, path, integrationMethod, 0, initialSpeed, overlayBuilder);
         while (overlayBuilder.cursor.findPartTransition(MaxSpeedEnvelope::increase)) {
             var startSpeed = overlayBuilder.startContinuousOverlay(ACCELERATION);
             var startPosition = overlayBuilder.cursor.getPosition();
-            EnvelopeAcceleration.accelerate(rollingStock, path, 4, startPosition, startSpeed, overlayBuilder);
+            EnvelopeAcceleration.accelerate(
+                    rollingStock, path, integrationMethod, startPosition, startSpeed, overlayBuilder);
             overlayBuilder.cursor.nextPart();
         }
         return overlayBuilder.build();
     }
 
+    /** Generate acceleration curves overlay where the max speed increases, using the default integration method */
+    public static Envelope addAccelerationCurves(PhysicsRollingStock rollingStock,
+                                                 PhysicsPath path,
+                                                 Envelope maxSpeedProfile,
+                                                 double initialSpeed) {
+        return addAccelerationCurves(rollingStock, path, IntegrationMethod.DEFAULT, maxSpeedProfile, initialSpeed);
+    }
+
+    /**
+     * Overlays a single acceleration curve on an envelope, starting from a point below the envelope,
+     * until the curve meets the envelope again. The rest of the envelope is kept as is.
+     */
+    public static Envelope addAccelerationCurve(PhysicsRollingStock rollingStock,
+                                                PhysicsPath path,
+                                                IntegrationMethod integrationMethod,
+                                                Envelope envelope,
+                                                double startPosition,
+                                                double startSpeed) {
+        var overlayBuilder = EnvelopeOverlayBuilder.forward(envelope);
+        if (!overlayBuilder.cursor.findPosition(startPosition))
+            return envelope;
+        overlayBuilder.startDiscontinuousOverlay(ACCELERATION, startSpeed);
+        EnvelopeAcceleration.accelerate(
+                rollingStock, path, integrationMethod, startPosition, startSpeed, overlayBuilder);
+        return overlayBuilder.build();
+    }
+
+    /** Overlays a single acceleration curve on an envelope, using the default integration method */
+    public static Envelope addAccelerationCurve(PhysicsRollingStock rollingStock,
+                                                PhysicsPath path,
+                                                Envelope envelope,
+                                                double startPosition,
+                                                double startSpeed) {
+        return addAccelerationCurve(rollingStock, path, IntegrationMethod.DEFAULT, envelope, startPosition, startSpeed);
+    }
+
     /** Generate overlays everywhere the train cannot physically maintain the target speed */
     public static Envelope addMaintainSpeedCurves(PhysicsRollingStock rollingStock,
                                                   PhysicsPath path,
+                                                  IntegrationMethod integrationMethod,
                                                   Envelope maxSpeedProfile) {
         var overlayBuilder = EnvelopeOverlayBuilder.forward(maxSpeedProfile);
         while (overlayBuilder.cursor.findPartTransition(MaxEffortEnvelope::maxEffortPlateau)) {
             var startSpeed = overlayBuilder.startContinuousOverlay(MAINTAIN);
             var startPosition = overlayBuilder.cursor.getPosition();
-            EnvelopeMaintainSpeed.maintain(rollingStock, path, 4, startPosition, startSpeed, overlayBuilder);
+            EnvelopeMaintainSpeed.maintain(
+                    rollingStock, path, integrationMethod, startPosition, startSpeed, overlayBuilder);
             overlayBuilder.cursor.nextPart();
         }
         return overlayBuilder.build();
     }
 
+    /** Generate overlays where the target speed can't be maintained, using the default integration method */
+    public static Envelope addMaintainSpeedCurves(PhysicsRollingStock rollingStock,
+                                                  PhysicsPath path,
+                                                  Envelope maxSpeedProfile) {
+        return addMaintainSpeedCurves(rollingStock, path, IntegrationMethod.DEFAULT, maxSpeedProfile);
+    }
+
     /** Generate a max effort envelope given a max speed envelope */
     public static Envelope from(
             PhysicsRollingStock rollingStock,
             PhysicsPath path,
+            IntegrationMethod integrationMethod,
             double initialSpeed,
             Envelope maxSpeedProfile
     ) {
-        var maxEffortEnvelope = addAccelerationCurves(rollingStock, path, maxSpeedProfile, initialSpeed);
-        //maxEffortEnvelope = addMaintainSpeedCurves(rollingStock, path, maxEffortEnvelope);
+        var maxEffortEnvelope = addAccelerationCurves(
+                rollingStock, path, integrationMethod, maxSpeedProfile, initialSpeed);
+        //maxEffortEnvelope = addMaintainSpeedCurves(rollingStock, path, integrationMethod, maxEffortEnvelope);
         return maxEffortEnvelope;
     }
+
+    /** Generate a max effort envelope given a max speed envelope, using the default integration method */
+    public static Envelope from(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            double initialSpeed,
+            Envelope maxSpeedProfile
+    ) {
+        return from(rollingStock, path, IntegrationMethod.DEFAULT, initialSpeed, maxSpeedProfile);
+    }
 }
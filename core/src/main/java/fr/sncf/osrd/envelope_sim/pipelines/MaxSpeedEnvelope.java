@@ -4,9 +4,13 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.envelope.Envelope;
 import fr.sncf.osrd.envelope.EnvelopeOverlayBuilder;
 import fr.sncf.osrd.envelope.EnvelopePartMeta;
+import fr.sncf.osrd.envelope.EnvelopePhysics;
+import fr.sncf.osrd.envelope.StepConsumer;
+import fr.sncf.osrd.envelope_sim.IntegrationMethod;
 import fr.sncf.osrd.envelope_sim.PhysicsPath;
 import fr.sncf.osrd.envelope_sim.PhysicsRollingStock;
 import fr.sncf.osrd.envelope_sim.overlays.EnvelopeDeceleration;
+import java.util.ArrayList;
 
 /** Max speed envelope = MRSP + braking curves
  * It is the max speed allowed at any given point, ignoring allowances
@@ -36,46 +40,147 @@ public class MaxSpeedEnvelope {
     public static Envelope addBrakingCurves(
             PhysicsRollingStock rollingStock,
             PhysicsPath path,
+            IntegrationMethod integrationMethod,
             Envelope mrsp
     ) {
         var overlayBuilder = EnvelopeOverlayBuilder.backward(mrsp);
         while (overlayBuilder.cursor.findPartTransition(MaxSpeedEnvelope::increase)) {
             var startSpeed = overlayBuilder.startContinuousOverlay(DECELERATION);
             var startPosition = overlayBuilder.cursor.getPosition();
-            EnvelopeDeceleration.decelerate(rollingStock, path, 4, startPosition, startSpeed, overlayBuilder);
+            EnvelopeDeceleration.decelerate(
+                    rollingStock, path, integrationMethod, startPosition, startSpeed, overlayBuilder);
             overlayBuilder.cursor.nextPart();
 
         }
         return overlayBuilder.build();
     }
 
-    /** Generate braking curves overlay at every stop position */
+    /** Generate braking curves overlay where the mrsp decreases, using the default integration method */
+    public static Envelope addBrakingCurves(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            Envelope mrsp
+    ) {
+        return addBrakingCurves(rollingStock, path, IntegrationMethod.DEFAULT, mrsp);
+    }
+
+    /**
+     * Generate braking curves overlay at every stop position.
+     * All the curves are added in a single backward pass, from the last stop to the first one.
+     * A braking curve can't go past the previous stop, where the train has to be stopped anyway.
+     */
+    @SuppressFBWarnings({"FE_FLOATING_POINT_EQUALITY"})
     public static Envelope addStopBrakingCurves(
             PhysicsRollingStock rollingStock,
             PhysicsPath path,
+            IntegrationMethod integrationMethod,
             double[] stopPositions,
             Envelope curveWithDecelerations
     ) {
-        for (int i = 0; i < stopPositions.length; i++) {
-            var stopPosition = stopPositions[i];
-            var overlayBuilder = EnvelopeOverlayBuilder.backward(curveWithDecelerations);
-            overlayBuilder.cursor.findPosition(stopPosition);
-            overlayBuilder.startDiscontinuousOverlay(new StopMeta(i), 0);
-            EnvelopeDeceleration.decelerate(rollingStock, path, 4, stopPosition, 0, overlayBuilder);
-            curveWithDecelerations = overlayBuilder.build();
+        // sort stops by decreasing position. when stops share the same position, the last one wins
+        var stopOrder = new ArrayList<Integer>();
+        for (int i = 0; i < stopPositions.length; i++)
+            stopOrder.add(i);
+        stopOrder.sort((a, b) -> {
+            var res = Double.compare(stopPositions[b], stopPositions[a]);
+            if (res != 0)
+                return res;
+            return Integer.compare(b, a);
+        });
+
+        var overlayBuilder = EnvelopeOverlayBuilder.backward(curveWithDecelerations);
+        var i = 0;
+        while (i < stopOrder.size()) {
+            var stopIndex = stopOrder.get(i);
+            var stopPosition = stopPositions[stopIndex];
+            // skip the other stops at the same position
+            while (i < stopOrder.size() && stopPositions[stopOrder.get(i)] == stopPosition)
+                i++;
+            var previousStopPosition = Double.NEGATIVE_INFINITY;
+            if (i < stopOrder.size())
+                previousStopPosition = stopPositions[stopOrder.get(i)];
+
+            if (!overlayBuilder.cursor.findPosition(stopPosition))
+                break;
+            overlayBuilder.startDiscontinuousOverlay(new StopMeta(stopIndex), 0);
+            var consumer = new StopBrakingConsumer(overlayBuilder, previousStopPosition, stopPosition);
+            EnvelopeDeceleration.decelerate(rollingStock, path, integrationMethod, stopPosition, 0, consumer);
+        }
+        return overlayBuilder.build();
+    }
+
+    /** Generate braking curves overlay at every stop position, using the default integration method */
+    public static Envelope addStopBrakingCurves(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            double[] stopPositions,
+            Envelope curveWithDecelerations
+    ) {
+        var integrationMethod = IntegrationMethod.DEFAULT;
+        return addStopBrakingCurves(rollingStock, path, integrationMethod, stopPositions, curveWithDecelerations);
+    }
+
+    /** Forwards the steps of a stop braking curve to an overlay, ending it at the previous stop */
+    private static final class StopBrakingConsumer implements StepConsumer {
+        private final EnvelopeOverlayBuilder overlayBuilder;
+        private final double previousStopPosition;
+        private double lastPosition;
+        private double lastSpeed = 0;
+
+        StopBrakingConsumer(EnvelopeOverlayBuilder overlayBuilder, double previousStopPosition, double stopPosition) {
+            this.overlayBuilder = overlayBuilder;
+            this.previousStopPosition = previousStopPosition;
+            this.lastPosition = stopPosition;
+        }
+
+        @Override
+        public boolean addStep(double position, double speed) {
+            var time = EnvelopePhysics.interpolateStepTime(
+                    lastPosition, position, lastSpeed, speed, position - lastPosition);
+            return addStep(position, speed, time);
+        }
+
+        @Override
+        public boolean addStep(double position, double speed, double timeDelta) {
+            if (position > previousStopPosition) {
+                lastPosition = position;
+                lastSpeed = speed;
+                return overlayBuilder.addStep(position, speed, timeDelta);
+            }
+
+            // the curve reaches the previous stop: cut it there
+            var stopDelta = previousStopPosition - lastPosition;
+            var stopSpeed = EnvelopePhysics.interpolateStepSpeed(
+                    lastPosition, position, lastSpeed, speed, stopDelta);
+            var stopTime = EnvelopePhysics.interpolateStepTime(
+                    lastPosition, position, lastSpeed, speed, stopDelta);
+            if (!overlayBuilder.addStep(previousStopPosition, stopSpeed, stopTime))
+                overlayBuilder.endOverlay();
+            return true;
         }
-        return curveWithDecelerations;
     }
 
     /** Generate a max speed envelope given a mrsp */
     public static Envelope from(
             PhysicsRollingStock rollingStock,
             PhysicsPath path,
+            IntegrationMethod integrationMethod,
             double[] stopPositions,
             Envelope mrsp
     ) {
-        var maxSpeedEnvelope = addBrakingCurves(rollingStock, path, mrsp);
-        maxSpeedEnvelope = addStopBrakingCurves(rollingStock, path, stopPositions, maxSpeedEnvelope);
+        var maxSpeedEnvelope = addBrakingCurves(rollingStock, path, integrationMethod, mrsp);
+        maxSpeedEnvelope = addStopBrakingCurves(
+                rollingStock, path, integrationMethod, stopPositions, maxSpeedEnvelope);
         return maxSpeedEnvelope;
     }
+
+    /** Generate a max speed envelope given a mrsp, using the default integration method */
+    public static Envelope from(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            double[] stopPositions,
+            Envelope mrsp
+    ) {
+        return from(rollingStock, path, IntegrationMethod.DEFAULT, stopPositions, mrsp);
+    }
 }
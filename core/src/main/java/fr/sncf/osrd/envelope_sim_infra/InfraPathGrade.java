@@ -2,6 +2,7 @@ package fr.sncf.osrd.envelope_sim_infra;
 
 import static java.lang.Math.*;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.envelope_sim.PhysicsPath;
 import fr.sncf.osrd.train.TrackSectionRange;
 import fr.sncf.osrd.train.TrainPath;
@@ -10,22 +11,28 @@ import fr.sncf.osrd.utils.graph.EdgeDirection;
 import java.util.*;
 
 public final class InfraPathGrade implements PhysicsPath {
-    /** Keys are positions in the paths, values are the sum of the slopes (per meter) before that point
+    /** Sorted positions in the path, at which the prefix sum of the slopes is known */
+    private final double[] positions;
+
+    /** The sum of the slopes (per meter) before each position
      * See: https://en.wikipedia.org/wiki/Prefix_sum
      * To get the average train grade between two points, get the difference and divide by the length (m) */
-    private final SortedDoubleMap prefixSumTrainGrade;
-    private final double length;
+    private final double[] prefixSumTrainGrade;
 
-    /** Cache to avoid recomputing the prefix sum
-     * Keys are lists of track section ranges, values are precomputed position trackers at their start positions */
-    private static final HashMap<List<TrackSectionRange>, InfraPathGrade> cachedGradeCalculators
-            = new HashMap<>();
+    private final double length;
 
     /**
      * Create a new position tracker on some given infrastructure and path.
      */
     public InfraPathGrade(SortedDoubleMap prefixSumTrainGrade, double length) {
-        this.prefixSumTrainGrade = prefixSumTrainGrade;
+        this.positions = new double[prefixSumTrainGrade.size()];
+        this.prefixSumTrainGrade = new double[prefixSumTrainGrade.size()];
+        var i = 0;
+        for (var entry : prefixSumTrainGrade.entrySet()) {
+            this.positions[i] = entry.getKey();
+            this.prefixSumTrainGrade[i] = entry.getValue();
+            i++;
+        }
         this.length = length;
     }
 
@@ -34,9 +41,14 @@ public final class InfraPathGrade implements PhysicsPath {
         return from(path.trackSectionPath);
     }
 
-    /** Creates a location from a list of track ranges */
+    /**
+     * Creates a location from a list of track ranges.
+     * The grades of a path are cached by its first track section, and shared by all the simulations.
+     */
     public static InfraPathGrade from(List<TrackSectionRange> tracks) {
-        return cachedGradeCalculators.computeIfAbsent(tracks, InfraPathGrade::initPathGrade);
+        if (tracks.isEmpty())
+            return initPathGrade(tracks);
+        return tracks.get(0).edge.getPathValue(new PathKey(tracks), key -> initPathGrade(key.tracks));
     }
 
     private static InfraPathGrade initPathGrade(List<TrackSectionRange> trackSectionPath) {
@@ -73,11 +85,84 @@ public final class InfraPathGrade implements PhysicsPath {
         return length;
     }
 
+    /** Interpolates linearly the prefix sum of the slopes, same as {@link SortedDoubleMap#interpolate(double)} */
+    private double interpolatePrefixSum(double position) {
+        if (positions.length == 0)
+            return 0;
+        var index = Arrays.binarySearch(positions, position);
+        if (index >= 0)
+            return prefixSumTrainGrade[index];
+
+        // the index of the first position after the given one
+        var after = -index - 1;
+        if (after == 0)
+            return prefixSumTrainGrade[0];
+        if (after == positions.length)
+            return prefixSumTrainGrade[positions.length - 1];
+        var before = after - 1;
+
+        var positionBefore = positions[before];
+        var positionAfter = positions[after];
+        var valueBefore = prefixSumTrainGrade[before];
+        // If the position is the same as the entry before, avoids dividing by 0
+        if (abs(positionAfter - positionBefore) < 1e-5)
+            return valueBefore;
+        var slope = (prefixSumTrainGrade[after] - valueBefore) / (positionAfter - positionBefore);
+        return valueBefore + (position - positionBefore) * slope;
+    }
+
     /** Computes the average slope on a given path position range */
     @Override
     public double getAverageGrade(double begin, double end) {
-        var sum = prefixSumTrainGrade.interpolate(end)
-                - prefixSumTrainGrade.interpolate(begin);
+        var sum = interpolatePrefixSum(end) - interpolatePrefixSum(begin);
         return sum / (end - begin);
     }
+
+    /**
+     * A cache key for a track section path.
+     * Its hash is computed once, from the identity of the track sections and the bounds of the ranges.
+     */
+    private static final class PathKey {
+        private final List<TrackSectionRange> tracks;
+        private final int hash;
+
+        PathKey(List<TrackSectionRange> tracks) {
+            this.tracks = tracks;
+            var pathHash = tracks.size();
+            for (var range : tracks) {
+                pathHash = 31 * pathHash + System.identityHashCode(range.edge);
+                pathHash = 31 * pathHash + range.direction.ordinal();
+                pathHash = 31 * pathHash + Double.hashCode(range.getBeginPosition());
+                pathHash = 31 * pathHash + Double.hashCode(range.getEndPosition());
+            }
+            this.hash = pathHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        @SuppressFBWarnings({"FE_FLOATING_POINT_EQUALITY"})
+        public boolean equals(Object obj) {
+            if (obj == this)
+                return true;
+            if (!(obj instanceof PathKey))
+                return false;
+            var other = (PathKey) obj;
+            if (hash != other.hash || tracks.size() != other.tracks.size())
+                return false;
+            for (int i = 0; i < tracks.size(); i++) {
+                var range = tracks.get(i);
+                var otherRange = other.tracks.get(i);
+                if (range.edge != otherRange.edge
+                        || range.direction != otherRange.direction
+                        || range.getBeginPosition() != otherRange.getBeginPosition()
+                        || range.getEndPosition() != otherRange.getEndPosition())
+                    return false;
+            }
+            return true;
+        }
+    }
 }
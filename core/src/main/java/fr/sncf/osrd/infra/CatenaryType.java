@@ -1,9 +1,12 @@
 package fr.sncf.osrd.infra;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.Serializable;
 
 
-public class CatenaryType {
+public class CatenaryType implements Serializable {
+    private static final long serialVersionUID = -1101465272474470364L;
+
     @SuppressFBWarnings({"URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD"})
     public final String type;
 
@@ -4,10 +4,12 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.config.JsonConfig;
 import fr.sncf.osrd.infra.railscript.DependencyBinder;
 import fr.sncf.osrd.infra.routegraph.Route;
+import fr.sncf.osrd.infra.routegraph.RouteGeometry;
 import fr.sncf.osrd.infra.routegraph.RouteGraph;
 import fr.sncf.osrd.infra.signaling.Aspect;
 import fr.sncf.osrd.infra.signaling.Signal;
 import fr.sncf.osrd.infra.trackgraph.Switch;
+import fr.sncf.osrd.infra.trackgraph.TrackGeometry;
 import fr.sncf.osrd.infra.trackgraph.TrackGraph;
 import fr.sncf.osrd.infra_state.InfraState;
 import fr.sncf.osrd.railjson.parser.RailJSONParser;
@@ -16,6 +18,7 @@ import fr.sncf.osrd.railml.RailMLParser;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
 import okio.Okio;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -77,7 +80,9 @@ import java.util.HashMap;
  * can be connected to other block sections, even though it's also connected to a signal.</p>
  */
 @SuppressFBWarnings({"URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD"})
-public final class Infra {
+public final class Infra implements Serializable {
+    private static final long serialVersionUID = -862896468824233945L;
+
     public final TrackGraph trackGraph;
     public final RouteGraph routeGraph;
     public final HashMap<String, TVDSection> tvdSections;
@@ -85,6 +90,10 @@ public final class Infra {
     public final ArrayList<Signal> signals;
     public final ArrayList<Switch> switches;
 
+    /** The coordinates of track sections and routes, which are null if some track sections have none */
+    public final TrackGeometry trackGeometry;
+    public final RouteGeometry routeGeometry;
+
     private Infra(
             TrackGraph trackGraph,
             RouteGraph routeGraph,
@@ -99,6 +108,8 @@ public final class Infra {
         this.aspects = aspects;
         this.signals = signals;
         this.switches = switches;
+        this.trackGeometry = TrackGeometry.from(trackGraph);
+        this.routeGeometry = RouteGeometry.from(routeGraph, trackGeometry);
     }
 
     /** Create an OSRD Infra */
@@ -229,6 +240,6 @@ public final class Infra {
             String path
     ) throws InvalidInfraException, IOException {
         var rjsInfra = parseRailJSONFromFile(infraType, path);
-        return RailJSONParser.parse(rjsInfra);
+        return RailJSONParser.parseAndRelease(rjsInfra);
     }
 }
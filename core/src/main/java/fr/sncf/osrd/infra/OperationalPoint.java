@@ -8,9 +8,12 @@ import fr.sncf.osrd.train.InteractionType;
 import fr.sncf.osrd.train.InteractionTypeSet;
 import fr.sncf.osrd.train.Train;
 import fr.sncf.osrd.utils.PointSequence;
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public final class OperationalPoint implements ActionPoint {
+public final class OperationalPoint implements Serializable, ActionPoint {
+    private static final long serialVersionUID = -5581368919329465582L;
+
     public final String id;
     public final transient ArrayList<TrackSection> refs = new ArrayList<>();
 
@@ -1,8 +1,11 @@
 package fr.sncf.osrd.infra;
 
 import fr.sncf.osrd.train.RollingStock;
+import java.io.Serializable;
+
+public class SpeedSection implements Serializable {
+    private static final long serialVersionUID = 5122518069123921792L;
 
-public class SpeedSection {
     /**
      * Whether there are signals on the track telling the driver about this speed limit.
      * If there aren't, the driver must make sure the speed limit is taken care of anyway.
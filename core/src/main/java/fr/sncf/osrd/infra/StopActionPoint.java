@@ -63,6 +63,11 @@ public class StopActionPoint implements ActionPoint {
         @Override
         protected void onCancellation(Simulation sim) throws SimulationError {}
 
+        @Override
+        protected TimelineEvent copy(ForkContext context) {
+            return new RestartTrainEvent(eventId, train.fork(context));
+        }
+
         @Override
         public boolean deepEquals(TimelineEvent other) {
             if (!(other instanceof RestartTrainEvent))
@@ -3,9 +3,12 @@ package fr.sncf.osrd.infra;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.infra.routegraph.Route;
 import fr.sncf.osrd.infra.trackgraph.Waypoint;
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public final class TVDSection implements Comparable<TVDSection> {
+public final class TVDSection implements Serializable, Comparable<TVDSection> {
+    private static final long serialVersionUID = -1278299881527458202L;
+
     public String id = null;
     public int index = -1;
     public final ArrayList<Waypoint> waypoints = new ArrayList<>();
@@ -4,10 +4,13 @@ import fr.sncf.osrd.infra.trackgraph.Waypoint;
 import fr.sncf.osrd.train.TrackSectionRange;
 import fr.sncf.osrd.utils.TrackSectionLocation;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 
-public class TVDSectionPath {
+public class TVDSectionPath implements Serializable {
+    private static final long serialVersionUID = 7710865941974159519L;
+
     public final TVDSection tvdSection;
     public final TrackSectionRange[] trackSections;
 
@@ -10,11 +10,14 @@ import fr.sncf.osrd.infra_state.routes.RouteState;
 import fr.sncf.osrd.infra_state.routes.RouteStatus;
 import fr.sncf.osrd.infra_state.SignalState;
 import fr.sncf.osrd.infra_state.SwitchState;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 
-public abstract class RSExpr<T extends RSValue> {
+public abstract class RSExpr<T extends RSValue> implements Serializable {
+    private static final long serialVersionUID = -5835748385150498972L;
+
     /**
      * Evaluates an expression, returning whether it's true or not
      * @param state the global state of the program
@@ -30,6 +33,8 @@ public abstract class RSExpr<T extends RSValue> {
 
     /** Infix operators, like "or" and "and" apply to multiple expression */
     public abstract static class InfixOpExpr extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -8667715467938795356L;
+
         public final RSExpr<RSBool>[] expressions;
 
         public InfixOpExpr(RSExpr<RSBool>[] expressions) {
@@ -43,6 +48,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class Or extends InfixOpExpr {
+        private static final long serialVersionUID = 4296615164102157413L;
+
         public Or(RSExpr<RSBool>[] expressions) {
             super(expressions);
         }
@@ -64,6 +71,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class And extends InfixOpExpr {
+        private static final long serialVersionUID = -44597921860439273L;
+
         public And(RSExpr<RSBool>[] expressions) {
             super(expressions);
         }
@@ -84,6 +93,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class Not extends RSExpr<RSBool> {
+        private static final long serialVersionUID = 4697385171294658932L;
+
         public final RSExpr<RSBool> expr;
 
         public Not(RSExpr<RSBool> expr) {
@@ -111,6 +122,8 @@ public abstract class RSExpr<T extends RSValue> {
     // region VALUE_CONSTRUCTORS
 
     public static final class True extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -2612016025515432457L;
+
         private True() {
         }
 
@@ -133,6 +146,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class False extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -2292400765017257576L;
+
         private False() {
         }
 
@@ -155,6 +170,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class AspectSet extends RSExpr<RSAspectSet> {
+        private static final long serialVersionUID = -5122742341260628700L;
+
         public final Aspect[] aspects;
         public final RSExpr<RSBool>[] conditions;
 
@@ -186,6 +203,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class SignalRef extends RSExpr<SignalState> {
+        private static final long serialVersionUID = 2639050033712053776L;
+
         public final String signalName;
 
         public Signal signal = null;
@@ -220,6 +239,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class RouteRef extends RSExpr<RouteState> {
+        private static final long serialVersionUID = 233718772440069368L;
+
         public final String routeName;
 
         public Route route = null;
@@ -252,6 +273,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class SwitchRef extends RSExpr<SwitchState> {
+        private static final long serialVersionUID = -5445614802562165908L;
+
         public final String switchName;
 
         public Switch switchRef = null;
@@ -288,6 +311,8 @@ public abstract class RSExpr<T extends RSValue> {
     // region CONTROL_FLOW
 
     public static final class If<T extends RSValue> extends RSExpr<T> {
+        private static final long serialVersionUID = 6138432868828252577L;
+
         public final RSExpr<RSBool> ifExpr;
         public final RSExpr<T> thenExpr;
         public final RSExpr<T> elseExpr;
@@ -322,6 +347,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class Call<T extends RSValue> extends RSExpr<T> {
+        private static final long serialVersionUID = -5576037150964902250L;
+
         public final RSFunction<T> function;
         public final RSExpr<?>[] arguments;
         public final int argScopeOffset;
@@ -360,6 +387,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class EnumMatch<T extends RSValue, CondT extends RSMatchable> extends RSExpr<T> {
+        private static final long serialVersionUID = 6054944119089448390L;
+
         public final RSExpr<CondT> expr;
         public final RSExpr<T>[] branches;
 
@@ -392,6 +421,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class OptionalMatch<T extends RSValue> extends RSExpr<T> {
+        private static final long serialVersionUID = 728332106523261648L;
+
         public final RSExpr<RSOptional<T>> expr;
         public final RSExpr<T> caseNone;
         public final RSExpr<T> caseSome;
@@ -445,6 +476,8 @@ public abstract class RSExpr<T extends RSValue> {
     // region REFERENCES
 
     public static final class ArgumentRef<T extends RSValue> extends RSExpr<T> {
+        private static final long serialVersionUID = 6747489463899274515L;
+
         public final int slotIndex;
 
         public ArgumentRef(int slotIndex) {
@@ -469,6 +502,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class OptionalMatchRef<T extends RSValue> extends RSExpr<T> {
+        private static final long serialVersionUID = -8123814192068277791L;
+
         public final String name;
         public final RSType type;
 
@@ -502,6 +537,8 @@ public abstract class RSExpr<T extends RSValue> {
     // region PRIMITIVES
 
     public static final class Delay<T extends RSValue> extends RSExpr<T> {
+        private static final long serialVersionUID = -809440721133438626L;
+
         public final double duration;
         public final RSExpr<T> expr;
         public final int delaySlotIndex;
@@ -555,6 +592,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class SignalAspectCheck extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -8187696476199023746L;
+
         /** The signal the condition checks for */
         public final RSExpr<SignalState> signalExpr;
 
@@ -587,6 +626,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class HasCBTCStatus extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -4975900816436166327L;
+
         public final RSExpr<RouteState> routeExpr;
 
         public HasCBTCStatus(RSExpr<RouteState> routeExpr) {
@@ -610,6 +651,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class IsPassiveRoute extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -7564451792575815153L;
+
         public final RSExpr<RouteState> routeExpr;
 
         public IsPassiveRoute(RSExpr<RouteState> routeExpr) {
@@ -633,6 +676,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class RouteStateCheck extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -9018768781948191244L;
+
         public final RSExpr<RouteState> routeExpr;
         public final RouteStatus status;
 
@@ -658,6 +703,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class AspectSetContains extends RSExpr<RSBool> {
+        private static final long serialVersionUID = -8203353192652883627L;
+
         public final RSExpr<RSAspectSet> expr;
         public final Aspect aspect;
 
@@ -683,6 +730,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class ReservedRoute extends RSExpr<RSOptional<RouteState>> {
+        private static final long serialVersionUID = -5647974632659946994L;
+
         public final RSExpr<SignalState> signal;
 
         /** Contains all routes to test */
@@ -724,6 +773,8 @@ public abstract class RSExpr<T extends RSValue> {
     }
 
     public static final class NextSignal extends RSExpr<RSOptional<SignalState>> {
+        private static final long serialVersionUID = -5495204972179147641L;
+
         public final RSExpr<SignalState> signal;
         public final RSExpr<RouteState> route;
 
@@ -760,6 +811,8 @@ public abstract class RSExpr<T extends RSValue> {
 
     
     public static final class PreviousReservedRoute extends RSExpr<RSOptional<RouteState>> {
+        private static final long serialVersionUID = 3669026863398318380L;
+
         public final RSExpr<SignalState> signal;
 
         public PreviousReservedRoute(RSExpr<SignalState> signal) {
@@ -5,6 +5,7 @@ import fr.sncf.osrd.infra_state.InfraState;
 import fr.sncf.osrd.utils.DeepComparable;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.function.UnaryOperator;
 
 public class RSExprState<T extends RSValue> implements DeepComparable<RSExprState<?>> {
     @Override
@@ -97,6 +98,22 @@ public class RSExprState<T extends RSValue> implements DeepComparable<RSExprStat
         variablesInScope = new HashMap<>();
     }
 
+    /** Creates a copy of the persistent state of the expression, which is used by a fork of the simulation */
+    public RSExprState<T> copy() {
+        var copy = new RSExprState<>(rootExpr, argStates.length, delayCurrentStates.length);
+        System.arraycopy(delayLaggingStates, 0, copy.delayLaggingStates, 0, delayLaggingStates.length);
+        System.arraycopy(delayCurrentStates, 0, copy.delayCurrentStates, 0, delayCurrentStates.length);
+        return copy;
+    }
+
+    /** Replaces the values of the persistent state using the given function */
+    public void replaceValues(UnaryOperator<RSValue> valueMapper) {
+        for (int i = 0; i < delayLaggingStates.length; i++) {
+            delayLaggingStates[i] = valueMapper.apply(delayLaggingStates[i]);
+            delayCurrentStates[i] = valueMapper.apply(delayCurrentStates[i]);
+        }
+    }
+
     private T eval(InfraState infraState, RSDelayHandler delayHandler, RSExprEvalMode evalMode) {
         this.argScopeOffset = 0;
         this.delayHandler = delayHandler;
@@ -3,8 +3,11 @@ package fr.sncf.osrd.infra.railscript;
 import fr.sncf.osrd.infra.InvalidInfraException;
 import fr.sncf.osrd.infra.railscript.value.RSType;
 import fr.sncf.osrd.infra.railscript.value.RSValue;
+import java.io.Serializable;
+
+public class RSFunction<T extends RSValue> implements Serializable {
+    private static final long serialVersionUID = -8299196943776315014L;
 
-public class RSFunction<T extends RSValue> {
     public final String functionName;
 
     public final String[] argNames;
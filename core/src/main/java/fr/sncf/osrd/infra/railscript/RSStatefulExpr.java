@@ -2,8 +2,11 @@ package fr.sncf.osrd.infra.railscript;
 
 import fr.sncf.osrd.infra.InvalidInfraException;
 import fr.sncf.osrd.infra.railscript.value.RSValue;
+import java.io.Serializable;
+
+public class RSStatefulExpr<T extends RSValue> implements Serializable {
+    private static final long serialVersionUID = 3664342854651549148L;
 
-public class RSStatefulExpr<T extends RSValue> {
     public final RSExpr<T> rootExpr;
     public final int argSlotCount;
     public final int delaySlotCount;
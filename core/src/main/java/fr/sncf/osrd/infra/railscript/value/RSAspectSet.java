@@ -5,6 +5,8 @@ import fr.sncf.osrd.infra.signaling.Aspect;
 import fr.sncf.osrd.utils.SortedArraySet;
 
 public final class RSAspectSet extends SortedArraySet<Aspect> implements RSValue {
+    private static final long serialVersionUID = -5612301467521143139L;
+
     @Override
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
     public boolean deepEquals(RSValue other) {
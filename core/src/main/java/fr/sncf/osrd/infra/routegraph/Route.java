@@ -14,6 +14,8 @@ import fr.sncf.osrd.utils.graph.DirNEdge;
 import java.util.*;
 
 public class Route extends DirNEdge {
+    private static final long serialVersionUID = -4674236265517126666L;
+
     public final String id;
     /** List of tvdSectionPath forming the route */
     public final List<TVDSectionPath> tvdSectionsPaths;
@@ -0,0 +1,65 @@
+package fr.sncf.osrd.infra.routegraph;
+
+import fr.sncf.osrd.infra.trackgraph.TrackGeometry;
+import fr.sncf.osrd.utils.TrackSectionLocation;
+import fr.sncf.osrd.utils.graph.AStarHeuristic;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The coordinates of the entry points of routes, which give lower bounds of the distance between two route locations.
+ * Pathfinding mostly goes from the entry point of a route to the next, so only entry points are stored.
+ */
+public final class RouteGeometry implements Serializable {
+    private static final long serialVersionUID = -7766766122216429664L;
+
+    private final TrackGeometry trackGeometry;
+
+    // the coordinates of the entry point of each route, indexed by route index
+    private final double[] entryX;
+    private final double[] entryY;
+
+    private RouteGeometry(TrackGeometry trackGeometry, double[] entryX, double[] entryY) {
+        this.trackGeometry = trackGeometry;
+        this.entryX = entryX;
+        this.entryY = entryY;
+    }
+
+    /** Computes the entry points of routes, or returns null if there are no track coordinates */
+    public static RouteGeometry from(RouteGraph routeGraph, TrackGeometry trackGeometry) {
+        if (trackGeometry == null)
+            return null;
+        var routeCount = routeGraph.getEdgeCount();
+        var entryX = new double[routeCount];
+        var entryY = new double[routeCount];
+        for (var route : routeGraph.iterEdges()) {
+            var entry = new RouteLocation(route, 0).getTrackSectionLocation();
+            if (entry == null)
+                return null;
+            entryX[route.index] = trackGeometry.getX(entry.edge, entry.offset);
+            entryY[route.index] = trackGeometry.getY(entry.edge, entry.offset);
+        }
+        return new RouteGeometry(trackGeometry, entryX, entryY);
+    }
+
+    /**
+     * Creates a heuristic which estimates the distance from a route location to the closest goal.
+     * Locations inside routes are estimated to be 0 away from the goals, which is always a lower bound.
+     */
+    public AStarHeuristic<Route> heuristic(Collection<RouteLocation> goals) {
+        var trackGoals = new ArrayList<TrackSectionLocation>();
+        for (var goal : goals) {
+            var trackGoal = goal.getTrackSectionLocation();
+            if (trackGoal == null)
+                return (route, offset) -> 0;
+            trackGoals.add(trackGoal);
+        }
+        var goalSet = trackGeometry.goals(trackGoals);
+        return (route, offset) -> {
+            if (offset > 0)
+                return 0;
+            return goalSet.estimate(entryX[route.index], entryY[route.index]);
+        };
+    }
+}
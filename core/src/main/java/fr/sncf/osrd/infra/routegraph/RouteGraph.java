@@ -14,13 +14,29 @@ import fr.sncf.osrd.infra.trackgraph.Waypoint;
 import fr.sncf.osrd.train.TrackSectionRange;
 import fr.sncf.osrd.utils.SortedArraySet;
 import fr.sncf.osrd.utils.TrackSectionLocation;
+import fr.sncf.osrd.utils.graph.ContractionHierarchy;
 import fr.sncf.osrd.utils.graph.DirNGraph;
+import fr.sncf.osrd.utils.graph.DistCostFunction;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
 import java.util.*;
 
 public class RouteGraph extends DirNGraph<Route, Waypoint> {
+    private static final long serialVersionUID = 9985410760234652L;
+
     public final HashMap<String, Route> routeMap = new HashMap<>();
 
+    /** A contraction hierarchy of the routes, using the distance as cost, or null if it wasn't built */
+    private ContractionHierarchy<Route> distHierarchy = null;
+
+    public ContractionHierarchy<Route> getDistHierarchy() {
+        return distHierarchy;
+    }
+
+    /** Builds the contraction hierarchy used by distance pathfinding. The graph must not change afterwards */
+    public void buildDistHierarchy() {
+        distHierarchy = ContractionHierarchy.build(this, new DistCostFunction<>());
+    }
+
     @Override
     public List<Route> getNeighbors(Route route) {
         var lastTvdSectionPath = route.tvdSectionsPaths.get(route.tvdSectionsPaths.size() - 1);
@@ -1,9 +1,12 @@
 package fr.sncf.osrd.infra.signaling;
 
 import fr.sncf.osrd.utils.DeepComparable;
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public final class Aspect implements Comparable<Aspect>, DeepComparable<Aspect> {
+public final class Aspect implements Serializable, Comparable<Aspect>, DeepComparable<Aspect> {
+    private static final long serialVersionUID = -6340196034384176545L;
+
     public final int index;
     public final String id;
 
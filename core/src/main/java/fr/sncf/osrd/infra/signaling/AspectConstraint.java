@@ -4,12 +4,16 @@ import fr.sncf.osrd.train.Interaction;
 import fr.sncf.osrd.train.InteractionType;
 import fr.sncf.osrd.train.TrainState;
 import fr.sncf.osrd.train.phases.NavigatePhaseState;
+import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
-public abstract class AspectConstraint {
+public abstract class AspectConstraint implements Serializable {
+    private static final long serialVersionUID = 1351126806911612540L;
+
+    public static class ConstraintPosition implements Serializable {
+        private static final long serialVersionUID = -4155122937511546563L;
 
-    public static class ConstraintPosition {
         public final double offset;
         public final ConstraintPosition.Element element;
 
@@ -51,6 +55,8 @@ public abstract class AspectConstraint {
     }
 
     public static class SpeedLimit extends AspectConstraint {
+        private static final long serialVersionUID = -8494712164265915062L;
+
         public final double speed;
         public final ConstraintPosition appliesAt;
         public final ConstraintPosition until;
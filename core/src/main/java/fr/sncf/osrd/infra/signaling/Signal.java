@@ -10,9 +10,12 @@ import fr.sncf.osrd.train.InteractionType;
 import fr.sncf.osrd.train.InteractionTypeSet;
 import fr.sncf.osrd.train.Train;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public final class Signal implements ActionPoint {
+public final class Signal implements Serializable, ActionPoint {
+    private static final long serialVersionUID = -9201145071904348659L;
+
     public final int index;
     public final double sightDistance;
     public final String id;
@@ -10,6 +10,8 @@ import fr.sncf.osrd.train.Train;
  * https://en.wikipedia.org/wiki/Buffer_stop
  */
 public class BufferStop extends Waypoint {
+    private static final long serialVersionUID = 2278298728872413330L;
+
     private static final InteractionTypeSet interactionTypeSet = new InteractionTypeSet();
 
     public BufferStop(int index, String id) {
@@ -7,6 +7,7 @@ import fr.sncf.osrd.train.InteractionTypeSet;
 import fr.sncf.osrd.train.Train;
 
 public class Detector extends Waypoint {
+    private static final long serialVersionUID = 1064822404372690321L;
 
     private static final InteractionTypeSet interactionTypeSet =
             new InteractionTypeSet(new InteractionType[]{InteractionType.HEAD, InteractionType.TAIL});
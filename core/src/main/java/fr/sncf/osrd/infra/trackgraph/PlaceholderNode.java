@@ -7,6 +7,8 @@ import fr.sncf.osrd.utils.graph.BiGraph;
  * Its list of neighbors is held by {@link BiGraph}.
  */
 public class PlaceholderNode extends TrackNode {
+    private static final long serialVersionUID = -8619463954919160266L;
+
     PlaceholderNode(TrackGraph graph, int index, String id) {
         super(index, id);
         graph.registerNode(this);
@@ -2,11 +2,14 @@ package fr.sncf.osrd.infra.trackgraph;
 
 import fr.sncf.osrd.infra.signaling.Signal;
 import fr.sncf.osrd.utils.graph.EdgeEndpoint;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 
 public class Switch extends TrackNode {
+    private static final long serialVersionUID = -8843520834470835584L;
+
     public final int switchIndex;
     public final double groupChangeDelay;
     public final List<Port> ports;
@@ -34,7 +37,8 @@ public class Switch extends TrackNode {
         return groups.entrySet().stream().findFirst().get().getKey();
     }
 
-    public static final class Port {
+    public static final class Port implements Serializable {
+        private static final long serialVersionUID = -2445019818688209064L;
 
         public final String id;
         public final TrackSection trackSection;
@@ -70,7 +74,8 @@ public class Switch extends TrackNode {
         }
     }
 
-    public static final class PortEdge {
+    public static final class PortEdge implements Serializable {
+        private static final long serialVersionUID = -5354540026423901250L;
 
         public final Port src;
         public final Port dst;
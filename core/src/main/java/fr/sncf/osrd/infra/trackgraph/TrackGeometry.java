@@ -0,0 +1,148 @@
+package fr.sncf.osrd.infra.trackgraph;
+
+import fr.sncf.osrd.utils.TrackSectionLocation;
+import fr.sncf.osrd.utils.graph.AStarHeuristic;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * <p>The coordinates of the track sections, which give lower bounds of the distance between two locations.</p>
+ *
+ * <p>Track sections are only known by the coordinates of their endpoints: locations on a track section are
+ * interpolated between them. Track sections are rarely straight, so they are longer than the straight line
+ * between their endpoints: the straight line distance is scaled by the smallest ratio between the length
+ * of a track section and the distance between its endpoints. This makes the bound valid for any path,
+ * whatever the unit of the coordinates.</p>
+ *
+ * <p>The bound only holds if linked track sections have the same coordinates where they meet:
+ * if some infrastructure doesn't, it has no geometry.</p>
+ */
+public final class TrackGeometry implements Serializable {
+    private static final long serialVersionUID = -7456480129989871186L;
+
+    /** Leaves some room for rounding errors in the coordinates and lengths of track sections */
+    private static final double SAFETY_FACTOR = 0.99;
+
+    /** How far apart the coordinates of linked endpoints can be */
+    private static final double NODE_TOLERANCE = 1e-6;
+
+    // the coordinates of the endpoints of each track section, indexed by track section index
+    private final double[] beginX;
+    private final double[] beginY;
+    private final double[] endX;
+    private final double[] endY;
+
+    /** The smallest ratio between the length of a track section and the distance between its endpoints */
+    public final double scale;
+
+    private TrackGeometry(double[] beginX, double[] beginY, double[] endX, double[] endY, double scale) {
+        this.beginX = beginX;
+        this.beginY = beginY;
+        this.endX = endX;
+        this.endY = endY;
+        this.scale = scale;
+    }
+
+    /**
+     * Reads the coordinates of the track sections.
+     * Returns null if some track sections have no coordinates, or if they disagree on the coordinates of a node.
+     */
+    public static TrackGeometry from(TrackGraph trackGraph) {
+        var trackCount = trackGraph.getEdgeCount();
+        var beginX = new double[trackCount];
+        var beginY = new double[trackCount];
+        var endX = new double[trackCount];
+        var endY = new double[trackCount];
+        var nodeX = new double[trackGraph.getNodeCount()];
+        var nodeY = new double[trackGraph.getNodeCount()];
+        Arrays.fill(nodeX, Double.NaN);
+        var scale = Double.POSITIVE_INFINITY;
+        for (var track : trackGraph.iterEdges()) {
+            var coords = track.endpointCoords;
+            if (coords == null || coords.size() != 2 || coords.get(0).size() < 2 || coords.get(1).size() < 2)
+                return null;
+            var i = track.index;
+            beginX[i] = coords.get(0).get(0);
+            beginY[i] = coords.get(0).get(1);
+            endX[i] = coords.get(1).get(0);
+            endY[i] = coords.get(1).get(1);
+            if (!checkNode(nodeX, nodeY, track.startNode, beginX[i], beginY[i])
+                    || !checkNode(nodeX, nodeY, track.endNode, endX[i], endY[i]))
+                return null;
+            var straightLength = Math.hypot(endX[i] - beginX[i], endY[i] - beginY[i]);
+            if (straightLength > 0)
+                scale = Math.min(scale, track.length / straightLength);
+        }
+        if (scale == Double.POSITIVE_INFINITY)
+            return null;
+        return new TrackGeometry(beginX, beginY, endX, endY, scale * SAFETY_FACTOR);
+    }
+
+    /** Stores the coordinates of a node if they are unknown, or checks they're the same otherwise */
+    private static boolean checkNode(double[] nodeX, double[] nodeY, int node, double x, double y) {
+        if (Double.isNaN(nodeX[node])) {
+            nodeX[node] = x;
+            nodeY[node] = y;
+            return true;
+        }
+        return Math.abs(nodeX[node] - x) <= NODE_TOLERANCE && Math.abs(nodeY[node] - y) <= NODE_TOLERANCE;
+    }
+
+    /** The interpolated X coordinate of a location */
+    public double getX(TrackSection track, double offset) {
+        var i = track.index;
+        if (track.length == 0)
+            return beginX[i];
+        return beginX[i] + (endX[i] - beginX[i]) * offset / track.length;
+    }
+
+    /** The interpolated Y coordinate of a location */
+    public double getY(TrackSection track, double offset) {
+        var i = track.index;
+        if (track.length == 0)
+            return beginY[i];
+        return beginY[i] + (endY[i] - beginY[i]) * offset / track.length;
+    }
+
+    /** A set of goal locations, which estimates the distance to the closest one */
+    public final class Goals {
+        private final double[] goalX;
+        private final double[] goalY;
+
+        private Goals(Collection<TrackSectionLocation> goals) {
+            goalX = new double[goals.size()];
+            goalY = new double[goals.size()];
+            var i = 0;
+            for (var goal : goals) {
+                goalX[i] = getX(goal.edge, goal.offset);
+                goalY[i] = getY(goal.edge, goal.offset);
+                i++;
+            }
+        }
+
+        /** Returns a lower bound of the length of any path from the given coordinates to the closest goal */
+        public double estimate(double x, double y) {
+            if (goalX.length == 0)
+                return 0;
+            var minSquaredDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < goalX.length; i++) {
+                var dx = goalX[i] - x;
+                var dy = goalY[i] - y;
+                minSquaredDistance = Math.min(minSquaredDistance, dx * dx + dy * dy);
+            }
+            return Math.sqrt(minSquaredDistance) * scale;
+        }
+    }
+
+    /** Creates a set of goals, which estimates the distance to the closest one */
+    public Goals goals(Collection<TrackSectionLocation> goals) {
+        return new Goals(goals);
+    }
+
+    /** Creates a heuristic which estimates the distance from a track section location to the closest goal */
+    public AStarHeuristic<TrackSection> heuristic(Collection<TrackSectionLocation> goals) {
+        var goalSet = goals(goals);
+        return (track, offset) -> goalSet.estimate(getX(track, offset), getY(track, offset));
+    }
+}
@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Map;
 
 public final class TrackGraph extends BiNGraph<TrackSection, TrackNode> {
+    private static final long serialVersionUID = 4186673875020396847L;
+
     // operationalPoints a map from operational point IDs to operational points
     public final Map<String, OperationalPoint> operationalPoints = new HashMap<>();
     // trackNodeMap a map from node IDs to nodes
@@ -6,6 +6,8 @@ import fr.sncf.osrd.utils.graph.Node;
  * A node in the topological infrastructure graph.
  */
 public abstract class TrackNode extends Node {
+    private static final long serialVersionUID = 1812754423652092184L;
+
     public final String id;
 
     public TrackNode(int index, String id) {
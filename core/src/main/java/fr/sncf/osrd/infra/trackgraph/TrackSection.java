@@ -14,12 +14,17 @@ import fr.sncf.osrd.utils.graph.BiNEdge;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
 import fr.sncf.osrd.utils.graph.EdgeEndpoint;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * An edge in the topological graph.
  */
 public final class TrackSection extends BiNEdge<TrackSection> {
+    private static final long serialVersionUID = -5852204245253815363L;
+
     public final String id;
 
     public final List<List<Double>> endpointCoords;
@@ -28,6 +33,8 @@ public final class TrackSection extends BiNEdge<TrackSection> {
     public final ArrayList<TrackSection> endNeighbors = new ArrayList<>();
 
     public static final class RouteFragment extends IntervalNode {
+        private static final long serialVersionUID = 6178731555458783796L;
+
         public final Route route;
         public final double routeOffset;
         public final EdgeDirection direction;
@@ -63,6 +70,62 @@ public final class TrackSection extends BiNEdge<TrackSection> {
     public final PointSequence<ActionPoint> forwardActionPoints = new PointSequence<>();
     public final PointSequence<ActionPoint> backwardActionPoints = new PointSequence<>();
 
+    /** The maximum number of paths starting on a track section whose values are cached */
+    public static final int MAX_CACHED_PATHS = 1024;
+
+    /**
+     * Values computed for the paths which start on this track section, such as their grades.
+     * As they are kept by the track section, they are dropped along with its infra.
+     * The least recently used paths are evicted once the cache is full.
+     */
+    @SuppressFBWarnings({"SE_TRANSIENT_FIELD_NOT_RESTORED"})
+    private transient PathCache pathCache = null;
+
+    private static final class PathCache extends LinkedHashMap<Object, Object> {
+        private static final long serialVersionUID = 7613569215342467290L;
+
+        PathCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    }
+
+    /**
+     * Returns the value cached for a path which starts on this track section, or computes and caches it.
+     * The value is computed outside of the lock, so that other paths can be looked up meanwhile.
+     * @param key the path, whose type must be specific to the kind of computed value
+     * @param compute computes the value of the path
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> V getPathValue(K key, Function<K, V> compute) {
+        synchronized (this) {
+            if (pathCache != null) {
+                var cached = pathCache.get(key);
+                if (cached != null)
+                    return (V) cached;
+            }
+        }
+
+        var value = compute.apply(key);
+        synchronized (this) {
+            if (pathCache == null)
+                pathCache = new PathCache();
+            var cached = pathCache.putIfAbsent(key, value);
+            return cached != null ? (V) cached : value;
+        }
+    }
+
+    /** Returns the number of paths starting on this track section whose values are cached */
+    public synchronized int getCachedPathCount() {
+        if (pathCache == null)
+            return 0;
+        return pathCache.size();
+    }
+
     /** Clamp an offset between 0 and the length of the track section */
     public double clamp(double offset) {
         if (offset < 0)
@@ -9,6 +9,8 @@ import fr.sncf.osrd.utils.graph.Node;
 import java.util.ArrayList;
 
 public abstract class Waypoint extends Node implements ActionPoint {
+    private static final long serialVersionUID = 8009032056610660360L;
+
     public final String id;
 
     /** List of neighbors seen when moving across the detector from the beginning of the track section to the end */
@@ -2,9 +2,12 @@ package fr.sncf.osrd.infra_state;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.infra.Infra;
+import fr.sncf.osrd.infra.railscript.value.RSOptional;
+import fr.sncf.osrd.infra.railscript.value.RSValue;
 import fr.sncf.osrd.infra_state.regulator.TowerState;
 import fr.sncf.osrd.infra_state.regulator.TrainSuccessionTable;
 import fr.sncf.osrd.infra_state.routes.RouteState;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.utils.DeepComparable;
 import fr.sncf.osrd.utils.DeepEqualsUtils;
 import java.util.List;
@@ -54,6 +57,58 @@ public final class InfraState implements DeepComparable<InfraState> {
         return infra;
     }
 
+    /**
+     * Creates a copy of the state, for a fork of the simulation.
+     * Signals aren't subscribed to by trains until {@link #forkTrainSubscriptions(ForkContext)} is called.
+     */
+    public InfraState fork() {
+        var signalStates = new SignalState[signalSignalStates.length];
+        for (int i = 0; i < signalStates.length; i++)
+            signalStates[i] = signalSignalStates[i].copy();
+        var routeStatesCopy = new RouteState[routeStates.length];
+        for (int i = 0; i < routeStatesCopy.length; i++)
+            routeStatesCopy[i] = routeStates[i].copy();
+        var switchStatesCopy = new SwitchState[switchStates.length];
+        for (int i = 0; i < switchStatesCopy.length; i++)
+            switchStatesCopy[i] = switchStates[i].copy();
+        var tvdSectionStatesCopy = new TVDSectionState[tvdSectionStates.length];
+        for (int i = 0; i < tvdSectionStatesCopy.length; i++)
+            tvdSectionStatesCopy[i] = tvdSectionStates[i].copy();
+
+        var fork = new InfraState(infra, signalStates, routeStatesCopy, switchStatesCopy, tvdSectionStatesCopy,
+                towerState.copy());
+        // signal expressions may keep states of the original simulation in their delay slots
+        for (var signalState : signalStates)
+            signalState.exprState.replaceValues(fork::forkValue);
+        return fork;
+    }
+
+    /** Subscribes the trains of a fork of the simulation to the same signals as in the original simulation */
+    public void forkTrainSubscriptions(ForkContext context) {
+        for (int i = 0; i < signalSignalStates.length; i++) {
+            var train = signalSignalStates[i].getSubscribedTrain();
+            if (train != null)
+                context.fork.infraState.signalSignalStates[i].subscribeTrain(train.fork(context));
+        }
+    }
+
+    /** Replaces a value referring to the state of another simulation with the matching value of this state */
+    public RSValue forkValue(RSValue value) {
+        if (value instanceof SignalState)
+            return signalSignalStates[((SignalState) value).signal.index];
+        if (value instanceof RouteState)
+            return routeStates[((RouteState) value).route.index];
+        if (value instanceof SwitchState)
+            return switchStates[((SwitchState) value).switchRef.switchIndex];
+        if (value instanceof RSOptional) {
+            var optionalValue = ((RSOptional<?>) value).value;
+            if (optionalValue == null)
+                return value;
+            return new RSOptional<>(forkValue(optionalValue));
+        }
+        return value;
+    }
+
     @Override
     public boolean deepEquals(InfraState otherState) {
         if (!DeepEqualsUtils.deepEquals(signalSignalStates, otherState.signalSignalStates))
@@ -51,9 +51,14 @@ public final class SignalState implements RSValue {
 
     private void updateAspect(Simulation sim, RSAspectSet newAspects) throws SimulationError {
         if (newAspects != null && !newAspects.equals(aspects)) {
-            var change = new SignalAspectChange(sim, this, newAspects);
-            change.apply(sim, this);
-            sim.publishChange(change);
+            if (sim.isConsumed(SignalAspectChange.class)) {
+                var change = new SignalAspectChange(sim, this, newAspects);
+                change.apply(sim, this);
+                sim.publishChange(change);
+            } else {
+                aspects = newAspects;
+                sim.traceSkippedChange(SignalAspectChange.class);
+            }
             for (var signal : signal.signalSubscribers) {
                 var signalState = sim.infraState.getSignalState(signal.index);
                 signalState.notifyChange(sim);
@@ -63,6 +68,20 @@ public final class SignalState implements RSValue {
         }
     }
 
+    /**
+     * Creates a copy of this state, for a fork of the simulation.
+     * The values of the expression state and the subscribed train still belong to the original simulation.
+     */
+    SignalState copy() {
+        var copy = new SignalState(signal, exprState.copy());
+        copy.aspects = aspects;
+        return copy;
+    }
+
+    public Train getSubscribedTrain() {
+        return trainSubscribed;
+    }
+
     public void subscribeTrain(Train train) {
         trainSubscribed = train;
     }
@@ -25,6 +25,13 @@ public final class SwitchState implements RSValue {
         this.group = switchRef.getDefaultGroup();
     }
 
+    /** Creates a copy of this state, for a fork of the simulation */
+    SwitchState copy() {
+        var copy = new SwitchState(switchRef);
+        copy.group = group;
+        return copy;
+    }
+
     public String getGroup() {
         return group;
     }
@@ -53,9 +60,14 @@ public final class SwitchState implements RSValue {
             return;
         if (group != null && group.equals(newGroup))
             return;
-        var change = new SwitchGroupChange(sim, this, newGroup);
-        change.apply(sim, this);
-        sim.publishChange(change);
+        if (sim.isConsumed(SwitchGroupChange.class)) {
+            var change = new SwitchGroupChange(sim, this, newGroup);
+            change.apply(sim, this);
+            sim.publishChange(change);
+        } else {
+            group = newGroup;
+            sim.traceSkippedChange(SwitchGroupChange.class);
+        }
         for (var signal : switchRef.signalSubscribers) {
             var signalState = sim.infraState.getSignalState(signal.index);
             signalState.notifyChange(sim);
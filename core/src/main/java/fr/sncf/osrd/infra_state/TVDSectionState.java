@@ -23,15 +23,21 @@ public class TVDSectionState implements DeepComparable<TVDSectionState> {
         this.reservation = 0;
     }
 
+    /** Creates a copy of this state, for a fork of the simulation */
+    TVDSectionState copy() {
+        var copy = new TVDSectionState(tvdSection);
+        copy.reservation = reservation;
+        copy.isOccupied = isOccupied;
+        return copy;
+    }
+
     /**
      * Create an event to reserve the tvd section
      *
      * @param sim the current simulation
      */
     public void reserve(Simulation sim) throws SimulationError {
-        var change = new TVDSectionReservationChange(sim, this, true);
-        change.apply(sim, this);
-        sim.publishChange(change);
+        changeReservation(sim, true);
         for (var route : tvdSection.routeSubscribers) {
             var routeState = sim.infraState.getRouteState(route.index);
             routeState.onTvdSectionReserved(sim);
@@ -44,9 +50,7 @@ public class TVDSectionState implements DeepComparable<TVDSectionState> {
      * @param sim the current simulation
      */
     public void free(Simulation sim) throws SimulationError {
-        var change = new TVDSectionReservationChange(sim, this, false);
-        change.apply(sim, this);
-        sim.publishChange(change);
+        changeReservation(sim, false);
 
         for (var route : tvdSection.routeSubscribers) {
             var routeState = sim.infraState.getRouteState(route.index);
@@ -62,9 +66,7 @@ public class TVDSectionState implements DeepComparable<TVDSectionState> {
     public void occupy(Simulation sim) throws SimulationError {
         if (isOccupied)
             throw new SimulationError("TVD section we try to occupy is already occupied");
-        var change = new TVDSectionOccupationChange(sim, this, true);
-        change.apply(sim, this);
-        sim.publishChange(change);
+        changeOccupation(sim, true);
         // We need to notify the passive route first, as it may put the controlled routes in the CONFLICT state
         callbackAllRoutes(sim, false);
         callbackAllRoutes(sim, true);
@@ -86,15 +88,41 @@ public class TVDSectionState implements DeepComparable<TVDSectionState> {
      * @param sim the current simulation
      */
     public void unoccupy(Simulation sim) throws SimulationError {
-        var change = new TVDSectionOccupationChange(sim, this, false);
-        change.apply(sim, this);
-        sim.publishChange(change);
+        changeOccupation(sim, false);
         for (var route : tvdSection.routeSubscribers) {
             var routeState = sim.infraState.getRouteState(route.index);
             routeState.onTvdSectionUnoccupied(sim, this);
         }
     }
 
+    private void changeReservation(Simulation sim, boolean newReservation) {
+        if (sim.isConsumed(TVDSectionReservationChange.class)) {
+            var change = new TVDSectionReservationChange(sim, this, newReservation);
+            change.apply(sim, this);
+            sim.publishChange(change);
+        } else {
+            updateReservation(newReservation);
+            sim.traceSkippedChange(TVDSectionReservationChange.class);
+        }
+    }
+
+    private void updateReservation(boolean newReservation) {
+        if (!newReservation)
+            assert isReserved();
+        reservation += (newReservation) ? 1 : -1;
+    }
+
+    private void changeOccupation(Simulation sim, boolean newOccupation) {
+        if (sim.isConsumed(TVDSectionOccupationChange.class)) {
+            var change = new TVDSectionOccupationChange(sim, this, newOccupation);
+            change.apply(sim, this);
+            sim.publishChange(change);
+        } else {
+            isOccupied = newOccupation;
+            sim.traceSkippedChange(TVDSectionOccupationChange.class);
+        }
+    }
+
     /**
      * Check if the tvdSection is reserved
      *
@@ -126,9 +154,7 @@ public class TVDSectionState implements DeepComparable<TVDSectionState> {
 
         @Override
         public Void apply(Simulation sim, TVDSectionState entity) {
-            if (!newReservation)
-                assert entity.isReserved();
-            entity.reservation += (newReservation) ? 1 : -1;
+            entity.updateReservation(newReservation);
             return null;
         }
 
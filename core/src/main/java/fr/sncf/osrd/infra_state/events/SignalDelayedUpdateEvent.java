@@ -3,6 +3,7 @@ package fr.sncf.osrd.infra_state.events;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.infra.railscript.value.RSValue;
 import fr.sncf.osrd.infra_state.SignalState;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -31,6 +32,13 @@ public class SignalDelayedUpdateEvent extends TimelineEvent {
         throw new SimulationError("cancelling DelayUpdateEvent not supported");
     }
 
+    @Override
+    protected TimelineEvent copy(ForkContext context) {
+        var infraState = context.fork.infraState;
+        return new SignalDelayedUpdateEvent(eventId, delaySlot, infraState.forkValue(value),
+                infraState.getSignalState(signalIndex));
+    }
+
     @Override
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
     public boolean deepEquals(TimelineEvent other) {
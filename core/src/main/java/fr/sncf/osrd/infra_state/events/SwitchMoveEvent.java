@@ -3,6 +3,7 @@ package fr.sncf.osrd.infra_state.events;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.infra_state.routes.RouteState;
 import fr.sncf.osrd.infra_state.SwitchState;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -37,6 +38,14 @@ public class SwitchMoveEvent extends TimelineEvent {
         throw new SimulationError("cancelling a switch move isn't supported");
     }
 
+    @Override
+    protected TimelineEvent copy(ForkContext context) {
+        var infraState = context.fork.infraState;
+        return new SwitchMoveEvent(eventId, newGroup,
+                infraState.getSwitchState(switchState.switchRef.switchIndex),
+                infraState.getRouteState(routeState.route.index));
+    }
+
     @Override
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
     public boolean deepEquals(TimelineEvent other) {
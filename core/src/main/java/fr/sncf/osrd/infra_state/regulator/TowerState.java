@@ -54,6 +54,20 @@ public class TowerState {
         return new TowerState(trainSuccessionTables, waitingLists, trainSuccessionLog);
     }
 
+    /** Creates a copy of the tower state, for a fork of the simulation */
+    public TowerState copy() {
+        var tablesCopy = new HashMap<String, TrainSuccessionTable>();
+        for (var entry : trainSuccessionTables.entrySet())
+            tablesCopy.put(entry.getKey(), entry.getValue().copy());
+        var waitingListsCopy = new HashMap<String, LinkedHashSet<Request>>();
+        for (var entry : waitingLists.entrySet())
+            waitingListsCopy.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        var logCopy = new HashMap<String, ArrayList<String>>();
+        for (var entry : trainSuccessionLog.entrySet())
+            logCopy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        return new TowerState(tablesCopy, waitingListsCopy, logCopy);
+    }
+
     /** Check if a request can be approved. Verify that the route state is FREE and the train next in TSTs. */
     public boolean requestIsApprovable(Simulation sim, Request request) {
         // check if the route is free
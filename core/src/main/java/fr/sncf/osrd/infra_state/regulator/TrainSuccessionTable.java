@@ -29,6 +29,11 @@ public class TrainSuccessionTable {
         this.trainOrder = new ArrayDeque<>();
     }
 
+    /** Creates a copy of the table, for a fork of the simulation */
+    public TrainSuccessionTable copy() {
+        return new TrainSuccessionTable(switchID, new ArrayDeque<>(trainOrder));
+    }
+
     public boolean containsTrain(String trainID) {
         return trainOrder.contains(trainID);
     }
@@ -21,6 +21,12 @@ public class ControlledRouteState extends RouteState {
         super(route);
     }
 
+    @Override
+    @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
+    protected void copyStateTo(RouteState copy) {
+        ((ControlledRouteState) copy).movingSwitchesLeft = movingSwitchesLeft;
+    }
+
     /** Notify the route that one of his tvd section isn't occupied anymore */
     @Override
     public void onTvdSectionUnoccupied(Simulation sim, TVDSectionState tvdSectionUnoccupied) throws SimulationError {
@@ -112,11 +118,8 @@ public class ControlledRouteState extends RouteState {
         if (!(status == FREE || (cbtc && hasCBTCStatus())))
             throw new SimulationError("The route we try to reserve isn't free");
 
-        if (isCBTCReserved != cbtc) {
-            var change = new RouteCBTCChange(sim, this, cbtc);
-            change.apply(sim, this);
-            sim.publishChange(change);
-        }
+        if (isCBTCReserved != cbtc)
+            updateCBTC(sim, cbtc);
 
         requestSwitchPositionChange(sim);
 
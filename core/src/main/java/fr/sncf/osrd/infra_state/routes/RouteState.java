@@ -35,6 +35,18 @@ public abstract class RouteState implements RSMatchable {
             return new PassiveRouteState(route);
     }
 
+    /** Creates a copy of this state, for a fork of the simulation */
+    public RouteState copy() {
+        var copy = from(route);
+        copy.status = status;
+        copy.isCBTCReserved = isCBTCReserved;
+        copyStateTo(copy);
+        return copy;
+    }
+
+    /** Copies the state specific to the kind of route */
+    protected void copyStateTo(RouteState copy) {}
+
     /**
      * Check if the route has a CBTC status
      */
@@ -56,9 +68,7 @@ public abstract class RouteState implements RSMatchable {
                 .map(tvdSection -> sim.infraState.getTvdSectionState(tvdSection.index))
                 .noneMatch(TVDSectionState::isReserved);
         if (isFree) {
-            var change = new RouteCBTCChange(sim, this, false);
-            change.apply(sim, this);
-            sim.publishChange(change);
+            updateCBTC(sim, false);
             updateStatus(sim, FREE);
             // Notify Tower State that the route is free
             sim.infraState.towerState.notifyRouteFreed(sim, route);
@@ -66,12 +76,28 @@ public abstract class RouteState implements RSMatchable {
     }
 
     protected void updateStatus(Simulation sim, RouteStatus newStatus) throws SimulationError {
-        var change = new RouteStatusChange(sim, this, newStatus);
-        change.apply(sim, this);
-        sim.publishChange(change);
+        if (sim.isConsumed(RouteStatusChange.class)) {
+            var change = new RouteStatusChange(sim, this, newStatus);
+            change.apply(sim, this);
+            sim.publishChange(change);
+        } else {
+            status = newStatus;
+            sim.traceSkippedChange(RouteStatusChange.class);
+        }
         notifySignals(sim);
     }
 
+    protected void updateCBTC(Simulation sim, boolean newCBTC) {
+        if (sim.isConsumed(RouteCBTCChange.class)) {
+            var change = new RouteCBTCChange(sim, this, newCBTC);
+            change.apply(sim, this);
+            sim.publishChange(change);
+        } else {
+            isCBTCReserved = newCBTC;
+            sim.traceSkippedChange(RouteCBTCChange.class);
+        }
+    }
+
     public int getEnumValue() {
         return status.ordinal();
     }
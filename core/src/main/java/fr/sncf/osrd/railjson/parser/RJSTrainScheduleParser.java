@@ -18,6 +18,7 @@ import fr.sncf.osrd.speedcontroller.generators.*;
 import fr.sncf.osrd.train.TrainPath;
 import fr.sncf.osrd.train.TrainStop;
 import fr.sncf.osrd.train.VirtualPoint;
+import fr.sncf.osrd.train.decisions.EnvelopeTrainDecisionMaker;
 import fr.sncf.osrd.train.decisions.KeyboardInput;
 import fr.sncf.osrd.train.decisions.TrainDecisionMaker;
 import fr.sncf.osrd.train.phases.NavigatePhase;
@@ -103,6 +104,10 @@ public class RJSTrainScheduleParser {
 
         var targetSpeedGenerators = parseSpeedControllerGenerators(rjsTrainSchedule,
                 expectedPath, infra);
+        var decisionMaker = parseDecisionMaker(rjsTrainSchedule.trainControlMethod);
+        if (decisionMaker instanceof EnvelopeTrainDecisionMaker
+                && targetSpeedGenerators.stream().anyMatch(generators -> !generators.isEmpty()))
+            throw new InvalidSchedule("allowances aren't supported by the envelope train control method");
         var refTimes = parseReferenceTimes(rjsTrainSchedule.referenceTimes);
         var speedInstructions = new SpeedInstructions(targetSpeedGenerators, refTimes);
 
@@ -117,7 +122,7 @@ public class RJSTrainScheduleParser {
                 initialRoute,
                 initialSpeed,
                 phases,
-                parseDecisionMaker(rjsTrainSchedule.trainControlMethod),
+                decisionMaker,
                 expectedPath,
                 speedInstructions,
                 stops);
@@ -221,6 +226,8 @@ public class RJSTrainScheduleParser {
             return new TrainDecisionMaker.DefaultTrainDecisionMaker();
         } else if (decisionMakerType.equals("keyboard")) {
             return new KeyboardInput(2);
+        } else if (decisionMakerType.equals("envelope")) {
+            return new EnvelopeTrainDecisionMaker();
         } else {
             throw new InvalidSchedule(String.format("Unknown decision maker type: %s", decisionMakerType));
         }
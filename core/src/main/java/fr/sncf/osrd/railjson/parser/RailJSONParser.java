@@ -46,7 +46,7 @@ public class RailJSONParser {
         var railJSON = RJSInfra.adapter.fromJson(jsonReader);
         if (railJSON == null)
             throw new InvalidInfraException("the railJSON source does not contain any data");
-        return RailJSONParser.parse(railJSON);
+        return RailJSONParser.parseAndRelease(railJSON);
     }
 
     /**
@@ -55,6 +55,21 @@ public class RailJSONParser {
      * @return an OSRD infrastructure
      */
     public static Infra parse(RJSInfra railJSON) throws InvalidInfraException {
+        return parseRailJSON(railJSON, false);
+    }
+
+    /**
+     * Parses a structured railJSON into the internal representation, dropping the railJSON objects
+     * as soon as they are converted. Both representations of the largest parts of the infra are never
+     * in memory at the same time, but the railJSON can't be used anymore once parsed.
+     * @param railJSON a railJSON infrastructure, which is emptied during parsing
+     * @return an OSRD infrastructure
+     */
+    public static Infra parseAndRelease(RJSInfra railJSON) throws InvalidInfraException {
+        return parseRailJSON(railJSON, true);
+    }
+
+    private static Infra parseRailJSON(RJSInfra railJSON, boolean releaseParsed) throws InvalidInfraException {
         if (!railJSON.version.equals(RJSInfra.CURRENT_VERSION)) {
             throw new InvalidInfraException(
                     String.format("Invalid railjson format version: got '%s' expected '%s'",
@@ -68,6 +83,8 @@ public class RailJSONParser {
             var op = new OperationalPoint(operationalPoint.id);
             trackGraph.operationalPoints.put(op.id, op);
         }
+        if (releaseParsed)
+            railJSON.operationalPoints = null;
 
         // create a unique identifier for all track intersection nodes
         var nodeIDs = TrackNodeIDs.from(railJSON.trackSectionLinks, railJSON.trackSections);
@@ -112,6 +129,8 @@ public class RailJSONParser {
             var aspect = new Aspect(aspectIndex++, rjsAspect.id, rjsAspect.color, constraints);
             aspectsMap.put(aspect.id, aspect);
         }
+        if (releaseParsed)
+            railJSON.aspects = null;
 
         // parse signal functions
         var scriptFunctions = new HashMap<String, RSFunction<?>>();
@@ -120,6 +139,8 @@ public class RailJSONParser {
                     aspectsMap, scriptFunctions, rjsScriptFunction);
             scriptFunctions.put(scriptFunction.functionName, scriptFunction);
         }
+        if (releaseParsed)
+            railJSON.scriptFunctions = null;
 
         // parse speed sections
         var speedSections = new HashMap<String, SpeedSection>();
@@ -127,6 +148,8 @@ public class RailJSONParser {
             var speedSection = new SpeedSection(rjsSpeedSection.isSignalized, rjsSpeedSection.speed);
             speedSections.put(rjsSpeedSection.id, speedSection);
         }
+        if (releaseParsed)
+            railJSON.speedSections = null;
 
         // parse electrical profile types
         var catenaryTypes = new HashMap<String, CatenaryType>();
@@ -134,6 +157,8 @@ public class RailJSONParser {
             var catenaryType = new CatenaryType(rjsCatenaryType.type, rjsCatenaryType.voltage);
             catenaryTypes.put(rjsCatenaryType.id, catenaryType);
         }
+        if (releaseParsed)
+            railJSON.catenaryTypes = null;
 
         var waypointsMap = new HashMap<String, Waypoint>();
         var detectorIdToSignalNormalMap = new HashMap<String, Signal>();
@@ -283,7 +308,20 @@ public class RailJSONParser {
             }
             addCurvesToGradients(infraTrackSection.forwardGradients, trackSection);
             addCurvesToGradients(infraTrackSection.backwardGradients, trackSection);
+
+            // drop the track objects of the section, which were all converted
+            if (releaseParsed) {
+                trackSection.slopes = null;
+                trackSection.curves = null;
+                trackSection.routeWaypoints = null;
+                trackSection.signals = null;
+                trackSection.operationalPoints = null;
+                trackSection.speedSections = null;
+                trackSection.catenarySections = null;
+            }
         }
+        if (releaseParsed)
+            railJSON.trackSections = null;
 
         // Fill switch ports (ie connected track section endpoints)
         for (var rjsSwitch : railJSON.switches) {
@@ -342,6 +380,11 @@ public class RailJSONParser {
             var direction = trackSectionLink.navigability;
             linkEdges(beginEdge, begin.endpoint, endEdge, end.endpoint, direction);
         }
+        if (releaseParsed) {
+            railJSON.trackSectionLinks = null;
+            railJSON.switches = null;
+            railJSON.switchTypes = null;
+        }
 
         // build name maps to prepare resolving names in expressions
         var signalNames = new HashMap<String, Signal>();
@@ -353,6 +396,8 @@ public class RailJSONParser {
 
         // Link tvd sections created with tvd sections parsed
         var tvdSectionsMap = finalizeTvdSection(tvdSections, railJSON.tvdSections, waypointsMap);
+        if (releaseParsed)
+            railJSON.tvdSections = null;
 
         // Build route Graph
         var routeGraphBuilder = new RouteGraph.Builder(trackGraph, waypointsMap.size());
@@ -404,6 +449,8 @@ public class RailJSONParser {
                     rjsRoute.entryDirection
             );
         }
+        if (releaseParsed)
+            railJSON.routes = null;
 
         var routeGraph = routeGraphBuilder.build();
 
@@ -29,6 +29,7 @@ public class RJSTrainSchedule implements Identified {
 
     public ID<RJSRoute>[] routes;
 
+    /** How the train is driven: "default", "keyboard", or "envelope" to follow precomputed envelopes */
     @Json(name = "train_control_method")
     public String trainControlMethod;
 
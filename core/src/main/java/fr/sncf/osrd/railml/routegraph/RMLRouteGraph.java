@@ -10,6 +10,8 @@ import java.util.HashMap;
 import java.util.List;
 
 public class RMLRouteGraph extends BiNGraph<RMLTVDSectionPath, RMLRouteWaypoint> {
+    private static final long serialVersionUID = -2092586921307992528L;
+
     public final HashMap<String, RMLRouteWaypoint> waypointsMap = new HashMap<>();
     // TVDSectionPath are identified by the couple (StartNode, EndNode)
     public final HashMap<UndirectedBiEdgeID, RMLTVDSectionPath> tvdSectionPathMap = new HashMap<>();
@@ -5,6 +5,8 @@ import fr.sncf.osrd.utils.graph.Node;
 import java.util.ArrayList;
 
 public class RMLRouteWaypoint extends Node {
+    private static final long serialVersionUID = -4188066281742406398L;
+
     /** List of neighbors seen when moving across the detector from the end of the track section to the beginning */
     public final ArrayList<RMLTVDSectionPath> startToStopNeighbors = new ArrayList<>();
 
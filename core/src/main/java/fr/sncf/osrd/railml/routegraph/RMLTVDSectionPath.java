@@ -5,6 +5,8 @@ import fr.sncf.osrd.utils.graph.EdgeDirection;
 import fr.sncf.osrd.utils.graph.EdgeEndpoint;
 
 public class RMLTVDSectionPath extends BiNEdge<RMLTVDSectionPath> {
+    private static final long serialVersionUID = 9097403647565111892L;
+
     /** The direction to the inside of the TVDSection from the start node, relative to the TrackSection */
     public final EdgeDirection startNodeDirection;
     /** The direction to the inside of the TVDSection from the end node, relative to the TrackSection */
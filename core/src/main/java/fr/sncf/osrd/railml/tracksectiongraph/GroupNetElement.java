@@ -6,6 +6,8 @@ import java.util.ArrayList;
 import java.util.Map;
 
 public final class GroupNetElement extends NetElement {
+    private static final long serialVersionUID = 7032407112646660019L;
+
     final ArrayList<NetElement> children;
 
     public GroupNetElement(
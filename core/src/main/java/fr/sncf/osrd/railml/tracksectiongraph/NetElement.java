@@ -14,6 +14,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 public abstract class NetElement extends Edge {
+    private static final long serialVersionUID = 6309938368674043342L;
+
     static final Logger logger = LoggerFactory.getLogger(NetElement.class);
 
     public final String id;
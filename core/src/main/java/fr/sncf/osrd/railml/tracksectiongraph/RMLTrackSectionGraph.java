@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.List;
 
 public class RMLTrackSectionGraph extends BiGraph<TrackNetElement> {
+    private static final long serialVersionUID = -5637079828945043203L;
 
     public final HashMap<String, TrackNetElement> trackNetElementMap = new HashMap<>();
 
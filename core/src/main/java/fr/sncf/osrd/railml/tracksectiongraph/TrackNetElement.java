@@ -7,6 +7,8 @@ import java.util.List;
 import java.util.Map;
 
 public final class TrackNetElement extends NetElement {
+    private static final long serialVersionUID = 1164275287474638385L;
+
     public final List<NetRelation> beginNetRelation;
     public final List<NetRelation> endNetRelation;
 
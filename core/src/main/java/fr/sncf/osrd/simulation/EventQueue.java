@@ -0,0 +1,167 @@
+package fr.sncf.osrd.simulation;
+
+import com.carrotsearch.hppc.LongHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>The timeline of a simulation: a binary min-heap of events, ordered by scheduled time, then revision.</p>
+ *
+ * <p>The sort keys are stored in primitive arrays, next to the events, so that ordering events
+ * doesn't need to go through event ids. Cancelled events aren't searched for in the heap:
+ * their revision is added to a set of tombstones, and they are dropped once they reach the top of the heap.
+ * The top of the heap is never a tombstone, which makes peeking the next event constant time.</p>
+ */
+final class EventQueue {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] times = new double[INITIAL_CAPACITY];
+    private long[] revisions = new long[INITIAL_CAPACITY];
+    private TimelineEvent[] events = new TimelineEvent[INITIAL_CAPACITY];
+
+    /** The number of events in the heap, including the cancelled ones */
+    private int heapSize = 0;
+
+    /** The revisions of the cancelled events which are still in the heap */
+    private final LongHashSet tombstones = new LongHashSet();
+
+    /** Returns the number of events which weren't cancelled */
+    int size() {
+        return heapSize - tombstones.size();
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Returns the next event, without removing it */
+    TimelineEvent peek() {
+        if (heapSize == 0)
+            throw new NoSuchElementException("the timeline is empty");
+        return events[0];
+    }
+
+    /** Adds an event to the queue */
+    void add(TimelineEvent event) {
+        if (heapSize == events.length) {
+            var capacity = events.length * 2;
+            times = Arrays.copyOf(times, capacity);
+            revisions = Arrays.copyOf(revisions, capacity);
+            events = Arrays.copyOf(events, capacity);
+        }
+        var index = heapSize++;
+        set(index, event.eventId.scheduledTime, event.eventId.revision, event);
+        siftUp(index);
+    }
+
+    /**
+     * Removes an event from the queue.
+     * The event must be in the queue: the removal is only checked for when the event is the next one.
+     */
+    void remove(TimelineEventId eventId) {
+        if (heapSize == 0)
+            return;
+        if (revisions[0] == eventId.revision) {
+            removeTop();
+        } else {
+            tombstones.add(eventId.revision);
+        }
+        dropTombstones();
+    }
+
+    /** Returns the event with the given id, or null if it isn't in the queue */
+    TimelineEvent get(TimelineEventId eventId) {
+        for (int i = 0; i < heapSize; i++) {
+            if (revisions[i] != eventId.revision)
+                continue;
+            if (tombstones.contains(revisions[i]))
+                return null;
+            var event = events[i];
+            if (!event.eventId.equals(eventId))
+                return null;
+            return event;
+        }
+        return null;
+    }
+
+    /** Returns all the events of the queue, in no particular order */
+    ArrayList<TimelineEvent> getEvents() {
+        var res = new ArrayList<TimelineEvent>(size());
+        for (int i = 0; i < heapSize; i++)
+            if (!tombstones.contains(revisions[i]))
+                res.add(events[i]);
+        return res;
+    }
+
+    // region HEAP
+
+    private void set(int index, double time, long revision, TimelineEvent event) {
+        times[index] = time;
+        revisions[index] = revision;
+        events[index] = event;
+    }
+
+    private void move(int from, int to) {
+        set(to, times[from], revisions[from], events[from]);
+    }
+
+    /** Whether the event at index a comes strictly before the event at index b */
+    private boolean isBefore(int a, int b) {
+        var cmp = Double.compare(times[a], times[b]);
+        if (cmp != 0)
+            return cmp < 0;
+        return revisions[a] < revisions[b];
+    }
+
+    private void siftUp(int index) {
+        var time = times[index];
+        var revision = revisions[index];
+        var event = events[index];
+        while (index > 0) {
+            var parent = (index - 1) >>> 1;
+            var cmp = Double.compare(time, times[parent]);
+            if (cmp > 0 || (cmp == 0 && revision > revisions[parent]))
+                break;
+            move(parent, index);
+            index = parent;
+        }
+        set(index, time, revision, event);
+    }
+
+    private void siftDown(int index) {
+        var time = times[index];
+        var revision = revisions[index];
+        var event = events[index];
+        var half = heapSize >>> 1;
+        while (index < half) {
+            var child = 2 * index + 1;
+            var right = child + 1;
+            if (right < heapSize && isBefore(right, child))
+                child = right;
+            var cmp = Double.compare(time, times[child]);
+            if (cmp < 0 || (cmp == 0 && revision < revisions[child]))
+                break;
+            move(child, index);
+            index = child;
+        }
+        set(index, time, revision, event);
+    }
+
+    private void removeTop() {
+        var last = --heapSize;
+        if (last > 0)
+            move(last, 0);
+        events[last] = null;
+        if (last > 0)
+            siftDown(0);
+    }
+
+    /** Drops the cancelled events which reached the top of the heap */
+    private void dropTombstones() {
+        while (heapSize > 0 && tombstones.remove(revisions[0]))
+            removeTop();
+    }
+
+    // endregion
+}
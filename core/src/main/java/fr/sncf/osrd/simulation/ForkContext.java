@@ -0,0 +1,41 @@
+package fr.sncf.osrd.simulation;
+
+import java.util.IdentityHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * <p>Keeps track of the objects copied while forking a simulation.</p>
+ *
+ * <p>Each mutable object of the original simulation is copied at most once, so that objects which are shared
+ * in the original simulation (a train state referred to by both a train and an event, for example)
+ * are also shared in the fork.</p>
+ */
+public final class ForkContext {
+    /** The simulation being created */
+    public final Simulation fork;
+
+    private final IdentityHashMap<Object, Object> copies = new IdentityHashMap<>();
+
+    ForkContext(Simulation fork) {
+        this.fork = fork;
+    }
+
+    /**
+     * Returns the copy of an object, creating it on the first call
+     * @param original the object of the original simulation, which may be null
+     * @param copier creates the copy of the object
+     * @param <T> the type of the object
+     * @return the copy of the object, or null if the original is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T original, UnaryOperator<T> copier) {
+        if (original == null)
+            return null;
+        var copy = (T) copies.get(original);
+        if (copy == null) {
+            copy = copier.apply(original);
+            copies.put(original, copy);
+        }
+        return copy;
+    }
+}
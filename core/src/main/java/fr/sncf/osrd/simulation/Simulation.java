@@ -5,14 +5,14 @@ import fr.sncf.osrd.infra.Infra;
 import fr.sncf.osrd.infra_state.regulator.TrainSuccessionTable;
 import fr.sncf.osrd.infra_state.InfraState;
 import fr.sncf.osrd.simulation.changelog.ChangeConsumer;
+import fr.sncf.osrd.simulation.trace.TraceRecorder;
+import fr.sncf.osrd.simulation.trace.TraceRecorder.RecordKind;
 import fr.sncf.osrd.train.Train;
 import fr.sncf.osrd.utils.DeepComparable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.HashMap;
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 /**
  * <h1>A Discrete TimelineEvent Simulation.</h1>
@@ -48,6 +48,9 @@ public final class Simulation implements DeepComparable<Simulation> {
     // event store insertion function
     public final ChangeConsumer changeConsumer;
 
+    /** Records the events and changes of the simulation when set, to debug and profile simulations */
+    private TraceRecorder traceRecorder = null;
+
     /**
      * The current time of the simulation.
      * when an event is executed, the simulation time is changed to the event's time.
@@ -62,7 +65,7 @@ public final class Simulation implements DeepComparable<Simulation> {
     public final double startTime;
 
     /** The list of events pending execution. */
-    private final SortedMap<TimelineEventId, TimelineEvent> timeline = new TreeMap<>();
+    private final EventQueue timeline = new EventQueue();
 
     /** The number of event that were scheduled. it is used to associate a unique number to events. */
     private long revision = 0;
@@ -111,8 +114,53 @@ public final class Simulation implements DeepComparable<Simulation> {
     }
 
 
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * <p>Creates an independent copy of the simulation, in its current state, to explore what could happen next.</p>
+     *
+     * <p>The infrastructure, the rolling stocks and the generated speed controllers are shared with the fork,
+     * while the timeline, the infrastructure state and the trains are copied.
+     * The fork and the original simulation can then run in parallel, from different threads.
+     * A fork which is never stepped is a snapshot of the simulation, which can itself be forked.</p>
+     *
+     * <p>The change consumer of the fork only receives the changes made after the fork.</p>
+     *
+     * @param changeConsumer the change consumer of the fork, which may be null
+     * @return the fork of the simulation
+     */
+    public Simulation fork(ChangeConsumer changeConsumer) {
+        var forkedInfraState = infraState == null ? null : infraState.fork();
+        var fork = new Simulation(infra, forkedInfraState, startTime, changeConsumer);
+        fork.time = time;
+        fork.revision = revision;
+        var context = new ForkContext(fork);
+
+        for (var train : trains.values())
+            fork.trains.put(train.getID(), train.fork(context));
+        for (var event : timeline.getEvents())
+            fork.timeline.add(event.fork(context));
+        // the last scheduled event of a train may have already occurred, and not be in the timeline
+        for (var train : trains.values())
+            train.finishFork(context);
+
+        if (infraState != null)
+            infraState.forkTrainSubscriptions(context);
+        return fork;
+    }
+
     // region EVENT_SOURCING
 
+    /**
+     * Whether changes of the given type need to be created and published.
+     * When no consumer needs some type of change, the state is updated without creating the change.
+     */
+    public boolean isConsumed(Class<? extends Change> changeType) {
+        return changeConsumer != null && changeConsumer.consumes(changeType);
+    }
+
     void onChangeCreated(Change change) {
         if (changeConsumer != null)
             changeConsumer.changeCreationCallback(change);
@@ -124,10 +172,27 @@ public final class Simulation implements DeepComparable<Simulation> {
      * @param change the change to publish
      */
     public void publishChange(Change change) {
-        logger.info("change published {}", change);
-        if (changeConsumer != null)
-            changeConsumer.changePublishedCallback(change);
         change.state = Change.State.PUBLISHED;
+        if (traceRecorder != null) {
+            var revision = -1L;
+            if (change instanceof TimelineEventCreated)
+                revision = ((TimelineEventCreated) change).eventId.revision;
+            traceRecorder.record(RecordKind.CHANGE_PUBLISHED, change.getClass(), revision, time);
+        }
+        if (!isConsumed(change.getClass()))
+            return;
+        logger.info("change published {}", change);
+        changeConsumer.changePublishedCallback(change);
+    }
+
+    /**
+     * Records into the trace a change which wasn't created, as no consumer needs it.
+     * Callers which skip a change update the state it would have changed themselves.
+     * @param changeType the type of the skipped change
+     */
+    public void traceSkippedChange(Class<? extends Change> changeType) {
+        if (traceRecorder != null)
+            traceRecorder.record(RecordKind.CHANGE_PUBLISHED, changeType, -1, time);
     }
 
     // endregion
@@ -142,13 +207,27 @@ public final class Simulation implements DeepComparable<Simulation> {
      */
     public void cancel(TimelineEvent event) throws SimulationError {
         // remove the event from the timeline
-        var change = new TimelineEventCancelled(this, event.eventId);
-        change.apply(this);
-        this.publishChange(change);
+        if (isConsumed(TimelineEventCancelled.class)) {
+            var change = new TimelineEventCancelled(this, event.eventId);
+            change.apply(this);
+            this.publishChange(change);
+        } else {
+            timeline.remove(event.eventId);
+            traceSkippedChange(TimelineEventCancelled.class);
+        }
+
+        if (traceRecorder != null)
+            traceRecorder.record(RecordKind.EVENT_CANCELLED, event.getClass(), event.eventId.revision, time);
 
         // send update messages to subscribed entities
         event.setState(TimelineEvent.State.CANCELLED);
-        event.onCancellation(this);
+        try {
+            event.onCancellation(this);
+        } catch (SimulationError error) {
+            if (traceRecorder != null)
+                traceRecorder.onError(error);
+            throw error;
+        }
     }
 
     /** Checks if the simulation is over (nextEvent() would throw an exception). */
@@ -157,7 +236,7 @@ public final class Simulation implements DeepComparable<Simulation> {
     }
 
     public TimelineEvent peekNextEvent() {
-        return timeline.get(timeline.firstKey());
+        return timeline.peek();
     }
 
     /**
@@ -170,15 +249,38 @@ public final class Simulation implements DeepComparable<Simulation> {
         // step the simulation time forward
         logger.debug("changing the simulation clock from {} to {}", time, event.eventId.scheduledTime);
 
-        var change = new TimelineEventOccurred(this, event.eventId);
-        change.apply(this);
-        this.publishChange(change);
+        if (isConsumed(TimelineEventOccurred.class)) {
+            var change = new TimelineEventOccurred(this, event.eventId);
+            change.apply(this);
+            this.publishChange(change);
+        } else {
+            moveToEvent(event.eventId);
+            traceSkippedChange(TimelineEventOccurred.class);
+        }
+
+        if (traceRecorder != null)
+            traceRecorder.record(RecordKind.EVENT_OCCURRED, event.getClass(), event.eventId.revision, time);
 
         event.setState(TimelineEvent.State.OCCURRED);
-        event.onOccurrence(this);
+        try {
+            event.onOccurrence(this);
+        } catch (SimulationError error) {
+            if (traceRecorder != null)
+                traceRecorder.onError(error);
+            throw error;
+        }
         return event;
     }
 
+    /** Removes an event from the timeline, and moves the simulation time forward to the time of the event */
+    private void moveToEvent(TimelineEventId eventId) {
+        timeline.remove(eventId);
+
+        // the event shouldn't move the simulation time backwards
+        assert eventId.scheduledTime >= time;
+        time = eventId.scheduledTime;
+    }
+
     // endregion
 
     // region CHANGES
@@ -204,7 +306,7 @@ public final class Simulation implements DeepComparable<Simulation> {
             sim.revision++;
 
             // add the event to the timeline
-            sim.timeline.put(eventId, event);
+            sim.timeline.add(event);
 
             event.setState(TimelineEvent.State.SCHEDULED);
         }
@@ -220,16 +322,7 @@ public final class Simulation implements DeepComparable<Simulation> {
 
         @Override
         public final Void apply(Simulation sim) {
-            // remove the event from the timeline
-            sim.timeline.remove(timelineEventId);
-
-            var scheduledTime = timelineEventId.scheduledTime;
-
-            // the event shouldn't move the simulation time backwards
-            assert scheduledTime >= sim.time;
-
-            // move the simulation time forward
-            sim.time = scheduledTime;
+            sim.moveToEvent(timelineEventId);
             return null;
         }
 
@@ -276,8 +369,8 @@ public final class Simulation implements DeepComparable<Simulation> {
         if (this.timeline.size() != otherSim.timeline.size())
             return false;
 
-        for (var event : this.timeline.values()) {
-            var otherEvent = otherSim.timeline.getOrDefault(event.eventId, null);
+        for (var event : this.timeline.getEvents()) {
+            var otherEvent = otherSim.timeline.get(event.eventId);
 
             // stop if some event is in this simulation but not in the other
             if (otherEvent == null)
@@ -14,6 +14,23 @@ public abstract class TimelineEvent implements DeepComparable<TimelineEvent> {
 
     protected abstract void onCancellation(Simulation sim) throws SimulationError;
 
+    /**
+     * Creates a copy of this event for a fork of the simulation, which refers to the entities of the fork.
+     * @param context the fork being created
+     * @return the copy of the event, in the UNREGISTERED state
+     */
+    protected abstract TimelineEvent copy(ForkContext context);
+
+    /** Returns the copy of this event in a fork of the simulation, which keeps the state of the event */
+    public final TimelineEvent fork(ForkContext context) {
+        return context.copy(this, original -> {
+            var copy = original.copy(context);
+            assert copy.eventId.equals(original.eventId);
+            copy.state = original.state;
+            return copy;
+        });
+    }
+
     /** The state of the event is only kept track of to enforce correct use of the API. */
     // region STATE_TRACKING
 
@@ -15,4 +15,15 @@ public abstract class ChangeConsumer {
      * @param change the just applied change.
      */
     public abstract void changePublishedCallback(Change change);
+
+    /**
+     * Whether this consumer needs changes of the given type.
+     * Consumers which only read a few types of changes should override this method: changes which no consumer
+     * needs are neither created nor published, and the simulation state is updated directly instead.
+     * @param changeType the type of the change
+     * @return true if changes of this type must be sent to this consumer
+     */
+    public boolean consumes(Class<? extends Change> changeType) {
+        return true;
+    }
 }
@@ -18,6 +18,14 @@ public class ChangeConsumerMultiplexer extends ChangeConsumer {
         consumers.add(consumer);
     }
 
+    @Override
+    public boolean consumes(Class<? extends Change> changeType) {
+        for (var consumer : consumers)
+            if (consumer.consumes(changeType))
+                return true;
+        return false;
+    }
+
     @Override
     public void changeCreationCallback(Change change) {
         for (var consumer : consumers)
@@ -27,6 +35,7 @@ public class ChangeConsumerMultiplexer extends ChangeConsumer {
     @Override
     public void changePublishedCallback(Change change) {
         for (var consumer : consumers)
-            consumer.changePublishedCallback(change);
+            if (consumer.consumes(change.getClass()))
+                consumer.changePublishedCallback(change);
     }
 }
@@ -0,0 +1,91 @@
+package fr.sncf.osrd.simulation.trace;
+
+import fr.sncf.osrd.simulation.trace.TraceRecorder.RecordKind;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Reads the trace files written by {@link TraceRecorder} */
+public final class TraceDecoder {
+    private TraceDecoder() {
+    }
+
+    public static final class TraceRecord {
+        public final RecordKind kind;
+        /** The name of the class of the event or change */
+        public final String type;
+        /** The revision of the event, or -1 */
+        public final long revision;
+        public final double simTime;
+        /** The wall clock time, in nanoseconds. Only the differences between records are meaningful */
+        public final long wallTime;
+
+        TraceRecord(RecordKind kind, String type, long revision, double simTime, long wallTime) {
+            this.kind = kind;
+            this.type = type;
+            this.revision = revision;
+            this.simTime = simTime;
+            this.wallTime = wallTime;
+        }
+    }
+
+    public static final class Trace {
+        /** The number of records which were overwritten before the trace was written */
+        public final long overwrittenCount;
+        public final List<TraceRecord> records;
+
+        Trace(long overwrittenCount, List<TraceRecord> records) {
+            this.overwrittenCount = overwrittenCount;
+            this.records = records;
+        }
+
+        /** Prints one line per record, with the wall clock time elapsed since the first record */
+        public void print(PrintStream out) {
+            if (overwrittenCount != 0)
+                out.printf("%d older records were overwritten%n", overwrittenCount);
+            if (records.isEmpty())
+                return;
+            var startWallTime = records.get(0).wallTime;
+            for (var record : records) {
+                var elapsedMicros = (record.wallTime - startWallTime) / 1000.;
+                out.printf("%12.1fus\tsim %f\t%s\t%s", elapsedMicros, record.simTime, record.kind, record.type);
+                if (record.revision != -1)
+                    out.printf("\trevision %d", record.revision);
+                out.println();
+            }
+        }
+    }
+
+    /** Reads a trace */
+    public static Trace read(InputStream input) throws IOException {
+        var in = new DataInputStream(input);
+        var magic = new byte[TraceRecorder.MAGIC.length()];
+        in.readFully(magic);
+        if (!TraceRecorder.MAGIC.equals(new String(magic, StandardCharsets.US_ASCII)))
+            throw new IOException("not a simulation trace");
+        var version = in.readInt();
+        if (version != TraceRecorder.FORMAT_VERSION)
+            throw new IOException(String.format("unsupported trace format version %d", version));
+
+        var typeNames = new String[in.readInt()];
+        for (int i = 0; i < typeNames.length; i++)
+            typeNames[i] = in.readUTF();
+
+        var overwrittenCount = in.readLong();
+        var recordCount = in.readInt();
+        var records = new ArrayList<TraceRecord>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            var kind = TraceRecorder.getRecordKind(in.readInt());
+            var type = typeNames[in.readInt()];
+            var revision = in.readLong();
+            var simTime = in.readDouble();
+            var wallTime = in.readLong();
+            records.add(new TraceRecord(kind, type, revision, simTime, wallTime));
+        }
+        return new Trace(overwrittenCount, records);
+    }
+}
@@ -0,0 +1,172 @@
+package fr.sncf.osrd.simulation.trace;
+
+import fr.sncf.osrd.simulation.SimulationError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * <p>Records what a simulation does into a preallocated ring buffer of fixed size records, which can be dumped
+ * to a binary trace file. It is meant to be cheap enough to be left on: recording doesn't allocate,
+ * and doesn't format anything.</p>
+ *
+ * <p>Each record holds its kind, the type of the event or change, the revision of the event
+ * (or -1 if there is none), the simulation time and the wall clock time in nanoseconds.
+ * Once the buffer is full, the oldest records are overwritten.</p>
+ *
+ * <p>When no change consumer needs a type of change, the simulation updates its state without creating the change.
+ * Such changes are still recorded, so that the trace doesn't depend on the consumers. As the change doesn't
+ * exist, only its type is known, and nothing tells which object it modified.</p>
+ *
+ * <p>A trace file has the following layout, with all values big endian:</p>
+ * <ul>
+ *  <li>the magic bytes and the version of the format, as an int</li>
+ *  <li>the number of types, followed by their names. Records refer to types by their index</li>
+ *  <li>the number of records which were overwritten, as a long</li>
+ *  <li>the number of records, followed by the records, from the oldest to the newest</li>
+ * </ul>
+ * <p>See {@link TraceDecoder} to read trace files.</p>
+ */
+public final class TraceRecorder {
+    static final Logger logger = LoggerFactory.getLogger(TraceRecorder.class);
+
+    static final String MAGIC = "OSRDTRACE";
+
+    /** Must be incremented on every change of the format */
+    static final int FORMAT_VERSION = 1;
+
+    /** The number of records kept by default, which amounts to 32MB of trace, as records take 32 bytes */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    public enum RecordKind {
+        EVENT_OCCURRED,
+        EVENT_CANCELLED,
+        CHANGE_PUBLISHED,
+    }
+
+    private static final RecordKind[] RECORD_KINDS = RecordKind.values();
+
+    private final int capacity;
+    private final byte[] kinds;
+    private final int[] types;
+    private final long[] revisions;
+    private final double[] simTimes;
+    private final long[] wallTimes;
+
+    /** The number of records since the recorder was created, including the overwritten ones */
+    private long recordCount = 0;
+
+    private final HashMap<Class<?>, Integer> typeIndexes = new HashMap<>();
+    private final ArrayList<String> typeNames = new ArrayList<>();
+
+    /** Where the trace is written when the simulation fails, or null */
+    private final Path errorDumpPath;
+
+    /**
+     * Creates a trace recorder
+     * @param capacity the number of records to keep
+     * @param errorDumpPath where to write the trace if the simulation fails, or null
+     */
+    public TraceRecorder(int capacity, Path errorDumpPath) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("the capacity of a trace recorder must be positive");
+        this.capacity = capacity;
+        this.kinds = new byte[capacity];
+        this.types = new int[capacity];
+        this.revisions = new long[capacity];
+        this.simTimes = new double[capacity];
+        this.wallTimes = new long[capacity];
+        this.errorDumpPath = errorDumpPath;
+    }
+
+    /** Returns the number of records currently held */
+    public int size() {
+        return (int) Math.min(recordCount, capacity);
+    }
+
+    /** Returns the number of records which were overwritten */
+    public long getOverwrittenCount() {
+        return recordCount - size();
+    }
+
+    private int getTypeIndex(Class<?> type) {
+        var index = typeIndexes.get(type);
+        if (index != null)
+            return index;
+        var newIndex = typeNames.size();
+        typeNames.add(type.getName());
+        typeIndexes.put(type, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Adds a record to the trace
+     * @param kind what happened
+     * @param type the type of the event or change
+     * @param revision the revision of the event, or -1
+     * @param simTime the time of the simulation
+     */
+    public void record(RecordKind kind, Class<?> type, long revision, double simTime) {
+        var slot = (int) (recordCount % capacity);
+        kinds[slot] = (byte) kind.ordinal();
+        types[slot] = getTypeIndex(type);
+        revisions[slot] = revision;
+        simTimes[slot] = simTime;
+        wallTimes[slot] = System.nanoTime();
+        recordCount++;
+    }
+
+    /** Writes the trace to the given stream, without closing it */
+    public void write(OutputStream stream) throws IOException {
+        var out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeBytes(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+
+        out.writeInt(typeNames.size());
+        for (var typeName : typeNames)
+            out.writeUTF(typeName);
+
+        var size = size();
+        out.writeLong(getOverwrittenCount());
+        out.writeInt(size);
+        for (long i = recordCount - size; i < recordCount; i++) {
+            var slot = (int) (i % capacity);
+            out.writeInt(kinds[slot]);
+            out.writeInt(types[slot]);
+            out.writeLong(revisions[slot]);
+            out.writeDouble(simTimes[slot]);
+            out.writeLong(wallTimes[slot]);
+        }
+        out.flush();
+    }
+
+    /** Writes the trace to a file */
+    public void dump(Path path) throws IOException {
+        try (var stream = Files.newOutputStream(path)) {
+            write(stream);
+        }
+    }
+
+    /** Dumps the trace if the recorder was given a path to do so. Called when the simulation fails. */
+    public void onError(SimulationError error) {
+        if (errorDumpPath == null)
+            return;
+        try {
+            dump(errorDumpPath);
+            logger.error("the simulation failed, its trace was written to {}", errorDumpPath);
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    static RecordKind getRecordKind(int ordinal) {
+        return RECORD_KINDS[ordinal];
+    }
+}
@@ -16,6 +16,11 @@ public class CoastingSpeedController extends SpeedController {
         return SpeedDirective.getCoastingController();
     }
 
+    @Override
+    public void mergeDirective(SpeedDirective directive, double pathPosition) {
+        directive.isCoasting = true;
+    }
+
     @Override
     public SpeedController scaled(double scalingFactor) {
         return this;
@@ -88,10 +88,18 @@ public final class LimitAnnounceSpeedController extends StopSpeedController {
     public SpeedDirective getDirective(
             double pathPosition
     ) {
+        return new SpeedDirective(getSpeedLimit(pathPosition));
+    }
+
+    @Override
+    public void mergeDirective(SpeedDirective directive, double pathPosition) {
+        directive.mergeWith(getSpeedLimit(pathPosition));
+    }
+
+    private double getSpeedLimit(double pathPosition) {
         var distance = endPosition - pathPosition;
         assert distance >= 0;
-        var currentLimit = Math.sqrt(targetSpeedLimit * targetSpeedLimit + 2 * distance * gamma);
-        return new SpeedDirective(currentLimit);
+        return Math.sqrt(targetSpeedLimit * targetSpeedLimit + 2 * distance * gamma);
     }
 
     @Override
@@ -22,6 +22,11 @@ public class MapSpeedController extends SpeedController {
         return new SpeedDirective(values.interpolate(pathPosition));
     }
 
+    @Override
+    public void mergeDirective(SpeedDirective directive, double pathPosition) {
+        directive.mergeWith(values.interpolate(pathPosition));
+    }
+
     @Override
     public SpeedController scaled(double scalingFactor) {
         var newValues = new SortedDoubleMap(values);
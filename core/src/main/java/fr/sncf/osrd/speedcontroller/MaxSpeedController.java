@@ -22,6 +22,11 @@ public class MaxSpeedController extends StopSpeedController {
         return new SpeedDirective(speedLimit);
     }
 
+    @Override
+    public void mergeDirective(SpeedDirective directive, double pathPosition) {
+        directive.mergeWith(speedLimit);
+    }
+
     @Override
     public SpeedController scaled(double scalingFactor) {
         return new MaxSpeedController(speedLimit * scalingFactor, beginPosition, endPosition);
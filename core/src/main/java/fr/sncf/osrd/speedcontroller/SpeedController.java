@@ -47,6 +47,16 @@ public abstract class SpeedController implements DeepComparable<SpeedController>
      */
     public abstract SpeedDirective getDirective(double pathPosition);
 
+    /**
+     * Merges the directive of this controller into an existing directive.
+     * Controllers can override this method to avoid creating a directive for each lookup.
+     * @param directive the directive to merge into
+     * @param pathPosition the position of the train relative to the beginning of the track
+     */
+    public void mergeDirective(SpeedDirective directive, double pathPosition) {
+        directive.mergeWith(getDirective(pathPosition));
+    }
+
     /**
      * Get and merge the speed directives of a given list of speed controllers.
      * @param controllers a list of speed controllers
@@ -57,7 +67,7 @@ public abstract class SpeedController implements DeepComparable<SpeedController>
         var profile = SpeedDirective.getMax();
         for (var controller : controllers)
             if (controller.isActive(pathPosition, stopIndex))
-                profile.mergeWith(controller.getDirective(pathPosition));
+                controller.mergeDirective(profile, pathPosition);
         return profile;
     }
 
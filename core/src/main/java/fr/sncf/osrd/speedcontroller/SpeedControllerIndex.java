@@ -0,0 +1,137 @@
+package fr.sncf.osrd.speedcontroller;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * <p>A set of speed controllers, sorted by begin position.</p>
+ *
+ * <p>Controllers are looked up using cursors, which move forward along the path: each cursor only keeps
+ * the controllers which began before its last lookup and didn't end before its position, so that
+ * a lookup doesn't have to go through all the controllers of the path.</p>
+ *
+ * <p>The index is immutable and can be shared, but each cursor must be used by a single train.</p>
+ */
+public final class SpeedControllerIndex {
+    private final SpeedController[] controllers;
+
+    /** Creates an index of the given speed controllers */
+    public SpeedControllerIndex(Collection<SpeedController> controllers) {
+        this.controllers = controllers.toArray(new SpeedController[0]);
+        Arrays.sort(this.controllers, Comparator.comparingDouble(controller -> controller.beginPosition));
+    }
+
+    public int size() {
+        return controllers.length;
+    }
+
+    /** Creates a cursor at the beginning of the path */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        /** No lookup can be made before this position */
+        private double position = Double.NEGATIVE_INFINITY;
+
+        /** The index of the first controller which wasn't looked at yet */
+        private int nextIndex = 0;
+
+        /** The controllers which began before the last lookup, and didn't end before the position of the cursor */
+        private SpeedController[] candidates = new SpeedController[8];
+        private int candidateCount = 0;
+
+        /** The directive returned by lookups, which is reused from one lookup to the next */
+        private final SpeedDirective directive = SpeedDirective.getMax();
+
+        private Cursor() {
+        }
+
+        /** The index the cursor looks controllers up in */
+        public SpeedControllerIndex getIndex() {
+            return SpeedControllerIndex.this;
+        }
+
+        /**
+         * Moves the cursor to a new position, after which all lookups are expected to be.
+         * Moving the cursor backward is allowed, but expensive, as the cursor then starts over.
+         */
+        public void moveTo(double newPosition) {
+            if (newPosition < position) {
+                nextIndex = 0;
+                candidateCount = 0;
+            }
+            position = newPosition;
+
+            // drop the controllers which ended before the new position
+            var keptCount = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                var controller = candidates[i];
+                if (controller.endPosition >= newPosition)
+                    candidates[keptCount++] = controller;
+            }
+            Arrays.fill(candidates, keptCount, candidateCount, null);
+            candidateCount = keptCount;
+        }
+
+        /** Adds the controllers which begin before the given position to the candidates */
+        private void lookAhead(double pathPosition) {
+            if (pathPosition < position)
+                moveTo(pathPosition);
+            while (nextIndex < controllers.length && controllers[nextIndex].beginPosition <= pathPosition) {
+                var controller = controllers[nextIndex++];
+                if (controller.endPosition < position)
+                    continue;
+                if (candidateCount == candidates.length)
+                    candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                candidates[candidateCount++] = controller;
+            }
+        }
+
+        /**
+         * Get and merge the speed directives of the controllers active at the given position.
+         * The returned directive is reused by the next lookups of this cursor.
+         * @param pathPosition a position on the train's path
+         * @param stopIndex the index of the next stop of the train
+         * @return the merged speed directive
+         */
+        public SpeedDirective getDirective(double pathPosition, int stopIndex) {
+            directive.allowedSpeed = Double.POSITIVE_INFINITY;
+            directive.isCoasting = false;
+            mergeDirectives(directive, pathPosition, pathPosition, stopIndex);
+            return directive;
+        }
+
+        /**
+         * Merges the speed directives of the controllers active at two given positions into a directive.
+         * @param directive the directive to merge into
+         * @param lookupPosition a position on the train's path, at which controllers must be active
+         * @param pathPosition the position on the train's path of the merged directives
+         * @param stopIndex the index of the next stop of the train
+         */
+        public void mergeDirectives(
+                SpeedDirective directive,
+                double lookupPosition,
+                double pathPosition,
+                int stopIndex
+        ) {
+            lookAhead(Math.max(lookupPosition, pathPosition));
+            for (int i = 0; i < candidateCount; i++) {
+                var controller = candidates[i];
+                if (controller.isActive(lookupPosition, stopIndex) && controller.isActive(pathPosition, stopIndex))
+                    controller.mergeDirective(directive, pathPosition);
+            }
+        }
+
+        /** Adds the controllers active at the given position to a collection */
+        public void addActiveControllers(double pathPosition, int stopIndex, Collection<SpeedController> res) {
+            lookAhead(pathPosition);
+            for (int i = 0; i < candidateCount; i++) {
+                var controller = candidates[i];
+                if (controller.isActive(pathPosition, stopIndex))
+                    res.add(controller);
+            }
+        }
+    }
+}
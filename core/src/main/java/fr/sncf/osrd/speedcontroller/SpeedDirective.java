@@ -31,8 +31,17 @@ public final class SpeedDirective {
     public void mergeWith(SpeedDirective directive) {
         if (directive.isCoasting)
             isCoasting = true;
-        else if (directive.allowedSpeed < allowedSpeed)
-            allowedSpeed = directive.allowedSpeed;
+        else
+            mergeWith(directive.allowedSpeed);
+    }
+
+    /**
+     * Combine with a speed limit, without creating a directive for it
+     * @param allowedSpeed the speed limit to merge into the current one
+     */
+    public void mergeWith(double allowedSpeed) {
+        if (allowedSpeed < this.allowedSpeed)
+            this.allowedSpeed = allowedSpeed;
     }
 
     @Override
@@ -2,6 +2,7 @@ package fr.sncf.osrd.speedcontroller;
 
 import fr.sncf.osrd.railjson.schema.schedule.RJSAllowance;
 import fr.sncf.osrd.simulation.SimulationError;
+import fr.sncf.osrd.speedcontroller.generators.IntegrationTraceCache;
 import fr.sncf.osrd.speedcontroller.generators.MarecoAllowanceGenerator;
 import fr.sncf.osrd.train.TrainSchedule;
 import fr.sncf.osrd.simulation.Simulation;
@@ -29,6 +30,13 @@ public class SpeedInstructions {
     public Set<SpeedController> targetSpeedControllers;
     public transient SortedDoubleMap expectedTimes = null;
 
+    /** Position indexes of the max and target speed controllers, built along with the controllers */
+    private transient SpeedControllerIndex maxSpeedIndex = null;
+    private transient SpeedControllerIndex targetSpeedIndex = null;
+
+    /** The runs simulated by generators, which are only kept while the instructions are generated */
+    private transient IntegrationTraceCache integrationTraces = null;
+
     /** Creates an instance from target speed generators. Max speed is always determined
      * from a `new MaxSpeedGenerator()`.
      * @param targetSpeedGenerators generators used for target speed controllers. If null, a MaxSpeedGenerator is
@@ -74,19 +82,63 @@ public class SpeedInstructions {
         return fromSet(Collections.singleton(targetSpeedGenerator));
     }
 
+    /**
+     * Creates a copy of the instructions, for a fork of the simulation.
+     * Generated controllers are shared, as they aren't modified once generated, but generators are copied.
+     */
+    public SpeedInstructions copy() {
+        var generators = new ArrayList<Set<SpeedControllerGenerator>>();
+        for (var generatorSet : targetSpeedGenerators) {
+            var generatorsCopy = new HashSet<SpeedControllerGenerator>();
+            for (var generator : generatorSet)
+                generatorsCopy.add(generator.copy());
+            generators.add(generatorsCopy);
+        }
+        var copy = new SpeedInstructions(generators,
+                expectedTimes == null ? null : new SortedDoubleMap(expectedTimes));
+        copy.maxSpeedControllers = maxSpeedControllers;
+        copy.targetSpeedControllers = targetSpeedControllers;
+        copy.maxSpeedIndex = maxSpeedIndex;
+        copy.targetSpeedIndex = targetSpeedIndex;
+        return copy;
+    }
+
     /** Generates all the instructions, expected to be called when the train is created in the simulation */
     public void generate(Simulation sim, TrainSchedule schedule) throws SimulationError {
+        integrationTraces = new IntegrationTraceCache();
+        try {
+            generateControllers(sim, schedule);
+            initExpectedTimes(schedule);
+        } finally {
+            integrationTraces = null;
+        }
+    }
+
+    private void generateControllers(Simulation sim, TrainSchedule schedule) throws SimulationError {
         maxSpeedControllers = new MaxSpeedGenerator().generate(sim, schedule, null);
         targetSpeedControllers = new HashSet<>(maxSpeedControllers);
         splitAllowancesPerStop(schedule);
         for (var generatorSet : targetSpeedGenerators) {
             var newControllers = new HashSet<SpeedController>();
-            for (var generator : generatorSet) {
+            for (var generator : generatorSet)
                 newControllers.addAll(generator.generate(sim, schedule, targetSpeedControllers));
-            }
             targetSpeedControllers.addAll(newControllers);
         }
-        initExpectedTimes(schedule);
+        maxSpeedIndex = new SpeedControllerIndex(maxSpeedControllers);
+        targetSpeedIndex = new SpeedControllerIndex(targetSpeedControllers);
+    }
+
+    /** Returns the runs simulated while generating the instructions, or null if they aren't being generated */
+    public IntegrationTraceCache getIntegrationTraces() {
+        return integrationTraces;
+    }
+
+    public SpeedControllerIndex getMaxSpeedIndex() {
+        return maxSpeedIndex;
+    }
+
+    public SpeedControllerIndex getTargetSpeedIndex() {
+        return targetSpeedIndex;
     }
 
     private void initExpectedTimes(TrainSchedule schedule) {
@@ -29,6 +29,11 @@ public final class ConstructionAllowanceGenerator extends MarecoAllowanceGenerat
         super(begin, end, allowanceValue, MarginType.TIME);
     }
 
+    @Override
+    public SpeedControllerGenerator copy() {
+        return new ConstructionAllowanceGenerator(sectionBegin, sectionEnd, value);
+    }
+
     @Override
     protected double getFirstLowEstimate() {
         return 0.0;
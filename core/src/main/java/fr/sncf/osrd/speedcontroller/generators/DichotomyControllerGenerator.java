@@ -10,22 +10,33 @@ import fr.sncf.osrd.utils.SortedDoubleMap;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Set;
-
-/** Generates a set of speed controller using a generic dichotomy */
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <p>Generates a set of speed controller using a generic dichotomy.</p>
+ *
+ * <p>The search is k-ary: at each round, the search interval is split into CANDIDATES_PER_ROUND + 1 parts,
+ * and the values at the boundaries are evaluated concurrently. The number of candidates doesn't depend on
+ * the number of available processors, so that the result of the search doesn't either.</p>
+ */
 public abstract class DichotomyControllerGenerator extends SpeedControllerGenerator {
     /** We stop the dichotomy when the result is this close to the target (in seconds) */
     private final double precision;
 
+    /** The number of values evaluated at each round of the search */
+    protected static final int CANDIDATES_PER_ROUND = 4;
+
+    /** The number of rounds after which the search gives up */
+    private static final int MAX_ROUNDS = 20;
+
     /** Set of speed controllers describing the max speed */
     protected Set<SpeedController> maxSpeedControllers;
 
     /** Train schedule */
     protected TrainSchedule schedule = null;
 
-    /** Expected times from previous evaluation */
-    protected SortedDoubleMap expectedTimes;
-
     protected static final double DICHOTOMY_MARGIN = 2;
 
     public final MarginType allowanceType;
@@ -54,7 +65,7 @@ public abstract class DichotomyControllerGenerator extends SpeedControllerGenera
 
     /** Evaluates the run time of the phase if we follow the given speed controllers */
     protected double evalRunTime(TrainSchedule schedule, Set<SpeedController> speedControllers) {
-        expectedTimes = getExpectedTimes(schedule, speedControllers, TIME_STEP, false);
+        var expectedTimes = getExpectedTimes(schedule, speedControllers, TIME_STEP, false);
         return expectedTimes.lastEntry().getValue() - expectedTimes.firstEntry().getValue();
     }
 
@@ -77,10 +88,10 @@ public abstract class DichotomyControllerGenerator extends SpeedControllerGenera
     /** Returns the first higher bound for the dichotomy */
     protected abstract double getFirstHighEstimate(SortedDoubleMap speeds);
 
-    /** Returns the first guess for the dichotomy */
-    protected abstract double getFirstGuess(SortedDoubleMap speeds);
-
-    /** Generates a set of speed controllers given the dichotomy value */
+    /**
+     * Generates a set of speed controllers given the dichotomy value.
+     * It is called concurrently for several values, and thus must not change the state of the generator.
+     */
     protected abstract Set<SpeedController> getSpeedControllers(TrainSchedule schedule,
                                                                 double value) throws SimulationError;
 
@@ -100,13 +111,111 @@ public abstract class DichotomyControllerGenerator extends SpeedControllerGenera
                                                      double endPosition, double initialSpeed, double targetSpeed,
                                                      TrainSchedule schedule);
 
+    /** A value evaluated by the search, with the speed controllers it generates and their run time */
+    static final class Candidate {
+        final double value;
+        final Set<SpeedController> speedControllers;
+        final double time;
+
+        Candidate(double value, Set<SpeedController> speedControllers, double time) {
+            this.value = value;
+            this.speedControllers = speedControllers;
+            this.time = time;
+        }
+    }
+
+    /** Evaluates a value of the search. It is called concurrently for several values. */
+    @FunctionalInterface
+    interface CandidateEvaluator {
+        Candidate eval(double value) throws SimulationError;
+    }
+
+    /** Evaluates values evenly spread inside the given bounds, concurrently. Candidates are sorted by value */
+    private static ArrayList<Candidate> evalCandidates(
+            CandidateEvaluator evaluator,
+            int candidatesPerRound,
+            double lowerBound,
+            double higherBound
+    ) throws SimulationError {
+        var tasks = new ArrayList<ForkJoinTask<Candidate>>();
+        for (int i = 1; i <= candidatesPerRound; i++) {
+            var value = lowerBound + (higherBound - lowerBound) * i / (candidatesPerRound + 1);
+            tasks.add(ForkJoinTask.adapt(() -> evaluator.eval(value)));
+        }
+        var res = new ArrayList<Candidate>();
+        try {
+            // runs the tasks in the pool of the current thread if there is one, or in the common pool
+            ForkJoinTask.invokeAll(tasks);
+            for (var task : tasks)
+                res.add(task.join());
+        } catch (RuntimeException e) {
+            // adapted tasks wrap checked exceptions, and exceptions thrown by other
+            // worker threads are wrapped once more when rethrown by join
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause())
+                if (cause instanceof SimulationError)
+                    throw (SimulationError) cause;
+            throw e;
+        }
+        return res;
+    }
+
+    /**
+     * Searches the value whose run time is close enough to the target time.
+     * The higher the value, the shorter the run time.
+     * @param evaluator computes the run time of a value
+     * @param candidatesPerRound the number of values evaluated at each round, 1 being a binary search
+     * @param lowerBound the lowest possible value
+     * @param higherBound the highest possible value
+     * @param targetTime the run time to reach
+     * @param precision how close to the target time the run time must be
+     * @return the first candidate close enough to the target time
+     */
+    static Candidate search(
+            CandidateEvaluator evaluator,
+            int candidatesPerRound,
+            double lowerBound,
+            double higherBound,
+            double targetTime,
+            double precision
+    ) throws SimulationError {
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            var candidates = evalCandidates(evaluator, candidatesPerRound, lowerBound, higherBound);
+
+            // if several candidates are close enough to the target, pick the closest one, then the lowest one
+            Candidate bestCandidate = null;
+            for (var candidate : candidates) {
+                var error = Math.abs(candidate.time - targetTime);
+                if (error > precision)
+                    continue;
+                if (bestCandidate == null || error < Math.abs(bestCandidate.time - targetTime))
+                    bestCandidate = candidate;
+            }
+            if (bestCandidate != null)
+                return bestCandidate;
+
+            // keep the part where the target time is crossed
+            var newLowerBound = lowerBound;
+            var newHigherBound = higherBound;
+            for (var candidate : candidates) {
+                if (candidate.time > targetTime) {
+                    newLowerBound = candidate.value;
+                } else {
+                    newHigherBound = candidate.value;
+                    break;
+                }
+            }
+            lowerBound = newLowerBound;
+            higherBound = newHigherBound;
+        }
+        throw new RuntimeException("Did not converge");
+    }
+
     /** Runs the dichotomy */
     private Set<SpeedController> binarySearch(Simulation sim, TrainSchedule schedule) throws SimulationError {
 
         var speeds = getExpectedSpeeds(schedule, maxSpeedControllers, TIME_STEP);
         var lowerBound = getFirstLowEstimate();
         var higherBound = getFirstHighEstimate(speeds);
-        var firstGuess = getFirstGuess(speeds);
         initializeBinarySearch(schedule, speeds);
 
         // base run
@@ -114,22 +223,15 @@ public abstract class DichotomyControllerGenerator extends SpeedControllerGenera
         var time = times.lastEntry().getValue() - times.firstEntry().getValue();
         var distance = times.lastEntry().getKey() - times.firstEntry().getKey();
         var targetTime = getTargetTime(time, distance);
-
-        double nextValue = firstGuess;
-        var nextSpeedControllers = maxSpeedControllers;
-        int i = 0;
-        while (Math.abs(time - targetTime) > precision) {
-            nextSpeedControllers = getSpeedControllers(schedule, nextValue);
-            time = evalRunTime(schedule, nextSpeedControllers);
-            if (time > targetTime)
-                lowerBound = nextValue;
-            else
-                higherBound = nextValue;
-            nextValue = (lowerBound + higherBound) / 2;
-            if (i++ > 20)
-                throw new RuntimeException("Did not converge");
-        }
-        return nextSpeedControllers;
+        if (Math.abs(time - targetTime) <= precision)
+            return maxSpeedControllers;
+
+        CandidateEvaluator evaluator = value -> {
+            var speedControllers = getSpeedControllers(schedule, value);
+            return new Candidate(value, speedControllers, evalRunTime(schedule, speedControllers));
+        };
+        return search(evaluator, CANDIDATES_PER_ROUND, lowerBound, higherBound, targetTime, precision)
+                .speedControllers;
     }
 
     /** Saves a speed / position graph, for debugging purpose */
@@ -0,0 +1,135 @@
+package fr.sncf.osrd.speedcontroller.generators;
+
+import fr.sncf.osrd.speedcontroller.SpeedController;
+import fr.sncf.osrd.train.IntegrationStep;
+import fr.sncf.osrd.train.RollingStock;
+import fr.sncf.osrd.train.TrainPath;
+import fr.sncf.osrd.train.TrainSchedule;
+import fr.sncf.osrd.train.TrainStop;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * <p>Memoizes the integration steps of a train following a set of speed controllers.</p>
+ *
+ * <p>Generators often simulate the same run several times: once for the expected speeds and once for the
+ * expected times, or once per generator of a chain which starts from the same controllers.
+ * Runs are identified by the content of the controller set, so that copies of a set share their run.</p>
+ *
+ * <p>The cache can be used by several threads. Runs are simulated outside of the lock, so that concurrent
+ * runs don't wait for each other: if two threads simulate the same run, the first stored trace is kept.</p>
+ */
+public final class IntegrationTraceCache {
+    private final HashMap<Key, NavigableMap<Double, IntegrationStep>> traces = new HashMap<>();
+
+    private int hits = 0;
+
+    /** The number of runs which didn't have to be simulated */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /** The number of runs which were simulated */
+    public synchronized int size() {
+        return traces.size();
+    }
+
+    /**
+     * Returns the integration steps of a run, simulating it if it wasn't already.
+     * The returned steps must not be modified.
+     */
+    public NavigableMap<Double, IntegrationStep> get(
+            TrainSchedule schedule,
+            Set<SpeedController> controllers,
+            double timeStep,
+            double begin,
+            double end,
+            double initialSpeed,
+            Supplier<NavigableMap<Double, IntegrationStep>> simulate
+    ) {
+        var key = new Key(schedule, controllers, timeStep, begin, end, initialSpeed);
+        synchronized (this) {
+            var trace = traces.get(key);
+            if (trace != null) {
+                hits++;
+                return trace;
+            }
+        }
+        var trace = Collections.unmodifiableNavigableMap(simulate.get());
+        synchronized (this) {
+            var previousTrace = traces.putIfAbsent(key, trace);
+            if (previousTrace != null)
+                return previousTrace;
+        }
+        return trace;
+    }
+
+    private static final class Key {
+        /** The fields of the schedule the run depends on, which are compared by identity */
+        private final RollingStock rollingStock;
+        private final TrainPath plannedPath;
+        private final List<TrainStop> stops;
+
+        /** A copy of the controllers, as the given set may be changed after the run */
+        private final Set<SpeedController> controllers;
+        private final double timeStep;
+        private final double begin;
+        private final double end;
+        private final double initialSpeed;
+        private final int hash;
+
+        Key(
+                TrainSchedule schedule,
+                Set<SpeedController> controllers,
+                double timeStep,
+                double begin,
+                double end,
+                double initialSpeed
+        ) {
+            this.rollingStock = schedule.rollingStock;
+            this.plannedPath = schedule.plannedPath;
+            this.stops = schedule.stops;
+            this.controllers = new HashSet<>(controllers);
+            this.timeStep = timeStep;
+            this.begin = begin;
+            this.end = end;
+            this.initialSpeed = initialSpeed;
+
+            var hash = System.identityHashCode(rollingStock);
+            hash = 31 * hash + System.identityHashCode(plannedPath);
+            hash = 31 * hash + System.identityHashCode(stops);
+            hash = 31 * hash + this.controllers.hashCode();
+            hash = 31 * hash + Double.hashCode(timeStep);
+            hash = 31 * hash + Double.hashCode(begin);
+            hash = 31 * hash + Double.hashCode(end);
+            hash = 31 * hash + Double.hashCode(initialSpeed);
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+            var other = (Key) obj;
+            return hash == other.hash
+                    && rollingStock == other.rollingStock
+                    && plannedPath == other.plannedPath
+                    && stops == other.stops
+                    && Double.compare(timeStep, other.timeStep) == 0
+                    && Double.compare(begin, other.begin) == 0
+                    && Double.compare(end, other.end) == 0
+                    && Double.compare(initialSpeed, other.initialSpeed) == 0
+                    && controllers.equals(other.controllers);
+        }
+    }
+}
@@ -21,6 +21,11 @@ public class LinearAllowanceGenerator extends SpeedControllerGenerator {
         this.value = allowanceValue;
     }
 
+    @Override
+    public SpeedControllerGenerator copy() {
+        return new LinearAllowanceGenerator(sectionBegin, sectionEnd, value, allowanceType);
+    }
+
     @Override
     public Set<SpeedController> generate(Simulation sim, TrainSchedule schedule,
                                          Set<SpeedController> maxSpeeds) {
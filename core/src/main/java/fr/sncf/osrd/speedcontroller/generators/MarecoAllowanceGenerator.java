@@ -26,6 +26,11 @@ public class MarecoAllowanceGenerator extends DichotomyControllerGenerator {
         super(begin, end, 5 * TIME_STEP, allowanceType, allowanceValue);
     }
 
+    @Override
+    public SpeedControllerGenerator copy() {
+        return new MarecoAllowanceGenerator(sectionBegin, sectionEnd, value, allowanceType);
+    }
+
     private static class AcceleratingSlope {
         private double beginPosition;
         private double endPosition;
@@ -111,11 +116,6 @@ public class MarecoAllowanceGenerator extends DichotomyControllerGenerator {
         }
     }
 
-    @Override
-    protected double getFirstGuess(SortedDoubleMap speeds) {
-        return (this.getFirstHighEstimate(speeds) + this.getFirstLowEstimate()) / 2;
-    }
-
     /** Finds the end position of the coasting phases, that will then be generated backwards
      * with generateCoastingSpeedControllerAtPosition()
      * Coasting phases can be generated for two different reasons
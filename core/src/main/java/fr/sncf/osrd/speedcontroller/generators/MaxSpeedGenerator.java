@@ -21,6 +21,11 @@ public class MaxSpeedGenerator extends SpeedControllerGenerator {
         super(0, Double.POSITIVE_INFINITY);
     }
 
+    @Override
+    public SpeedControllerGenerator copy() {
+        return new MaxSpeedGenerator();
+    }
+
     @Override
     public Set<SpeedController> generate(Simulation sim, TrainSchedule schedule, Set<SpeedController> maxSpeeds) {
         // the path is computed at the beginning of the simulation, as it is (for now) part of the event
@@ -9,6 +9,7 @@ import fr.sncf.osrd.train.IntegrationStep;
 import fr.sncf.osrd.train.*;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.speedcontroller.SpeedController;
+import fr.sncf.osrd.speedcontroller.SpeedControllerIndex;
 import fr.sncf.osrd.utils.SortedDoubleMap;
 import java.util.NavigableMap;
 import java.util.Set;
@@ -37,6 +38,12 @@ public abstract class SpeedControllerGenerator {
         return sectionEnd;
     }
 
+    /**
+     * Creates a generator with the same parameters, for a fork of the simulation.
+     * Generators keep intermediate results while they generate, and thus aren't shared by forks.
+     */
+    public abstract SpeedControllerGenerator copy();
+
     /** Generates the set of SpeedController */
     public abstract Set<SpeedController> generate(Simulation sim, TrainSchedule schedule,
                                                   Set<SpeedController> maxSpeeds) throws SimulationError;
@@ -118,7 +125,11 @@ public abstract class SpeedControllerGenerator {
         return location;
     }
 
-    /** Generates a map of location -> updates if we follow the given controllers. */
+    /**
+     * Generates a map of location -> updates if we follow the given controllers.
+     * While the speed instructions of the schedule are generated, identical runs are only simulated once,
+     * and the returned map must not be modified.
+     */
     public static NavigableMap<Double, IntegrationStep> getIntegrationStepsAtPositions(
             TrainSchedule schedule,
             Set<SpeedController> controllers,
@@ -126,16 +137,35 @@ public abstract class SpeedControllerGenerator {
             double begin,
             double end,
             double initialSpeed
+    ) {
+        var cache = schedule.speedInstructions == null ? null : schedule.speedInstructions.getIntegrationTraces();
+        if (cache == null)
+            return integrate(schedule, controllers, timeStep, begin, end, initialSpeed);
+        // runs which go beyond the end of the path are the same as the ones which stop there
+        var actualEnd = min(end, schedule.plannedPath.length);
+        return cache.get(schedule, controllers, timeStep, begin, actualEnd, initialSpeed,
+                () -> integrate(schedule, controllers, timeStep, begin, actualEnd, initialSpeed));
+    }
+
+    private static NavigableMap<Double, IntegrationStep> integrate(
+            TrainSchedule schedule,
+            Set<SpeedController> controllers,
+            double timeStep,
+            double begin,
+            double end,
+            double initialSpeed
     ) {
         var location = convertPosition(schedule, begin);
         var totalLength = schedule.plannedPath.length;
         final var actualEnd = min(end, totalLength);
         var res = new TreeMap<Double, IntegrationStep>();
         var stopIndex = 0;
+        var controllersCursor = new SpeedControllerIndex(controllers).cursor();
 
         double speed = initialSpeed;
         do {
             int currentStopIndex = stopIndex;
+            controllersCursor.moveTo(location.getPathPosition());
             var step = nextStep(
                     location,
                     speed,
@@ -143,7 +173,8 @@ public abstract class SpeedControllerGenerator {
                     timeStep,
                     actualEnd,
                     1,
-                    (integrator) -> integrator.computeActionFromControllers(controllers, actualEnd, currentStopIndex));
+                    (integrator) -> integrator.computeActionFromControllers(
+                            controllersCursor, actualEnd, currentStopIndex));
 
             speed = step.finalSpeed;
             location.updatePosition(schedule.rollingStock.length, step.positionDelta);
@@ -4,6 +4,8 @@ import fr.sncf.osrd.utils.SortedArraySet;
 import java.util.Arrays;
 
 public class InteractionTypeSet extends SortedArraySet<InteractionType> {
+    private static final long serialVersionUID = -3140140397271480629L;
+
     public InteractionTypeSet() {}
 
     public InteractionTypeSet(InteractionType[] interactionsType) {
@@ -70,6 +70,15 @@ public class RollingStock implements PhysicsRollingStock {
      */
     public final TractiveEffortPoint[] tractiveEffortCurve;
 
+    /**
+     * The running maximum of the speeds of the tractive effort curve points.
+     * It is sorted even if the curve isn't, which makes it possible to binary search the curve.
+     */
+    private final transient double[] effortCurveSpeeds;
+
+    /** The max effort of each point of the tractive effort curve */
+    private final transient double[] effortCurveEfforts;
+
     @Override
     public double getMass() {
         return mass;
@@ -134,13 +143,21 @@ public class RollingStock implements PhysicsRollingStock {
      * @return the max tractive effort
      */
     public double getMaxEffort(double speed) {
-        double maxEffort = 0.0;
-        for (var dataPoint : tractiveEffortCurve) {
-            if (dataPoint.speed > Math.abs(speed))
-                break;
-            maxEffort = dataPoint.maxEffort;
+        speed = Math.abs(speed);
+        // find the first point of the curve faster than the given speed.
+        // the effort of the point before it applies, which is the same as walking the curve until that point
+        int low = 0;
+        int high = effortCurveSpeeds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (effortCurveSpeeds[mid] > speed)
+                high = mid;
+            else
+                low = mid + 1;
         }
-        return maxEffort;
+        if (low == 0)
+            return 0.0;
+        return effortCurveEfforts[low - 1];
     }
 
     // TODO masses
@@ -183,5 +200,14 @@ public class RollingStock implements PhysicsRollingStock {
         this.features = features;
         this.tractiveEffortCurve = tractiveEffortCurve;
         this.inertia = mass * inertiaCoefficient;
+
+        this.effortCurveSpeeds = new double[tractiveEffortCurve.length];
+        this.effortCurveEfforts = new double[tractiveEffortCurve.length];
+        var maxCurveSpeed = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < tractiveEffortCurve.length; i++) {
+            maxCurveSpeed = Math.max(maxCurveSpeed, tractiveEffortCurve[i].speed);
+            effortCurveSpeeds[i] = maxCurveSpeed;
+            effortCurveEfforts[i] = tractiveEffortCurve[i].maxEffort;
+        }
     }
 }
@@ -9,6 +9,8 @@ import fr.sncf.osrd.utils.graph.EdgeDirection;
 import java.util.Objects;
 
 public final class TrackSectionRange extends Range implements DeepComparable<TrackSectionRange> {
+    private static final long serialVersionUID = 6809238027501642644L;
+
     public final TrackSection edge;
     public final EdgeDirection direction;
 
@@ -19,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 public class Train {
     static final Logger logger = LoggerFactory.getLogger(Train.class);
@@ -76,6 +77,28 @@ public class Train {
         return train;
     }
 
+    /**
+     * Returns the copy of this train in a fork of the simulation.
+     * It is completed by {@link #finishFork(ForkContext)}, once the timeline of the fork is filled.
+     */
+    public Train fork(ForkContext context) {
+        return context.copy(this, original -> new Train(
+                original.schedule.fork(context),
+                original.lastState.fork(context)
+        ));
+    }
+
+    /** Forks the references of this train to its last scheduled event, which may have already occurred */
+    public void finishFork(ForkContext context) {
+        var copy = fork(context);
+        if (lastScheduledEvent != null)
+            copy.lastScheduledEvent = (TrainEvolutionEvent) lastScheduledEvent.fork(context);
+
+        // forking states hands them to the decision maker, which must get back the state it was last handed
+        var decisionState = schedule.trainDecisionMaker.getTrainState();
+        copy.schedule.trainDecisionMaker.setTrainState(decisionState == null ? null : decisionState.fork(context));
+    }
+
     /** Returns the last TrainState */
     public TrainState getLastState() {
         return lastState;
@@ -124,9 +147,14 @@ public class Train {
             TrainCreatedEvent.plan(sim, nextSchedule);
         }
 
-        var change = new TrainState.TrainDisappearChange(sim, lastState);
-        change.apply(sim, lastState);
-        sim.publishChange(change);
+        if (sim.isConsumed(TrainState.TrainDisappearChange.class)) {
+            var change = new TrainState.TrainDisappearChange(sim, lastState);
+            change.apply(sim, lastState);
+            sim.publishChange(change);
+        } else {
+            lastState.status = TrainStatus.REACHED_DESTINATION;
+            sim.traceSkippedChange(TrainState.TrainDisappearChange.class);
+        }
 
         // Free the tvdSections the train is on
         freeAllReservedTVDSections(sim);
@@ -293,6 +321,18 @@ public class Train {
             this.newState = newState;
         }
 
+        /** Returns the copy of this change in a fork of the simulation */
+        public TrainStateChange fork(ForkContext context) {
+            return context.copy(this, original -> {
+                var copy = new TrainStateChange(context.fork, trainID, newState.fork(context));
+                // updates aren't modified once the change is created, they can be shared
+                copy.positionUpdates.addAll(positionUpdates);
+                copy.speedControllersUpdates.addAll(speedControllersUpdates);
+                copy.speedDirectivesUpdates.addAll(speedDirectivesUpdates);
+                return copy;
+            });
+        }
+
         /** Deep compare two train state change */
         @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
         public boolean deepEquals(TrainStateChange o) {
@@ -380,6 +420,19 @@ public class Train {
                 if (!last.value.equals(value))
                     add(new PathValue<>(pathPosition, value));
             }
+
+            /**
+             * Add an update, avoiding duplicates. The value is only copied when it is added,
+             * which allows callers to reuse the same value from one update to the next.
+             * @param pathPosition the position on the path
+             * @param value the value at the given position
+             * @param copy makes a copy of the value
+             */
+            public void dedupAdd(double pathPosition, T value, UnaryOperator<T> copy) {
+                if (!isEmpty() && get(size() - 1).value.equals(value))
+                    return;
+                add(new PathValue<>(pathPosition, copy.apply(value)));
+            }
         }
 
         public static final class SpeedUpdates extends ArrayList<SpeedUpdate> {
@@ -190,4 +190,54 @@ public class TrainPath {
 
         return null;
     }
+
+    /**
+     * Finds locations on the path, for increasing path positions.
+     * Instead of scanning the path from the start for every location, the cursor resumes from the
+     * track section of the previous location, which makes resolving a whole curve linear.
+     */
+    public static final class LocationCursor {
+        private final List<TrackSectionRange> trackSectionPath;
+
+        /** The index of the track section range the cursor is on */
+        private int trackIndex = 0;
+
+        /** The path position of the start of the current track section range */
+        private double trackStartPosition = 0;
+
+        public LocationCursor(TrainPath path) {
+            this.trackSectionPath = path.trackSectionPath;
+        }
+
+        /** Same as {@link #findLocation(double, List)}, faster when positions are increasing */
+        public TrackSectionLocation findLocation(double pathPosition) {
+            // going backward is allowed, but requires starting over
+            if (pathPosition < trackStartPosition) {
+                trackIndex = 0;
+                trackStartPosition = 0;
+            }
+
+            for (; trackIndex < trackSectionPath.size(); trackIndex++) {
+                var track = trackSectionPath.get(trackIndex);
+                var trackPosition = pathPosition - trackStartPosition;
+                if (trackPosition > track.length()) {
+                    trackStartPosition += track.length();
+                    continue;
+                }
+
+                var location = track.getBeginPosition();
+                if (track.direction == EdgeDirection.START_TO_STOP)
+                    location += trackPosition;
+                else
+                    location -= trackPosition;
+                return new TrackSectionLocation(track.edge, location);
+            }
+
+            // We might reach this point with an epsilon left when looking for the end because of float inaccuracies
+            if (pathPosition - trackStartPosition < 1e-3)
+                return trackSectionPath.get(trackSectionPath.size() - 1).getEndLocation();
+
+            return null;
+        }
+    }
 }
@@ -5,6 +5,7 @@ import static fr.sncf.osrd.train.RollingStock.GammaType.CONST;
 import static java.lang.Math.*;
 
 import fr.sncf.osrd.speedcontroller.SpeedController;
+import fr.sncf.osrd.speedcontroller.SpeedControllerIndex;
 import fr.sncf.osrd.speedcontroller.SpeedDirective;
 import fr.sncf.osrd.utils.Constants;
 import java.util.Set;
@@ -121,6 +122,20 @@ public class TrainPhysicsIntegrator {
         return actionToTargetSpeed(directive, rollingStock);
     }
 
+    /**
+     * Computes the action of the train, given an index of speed controllers
+     * @param controllers a cursor on the index of speed controllers, which must not be after the current position
+     * @param end end position of the route
+     * @param stopIndex number of stops in the route
+     * @return the action of the train
+     */
+    public Action computeActionFromControllers(SpeedControllerIndex.Cursor controllers, double end, int stopIndex) {
+        var currentPosition = currentLocation.getPathPosition();
+        final var finalNextPosition = min(currentPosition, end);
+        var directive = controllers.getDirective(finalNextPosition, stopIndex);
+        return actionToTargetSpeed(directive, rollingStock);
+    }
+
     /** Get the max braking force if it exists or the average time table braking force. */
     public double getBrakingForce(RollingStock rollingStock) {
         return -rollingStock.gamma * inertia;
@@ -25,11 +25,6 @@ public final class TrainPositionTracker implements Cloneable, DeepComparable<Tra
      * To get the average train grade between two points, get the difference and divide by the length (m) */
     private final SortedDoubleMap prefixSumTrainGrade;
 
-    /** Cache to avoid recomputing the prefix sum
-     * Keys are lists of track section ranges, values are precomputed position trackers at their start positions */
-    private static HashMap<List<TrackSectionRange>, TrainPositionTracker> cachedPositionTrackers
-            = new HashMap<>();
-
     /**
      * Create a new position tracker on some given infrastructure and path.
      */
@@ -57,16 +52,41 @@ public final class TrainPositionTracker implements Cloneable, DeepComparable<Tra
         return from(path.trackSectionPath);
     }
 
-    /** Creates a location from a list of track ranges */
+    /**
+     * Creates a location from a list of track ranges.
+     * The prefix sum of the grades of a path is cached by its first track section, and shared by all the simulations.
+     */
     public static TrainPositionTracker from(List<TrackSectionRange> tracks) {
-        var cachedTracker = cachedPositionTrackers.computeIfAbsent(tracks, (key) -> {
-            var prefixSumGrade = initPrefixSumGrade(key);
-            return new TrainPositionTracker(0, 0,
-                    key, prefixSumGrade);
+        if (tracks.isEmpty())
+            return new TrainPositionTracker(0, 0, tracks, initPrefixSumGrade(tracks));
+        var cachedTracker = tracks.get(0).edge.getPathValue(new PathKey(tracks), key -> {
+            var prefixSumGrade = initPrefixSumGrade(key.tracks);
+            return new TrainPositionTracker(0, 0, key.tracks, prefixSumGrade);
         });
         return cachedTracker.clone();
     }
 
+    /** The cache key of the position tracker of a path */
+    private static final class PathKey {
+        private final List<TrackSectionRange> tracks;
+
+        PathKey(List<TrackSectionRange> tracks) {
+            this.tracks = tracks;
+        }
+
+        @Override
+        public int hashCode() {
+            return tracks.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PathKey))
+                return false;
+            return tracks.equals(((PathKey) obj).tracks);
+        }
+    }
+
     // region STD_OVERRIDES
 
     @Override
@@ -1,6 +1,7 @@
 package fr.sncf.osrd.train;
 
 import fr.sncf.osrd.infra.routegraph.Route;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.speedcontroller.SpeedInstructions;
 import fr.sncf.osrd.train.decisions.TrainDecisionMaker;
 import fr.sncf.osrd.train.phases.NavigatePhase;
@@ -61,6 +62,22 @@ public final class TrainSchedule {
         initStops(stops);
     }
 
+    /**
+     * Returns the copy of this schedule in a fork of the simulation.
+     * The phases, the path and the stops are shared, as they aren't modified by the simulation.
+     */
+    public TrainSchedule fork(ForkContext context) {
+        return context.copy(this, original -> {
+            var copy = new TrainSchedule(trainID, rollingStock, departureTime, initialLocation, initialRoute,
+                    initialSpeed, phases, trainDecisionMaker.fork(), plannedPath,
+                    context.copy(speedInstructions, SpeedInstructions::copy), stops);
+            if (trainSuccession != null)
+                copy.trainSuccession = new TrainSuccession(trainSuccession.nextTrain.fork(context),
+                        trainSuccession.delay);
+            return copy;
+        });
+    }
+
     private void initStops(List<TrainStop> stops) {
         if (stops == null)
             this.stops = Collections.singletonList(new TrainStop(-1, 1));
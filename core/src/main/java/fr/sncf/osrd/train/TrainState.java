@@ -3,6 +3,7 @@ package fr.sncf.osrd.train;
 import static fr.sncf.osrd.simulation.Simulation.timeStep;
 
 import java.util.*;
+import fr.sncf.osrd.envelope.Envelope;
 import fr.sncf.osrd.simulation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +12,6 @@ import fr.sncf.osrd.infra.signaling.Signal;
 import fr.sncf.osrd.infra.trackgraph.Detector;
 import fr.sncf.osrd.infra_state.SignalState;
 import fr.sncf.osrd.speedcontroller.SpeedController;
-import fr.sncf.osrd.speedcontroller.SpeedDirective;
 import fr.sncf.osrd.train.phases.NavigatePhase;
 import fr.sncf.osrd.train.phases.NavigatePhaseState;
 import fr.sncf.osrd.utils.DeepComparable;
@@ -115,6 +115,23 @@ public final class TrainState implements Cloneable, DeepComparable<TrainState> {
         );
     }
 
+    /** Returns the copy of this state in a fork of the simulation */
+    public TrainState fork(ForkContext context) {
+        return context.copy(this, original -> new TrainState(
+                time,
+                location.clone(),
+                speed,
+                status,
+                trainSchedule.fork(context),
+                currentPhaseIndex,
+                currentPhaseState.fork(context),
+                new ArrayDeque<>(actionPointsUnderTrain),
+                new TrainPath(path),
+                routeIndex,
+                stopIndex
+        ));
+    }
+
     /** Checks if the current phase is the last one */
     public boolean isDuringLastPhase() {
         return currentPhaseIndex == trainSchedule.phases.size() - 1;
@@ -158,15 +175,9 @@ public final class TrainState implements Cloneable, DeepComparable<TrainState> {
             TrainPhysicsIntegrator integrator,
             boolean isLate,
             double nextPosition) {
-        // get the list of active speed controllers
-        var activeSpeedControllers = trainSchedule.trainDecisionMaker.getActiveSpeedControllers(isLate);
-
-        // get the speed directive
+        // get the speed directive of the active speed controllers
         nextPosition = Double.min(nextPosition, trainSchedule.plannedPath.length);
-        var speedDirective = new SpeedDirective(Double.POSITIVE_INFINITY);
-        for (var controller : activeSpeedControllers)
-            if (controller.isActive(nextPosition, stopIndex))
-                speedDirective.mergeWith(controller.getDirective(nextPosition));
+        var speedDirective = trainSchedule.trainDecisionMaker.getSpeedDirective(isLate, nextPosition);
 
         // get the action the driver
         return trainSchedule.trainDecisionMaker.getNextAction(speedDirective, integrator);
@@ -213,7 +224,8 @@ public final class TrainState implements Cloneable, DeepComparable<TrainState> {
                     var prevLocation = integrator.currentLocation.getPathPosition();
                     var isLate = trainSchedule.speedInstructions.secondsLate(prevLocation, time) > 0;
                     var activeSpeedControllers = trainSchedule.trainDecisionMaker.getActiveSpeedControllers(isLate);
-                    locationChange.speedControllersUpdates.dedupAdd(prevLocation, activeSpeedControllers);
+                    locationChange.speedControllersUpdates.dedupAdd(
+                            prevLocation, activeSpeedControllers, HashSet::new);
                     var action = iterateFindNextAction(integrator, isLate, timeStep, distanceStep);
                     return action;
                 });
@@ -228,6 +240,46 @@ public final class TrainState implements Cloneable, DeepComparable<TrainState> {
         speed = step.finalSpeed;
     }
 
+    /** Whether some signal constrains the speed of the train between the two given positions */
+    private boolean hasSignalConstraints(double beginPathPosition, double endPathPosition) {
+        for (var controller : currentPhaseState.getSpeedControllers())
+            if (controller.beginPosition <= endPathPosition && controller.endPosition >= beginPathPosition)
+                return true;
+        return false;
+    }
+
+    /**
+     * Moves the train along an envelope, up to the given position.
+     * The train stops early at the first point where the speed of the envelope drops to zero.
+     */
+    private void followEnvelope(Train.TrainStateChange locationChange, Envelope envelope, double goalPathPosition) {
+        var position = location.getPathPosition();
+        goalPathPosition = Math.min(goalPathPosition, envelope.getEndPos());
+        var partIndex = envelope.findNextPart(position);
+        if (partIndex == -1)
+            return;
+        for (; partIndex < envelope.size(); partIndex++) {
+            var part = envelope.get(partIndex);
+            for (var stepIndex = part.findStep(position); stepIndex < part.stepCount(); stepIndex++) {
+                var stepEnd = Math.min(part.getEndPos(stepIndex), goalPathPosition);
+                if (stepEnd <= position)
+                    continue;
+                var timeDelta = part.interpolateTime(stepIndex, stepEnd) - part.interpolateTime(stepIndex, position);
+                var endSpeed = part.interpolateSpeed(stepIndex, stepEnd);
+
+                location.updatePosition(trainSchedule.rollingStock.length, stepEnd - position);
+                this.time += timeDelta;
+                logger.trace("speed changed from {} to {}", speed, endSpeed);
+                locationChange.positionUpdates.addSpeedUpdate(stepEnd, time, endSpeed);
+                speed = endSpeed;
+                position = stepEnd;
+
+                if (position >= goalPathPosition || endSpeed == 0)
+                    return;
+            }
+        }
+    }
+
     /**  Create a location change from the current state to the given position.
      * If the train stops during the simulation then the function returns its new state where it stopped. */
     public Train.TrainStateChange evolveStateUntilPosition(
@@ -237,6 +289,15 @@ public final class TrainState implements Cloneable, DeepComparable<TrainState> {
 
         var locationChange = new Train.TrainStateChange(sim, trainSchedule.trainID, this);
 
+        // follow the precomputed envelope of the train, if any, as long as signals don't get in the way
+        if (!hasSignalConstraints(location.getPathPosition(), goalPathPosition)) {
+            var envelope = trainSchedule.trainDecisionMaker.getMotionEnvelope(this);
+            if (envelope != null) {
+                followEnvelope(locationChange, envelope, goalPathPosition);
+                return locationChange;
+            }
+        }
+
         for (int i = 0; location.getPathPosition() < goalPathPosition; i++) {
             if (i >= 10000 / timeStep)
                 throw new SimulationError("train physics numerical integration doesn't seem to stop");
@@ -259,6 +320,20 @@ public final class TrainState implements Cloneable, DeepComparable<TrainState> {
     public Train.TrainStateChange evolveStateUntilTime(Simulation sim, double targetTime) {
         var locationChange = new Train.TrainStateChange(sim, trainSchedule.trainID, this);
 
+        var envelope = targetTime > time ? trainSchedule.trainDecisionMaker.getMotionEnvelope(this) : null;
+        if (envelope != null) {
+            var position = location.getPathPosition();
+            var envelopeTime = envelope.interpolateTotalTime(position) + targetTime - time;
+            var goalPathPosition = envelope.interpolatePosition(envelopeTime);
+            if (!hasSignalConstraints(position, goalPathPosition)) {
+                followEnvelope(locationChange, envelope, goalPathPosition);
+                // if the train stopped on the way, it waits until the target time
+                this.time = targetTime;
+                locationChange.positionUpdates.addSpeedUpdate(location.getPathPosition(), time, speed);
+                return locationChange;
+            }
+        }
+
         while (this.time + timeStep < targetTime)
             step(locationChange, timeStep, Double.POSITIVE_INFINITY);
         step(locationChange, targetTime - this.time, Double.POSITIVE_INFINITY);
@@ -0,0 +1,86 @@
+package fr.sncf.osrd.train.decisions;
+
+import fr.sncf.osrd.envelope.Envelope;
+import fr.sncf.osrd.envelope_sim.PhysicsPath;
+import fr.sncf.osrd.envelope_sim.pipelines.MaxEffortEnvelope;
+import fr.sncf.osrd.envelope_sim.pipelines.MaxSpeedEnvelope;
+import fr.sncf.osrd.envelope_sim_infra.InfraPathGrade;
+import fr.sncf.osrd.envelope_sim_infra.MRSP;
+import fr.sncf.osrd.train.TrainSchedule;
+import fr.sncf.osrd.train.TrainState;
+
+/**
+ * <p>Moves the train along its max effort envelope, which is computed once for the whole path,
+ * instead of integrating its movement step by step.</p>
+ *
+ * <p>Where signals constrain the speed of the train, it is still integrated step by step.
+ * When the train comes out of such a stretch slower than the envelope, a single acceleration curve
+ * is overlaid on the envelope, from the state of the train up to where the curve meets the envelope again.</p>
+ */
+public class EnvelopeTrainDecisionMaker extends TrainDecisionMaker.DefaultTrainDecisionMaker {
+    /** The speed difference, in m/s, under which the train is considered to be on the envelope */
+    static final double SPEED_TOLERANCE = 1E-2;
+
+    private PhysicsPath path = null;
+
+    /** The envelope the train follows, which gets acceleration curves added as the train is slowed down */
+    private Envelope envelope = null;
+
+    @Override
+    public TrainDecisionMaker fork() {
+        // envelopes are immutable, and can thus be shared with the fork
+        var copy = new EnvelopeTrainDecisionMaker();
+        copy.path = path;
+        copy.envelope = envelope;
+        return copy;
+    }
+
+    private void initEnvelope(TrainSchedule schedule) {
+        var rollingStock = schedule.rollingStock;
+        path = InfraPathGrade.from(schedule.plannedPath);
+        var stopPositions = schedule.stops.stream()
+                .filter(stop -> stop.stopDuration > 0)
+                .mapToDouble(stop -> stop.position)
+                .toArray();
+        var mrsp = MRSP.from(schedule.plannedPath, rollingStock);
+        var maxSpeedEnvelope = MaxSpeedEnvelope.from(rollingStock, path, stopPositions, mrsp);
+        // trains which start faster are integrated until they catch up with the envelope
+        envelope = MaxEffortEnvelope.from(rollingStock, path, 0, maxSpeedEnvelope);
+    }
+
+    /** Whether the train is stopped at its next stop, where it has to wait until it is restarted */
+    private static boolean isWaitingAtStop(TrainState state) {
+        var stops = state.trainSchedule.stops;
+        if (state.speed > SPEED_TOLERANCE || state.stopIndex >= stops.size())
+            return false;
+        var stop = stops.get(state.stopIndex);
+        return stop.stopDuration > 0 && state.location.getPathPosition() + 1e-2 >= stop.position;
+    }
+
+    @Override
+    public Envelope getMotionEnvelope(TrainState state) {
+        if (envelope == null)
+            initEnvelope(state.trainSchedule);
+
+        var position = state.location.getPathPosition();
+        if (position >= envelope.getEndPos() || isWaitingAtStop(state))
+            return null;
+
+        var partIndex = envelope.findNextPart(position);
+        if (partIndex == -1)
+            return null;
+        var envelopeSpeed = envelope.get(partIndex).interpolateSpeed(position);
+        if (Math.abs(state.speed - envelopeSpeed) <= SPEED_TOLERANCE)
+            return envelope;
+
+        // the train was slowed down by signals: only accelerate again from where it is
+        if (state.speed < envelopeSpeed) {
+            envelope = MaxEffortEnvelope.addAccelerationCurve(
+                    state.trainSchedule.rollingStock, path, envelope, position, state.speed);
+            return envelope;
+        }
+
+        // the train goes faster than the envelope: let the step by step integration slow it down
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package fr.sncf.osrd.train.decisions;
 
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -11,7 +12,7 @@ import fr.sncf.osrd.train.events.TrainMoveEvent;
 public abstract class InteractiveInput extends TrainDecisionMaker {
 
     protected boolean quit = false;
-    private final double dt;
+    protected final double dt;
 
     public InteractiveInput(double dt) {
         this.dt = dt;
@@ -54,6 +55,15 @@ public abstract class InteractiveInput extends TrainDecisionMaker {
         @Override
         protected void onCancellation(Simulation sim) throws SimulationError {}
 
+        @Override
+        protected TimelineEvent copy(ForkContext context) {
+            // the input of the event is the decision maker of the train, which is forked with its schedule
+            var forkedTrain = train.fork(context);
+            var forkedInput = forkedTrain.schedule.trainDecisionMaker;
+            assert input == train.schedule.trainDecisionMaker;
+            return new CheckInputEvent(eventId, (InteractiveInput) forkedInput, forkedTrain);
+        }
+
         @Override
         public boolean deepEquals(TimelineEvent other) {
             if (!(other instanceof CheckInputEvent))
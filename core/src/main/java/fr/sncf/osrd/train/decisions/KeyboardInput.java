@@ -17,6 +17,16 @@ public class KeyboardInput extends InteractiveInput implements KeyListener {
         DebugViewer.addKeyListener(this);
     }
 
+    /** The fork also follows the keyboard, starting with the keys which are currently pressed */
+    @Override
+    public TrainDecisionMaker fork() {
+        var copy = new KeyboardInput(dt);
+        copy.accelerating = accelerating;
+        copy.braking = braking;
+        copy.quit = quit;
+        return copy;
+    }
+
     @Override
     public Action getNextAction(SpeedDirective speedDirective, TrainPhysicsIntegrator integrator) {
         if (accelerating && !braking)
@@ -1,9 +1,12 @@
 package fr.sncf.osrd.train.decisions;
 
+import fr.sncf.osrd.envelope.Envelope;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.speedcontroller.SpeedController;
+import fr.sncf.osrd.speedcontroller.SpeedControllerIndex;
 import fr.sncf.osrd.speedcontroller.SpeedDirective;
+import fr.sncf.osrd.speedcontroller.generators.SpeedControllerGenerator;
 import fr.sncf.osrd.train.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -12,45 +15,100 @@ public abstract class TrainDecisionMaker {
 
     protected TrainState trainState = null;
 
+    /** Cursors on the max and target speed controllers of the train, which follow the train along its path */
+    private SpeedControllerIndex.Cursor maxSpeedCursor = null;
+    private SpeedControllerIndex.Cursor targetSpeedCursor = null;
+
+    /** The set of active controllers and the directive returned by lookups, which are reused by the next ones */
+    private final HashSet<SpeedController> activeControllers = new HashSet<>();
+    private final SpeedDirective directive = SpeedDirective.getMax();
+
     public void setTrainState(TrainState trainState) {
         this.trainState = trainState;
     }
 
+    public TrainState getTrainState() {
+        return trainState;
+    }
+
+    /** Creates a decision maker for a fork of the simulation, without any train state */
+    public abstract TrainDecisionMaker fork();
+
     public abstract Action getNextAction(SpeedDirective speedDirective, TrainPhysicsIntegrator integrator);
 
+    /**
+     * Returns an envelope the train can follow from the given state, instead of being integrated step by step.
+     * The envelope must go through the current position and speed of the train.
+     * Returns null when the train has to be integrated step by step, which is what the default implementation does.
+     */
+    public Envelope getMotionEnvelope(TrainState state) {
+        return null;
+    }
+
     public TrainEvolutionEvent simulatePhase(Train train, Simulation sim) throws SimulationError {
         return trainState.currentPhaseState.simulate(train, trainState);
     }
 
     /** Return a list of active controller.
      *  If isLate is true this function uses the max speed controller to catch up with the target time.
+     *  The returned set is reused by the next calls, and must be copied to be kept.
      */
     public Set<SpeedController> getActiveSpeedControllers(boolean isLate) {
-        var speedInstructions = trainState.trainSchedule.speedInstructions;
-        var activeControllers = new HashSet<SpeedController>();
-        // Add train speed controllers
-        Set<SpeedController> targetControllers;
-        if (isLate)
-            targetControllers = speedInstructions.maxSpeedControllers;
-        else
-            targetControllers = speedInstructions.targetSpeedControllers;
-        for (var controller : targetControllers) {
-            if (!controller.isActive(trainState))
-                continue;
-            activeControllers.add(controller);
-        }
+        activeControllers.clear();
+        // Add train speed controllers, which are looked up at the position the train reaches at the next step
+        var cursor = getSpeedControllersCursor(isLate);
+        cursor.moveTo(trainState.location.getPathPosition());
+        cursor.addActiveControllers(getLookupPosition(), trainState.stopIndex, activeControllers);
 
         // Add phase speed controllers
-        for (var controller : trainState.currentPhaseState.getSpeedControllers()) {
-            if (!controller.isActive(trainState))
-                continue;
-            activeControllers.add(controller);
-        }
+        trainState.currentPhaseState.addActiveSpeedControllers(trainState, activeControllers);
         return activeControllers;
     }
 
+    /**
+     * Merges the directives, at the given position, of the controllers returned by getActiveSpeedControllers.
+     * Nothing is allocated: the returned directive is reused by the next calls.
+     * @param isLate whether to use the max speed controllers, to catch up with the target time
+     * @param pathPosition the position on the train's path of the directive
+     * @return the merged speed directive
+     */
+    public SpeedDirective getSpeedDirective(boolean isLate, double pathPosition) {
+        directive.allowedSpeed = Double.POSITIVE_INFINITY;
+        directive.isCoasting = false;
+        var cursor = getSpeedControllersCursor(isLate);
+        cursor.moveTo(trainState.location.getPathPosition());
+        cursor.mergeDirectives(directive, getLookupPosition(), pathPosition, trainState.stopIndex);
+        trainState.currentPhaseState.mergeSpeedDirectives(trainState, directive, pathPosition);
+        return directive;
+    }
+
+    /** Train speed controllers are looked up at the position the train reaches at the next step */
+    private double getLookupPosition() {
+        return trainState.location.getPathPosition() + trainState.speed * SpeedControllerGenerator.TIME_STEP;
+    }
+
+    /** Returns the cursor on the max or target speed controllers of the train, creating it if needed */
+    private SpeedControllerIndex.Cursor getSpeedControllersCursor(boolean isLate) {
+        var speedInstructions = trainState.trainSchedule.speedInstructions;
+        if (isLate) {
+            var index = speedInstructions.getMaxSpeedIndex();
+            if (maxSpeedCursor == null || maxSpeedCursor.getIndex() != index)
+                maxSpeedCursor = index.cursor();
+            return maxSpeedCursor;
+        }
+        var index = speedInstructions.getTargetSpeedIndex();
+        if (targetSpeedCursor == null || targetSpeedCursor.getIndex() != index)
+            targetSpeedCursor = index.cursor();
+        return targetSpeedCursor;
+    }
+
     public static class DefaultTrainDecisionMaker extends TrainDecisionMaker {
 
+        @Override
+        public TrainDecisionMaker fork() {
+            return new DefaultTrainDecisionMaker();
+        }
+
         @Override
         public Action getNextAction(SpeedDirective directive, TrainPhysicsIntegrator integrator) {
             var rollingStock = trainState.trainSchedule.rollingStock;
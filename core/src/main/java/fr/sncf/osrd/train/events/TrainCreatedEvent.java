@@ -2,6 +2,7 @@ package fr.sncf.osrd.train.events;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.train.TrainSchedule;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -38,6 +39,11 @@ public class TrainCreatedEvent extends TimelineEvent {
         throw new SimulationError("cancelling train creation isn't supported");
     }
 
+    @Override
+    protected TimelineEvent copy(ForkContext context) {
+        return new TrainCreatedEvent(eventId, schedule.fork(context));
+    }
+
     @Override
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
     public boolean deepEquals(TimelineEvent other) {
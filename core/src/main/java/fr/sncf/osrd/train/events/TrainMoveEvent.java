@@ -1,6 +1,7 @@
 package fr.sncf.osrd.train.events;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -42,6 +43,11 @@ public final class TrainMoveEvent extends TrainEvolutionEvent {
     @Override
     protected void onCancellation(Simulation sim) {}
 
+    @Override
+    protected TimelineEvent copy(ForkContext context) {
+        return new TrainMoveEvent(eventId, train.fork(context), trainStateChange.fork(context));
+    }
+
     @Override
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
     public boolean deepEquals(TimelineEvent other) {
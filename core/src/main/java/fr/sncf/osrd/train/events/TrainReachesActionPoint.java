@@ -2,6 +2,7 @@ package fr.sncf.osrd.train.events;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.infra.StopActionPoint;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -54,6 +55,11 @@ public final class TrainReachesActionPoint extends TrainEvolutionEvent {
     @Override
     protected void onCancellation(Simulation sim) {}
 
+    @Override
+    protected TimelineEvent copy(ForkContext context) {
+        return new TrainReachesActionPoint(eventId, train.fork(context), trainStateChange.fork(context), interaction);
+    }
+
     @Override
     @SuppressFBWarnings({"BC_UNCONFIRMED_CAST"})
     public boolean deepEquals(TimelineEvent other) {
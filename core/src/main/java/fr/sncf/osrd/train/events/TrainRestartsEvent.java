@@ -1,6 +1,7 @@
 package fr.sncf.osrd.train.events;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -31,6 +32,11 @@ public final class TrainRestartsEvent extends TimelineEvent {
         throw new SimulationError("cancellation of TrainChangedState not supported yet");
     }
 
+    @Override
+    protected TimelineEvent copy(ForkContext context) {
+        return new TrainRestartsEvent(eventId, train.fork(context), stateChange.fork(context));
+    }
+
     /** Plan a move to an action point */
     public static TrainRestartsEvent plan(
             Simulation sim,
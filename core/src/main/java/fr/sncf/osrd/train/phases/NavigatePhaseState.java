@@ -1,17 +1,20 @@
 package fr.sncf.osrd.train.phases;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.function.Predicate;
 import fr.sncf.osrd.infra.signaling.AspectConstraint;
 import fr.sncf.osrd.infra.signaling.Signal;
 import fr.sncf.osrd.infra_state.SignalState;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
 import fr.sncf.osrd.speedcontroller.LimitAnnounceSpeedController;
 import fr.sncf.osrd.speedcontroller.MaxSpeedController;
 import fr.sncf.osrd.speedcontroller.SpeedController;
+import fr.sncf.osrd.speedcontroller.SpeedDirective;
 import fr.sncf.osrd.train.*;
 import fr.sncf.osrd.train.Train.TrainStateChange;
 import fr.sncf.osrd.train.events.TrainReachesActionPoint;
@@ -39,13 +42,46 @@ public abstract class NavigatePhaseState implements DeepComparable<NavigatePhase
         this.sim = state.sim;
     }
 
+    /** Creates a copy of the given state for a fork of the simulation */
+    protected NavigatePhaseState(NavigatePhaseState state, ForkContext context) {
+        this.phase = state.phase;
+        this.interactionsPathIndex = state.interactionsPathIndex;
+        // the speed controllers of signals are shared between the clones of a state
+        this.signalControllers = context.copy(state.signalControllers, HashMap::new);
+        this.schedule = state.schedule.fork(context);
+        this.sim = context.fork;
+    }
+
     public abstract TrainEvolutionEvent simulate(Train train, TrainState trainState) throws SimulationError;
 
     @Override
     public abstract NavigatePhaseState clone();
 
+    /** Returns the copy of this state in a fork of the simulation */
+    public abstract NavigatePhaseState fork(ForkContext context);
+
     public abstract ArrayList<SpeedController> getSpeedControllers();
 
+    /** Adds the speed controllers of the phase which are active for the given train state to a collection */
+    public void addActiveSpeedControllers(TrainState trainState, Collection<SpeedController> res) {
+        for (var controller : getSpeedControllers())
+            if (controller.isActive(trainState))
+                res.add(controller);
+    }
+
+    /**
+     * Merges the directives of the speed controllers of the phase into an existing directive.
+     * Controllers must be active both for the given train state, and at the position of the directive.
+     * @param trainState the state of the train
+     * @param directive the directive to merge into
+     * @param pathPosition the position on the train's path of the directive
+     */
+    public void mergeSpeedDirectives(TrainState trainState, SpeedDirective directive, double pathPosition) {
+        for (var controller : getSpeedControllers())
+            if (controller.isActive(trainState) && controller.isActive(pathPosition, trainState.stopIndex))
+                controller.mergeDirective(directive, pathPosition);
+    }
+
     protected boolean isInteractionUnderTrain(TrainState trainState) {
         var nextFrontalInteraction = phase.interactionsPath.get(interactionsPathIndex);
 
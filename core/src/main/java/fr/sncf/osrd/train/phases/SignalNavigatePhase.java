@@ -1,12 +1,15 @@
 package fr.sncf.osrd.train.phases;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
 import fr.sncf.osrd.speedcontroller.SpeedController;
+import fr.sncf.osrd.speedcontroller.SpeedDirective;
 import fr.sncf.osrd.train.*;
 import fr.sncf.osrd.train.events.TrainMoveEvent;
 import fr.sncf.osrd.utils.TrackSectionLocation;
@@ -59,6 +62,11 @@ public final class SignalNavigatePhase extends NavigatePhase {
             return new SignalNavigatePhase.State(this);
         }
 
+        @Override
+        public NavigatePhaseState fork(ForkContext context) {
+            return context.copy(this, original -> new SignalNavigatePhase.State(original, context));
+        }
+
         State(SignalNavigatePhase phase, Simulation sim, TrainSchedule schedule) {
             super(phase, sim, schedule);
         }
@@ -67,6 +75,10 @@ public final class SignalNavigatePhase extends NavigatePhase {
             super(state);
         }
 
+        State(SignalNavigatePhase.State state, ForkContext context) {
+            super(state, context);
+        }
+
         @Override
         public TrainEvolutionEvent simulate(Train train, TrainState trainState) throws SimulationError {
             // Check if we reached our goal
@@ -101,5 +113,27 @@ public final class SignalNavigatePhase extends NavigatePhase {
                 controllers.addAll(signalControllers);
             return controllers;
         }
+
+        @Override
+        public void addActiveSpeedControllers(TrainState trainState, Collection<SpeedController> res) {
+            for (var controllers : signalControllers.values()) {
+                for (int i = 0; i < controllers.size(); i++) {
+                    var controller = controllers.get(i);
+                    if (controller.isActive(trainState))
+                        res.add(controller);
+                }
+            }
+        }
+
+        @Override
+        public void mergeSpeedDirectives(TrainState trainState, SpeedDirective directive, double pathPosition) {
+            for (var controllers : signalControllers.values()) {
+                for (int i = 0; i < controllers.size(); i++) {
+                    var controller = controllers.get(i);
+                    if (controller.isActive(trainState) && controller.isActive(pathPosition, trainState.stopIndex))
+                        controller.mergeDirective(directive, pathPosition);
+                }
+            }
+        }
     }
 }
\ No newline at end of file
@@ -18,6 +18,11 @@ public class CurveSimplification {
         }
     }
 
+    /** Computes the distance between a point and a segment, all given by their index in the curve */
+    public interface RDPIndexDist {
+        double dist(int point, int start, int end);
+    }
+
     /**
      * Simplifies a curve, given a distance function and a maximum error.
      * This function is an iterative implementation of the Ramer-Douglas-Peucker algorithm.
@@ -32,10 +37,34 @@ public class CurveSimplification {
             double epsilon,
             RDPDist<PointT> distFunction
     ) {
-        var deleted = new boolean[points.size()];
+        var kept = rdpIndexes(
+                points.size(),
+                epsilon,
+                (point, start, end) -> distFunction.dist(points.get(point), points.get(start), points.get(end))
+        );
+        var res = new ArrayList<PointT>(kept.length);
+        for (var index : kept)
+            res.add(points.get(index));
+        return res;
+    }
+
+    /**
+     * Simplifies a curve stored by the caller, given a distance function and a maximum error.
+     * This is the same algorithm as {@link #rdp(ArrayList, double, RDPDist)},
+     * which doesn't require points to be objects.
+     * @param size the number of points of the curve
+     * @param epsilon the max error
+     * @param distFunction the distance function, which is given the indexes of the points
+     * @return the sorted indexes of the points of the simplified curve
+     */
+    public static int[] rdpIndexes(int size, double epsilon, RDPIndexDist distFunction) {
+        if (size == 0)
+            return new int[0];
+
+        var deleted = new boolean[size];
 
         var stack = new ArrayDeque<PendingRange>();
-        stack.add(new PendingRange(0, points.size() - 1));
+        stack.add(new PendingRange(0, size - 1));
 
         while (!stack.isEmpty()) {
             var cur = stack.pop();
@@ -45,7 +74,7 @@ public class CurveSimplification {
             for (int i = index + 1; i < cur.end; i++) {
                 if (deleted[i])
                     continue;
-                var d = distFunction.dist(points.get(i), points.get(cur.start), points.get(cur.end));
+                var d = distFunction.dist(i, cur.start, cur.end);
                 if (d <= maxDist)
                     continue;
                 index = i;
@@ -61,10 +90,15 @@ public class CurveSimplification {
             }
         }
 
-        var res = new ArrayList<PointT>();
-        for (int i = 0; i < points.size(); i++)
+        var keptCount = 0;
+        for (int i = 0; i < size; i++)
+            if (!deleted[i])
+                keptCount++;
+        var res = new int[keptCount];
+        var resIndex = 0;
+        for (int i = 0; i < size; i++)
             if (!deleted[i])
-                res.add(points.get(i));
+                res[resIndex++] = i;
         return res;
     }
 }
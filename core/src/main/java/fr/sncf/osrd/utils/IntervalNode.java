@@ -1,9 +1,12 @@
 package fr.sncf.osrd.utils;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.Serializable;
 import java.util.Objects;
 
-public abstract class IntervalNode {
+public abstract class IntervalNode implements Serializable {
+    private static final long serialVersionUID = 4521082127091675861L;
+
     public final double begin;
     public final double end;
 
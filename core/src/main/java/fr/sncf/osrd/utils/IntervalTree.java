@@ -1,11 +1,19 @@
 package fr.sncf.osrd.utils;
 
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
-public class IntervalTree<NodeT extends IntervalNode> {
-    public IntervalNode root;
+public class IntervalTree<NodeT extends IntervalNode> implements Serializable {
+    private static final long serialVersionUID = -723058337269183176L;
+
+    /** The links between nodes are transient, so trees are serialized as a list of nodes */
+    public transient IntervalNode root;
 
     public IntervalTree() {
         this.root = null;
@@ -152,6 +160,26 @@ public class IntervalTree<NodeT extends IntervalNode> {
         findOverlappingIntervals(node.rightChild, consumer, begin, end, node.begin);
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        var nodes = new ArrayList<IntervalNode>();
+        getAllChildren(root, nodes::add);
+        out.writeInt(nodes.size());
+        for (var node : nodes)
+            out.writeObject(node);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            var node = (IntervalNode) in.readObject();
+            node.maxEnd = node.end;
+            node.height = 1;
+            insert(node);
+        }
+    }
+
     public void getAll(Consumer<NodeT> consumer) {
         getAllChildren(root, consumer);
     }
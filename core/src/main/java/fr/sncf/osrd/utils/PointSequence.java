@@ -16,6 +16,8 @@ import java.util.stream.StreamSupport;
  * @param <E> The type of the point objects
  */
 public final class PointSequence<E> extends SortedSequence<E> implements Iterable<PointValue<E>> {
+    private static final long serialVersionUID = 3436423812375203739L;
+
     public int size() {
         return data.size();
     }
@@ -2,9 +2,12 @@ package fr.sncf.osrd.utils;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.utils.graph.IPointValue;
+import java.io.Serializable;
 import java.util.Objects;
 
-public final class PointValue<ValueT> implements IPointValue<ValueT> {
+public final class PointValue<ValueT> implements Serializable, IPointValue<ValueT> {
+    private static final long serialVersionUID = 8530490304423566194L;
+
     public final double position;
     public final ValueT value;
 
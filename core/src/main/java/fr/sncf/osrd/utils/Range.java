@@ -2,9 +2,12 @@ package fr.sncf.osrd.utils;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fr.sncf.osrd.simulation.ChangeSerializer.SerializableDouble;
+import java.io.Serializable;
 import java.util.Objects;
 
-public class Range implements Comparable<Range> {
+public class Range implements Serializable, Comparable<Range> {
+    private static final long serialVersionUID = 4977577769940945505L;
+
     public static final Range INFINITE_RANGE = new Range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
 
     @SerializableDouble
@@ -36,6 +36,8 @@ import java.util.function.DoubleUnaryOperator;
  * @param <E> The type of the values
  */
 public class RangeSequence<E> extends SortedSequence<E> {
+    private static final long serialVersionUID = -5796100496370361789L;
+
     /** Get the end position of the step at index i. */
     double getEnd(int i) {
         double nextPosition = Double.POSITIVE_INFINITY;
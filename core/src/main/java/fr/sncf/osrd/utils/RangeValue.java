@@ -1,10 +1,13 @@
 package fr.sncf.osrd.utils;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.Serializable;
 import java.util.Objects;
 
 /** A range of position with an associated value. */
-public final class RangeValue<E> {
+public final class RangeValue<E> implements Serializable {
+    private static final long serialVersionUID = 309025700058211039L;
+
     public final double begin;
     public final double end;
     public final E value;
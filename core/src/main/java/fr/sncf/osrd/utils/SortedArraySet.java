@@ -1,12 +1,15 @@
 package fr.sncf.osrd.utils;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.Serializable;
 import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 
-public class SortedArraySet<E extends Comparable<E>> extends AbstractSet<E> {
+public class SortedArraySet<E extends Comparable<E>> extends AbstractSet<E> implements Serializable {
+    private static final long serialVersionUID = 4987987059881289380L;
+
     protected final ArrayList<E> data = new ArrayList<>();
 
     public E get(int index) {
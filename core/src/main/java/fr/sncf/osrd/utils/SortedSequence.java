@@ -1,6 +1,7 @@
 package fr.sncf.osrd.utils;
 
 import fr.sncf.osrd.utils.graph.EdgeDirection;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
 import java.util.function.DoubleUnaryOperator;
@@ -9,7 +10,9 @@ import java.util.function.DoubleUnaryOperator;
  * A flat collection of elements, sorted by position.
  * @param <E> The type of the attributes
  */
-public abstract class SortedSequence<E> {
+public abstract class SortedSequence<E> implements Serializable {
+    private static final long serialVersionUID = 4107239162651172724L;
+
     /**
      * Gets the index of the first element of this sequence, or NaN
      * @return the index of the first element of this sequence, or NaN
@@ -0,0 +1,13 @@
+package fr.sncf.osrd.utils.graph;
+
+@FunctionalInterface
+public interface AStarHeuristic<EdgeT> {
+    /**
+     * Returns a lower bound of the cost of going from some position to the closest goal.
+     * It must never be more than the actual cost, nor decrease by more than the cost of moving along the graph.
+     * @param edge the edge of the position
+     * @param position the position on the edge
+     * @return the estimated remaining cost
+     */
+    double estimate(EdgeT edge, double position);
+}
@@ -1,9 +1,12 @@
 package fr.sncf.osrd.utils.graph;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public abstract class BiGraph<EdgeT extends Edge> implements IEdgeGraph<EdgeT> {
+public abstract class BiGraph<EdgeT extends Edge> implements Serializable, IEdgeGraph<EdgeT> {
+    private static final long serialVersionUID = -1843341482280319315L;
+
     private final ArrayList<EdgeT> edges = new ArrayList<>();
 
     /**
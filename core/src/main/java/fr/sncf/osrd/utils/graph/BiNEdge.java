@@ -1,6 +1,8 @@
 package fr.sncf.osrd.utils.graph;
 
 public abstract class BiNEdge<SelfT extends BiNEdge<SelfT>> extends Edge implements IBiNeighborRel<SelfT> {
+    private static final long serialVersionUID = -8880058188906014207L;
+
     protected BiNEdge(int index, int startNode, int endNode, double length) {
         super(index, length);
         this.startNode = startNode;
@@ -6,6 +6,8 @@ public abstract class BiNGraph<
         EdgeT extends BiNEdge<EdgeT>,
         NodeT extends Node
         > extends BiGraph<EdgeT> implements INodeGraph<NodeT> {
+    private static final long serialVersionUID = 7710476918569429312L;
+
     private final ArrayList<NodeT> nodes = new ArrayList<>();
 
     @Override
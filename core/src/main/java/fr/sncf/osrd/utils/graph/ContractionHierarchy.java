@@ -0,0 +1,504 @@
+package fr.sncf.osrd.utils.graph;
+
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * <p>A contraction hierarchy over the edges of a directed graph, which answers shortest path queries
+ * while only exploring a small part of the graph.</p>
+ *
+ * <p>Pathfinding goes from edge to edge: the nodes of the hierarchy are the edges of the graph,
+ * and going from an edge to one of its neighbors costs the whole edge. At build time, edges are contracted
+ * one by one, from the least to the most important: when an edge is contracted, shortcuts are added between
+ * its neighbors, unless a path which doesn't go through the contracted edge is as short.
+ * Queries are bidirectional searches, which only follow arcs towards more important edges.</p>
+ *
+ * <p>Edge costs are computed once, at build time: the hierarchy can only be used with the cost function
+ * it was built with. The hierarchy is immutable and can be shared, but each query object must be used
+ * by a single thread.</p>
+ */
+public final class ContractionHierarchy<EdgeT extends Edge> implements Serializable {
+    private static final long serialVersionUID = 876016087861073452L;
+
+    /** The number of edges settled by a witness search, after which it gives up and adds the shortcut */
+    private static final int WITNESS_SEARCH_LIMIT = 64;
+
+    private final DirGraph<EdgeT> graph;
+    private final CostFunction<EdgeT> costFunction;
+
+    /** The contraction order of each edge of the graph */
+    private final int[] rank;
+
+    // all the arcs of the hierarchy, including shortcuts. Shortcuts are made of two arcs, which are -1 otherwise
+    private final int[] arcTarget;
+    private final int[] arcSource;
+    private final double[] arcCost;
+    private final int[] arcFirstHalf;
+    private final int[] arcSecondHalf;
+
+    // for each edge, the arcs to more important edges, sorted by source edge
+    private final int[] upwardArcsBegin;
+    private final int[] upwardArcs;
+
+    // for each edge, the arcs from more important edges, sorted by target edge
+    private final int[] downwardArcsBegin;
+    private final int[] downwardArcs;
+
+    private ContractionHierarchy(
+            DirGraph<EdgeT> graph,
+            CostFunction<EdgeT> costFunction,
+            int[] rank,
+            ArrayList<BuildArc> arcs
+    ) {
+        this.graph = graph;
+        this.costFunction = costFunction;
+        this.rank = rank;
+
+        var arcCount = arcs.size();
+        arcTarget = new int[arcCount];
+        arcSource = new int[arcCount];
+        arcCost = new double[arcCount];
+        arcFirstHalf = new int[arcCount];
+        arcSecondHalf = new int[arcCount];
+        var nodeCount = rank.length;
+        upwardArcsBegin = new int[nodeCount + 1];
+        downwardArcsBegin = new int[nodeCount + 1];
+        for (var arc : arcs) {
+            arcSource[arc.id] = arc.source;
+            arcTarget[arc.id] = arc.target;
+            arcCost[arc.id] = arc.cost;
+            arcFirstHalf[arc.id] = arc.firstHalf == null ? -1 : arc.firstHalf.id;
+            arcSecondHalf[arc.id] = arc.secondHalf == null ? -1 : arc.secondHalf.id;
+            if (rank[arc.target] > rank[arc.source])
+                upwardArcsBegin[arc.source + 1]++;
+            else
+                downwardArcsBegin[arc.target + 1]++;
+        }
+
+        // store the arcs of each edge contiguously
+        for (int i = 0; i < nodeCount; i++) {
+            upwardArcsBegin[i + 1] += upwardArcsBegin[i];
+            downwardArcsBegin[i + 1] += downwardArcsBegin[i];
+        }
+        upwardArcs = new int[upwardArcsBegin[nodeCount]];
+        downwardArcs = new int[downwardArcsBegin[nodeCount]];
+        var upwardFill = Arrays.copyOf(upwardArcsBegin, nodeCount);
+        var downwardFill = Arrays.copyOf(downwardArcsBegin, nodeCount);
+        for (var arc : arcs) {
+            if (rank[arc.target] > rank[arc.source])
+                upwardArcs[upwardFill[arc.source]++] = arc.id;
+            else
+                downwardArcs[downwardFill[arc.target]++] = arc.id;
+        }
+    }
+
+    /** The cost function the hierarchy was built with */
+    public CostFunction<EdgeT> getCostFunction() {
+        return costFunction;
+    }
+
+    /** The number of arcs of the hierarchy, including shortcuts */
+    public int getArcCount() {
+        return arcCost.length;
+    }
+
+    /** Creates an object which runs queries. Queries reuse the memory of the previous ones */
+    public Query query() {
+        return new Query();
+    }
+
+    // region BUILD
+
+    /** An arc of the hierarchy, while it's being built */
+    private static final class BuildArc {
+        final int id;
+        final int source;
+        final int target;
+        double cost;
+        BuildArc firstHalf;
+        BuildArc secondHalf;
+
+        BuildArc(int id, int source, int target, double cost, BuildArc firstHalf, BuildArc secondHalf) {
+            this.id = id;
+            this.source = source;
+            this.target = target;
+            this.cost = cost;
+            this.firstHalf = firstHalf;
+            this.secondHalf = secondHalf;
+        }
+    }
+
+    /** The state of the graph during the contraction */
+    private static final class Builder {
+        final int nodeCount;
+        final ArrayList<BuildArc> arcs = new ArrayList<>();
+        final ArrayList<ArrayList<BuildArc>> outArcs;
+        final ArrayList<ArrayList<BuildArc>> inArcs;
+        final boolean[] contracted;
+        /** The number of contracted neighbors of each edge, which spreads the contraction over the graph */
+        final int[] contractedNeighbors;
+
+        // the state of witness searches
+        final double[] witnessCosts;
+        final int[] touched;
+        int touchedCount = 0;
+        final IndexHeap witnessQueue = new IndexHeap();
+
+        Builder(int nodeCount) {
+            this.nodeCount = nodeCount;
+            outArcs = new ArrayList<>(nodeCount);
+            inArcs = new ArrayList<>(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                outArcs.add(new ArrayList<>());
+                inArcs.add(new ArrayList<>());
+            }
+            contracted = new boolean[nodeCount];
+            contractedNeighbors = new int[nodeCount];
+            witnessCosts = new double[nodeCount];
+            Arrays.fill(witnessCosts, Double.POSITIVE_INFINITY);
+            touched = new int[nodeCount];
+        }
+
+        /** Adds an arc, or lowers the cost of an existing arc between the same edges */
+        void addArc(int source, int target, double cost, BuildArc firstHalf, BuildArc secondHalf) {
+            for (var arc : outArcs.get(source)) {
+                if (arc.target != target)
+                    continue;
+                if (cost < arc.cost) {
+                    arc.cost = cost;
+                    arc.firstHalf = firstHalf;
+                    arc.secondHalf = secondHalf;
+                }
+                return;
+            }
+            var arc = new BuildArc(arcs.size(), source, target, cost, firstHalf, secondHalf);
+            arcs.add(arc);
+            outArcs.get(source).add(arc);
+            inArcs.get(target).add(arc);
+        }
+
+        /**
+         * Computes the cost of the shortest paths from a source, without going through the contracted edge.
+         * The search stops at maxCost, or when enough edges were settled.
+         */
+        void witnessSearch(int source, int contractedNode, double maxCost) {
+            for (int i = 0; i < touchedCount; i++)
+                witnessCosts[touched[i]] = Double.POSITIVE_INFINITY;
+            touchedCount = 0;
+            witnessQueue.clear();
+
+            witnessCosts[source] = 0;
+            touched[touchedCount++] = source;
+            witnessQueue.push(source, 0);
+            var settled = 0;
+            while (!witnessQueue.isEmpty() && settled < WITNESS_SEARCH_LIMIT) {
+                var cost = witnessQueue.peekCost();
+                var node = witnessQueue.pop();
+                if (cost > witnessCosts[node])
+                    continue;
+                if (cost > maxCost)
+                    break;
+                settled++;
+                for (var arc : outArcs.get(node)) {
+                    var target = arc.target;
+                    if (target == contractedNode || contracted[target])
+                        continue;
+                    var targetCost = cost + arc.cost;
+                    if (targetCost >= witnessCosts[target])
+                        continue;
+                    if (witnessCosts[target] == Double.POSITIVE_INFINITY)
+                        touched[touchedCount++] = target;
+                    witnessCosts[target] = targetCost;
+                    witnessQueue.push(target, targetCost);
+                }
+            }
+        }
+
+        /**
+         * Finds the shortcuts needed to contract an edge, and adds them if asked to
+         * @return the number of needed shortcuts
+         */
+        int contract(int node, boolean addShortcuts) {
+            var maxOutCost = 0.0;
+            for (var outArc : outArcs.get(node))
+                if (!contracted[outArc.target])
+                    maxOutCost = Math.max(maxOutCost, outArc.cost);
+
+            var shortcutCount = 0;
+            // shortcuts are added after all the searches, so that they don't witness each other
+            var shortcuts = addShortcuts ? new ArrayList<BuildArc[]>() : null;
+            for (var inArc : inArcs.get(node)) {
+                var source = inArc.source;
+                if (contracted[source] || source == node)
+                    continue;
+                witnessSearch(source, node, inArc.cost + maxOutCost);
+                for (var outArc : outArcs.get(node)) {
+                    var target = outArc.target;
+                    if (contracted[target] || target == node || target == source)
+                        continue;
+                    if (witnessCosts[target] <= inArc.cost + outArc.cost)
+                        continue;
+                    shortcutCount++;
+                    if (addShortcuts)
+                        shortcuts.add(new BuildArc[] { inArc, outArc });
+                }
+            }
+            if (addShortcuts)
+                for (var shortcut : shortcuts)
+                    addArc(shortcut[0].source, shortcut[1].target, shortcut[0].cost + shortcut[1].cost,
+                            shortcut[0], shortcut[1]);
+            return shortcutCount;
+        }
+
+        /** The lower the priority, the sooner the edge is contracted */
+        double priority(int node) {
+            var removedArcs = 0;
+            for (var arc : inArcs.get(node))
+                if (!contracted[arc.source])
+                    removedArcs++;
+            for (var arc : outArcs.get(node))
+                if (!contracted[arc.target])
+                    removedArcs++;
+            return contract(node, false) - removedArcs + contractedNeighbors[node];
+        }
+
+        void markContracted(int node) {
+            contracted[node] = true;
+            for (var arc : inArcs.get(node))
+                contractedNeighbors[arc.source]++;
+            for (var arc : outArcs.get(node))
+                contractedNeighbors[arc.target]++;
+        }
+    }
+
+    /**
+     * Builds the contraction hierarchy of a graph
+     * @param graph the graph, whose neighbors must not change once the hierarchy is built
+     * @param costFunction the cost of going along edges, which must not be negative
+     * @return the contraction hierarchy
+     */
+    public static <EdgeT extends Edge> ContractionHierarchy<EdgeT> build(
+            DirGraph<EdgeT> graph,
+            CostFunction<EdgeT> costFunction
+    ) {
+        var nodeCount = graph.getEdgeCount();
+        var builder = new Builder(nodeCount);
+        for (var edge : graph.iterEdges()) {
+            var cost = costFunction.evaluate(edge, 0, edge.length);
+            for (var neighbor : graph.getNeighbors(edge))
+                if (neighbor.index != edge.index)
+                    builder.addArc(edge.index, neighbor.index, cost, null, null);
+        }
+
+        var queue = new IndexHeap();
+        for (int node = 0; node < nodeCount; node++)
+            queue.push(node, builder.priority(node));
+
+        var rank = new int[nodeCount];
+        var nextRank = 0;
+        while (!queue.isEmpty()) {
+            var node = queue.pop();
+            // priorities change as neighbors get contracted: they are only updated when the edge is picked
+            var priority = builder.priority(node);
+            if (!queue.isEmpty() && priority > queue.peekCost()) {
+                queue.push(node, priority);
+                continue;
+            }
+            builder.contract(node, true);
+            builder.markContracted(node);
+            rank[node] = nextRank++;
+        }
+        return new ContractionHierarchy<>(graph, costFunction, rank, builder.arcs);
+    }
+
+    // endregion
+
+    // region QUERY
+
+    /** Runs shortest path queries on the hierarchy */
+    public final class Query {
+        private final SearchSpace forward = new SearchSpace();
+        private final SearchSpace backward = new SearchSpace();
+
+        /** The start each forward search seed comes from */
+        private final int[] seedStarts = new int[rank.length];
+
+        private int settledCount = 0;
+
+        private Query() {
+        }
+
+        /** The number of edges settled by the last query */
+        public int getSettledCount() {
+            return settledCount;
+        }
+
+        /**
+         * Finds the shortest path from any of the starting points to the goal
+         * @param starts the starting points of the path, which must have no previous node
+         * @param goalEdge the edge the path ends on
+         * @param goalPosition the position the path ends at, on the goal edge
+         * @return the end node of the shortest path, chained to one of the starting points, or null
+         */
+        public BasicPathNode<EdgeT> findPath(
+                Collection<BasicPathNode<EdgeT>> starts,
+                EdgeT goalEdge,
+                double goalPosition
+        ) {
+            forward.clear();
+            backward.clear();
+            settledCount = 0;
+            var startList = new ArrayList<>(starts);
+
+            // the goal may be reached without leaving the starting edge
+            var bestCost = Double.POSITIVE_INFINITY;
+            BasicPathNode<EdgeT> bestStart = null;
+            for (var start : startList) {
+                if (start.edge != goalEdge || start.position > goalPosition)
+                    continue;
+                var cost = start.cost + costFunction.evaluate(goalEdge, start.position, goalPosition);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestStart = start;
+                }
+            }
+
+            // otherwise, the path leaves the starting edge, even if the goal is further back on the same edge
+            for (int i = 0; i < startList.size(); i++) {
+                var start = startList.get(i);
+                var leaveCost = costFunction.evaluate(start.edge, start.position, start.edge.length);
+                for (var neighbor : graph.getNeighbors(start.edge))
+                    if (forward.seed(neighbor.index, start.cost + leaveCost))
+                        seedStarts[neighbor.index] = i;
+            }
+            backward.seed(goalEdge.index, costFunction.evaluate(goalEdge, 0, goalPosition));
+
+            // run both searches until neither can find a shorter path
+            var meetingNode = -1;
+            while (true) {
+                var forwardCost = forward.queue.isEmpty() ? Double.POSITIVE_INFINITY : forward.queue.peekCost();
+                var backwardCost = backward.queue.isEmpty() ? Double.POSITIVE_INFINITY : backward.queue.peekCost();
+                if (Math.min(forwardCost, backwardCost) >= bestCost)
+                    break;
+                var isForward = forwardCost <= backwardCost;
+                var space = isForward ? forward : backward;
+                var other = isForward ? backward : forward;
+                var node = space.settleNext(isForward);
+                if (node == -1)
+                    continue;
+                settledCount++;
+                var cost = space.costs[node] + other.costs[node];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    meetingNode = node;
+                }
+            }
+
+            if (meetingNode == -1) {
+                if (bestStart == null)
+                    return null;
+                return bestStart.end(bestCost - bestStart.cost, goalEdge, goalPosition);
+            }
+
+            // unpack the shortcuts of the path, from its first to its last edge
+            var edges = new ArrayList<Integer>();
+            var forwardArcs = new ArrayList<Integer>();
+            for (int node = meetingNode; forward.parentArcs[node] != -1; node = arcSource[forward.parentArcs[node]])
+                forwardArcs.add(forward.parentArcs[node]);
+            var firstNode = meetingNode;
+            if (!forwardArcs.isEmpty())
+                firstNode = arcSource[forwardArcs.get(forwardArcs.size() - 1)];
+            edges.add(firstNode);
+            for (int i = forwardArcs.size() - 1; i >= 0; i--)
+                unpack(forwardArcs.get(i), edges);
+            for (int node = meetingNode; backward.parentArcs[node] != -1; node = arcTarget[backward.parentArcs[node]])
+                unpack(backward.parentArcs[node], edges);
+
+            var start = startList.get(seedStarts[firstNode]);
+            var pathNode = start;
+            for (var edgeIndex : edges) {
+                var edge = graph.getEdge(edgeIndex);
+                var addedCost = costFunction.evaluate(pathNode.edge, pathNode.position, pathNode.edge.length);
+                pathNode = pathNode.chain(addedCost, edge, 0);
+            }
+            var addedCost = costFunction.evaluate(goalEdge, pathNode.position, goalPosition);
+            return pathNode.end(addedCost, goalEdge, goalPosition);
+        }
+
+        /** Adds the edges an arc goes through to a path, excluding its source */
+        private void unpack(int arc, ArrayList<Integer> edges) {
+            if (arcFirstHalf[arc] == -1) {
+                edges.add(arcTarget[arc]);
+                return;
+            }
+            unpack(arcFirstHalf[arc], edges);
+            unpack(arcSecondHalf[arc], edges);
+        }
+    }
+
+    /** The state of one of the two searches of a query */
+    private final class SearchSpace {
+        final double[] costs = new double[rank.length];
+        final int[] parentArcs = new int[rank.length];
+        final boolean[] settled = new boolean[rank.length];
+        final int[] touched = new int[rank.length];
+        int touchedCount = 0;
+        final IndexHeap queue = new IndexHeap();
+
+        SearchSpace() {
+            Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        }
+
+        void clear() {
+            for (int i = 0; i < touchedCount; i++) {
+                var node = touched[i];
+                costs[node] = Double.POSITIVE_INFINITY;
+                settled[node] = false;
+            }
+            touchedCount = 0;
+            queue.clear();
+        }
+
+        /** Lowers the cost of an edge, and returns whether it was lowered */
+        boolean update(int node, double cost, int parentArc) {
+            if (cost >= costs[node])
+                return false;
+            if (costs[node] == Double.POSITIVE_INFINITY)
+                touched[touchedCount++] = node;
+            costs[node] = cost;
+            parentArcs[node] = parentArc;
+            queue.push(node, cost);
+            return true;
+        }
+
+        boolean seed(int node, double cost) {
+            return update(node, cost, -1);
+        }
+
+        /** Settles the next edge of the queue, and returns it, or -1 if it was already settled */
+        int settleNext(boolean isForward) {
+            var node = queue.pop();
+            if (settled[node])
+                return -1;
+            settled[node] = true;
+            var cost = costs[node];
+            if (isForward) {
+                for (int i = upwardArcsBegin[node]; i < upwardArcsBegin[node + 1]; i++) {
+                    var arc = upwardArcs[i];
+                    update(arcTarget[arc], cost + arcCost[arc], arc);
+                }
+            } else {
+                for (int i = downwardArcsBegin[node]; i < downwardArcsBegin[node + 1]; i++) {
+                    var arc = downwardArcs[i];
+                    update(arcSource[arc], cost + arcCost[arc], arc);
+                }
+            }
+            return node;
+        }
+    }
+
+    // endregion
+}
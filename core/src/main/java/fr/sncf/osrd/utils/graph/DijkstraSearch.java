@@ -0,0 +1,522 @@
+package fr.sncf.osrd.utils.graph;
+
+import static fr.sncf.osrd.utils.graph.EdgeDirection.START_TO_STOP;
+
+import fr.sncf.osrd.utils.graph.path.BasicDirPathNode;
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import fr.sncf.osrd.utils.graph.path.PathNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Finds shortest paths with Dijkstra's algorithm, without allocating memory during the search.</p>
+ *
+ * <p>Candidate paths are stored in primitive arrays, and only link to the candidate they extend by index.
+ * These arrays, as well as the visited state of the edges, belong to the current thread and are reused
+ * from one search to the next: instead of being reset, the visited state of an edge is only valid
+ * if it was marked during the current search. Path nodes are only created for the paths which reach a goal.</p>
+ *
+ * <p>A path reaches a goal by continuing along the edge of the goal, from a position which is before the goal:
+ * a goal behind the start of a path on the same edge is only reached by coming back to its edge.
+ * In bidirectional graphs, goals are only reached in their own direction, and "before" follows this direction.
+ * The cost of a path stops at the position of its goal, and doesn't include the rest of the edge.</p>
+ */
+public final class DijkstraSearch {
+    private DijkstraSearch() {
+    }
+
+    @FunctionalInterface
+    public interface StopChecker {
+        /** Returns whether a candidate path of the given cost should not be explored any further */
+        boolean stopResearch(double cost);
+    }
+
+    @FunctionalInterface
+    public interface GoalReachedCallback<NodeT> {
+        /** Receives a path to a goal, and returns whether to continue searching */
+        boolean onGoalReached(NodeT pathToGoal);
+    }
+
+    @FunctionalInterface
+    public interface TransitionFilter<EdgeT extends Edge> {
+        /** Returns whether paths can go from an edge to one of its neighbors */
+        boolean isAllowed(EdgeT edge, EdgeT neighbor);
+    }
+
+    private static final ThreadLocal<SearchState> threadState = ThreadLocal.withInitial(SearchState::new);
+
+    /** The memory of the searches running on some thread */
+    private static final class SearchState {
+        /** Whether a search is running, in which case searches started from its callbacks use another state */
+        boolean inUse = false;
+
+        // the visited state of each slot is only valid if its generation is the current one
+        int generation = 0;
+        int[] visitedGenerations = new int[0];
+        double[] visitedPositions = new double[0];
+
+        // the goals of each slot, as linked lists of goal indexes, which are also only valid for the current
+        // generation. This way, settling a candidate only goes through the goals of its slot.
+        int[] goalGenerations = new int[0];
+        int[] firstGoals = new int[0];
+        int[] nextGoals = new int[16];
+
+        // the candidate paths, which are referenced by index.
+        // starts have a negative parent, which is -1 - the index of the start node,
+        // and paths to goals have the index of their goal
+        int entryCount = 0;
+        int[] entryEdges = new int[64];
+        double[] entryPositions = new double[64];
+        double[] entryCosts = new double[64];
+        int[] entryParents = new int[64];
+        int[] entryGoals = new int[64];
+        EdgeDirection[] entryDirections = new EdgeDirection[64];
+
+        final IndexHeap queue = new IndexHeap();
+
+        /** Prepares the state for a new search, over the given number of visited slots */
+        void reset(int slotCount) {
+            if (visitedGenerations.length < slotCount) {
+                visitedGenerations = new int[slotCount];
+                visitedPositions = new double[slotCount];
+                goalGenerations = new int[slotCount];
+                firstGoals = new int[slotCount];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(visitedGenerations, 0);
+                Arrays.fill(goalGenerations, 0);
+                generation = 1;
+            }
+            entryCount = 0;
+            queue.clear();
+        }
+
+        /** Returns whether a slot needs to be visited from a position, given the direction of the visit */
+        boolean needsVisit(int slot, double position, boolean forward) {
+            if (visitedGenerations[slot] != generation)
+                return true;
+            if (forward)
+                return position < visitedPositions[slot];
+            return position > visitedPositions[slot];
+        }
+
+        void markAsVisited(int slot, double position) {
+            visitedGenerations[slot] = generation;
+            visitedPositions[slot] = position;
+        }
+
+        /** Adds the goals of a search to the goals of their slots, which keep the order of the goals */
+        <NodeT extends PathNode<?, NodeT>> void addGoals(List<NodeT> goals, ToIntFunction<NodeT> getSlot) {
+            if (nextGoals.length < goals.size())
+                nextGoals = new int[goals.size()];
+            for (int goal = goals.size() - 1; goal >= 0; goal--) {
+                var slot = getSlot.applyAsInt(goals.get(goal));
+                if (goalGenerations[slot] != generation) {
+                    goalGenerations[slot] = generation;
+                    firstGoals[slot] = -1;
+                }
+                nextGoals[goal] = firstGoals[slot];
+                firstGoals[slot] = goal;
+            }
+        }
+
+        /** Returns the first goal of a slot, or -1 if it has none. The next goals are given by nextGoals */
+        int getFirstGoal(int slot) {
+            if (goalGenerations[slot] != generation)
+                return -1;
+            return firstGoals[slot];
+        }
+
+        int addEntry(int edge, double position, EdgeDirection direction, double cost, int parent, int goal) {
+            if (entryCount == entryEdges.length) {
+                var newSize = entryCount * 2;
+                entryEdges = Arrays.copyOf(entryEdges, newSize);
+                entryPositions = Arrays.copyOf(entryPositions, newSize);
+                entryCosts = Arrays.copyOf(entryCosts, newSize);
+                entryParents = Arrays.copyOf(entryParents, newSize);
+                entryGoals = Arrays.copyOf(entryGoals, newSize);
+                entryDirections = Arrays.copyOf(entryDirections, newSize);
+            }
+            var entry = entryCount++;
+            entryEdges[entry] = edge;
+            entryPositions[entry] = position;
+            entryDirections[entry] = direction;
+            entryCosts[entry] = cost;
+            entryParents[entry] = parent;
+            entryGoals[entry] = goal;
+            return entry;
+        }
+
+        /** Returns the entries of the path which ends with the given entry, from start to end */
+        int[] getPathEntries(int lastEntry) {
+            var length = 0;
+            for (int entry = lastEntry; entry >= 0; entry = entryParents[entry])
+                length++;
+            var res = new int[length];
+            var entry = lastEntry;
+            for (int i = length - 1; i >= 0; i--) {
+                res[i] = entry;
+                entry = entryParents[entry];
+            }
+            return res;
+        }
+
+        /** Returns the index of the start the path which ends with the given entry comes from */
+        int getStartIndex(int firstEntry) {
+            return -1 - entryParents[firstEntry];
+        }
+    }
+
+    private static SearchState acquireState(int slotCount) {
+        var state = threadState.get();
+        if (state.inUse)
+            state = new SearchState();
+        state.reset(slotCount);
+        state.inUse = true;
+        return state;
+    }
+
+    private static <EdgeT extends Edge> double estimate(
+            AStarHeuristic<EdgeT> heuristic,
+            EdgeT edge,
+            double position
+    ) {
+        if (heuristic == null)
+            return 0;
+        return heuristic.estimate(edge, position);
+    }
+
+    /** Receives the candidate paths which reach a goal, and returns whether to continue searching */
+    private interface GoalEntryCallback {
+        boolean onGoalReached(SearchState state, int entry, int goal);
+    }
+
+    /**
+     * Finds the shortest paths from the starts to the goals in a directed graph, in increasing cost order.
+     * @param graph the graph to explore
+     * @param starts the start nodes of the paths
+     * @param costFunction the cost of moving along an edge
+     * @param heuristic an optional estimate of the remaining cost, which makes the search an A* search
+     * @param goals the locations to find paths to
+     * @param stopChecker an optional check which stops the exploration of candidate paths
+     * @param goalReachedCallback receives the paths to goals, and returns whether to continue searching
+     * @return the number of paths which were found
+     */
+    public static <EdgeT extends Edge> int findPaths(
+            DirGraph<EdgeT> graph,
+            List<BasicPathNode<EdgeT>> starts,
+            CostFunction<EdgeT> costFunction,
+            AStarHeuristic<EdgeT> heuristic,
+            List<BasicPathNode<EdgeT>> goals,
+            StopChecker stopChecker,
+            GoalReachedCallback<BasicPathNode<EdgeT>> goalReachedCallback
+    ) {
+        var state = acquireState(graph.getEdgeCount());
+        try {
+            return search(state, graph, starts, costFunction, heuristic, goals, stopChecker, null, true,
+                    (searchState, entry, goal) -> {
+                        var path = makePath(searchState, graph, entry, starts);
+                        return goalReachedCallback.onGoalReached(path);
+                    });
+        } finally {
+            state.inUse = false;
+        }
+    }
+
+    /**
+     * <p>Finds the shortest path from the starts to each goal in a directed graph, with a single search.</p>
+     * <p>Unlike findPaths, the search continues beyond the goals it reaches, so that the path to some goal
+     * can go through other goals. It stops as soon as all the goals are reached.</p>
+     * @param graph the graph to explore
+     * @param starts the start nodes of the paths
+     * @param costFunction the cost of moving along an edge
+     * @param goals the locations to find paths to
+     * @return the shortest path to each goal, in the order of the goals, or null for unreachable goals
+     */
+    public static <EdgeT extends Edge> List<BasicPathNode<EdgeT>> findShortestPaths(
+            DirGraph<EdgeT> graph,
+            List<BasicPathNode<EdgeT>> starts,
+            CostFunction<EdgeT> costFunction,
+            List<BasicPathNode<EdgeT>> goals
+    ) {
+        var shortestPaths = new ShortestPaths<>(graph, starts, goals.size());
+        if (goals.isEmpty())
+            return shortestPaths.paths;
+        var state = acquireState(graph.getEdgeCount());
+        try {
+            search(state, graph, starts, costFunction, null, goals, null, null, false, shortestPaths);
+            return shortestPaths.paths;
+        } finally {
+            state.inUse = false;
+        }
+    }
+
+    /** Keeps the first path found to each goal, until all the goals are reached */
+    private static final class ShortestPaths<EdgeT extends Edge> implements GoalEntryCallback {
+        private final DirGraph<EdgeT> graph;
+        private final List<BasicPathNode<EdgeT>> starts;
+        final ArrayList<BasicPathNode<EdgeT>> paths;
+        private int remainingGoals;
+
+        ShortestPaths(DirGraph<EdgeT> graph, List<BasicPathNode<EdgeT>> starts, int goalCount) {
+            this.graph = graph;
+            this.starts = starts;
+            this.paths = new ArrayList<>(Collections.nCopies(goalCount, null));
+            this.remainingGoals = goalCount;
+        }
+
+        @Override
+        public boolean onGoalReached(SearchState state, int entry, int goal) {
+            if (paths.get(goal) != null)
+                return true;
+            paths.set(goal, makePath(state, graph, entry, starts));
+            remainingGoals--;
+            return remainingGoals > 0;
+        }
+    }
+
+    /**
+     * Finds the shortest path from the starts to the goals in a directed graph, which only goes
+     * from edge to edge where the filter allows it.
+     * @param graph the graph to explore
+     * @param starts the start nodes of the path, which may be the end of a longer path
+     * @param costFunction the cost of moving along an edge
+     * @param goals the locations to find a path to
+     * @param transitionFilter which neighbors paths can go to
+     * @return the shortest path, or null if there is none
+     */
+    public static <EdgeT extends Edge> BasicPathNode<EdgeT> findShortestPath(
+            DirGraph<EdgeT> graph,
+            List<BasicPathNode<EdgeT>> starts,
+            CostFunction<EdgeT> costFunction,
+            List<BasicPathNode<EdgeT>> goals,
+            TransitionFilter<EdgeT> transitionFilter
+    ) {
+        var res = new ArrayList<BasicPathNode<EdgeT>>(1);
+        var state = acquireState(graph.getEdgeCount());
+        try {
+            search(state, graph, starts, costFunction, null, goals, null, transitionFilter, true,
+                    (searchState, entry, goal) -> {
+                        res.add(makePath(searchState, graph, entry, starts));
+                        return false;
+                    });
+        } finally {
+            state.inUse = false;
+        }
+        if (res.isEmpty())
+            return null;
+        return res.get(0);
+    }
+
+    /**
+     * Runs a search in a directed graph, using a state acquired by the caller.
+     * If stopAtGoals is set, the edges on which goals are reached aren't explored any further.
+     */
+    private static <EdgeT extends Edge> int search(
+            SearchState state,
+            DirGraph<EdgeT> graph,
+            List<BasicPathNode<EdgeT>> starts,
+            CostFunction<EdgeT> costFunction,
+            AStarHeuristic<EdgeT> heuristic,
+            List<BasicPathNode<EdgeT>> goals,
+            StopChecker stopChecker,
+            TransitionFilter<EdgeT> transitionFilter,
+            boolean stopAtGoals,
+            GoalEntryCallback goalReachedCallback
+    ) {
+        state.addGoals(goals, goal -> goal.edge.index);
+        var queue = state.queue;
+        for (int i = 0; i < starts.size(); i++) {
+            var start = starts.get(i);
+            var entry = state.addEntry(start.edge.index, start.position, START_TO_STOP, start.cost, -1 - i, -1);
+            queue.push(entry, start.cost + estimate(heuristic, start.edge, start.position));
+        }
+
+        int foundPaths = 0;
+        while (!queue.isEmpty()) {
+            var entry = queue.pop();
+
+            // if the candidate reached a goal, send it to the caller
+            var reachedGoal = state.entryGoals[entry];
+            if (reachedGoal >= 0) {
+                foundPaths++;
+                if (goalReachedCallback.onGoalReached(state, entry, reachedGoal))
+                    continue;
+                return foundPaths;
+            }
+
+            var edge = graph.getEdge(state.entryEdges[entry]);
+            var position = state.entryPositions[entry];
+            var cost = state.entryCosts[entry];
+
+            // a cheaper path already went through this point
+            if (!state.needsVisit(edge.index, position, true))
+                continue;
+            state.markAsVisited(edge.index, position);
+
+            if (stopChecker != null && stopChecker.stopResearch(cost))
+                continue;
+
+            // goals reached on this edge are added to the queue, so that the cheapest gets found first
+            var edgeHasGoals = false;
+            for (int i = state.getFirstGoal(edge.index); i >= 0; i = state.nextGoals[i]) {
+                var goal = goals.get(i);
+                if (goal.position < position)
+                    continue;
+                var goalCost = cost + costFunction.evaluate(edge, position, goal.position);
+                var goalEntry = state.addEntry(edge.index, goal.position, START_TO_STOP, goalCost, entry, i);
+                queue.push(goalEntry, goalCost);
+                edgeHasGoals = true;
+            }
+            if (edgeHasGoals && stopAtGoals)
+                continue;
+
+            var neighborCost = cost + costFunction.evaluate(edge, position, edge.length);
+            var neighbors = graph.getNeighbors(edge);
+            for (int i = 0; i < neighbors.size(); i++) {
+                var neighbor = neighbors.get(i);
+                if (!state.needsVisit(neighbor.index, 0, true))
+                    continue;
+                if (transitionFilter != null && !transitionFilter.isAllowed(edge, neighbor))
+                    continue;
+                var neighborEntry = state.addEntry(neighbor.index, 0, START_TO_STOP, neighborCost, entry, -1);
+                queue.push(neighborEntry, neighborCost + estimate(heuristic, neighbor, 0));
+            }
+        }
+        return foundPaths;
+    }
+
+    /**
+     * Finds the shortest paths from the starts to the goals in a bidirectional graph, in increasing cost order.
+     * @param graph the graph to explore
+     * @param starts the start nodes of the paths
+     * @param costFunction the cost of moving along an edge
+     * @param heuristic an optional estimate of the remaining cost, which makes the search an A* search
+     * @param goals the locations to find paths to, which are only reached in their direction
+     * @param goalReachedCallback receives the paths to goals, and returns whether to continue searching
+     * @return the number of paths which were found
+     */
+    public static <EdgeT extends Edge> int findPaths(
+            BiGraph<EdgeT> graph,
+            List<BasicDirPathNode<EdgeT>> starts,
+            CostFunction<EdgeT> costFunction,
+            AStarHeuristic<EdgeT> heuristic,
+            List<BasicDirPathNode<EdgeT>> goals,
+            GoalReachedCallback<BasicDirPathNode<EdgeT>> goalReachedCallback
+    ) {
+        // each direction of each edge has its own visited slot
+        var state = acquireState(graph.getEdgeCount() * 2);
+        try {
+            state.addGoals(goals, goal -> goal.edge.index * 2 + goal.direction.id);
+            var queue = state.queue;
+            for (int i = 0; i < starts.size(); i++) {
+                var start = starts.get(i);
+                var entry = state.addEntry(
+                        start.edge.index, start.position, start.direction, start.cost, -1 - i, -1);
+                queue.push(entry, start.cost + estimate(heuristic, start.edge, start.position));
+            }
+
+            int foundPaths = 0;
+            while (!queue.isEmpty()) {
+                var entry = queue.pop();
+
+                // if the candidate reached a goal, send it to the caller
+                if (state.entryGoals[entry] >= 0) {
+                    foundPaths++;
+                    if (goalReachedCallback.onGoalReached(makeDirPath(state, graph, entry, starts)))
+                        continue;
+                    return foundPaths;
+                }
+
+                var edge = graph.getEdge(state.entryEdges[entry]);
+                var position = state.entryPositions[entry];
+                var direction = state.entryDirections[entry];
+                var cost = state.entryCosts[entry];
+                var forward = direction == START_TO_STOP;
+
+                // a cheaper path already went through this point
+                var slot = edge.index * 2 + direction.id;
+                if (!state.needsVisit(slot, position, forward))
+                    continue;
+                state.markAsVisited(slot, position);
+
+                // goals reached on this edge are added to the queue, so that the cheapest gets found first
+                var reachedGoal = false;
+                for (int i = state.getFirstGoal(slot); i >= 0; i = state.nextGoals[i]) {
+                    var goal = goals.get(i);
+                    if (forward ? goal.position < position : goal.position > position)
+                        continue;
+                    var goalCost = cost + costFunction.evaluate(edge, position, goal.position);
+                    var goalEntry = state.addEntry(edge.index, goal.position, direction, goalCost, entry, i);
+                    queue.push(goalEntry, goalCost);
+                    reachedGoal = true;
+                }
+                if (reachedGoal)
+                    continue;
+
+                var neighborCost = cost + costFunction.evaluate(edge, position, edge.getLastPosition(direction));
+                var neighbors = graph.getEndNeighborRels(edge, direction);
+                for (int i = 0; i < neighbors.size(); i++) {
+                    var neighborRel = neighbors.get(i);
+                    var neighbor = neighborRel.getEdge(edge, direction);
+                    var neighborDirection = neighborRel.getDirection(edge, direction);
+                    var neighborPosition = neighbor.getFirstPosition(neighborDirection);
+                    var neighborSlot = neighbor.index * 2 + neighborDirection.id;
+                    if (!state.needsVisit(neighborSlot, neighborPosition, neighborDirection == START_TO_STOP))
+                        continue;
+                    var neighborEntry = state.addEntry(
+                            neighbor.index, neighborPosition, neighborDirection, neighborCost, entry, -1);
+                    queue.push(neighborEntry, neighborCost + estimate(heuristic, neighbor, neighborPosition));
+                }
+            }
+            return foundPaths;
+        } finally {
+            state.inUse = false;
+        }
+    }
+
+    /** Creates the path nodes of a path to a goal, which continue the path of its start node */
+    private static <EdgeT extends Edge> BasicPathNode<EdgeT> makePath(
+            SearchState state,
+            IEdgeGraph<EdgeT> graph,
+            int goalEntry,
+            List<BasicPathNode<EdgeT>> starts
+    ) {
+        var entries = state.getPathEntries(goalEntry);
+        var node = starts.get(state.getStartIndex(entries[0]));
+        for (int i = 1; i < entries.length - 1; i++) {
+            var entry = entries[i];
+            var edge = graph.getEdge(state.entryEdges[entry]);
+            var cost = state.entryCosts[entry] - state.entryCosts[entries[i - 1]];
+            node = node.chain(cost, edge, state.entryPositions[entry]);
+        }
+        var edge = graph.getEdge(state.entryEdges[goalEntry]);
+        var cost = state.entryCosts[goalEntry] - state.entryCosts[entries[entries.length - 2]];
+        return node.end(cost, edge, state.entryPositions[goalEntry]);
+    }
+
+    /** Creates the path nodes of a path to a goal in a bidirectional graph, starting from its start node */
+    private static <EdgeT extends Edge> BasicDirPathNode<EdgeT> makeDirPath(
+            SearchState state,
+            IEdgeGraph<EdgeT> graph,
+            int goalEntry,
+            List<BasicDirPathNode<EdgeT>> starts
+    ) {
+        var entries = state.getPathEntries(goalEntry);
+        var node = starts.get(state.getStartIndex(entries[0]));
+        for (int i = 1; i < entries.length - 1; i++) {
+            var entry = entries[i];
+            var edge = graph.getEdge(state.entryEdges[entry]);
+            var cost = state.entryCosts[entry] - state.entryCosts[entries[i - 1]];
+            node = node.chain(cost, edge, state.entryPositions[entry], state.entryDirections[entry]);
+        }
+        var edge = graph.getEdge(state.entryEdges[goalEntry]);
+        var cost = state.entryCosts[goalEntry] - state.entryCosts[entries[entries.length - 2]];
+        return node.end(cost, edge, state.entryPositions[goalEntry], state.entryDirections[goalEntry]);
+    }
+}
@@ -1,9 +1,12 @@
 package fr.sncf.osrd.utils.graph;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public abstract class DirGraph<EdgeT extends Edge> implements IEdgeGraph<EdgeT> {
+public abstract class DirGraph<EdgeT extends Edge> implements Serializable, IEdgeGraph<EdgeT> {
+    private static final long serialVersionUID = -3831676409376417726L;
+
     private final ArrayList<EdgeT> edges = new ArrayList<>();
 
     public abstract List<EdgeT> getNeighbors(EdgeT edge);
@@ -4,6 +4,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 @SuppressFBWarnings({"URF_UNREAD_PUBLIC_OR_PROTECTED_FIELD"})
 public abstract class DirNEdge extends Edge {
+    private static final long serialVersionUID = 1462891211879633688L;
+
     public final int startNode;
     public final int endNode;
 
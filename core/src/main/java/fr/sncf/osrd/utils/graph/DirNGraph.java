@@ -6,6 +6,7 @@ public abstract class DirNGraph<
         EdgeT extends DirNEdge,
         NodeT extends Node
         > extends DirGraph<EdgeT> implements INodeGraph<NodeT> {
+    private static final long serialVersionUID = 286937140197540398L;
 
     private final ArrayList<NodeT> nodes = new ArrayList<>();
 
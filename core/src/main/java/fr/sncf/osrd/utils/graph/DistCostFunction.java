@@ -1,6 +1,10 @@
 package fr.sncf.osrd.utils.graph;
 
-public class DistCostFunction<EdgeT extends Edge> implements CostFunction<EdgeT> {
+import java.io.Serializable;
+
+public class DistCostFunction<EdgeT extends Edge> implements Serializable, CostFunction<EdgeT> {
+    private static final long serialVersionUID = 8052553247605055952L;
+
     @Override
     public double evaluate(EdgeT edge, double begin, double end) {
         return Math.abs(end - begin);
@@ -1,6 +1,10 @@
 package fr.sncf.osrd.utils.graph;
 
-public class Edge {
+import java.io.Serializable;
+
+public class Edge implements Serializable {
+    private static final long serialVersionUID = 2216371562434625217L;
+
     public final int index;
 
     public final double length;
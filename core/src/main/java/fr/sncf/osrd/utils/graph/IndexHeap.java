@@ -0,0 +1,66 @@
+package fr.sncf.osrd.utils.graph;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of integer indices, sorted by a cost.
+ * Costs can't be updated: the same index may be added several times, and stale entries are skipped by the caller.
+ */
+final class IndexHeap {
+    private int[] indices = new int[16];
+    private double[] costs = new double[16];
+    private int size = 0;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    double peekCost() {
+        return costs[0];
+    }
+
+    void push(int index, double cost) {
+        if (size == indices.length) {
+            indices = Arrays.copyOf(indices, size * 2);
+            costs = Arrays.copyOf(costs, size * 2);
+        }
+        var slot = size++;
+        while (slot > 0) {
+            var parent = (slot - 1) / 2;
+            if (costs[parent] <= cost)
+                break;
+            indices[slot] = indices[parent];
+            costs[slot] = costs[parent];
+            slot = parent;
+        }
+        indices[slot] = index;
+        costs[slot] = cost;
+    }
+
+    int pop() {
+        var res = indices[0];
+        size--;
+        var lastIndex = indices[size];
+        var lastCost = costs[size];
+        var slot = 0;
+        while (true) {
+            var child = 2 * slot + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && costs[child + 1] < costs[child])
+                child++;
+            if (lastCost <= costs[child])
+                break;
+            indices[slot] = indices[child];
+            costs[slot] = costs[child];
+            slot = child;
+        }
+        indices[slot] = lastIndex;
+        costs[slot] = lastCost;
+        return res;
+    }
+}
@@ -0,0 +1,144 @@
+package fr.sncf.osrd.utils.graph;
+
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import fr.sncf.osrd.utils.graph.path.FullPathArray;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * <p>Finds the k shortest loopless paths between two locations of a directed graph, using Yen's algorithm.</p>
+ *
+ * <p>Each new path deviates from one of the paths already found: it shares the beginning of that path,
+ * up to some edge, and continues with the shortest path which doesn't go through the beginning again, nor leaves
+ * that edge the way any found path with the same beginning does. The shortest of all these deviations is the
+ * next path. Deviations are searched with DijkstraSearch, so all the searches reuse the same memory.</p>
+ *
+ * <p>Loopless paths go through each edge once.</p>
+ */
+public final class KShortestPaths<EdgeT extends Edge> {
+    private final DirGraph<EdgeT> graph;
+    private final CostFunction<EdgeT> costFunction;
+    private final List<BasicPathNode<EdgeT>> goals;
+
+    /** The paths found so far, by increasing cost */
+    private final ArrayList<FoundPath<EdgeT>> paths = new ArrayList<>();
+
+    /** The deviations of the found paths, which are candidates for the next path */
+    private final PriorityQueue<FoundPath<EdgeT>> candidates = new PriorityQueue<>(
+            Comparator.comparingDouble(path -> path.end.cost));
+
+    /** The edge sequences of the found paths and of the candidates, which are only added once */
+    private final HashSet<List<EdgeT>> knownPaths = new HashSet<>();
+
+    /** A path, along with the first node it has on each of its edges */
+    private static final class FoundPath<EdgeT extends Edge> {
+        final BasicPathNode<EdgeT> end;
+        final ArrayList<BasicPathNode<EdgeT>> edgeNodes = new ArrayList<>();
+        final ArrayList<EdgeT> edges = new ArrayList<>();
+
+        FoundPath(BasicPathNode<EdgeT> end) {
+            this.end = end;
+            for (var node : FullPathArray.from(end).pathNodes) {
+                if (!edges.isEmpty() && edges.get(edges.size() - 1) == node.edge)
+                    continue;
+                edgeNodes.add(node);
+                edges.add(node.edge);
+            }
+        }
+
+        /** Returns whether the path goes through the given edges first */
+        boolean startsWith(List<EdgeT> rootEdges) {
+            if (edges.size() <= rootEdges.size())
+                return false;
+            for (int i = 0; i < rootEdges.size(); i++)
+                if (edges.get(i) != rootEdges.get(i))
+                    return false;
+            return true;
+        }
+
+        boolean isLoopless() {
+            return new HashSet<>(edges).size() == edges.size();
+        }
+    }
+
+    private KShortestPaths(DirGraph<EdgeT> graph, CostFunction<EdgeT> costFunction, BasicPathNode<EdgeT> goal) {
+        this.graph = graph;
+        this.costFunction = costFunction;
+        this.goals = List.of(goal);
+    }
+
+    /**
+     * Finds the shortest loopless paths which go from the start to the end of the given shortest path.
+     * @param graph the graph to explore
+     * @param costFunction the cost of moving along an edge
+     * @param shortestPath the shortest path, which must be loopless
+     * @param maxPaths the maximum number of paths to find, including the shortest one
+     * @return the paths, by increasing cost, starting with the shortest one
+     */
+    public static <EdgeT extends Edge> List<BasicPathNode<EdgeT>> find(
+            DirGraph<EdgeT> graph,
+            CostFunction<EdgeT> costFunction,
+            BasicPathNode<EdgeT> shortestPath,
+            int maxPaths
+    ) {
+        var goal = new BasicPathNode<>(shortestPath.edge, shortestPath.position);
+        var search = new KShortestPaths<>(graph, costFunction, goal);
+        var firstPath = new FoundPath<>(shortestPath);
+        if (!firstPath.isLoopless())
+            return List.of(shortestPath);
+        search.addPath(firstPath);
+        while (search.paths.size() < maxPaths) {
+            search.addDeviations(search.paths.get(search.paths.size() - 1));
+            var next = search.candidates.poll();
+            if (next == null)
+                break;
+            search.addPath(next);
+        }
+        var res = new ArrayList<BasicPathNode<EdgeT>>();
+        for (var path : search.paths)
+            res.add(path.end);
+        return res;
+    }
+
+    private void addPath(FoundPath<EdgeT> path) {
+        knownPaths.add(path.edges);
+        paths.add(path);
+    }
+
+    /** Adds the deviations of a path which was just found to the candidates */
+    private void addDeviations(FoundPath<EdgeT> path) {
+        // the path can deviate at the beginning of any of its edges, but the last one
+        for (int i = 0; i < path.edges.size() - 1; i++) {
+            var deviationNode = path.edgeNodes.get(i);
+            var deviationEdge = path.edges.get(i);
+            var rootEdges = path.edges.subList(0, i + 1);
+
+            // found paths which start the same way can't be found again
+            var usedNeighbors = new HashSet<EdgeT>();
+            for (var foundPath : paths)
+                if (foundPath.startsWith(rootEdges))
+                    usedNeighbors.add(foundPath.edges.get(i + 1));
+            var rootEdgeSet = new HashSet<>(rootEdges);
+
+            var deviation = DijkstraSearch.findShortestPath(
+                    graph,
+                    List.of(deviationNode),
+                    costFunction,
+                    goals,
+                    (edge, neighbor) -> {
+                        if (rootEdgeSet.contains(neighbor))
+                            return false;
+                        return edge != deviationEdge || !usedNeighbors.contains(neighbor);
+                    });
+            if (deviation == null)
+                continue;
+            var candidate = new FoundPath<>(deviation);
+            if (!candidate.isLoopless() || !knownPaths.add(candidate.edges))
+                continue;
+            candidates.add(candidate);
+        }
+    }
+}
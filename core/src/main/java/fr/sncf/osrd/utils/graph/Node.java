@@ -1,6 +1,10 @@
 package fr.sncf.osrd.utils.graph;
 
-public abstract class Node {
+import java.io.Serializable;
+
+public abstract class Node implements Serializable {
+    private static final long serialVersionUID = 7212388732837727389L;
+
     public final int index;
 
     protected Node(int index) {
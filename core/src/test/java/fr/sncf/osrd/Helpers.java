@@ -16,6 +16,7 @@ import fr.sncf.osrd.railjson.parser.exceptions.InvalidRollingStock;
 import fr.sncf.osrd.railjson.parser.exceptions.InvalidSchedule;
 import fr.sncf.osrd.railjson.parser.exceptions.InvalidSuccession;
 import fr.sncf.osrd.railjson.schema.infra.RJSInfra;
+import fr.sncf.osrd.simulation.ForkContext;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.simulation.TimelineEvent;
@@ -113,6 +114,11 @@ public class Helpers {
                 onCancellationCallback.accept(sim, this);
         }
 
+        @Override
+        protected TimelineEvent copy(ForkContext context) {
+            return new TestEvent(eventId, data, onOccurrenceCallback, onCancellationCallback);
+        }
+
         @Override
         public String toString() {
             return data;
@@ -63,6 +63,11 @@ public class SignalSimulationTest {
         protected void onCancellation(Simulation sim) {
         }
 
+        @Override
+        protected TimelineEvent copy(ForkContext context) {
+            return new AspectChangeEvent(eventId, signal, newAspect);
+        }
+
         @Override
         @SuppressFBWarnings("BC_UNCONFIRMED_CAST")
         public boolean deepEquals(TimelineEvent other) {
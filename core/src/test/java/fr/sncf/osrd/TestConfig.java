@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 
@@ -225,7 +226,7 @@ public class TestConfig {
         try {
             Field field = TrainPositionTracker.class.getDeclaredField("cachedPositionTrackers");
             field.setAccessible(true);
-            field.set(null, new HashMap<List<TrackSectionRange>, TrainPositionTracker>());
+            field.set(null, new ConcurrentHashMap<List<TrackSectionRange>, TrainPositionTracker>());
         } catch (NoSuchFieldException | IllegalAccessException e) {
             fail(e);
         }
@@ -1,8 +1,17 @@
 package fr.sncf.osrd.api;
 
+import com.sun.net.httpserver.HttpServer;
+import fr.sncf.osrd.Helpers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import fr.sncf.osrd.api.InfraManager.InfraLoadException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class InfraHandlerTest {
     @Test
@@ -12,4 +21,96 @@ public class InfraHandlerTest {
             manager.load("invalid");
         });
     }
+
+    @Test
+    public void failedLoadsAreRetried() {
+        var manager = new InfraManager("http://localhost:8000/", "");
+        for (int i = 0; i < 2; i++)
+            Assertions.assertThrows(InfraLoadException.class, () -> manager.load("invalid"));
+        Assertions.assertEquals(0, manager.stats.hits.get());
+        Assertions.assertEquals(2, manager.stats.misses.get());
+        Assertions.assertEquals(0, manager.getCacheSize());
+    }
+
+    @Test
+    public void failedLoadsExpire() {
+        var manager = new InfraManager("http://localhost:8000/", "");
+        manager.errorLifetime = 0;
+        Assertions.assertThrows(InfraLoadException.class, () -> manager.load("invalid"));
+        Assertions.assertThrows(InfraLoadException.class, () -> manager.load("other_invalid"));
+        var entryCount = new AtomicInteger();
+        manager.forEach((infraId, cacheEntry) -> entryCount.incrementAndGet());
+        Assertions.assertEquals(0, entryCount.get());
+    }
+
+    /** Serves tiny_infra as infra 42, and counts the requests it receives */
+    private static final class FakeMiddleware implements AutoCloseable {
+        private final HttpServer server;
+        final AtomicInteger downloads = new AtomicInteger();
+
+        FakeMiddleware() throws IOException {
+            var railJSON = Files.readAllBytes(Helpers.getResourcePath("tiny_infra/infra.json"));
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/infra/42/railjson/", exchange -> {
+                downloads.incrementAndGet();
+                exchange.sendResponseHeaders(200, railJSON.length);
+                exchange.getResponseBody().write(railJSON);
+                exchange.close();
+            });
+            server.start();
+        }
+
+        /** Creates a new infra manager, as if the core restarted */
+        InfraManager makeManager(Path snapshotDir) {
+            var baseUrl = String.format("http://localhost:%d/", server.getAddress().getPort());
+            return new InfraManager(baseUrl, null, Long.MAX_VALUE, snapshotDir);
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void snapshotIsLoadedWithoutRequest(@TempDir Path dir) throws Exception {
+        try (var middleware = new FakeMiddleware()) {
+            var infra = middleware.makeManager(dir).load("42");
+            Assertions.assertTrue(Files.exists(InfraSnapshot.getPath(dir, "42")));
+
+            var manager = middleware.makeManager(dir);
+            var loaded = manager.load("42");
+            Assertions.assertEquals(1, middleware.downloads.get());
+            Assertions.assertEquals(infra.routeGraph.routeMap.keySet(), loaded.routeGraph.routeMap.keySet());
+            Assertions.assertTrue(manager.getCacheSize() > 0);
+        }
+    }
+
+    @Test
+    public void corruptSnapshotIsDownloadedAgain(@TempDir Path dir) throws Exception {
+        try (var middleware = new FakeMiddleware()) {
+            middleware.makeManager(dir).load("42");
+
+            // the snapshot was truncated
+            var path = InfraSnapshot.getPath(dir, "42");
+            var content = Files.readAllBytes(path);
+            Files.write(path, Arrays.copyOf(content, content.length / 2));
+            Assertions.assertNotNull(middleware.makeManager(dir).load("42"));
+            Assertions.assertEquals(2, middleware.downloads.get());
+
+            // the snapshot was replaced by a usable one
+            Assertions.assertNotNull(middleware.makeManager(dir).load("42"));
+            Assertions.assertEquals(2, middleware.downloads.get());
+        }
+    }
+
+    @Test
+    public void unreadableSnapshotIsDownloadedAgain(@TempDir Path dir) throws Exception {
+        try (var middleware = new FakeMiddleware()) {
+            Files.write(InfraSnapshot.getPath(dir, "42"), new byte[] { 1, 2, 3 });
+            Assertions.assertNotNull(middleware.makeManager(dir).load("42"));
+            Assertions.assertEquals(1, middleware.downloads.get());
+            Assertions.assertNotNull(InfraSnapshot.load(dir, "42"));
+        }
+    }
 }
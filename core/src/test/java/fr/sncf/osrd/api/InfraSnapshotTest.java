@@ -0,0 +1,99 @@
+package fr.sncf.osrd.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import fr.sncf.osrd.Helpers;
+import fr.sncf.osrd.infra.Infra;
+import fr.sncf.osrd.infra.InvalidInfraException;
+import fr.sncf.osrd.infra.trackgraph.TrackSection;
+import fr.sncf.osrd.railjson.parser.RailJSONParser;
+import fr.sncf.osrd.utils.graph.EdgeDirection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+public class InfraSnapshotTest {
+    private static Infra makeInfra() throws InvalidInfraException {
+        var infra = RailJSONParser.parse(Helpers.getBaseInfra());
+        infra.routeGraph.buildDistHierarchy();
+        return infra;
+    }
+
+    @Test
+    public void roundTrip(@TempDir Path dir) throws Exception {
+        var infra = makeInfra();
+        InfraSnapshot.save(dir, "42", infra, 1234);
+        var snapshot = InfraSnapshot.load(dir, "42");
+        assertNotNull(snapshot);
+        assertEquals(1234, snapshot.estimatedSize);
+
+        var loaded = snapshot.infra;
+        assertEquals(infra.trackGraph.trackSectionMap.keySet(), loaded.trackGraph.trackSectionMap.keySet());
+        assertEquals(infra.routeGraph.routeMap.keySet(), loaded.routeGraph.routeMap.keySet());
+        assertEquals(infra.tvdSections.keySet(), loaded.tvdSections.keySet());
+        assertEquals(
+                infra.signals.stream().map(signal -> signal.id).collect(Collectors.toList()),
+                loaded.signals.stream().map(signal -> signal.id).collect(Collectors.toList()));
+        assertNotNull(loaded.routeGraph.getDistHierarchy());
+
+        for (var route : infra.routeGraph.routeMap.values()) {
+            var loadedRoute = loaded.routeGraph.routeMap.get(route.id);
+            assertEquals(route.length, loadedRoute.length);
+            assertEquals(
+                    infra.routeGraph.getNeighbors(route).stream().map(r -> r.id).collect(Collectors.toList()),
+                    loaded.routeGraph.getNeighbors(loadedRoute).stream().map(r -> r.id).collect(Collectors.toList()));
+        }
+
+        // the links between objects are restored, and the route index of track sections still works
+        for (var track : loaded.trackGraph.trackSectionMap.values()) {
+            for (var neighbor : track.endNeighbors)
+                assertSame(loaded.trackGraph.trackSectionMap.get(neighbor.id), neighbor);
+            var fragments = new ArrayList<TrackSection.RouteFragment>();
+            track.getRoutes(EdgeDirection.START_TO_STOP).getAll(fragments::add);
+            for (var fragment : fragments)
+                assertSame(loaded.routeGraph.routeMap.get(fragment.route.id), fragment.route);
+        }
+    }
+
+    @Test
+    public void missingSnapshot(@TempDir Path dir) throws IOException {
+        assertNull(InfraSnapshot.load(dir, "42"));
+    }
+
+    @Test
+    public void corruptSnapshotIsDeleted(@TempDir Path dir) throws Exception {
+        InfraSnapshot.save(dir, "42", makeInfra(), 1234);
+        var path = InfraSnapshot.getPath(dir, "42");
+        var content = Files.readAllBytes(path);
+        content[content.length / 2] ^= 1;
+        Files.write(path, content);
+
+        assertNull(InfraSnapshot.load(dir, "42"));
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    public void unknownFormatIsDeleted(@TempDir Path dir) throws IOException {
+        var path = InfraSnapshot.getPath(dir, "42");
+        Files.write(path, new byte[] { 1, 2, 3 });
+        assertNull(InfraSnapshot.load(dir, "42"));
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    public void savedSnapshotsLeaveNoTemporaryFile(@TempDir Path dir) throws Exception {
+        InfraSnapshot.save(dir, "42", makeInfra(), 1234);
+        InfraSnapshot.save(dir, "42", makeInfra(), 1234);
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -2,6 +2,11 @@ package fr.sncf.osrd.api;
 
 import static fr.sncf.osrd.Helpers.getBaseInfra;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import fr.sncf.osrd.api.PathfindingEndpoint.PathfindingWaypoint;
 import fr.sncf.osrd.utils.graph.EdgeDirection;
@@ -12,7 +17,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.takes.rq.RqFake;
 import org.takes.rs.RsPrint;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.stream.IntStream;
 
@@ -126,6 +133,171 @@ public class PathfindingTest extends ApiTest {
         assert response != null;
     }
 
+    private static PathfindingRoutesEndpoint.PathfindingResult findAlternatives(
+            PathfindingWaypoint[][] waypoints,
+            Double maxOverlap
+    ) throws Exception {
+        var requestBody = PathfindingEndpoint.adapterRequest.toJson(new PathfindingEndpoint.PathfindingRequest(
+                waypoints, "passing_loop/infra.json", 3, maxOverlap));
+        var result = new RsPrint(
+                new PathfindingRoutesEndpoint(infraHandlerMock).act(
+                        new RqFake("POST", "/pathfinding/routes", requestBody))
+        ).printBody();
+        return PathfindingRoutesEndpoint.adapterResult.fromJson(result);
+    }
+
+    private static List<String> getRoutes(PathfindingRoutesEndpoint.PathfindingResult path) {
+        var res = new ArrayList<String>();
+        for (var route : path.path)
+            res.add(route.route);
+        return res;
+    }
+
+    private static double getLength(PathfindingRoutesEndpoint.PathfindingResult path) {
+        double res = 0;
+        for (var route : path.path)
+            for (var trackSection : route.trackSections)
+                res += Math.abs(trackSection.end - trackSection.begin);
+        return res;
+    }
+
+    private static boolean usesTrackSection(PathfindingRoutesEndpoint.PathfindingResult path, String trackSection) {
+        for (var route : path.path)
+            for (var range : route.trackSections)
+                if (range.trackSection.equals(trackSection))
+                    return true;
+        return false;
+    }
+
+    /** Tests that the passing loop is given as an alternative to the shortest path, which doesn't use it */
+    @Test
+    public void routesAlternatives() throws Exception {
+        var waypointsStart = makeBidirectionalEndPoint(new PathfindingWaypoint(
+                "track_in",
+                100,
+                EdgeDirection.START_TO_STOP
+        ));
+        var waypointsEnd = makeBidirectionalEndPoint(new PathfindingWaypoint(
+                "track_out",
+                900,
+                EdgeDirection.START_TO_STOP
+        ));
+        var response = findAlternatives(new PathfindingWaypoint[][] { waypointsStart, waypointsEnd }, 1.);
+        assert response != null;
+        assertTrue(usesTrackSection(response, "track_short"));
+        assertFalse(usesTrackSection(response, "track_long"));
+        assertNotNull(response.alternatives);
+        assertFalse(response.alternatives.isEmpty());
+        assertTrue(response.alternatives.size() <= 3);
+        assertTrue(usesTrackSection(response.alternatives.get(0), "track_long"));
+
+        // alternatives go from and to the same locations as the shortest path, by increasing length
+        var routes = getRoutes(response);
+        var firstStep = response.steps.get(0).position;
+        var lastStep = response.steps.get(response.steps.size() - 1).position;
+        var previousLength = getLength(response);
+        for (var alternative : response.alternatives) {
+            assertNull(alternative.alternatives);
+            assertNotEquals(routes, getRoutes(alternative));
+            var length = getLength(alternative);
+            assertTrue(length >= previousLength, String.format("%f < %f", length, previousLength));
+            previousLength = length;
+
+            var alternativeFirstStep = alternative.steps.get(0).position;
+            var alternativeLastStep = alternative.steps.get(alternative.steps.size() - 1).position;
+            assertEquals(firstStep.trackSection, alternativeFirstStep.trackSection);
+            assertEquals(firstStep.offset, alternativeFirstStep.offset, 1e-3);
+            assertEquals(lastStep.trackSection, alternativeLastStep.trackSection);
+            assertEquals(lastStep.offset, alternativeLastStep.offset, 1e-3);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.1, 1.5})
+    public void invalidMaxOverlap(double maxOverlap) throws Exception {
+        var waypoints = new PathfindingWaypoint[][] {
+                { new PathfindingWaypoint("track_in", 100, EdgeDirection.START_TO_STOP) },
+                { new PathfindingWaypoint("track_out", 900, EdgeDirection.START_TO_STOP) },
+        };
+        var requestBody = PathfindingEndpoint.adapterRequest.toJson(new PathfindingEndpoint.PathfindingRequest(
+                waypoints, "passing_loop/infra.json", 3, maxOverlap));
+        var head = new RsPrint(
+                new PathfindingRoutesEndpoint(infraHandlerMock).act(
+                        new RqFake("POST", "/pathfinding/routes", requestBody))
+        ).printHead();
+        assertTrue(head.contains("400"), head);
+    }
+
+    @Test
+    public void simpleMatrix() throws Exception {
+        var origin = makeBidirectionalEndPoint(new PathfindingWaypoint(
+                "ne.micro.foo_b",
+                100,
+                EdgeDirection.START_TO_STOP
+        ));
+        var destination = makeBidirectionalEndPoint(new PathfindingWaypoint(
+                "ne.micro.bar_a",
+                100,
+                EdgeDirection.START_TO_STOP
+        ));
+        var requestBody = PathfindingMatrixEndpoint.adapterMatrixRequest.toJson(
+                new PathfindingMatrixEndpoint.PathfindingMatrixRequest(
+                        "tiny_infra/infra.json",
+                        new PathfindingWaypoint[][] { origin },
+                        new PathfindingWaypoint[][] { destination, origin },
+                        true));
+
+        var result = new RsPrint(
+                new PathfindingMatrixEndpoint(infraHandlerMock).act(
+                        new RqFake("POST", "/pathfinding/matrix", requestBody))
+        ).printBody();
+
+        var response = PathfindingMatrixEndpoint.adapterResult.fromJson(result);
+        assert response != null;
+        assertEquals(1, response.distances.size());
+        assertEquals(2, response.distances.get(0).size());
+
+        // the path to the destination is the one of the routes endpoint
+        var routesRequestBody = PathfindingEndpoint.adapterRequest.toJson(new PathfindingEndpoint.PathfindingRequest(
+                new PathfindingWaypoint[][] { origin, destination }, "tiny_infra/infra.json"));
+        var routesResult = new RsPrint(
+                new PathfindingRoutesEndpoint(infraHandlerMock).act(
+                        new RqFake("POST", "/pathfinding/routes", routesRequestBody))
+        ).printBody();
+        var routesResponse = PathfindingRoutesEndpoint.adapterResult.fromJson(routesResult);
+        assert routesResponse != null;
+        var expectedRoutes = new ArrayList<String>();
+        for (var route : routesResponse.path)
+            expectedRoutes.add(route.route);
+        assertEquals(expectedRoutes, response.paths.get(0).get(0));
+        assertTrue(response.distances.get(0).get(0) > 0);
+
+        // the origin is right where the search starts
+        assertEquals(0, response.distances.get(0).get(1), 1e-3);
+    }
+
+    @Test
+    public void tooLargeMatrix() throws Exception {
+        var place = makeBidirectionalEndPoint(new PathfindingWaypoint(
+                "ne.micro.foo_b",
+                100,
+                EdgeDirection.START_TO_STOP
+        ));
+        var origins = new PathfindingWaypoint[101][];
+        var destinations = new PathfindingWaypoint[100][];
+        Arrays.fill(origins, place);
+        Arrays.fill(destinations, place);
+        var requestBody = PathfindingMatrixEndpoint.adapterMatrixRequest.toJson(
+                new PathfindingMatrixEndpoint.PathfindingMatrixRequest(
+                        "tiny_infra/infra.json", origins, destinations, false));
+
+        var head = new RsPrint(
+                new PathfindingMatrixEndpoint(infraHandlerMock).act(
+                        new RqFake("POST", "/pathfinding/matrix", requestBody))
+        ).printHead();
+        assertTrue(head.contains("400"), head);
+    }
+
     @Test
     public void simpleTracks() throws Exception {
         var waypointStart = new PathfindingWaypoint(
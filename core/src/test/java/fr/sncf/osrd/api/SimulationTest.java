@@ -2,10 +2,19 @@ package fr.sncf.osrd.api;
 
 import static fr.sncf.osrd.Helpers.loadExampleSimulationResource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import fr.sncf.osrd.api.SimulationBatchEndpoint.BatchScenario;
+import fr.sncf.osrd.api.SimulationBatchEndpoint.BatchSimulationRequest;
 import org.junit.jupiter.api.Test;
 import org.takes.rq.RqFake;
+import org.takes.rq.RqWithHeader;
+import org.takes.rq.RqWithHeaders;
 import org.takes.rs.RsPrint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
 
 public class SimulationTest extends ApiTest {
     @Test
@@ -51,4 +60,112 @@ public class SimulationTest extends ApiTest {
         var trainResult = simResult.trains.get("Test.");
         assertEquals(1, trainResult.stopReaches.size());
     }
+
+    @Test
+    public void batch() throws Exception {
+        var rjsSimulation = loadExampleSimulationResource(getClass(), "tiny_infra/simulation.json");
+        var scenarios = new HashMap<String, BatchScenario>();
+        scenarios.put("first", new BatchScenario(rjsSimulation.trainSchedules, null));
+        scenarios.put("second", new BatchScenario(rjsSimulation.trainSchedules, null));
+        var requestBody = SimulationBatchEndpoint.adapterRequest.toJson(new BatchSimulationRequest(
+                "tiny_infra/infra.json",
+                rjsSimulation.rollingStocks,
+                scenarios
+        ));
+        var result = new RsPrint(
+                new SimulationBatchEndpoint(infraHandlerMock, 2).act(
+                        new RqFake("POST", "/simulation/batch", requestBody))
+        ).printBody();
+
+        var batchResult = SimulationBatchEndpoint.adapterResult.fromJson(result);
+        assert batchResult != null;
+        assertEquals(0, batchResult.errors.size());
+        assertEquals(2, batchResult.results.size());
+        var first = batchResult.results.get("first").trains.get("Test.");
+        var second = batchResult.results.get("second").trains.get("Test.");
+        assertEquals(1, first.stopReaches.size());
+        assertEquals(first.headPositions.size(), second.headPositions.size());
+        assertEquals(first.speeds.size(), second.speeds.size());
+    }
+
+    @Test
+    public void streamed() throws Exception {
+        var rjsSimulation = loadExampleSimulationResource(getClass(), "tiny_infra/simulation.json");
+        var requestBody = SimulationEndpoint.adapterRequest.toJson(new SimulationEndpoint.SimulationRequest(
+                "tiny_infra/infra.json",
+                rjsSimulation.rollingStocks,
+                rjsSimulation.trainSchedules
+        ));
+        var request = new RqWithHeader(
+                new RqFake("POST", "/simulation", requestBody), "Accept", SimulationResultStream.MEDIA_TYPE);
+        var result = new RsPrint(new SimulationEndpoint(infraHandlerMock).act(request)).printBody();
+
+        var trainRecords = 0;
+        for (var line : result.split("\n")) {
+            var record = SimulationResultStream.adapterRecord.fromJson(line);
+            assert record != null;
+            assertNotEquals("error", record.type);
+            if (!record.type.equals("train"))
+                continue;
+            trainRecords++;
+            assertEquals("Test.", record.trainId);
+            assertEquals(1, record.train.stopReaches.size());
+        }
+        assertEquals(1, trainRecords);
+    }
+
+    @Test
+    public void columnar() throws Exception {
+        var rjsSimulation = loadExampleSimulationResource(getClass(), "tiny_infra/simulation.json");
+        var requestBody = SimulationEndpoint.adapterRequest.toJson(new SimulationEndpoint.SimulationRequest(
+                "tiny_infra/infra.json",
+                rjsSimulation.rollingStocks,
+                rjsSimulation.trainSchedules
+        ));
+        var jsonResult = new RsPrint(
+                new SimulationEndpoint(infraHandlerMock).act(new RqFake("POST", "/simulation", requestBody))
+        ).printBody();
+        var request = new RqWithHeaders(
+                new RqFake("POST", "/simulation", requestBody),
+                "Accept: " + SimulationResultColumnar.MEDIA_TYPE,
+                "Accept-Encoding: gzip");
+        var response = new SimulationEndpoint(infraHandlerMock).act(request);
+
+        SimulationEndpoint.SimulationResult simResult;
+        try (var body = new GZIPInputStream(response.body())) {
+            simResult = SimulationResultColumnar.decode(body);
+        }
+        // the columnar format is lossless
+        assertEquals(jsonResult, SimulationEndpoint.adapterResult.toJson(simResult));
+    }
+
+    @Test
+    public void columnarCurvesAreSmallerThanRawValues() throws Exception {
+        var rjsSimulation = loadExampleSimulationResource(getClass(), "tiny_infra/simulation.json");
+        var requestBody = SimulationEndpoint.adapterRequest.toJson(new SimulationEndpoint.SimulationRequest(
+                "tiny_infra/infra.json",
+                rjsSimulation.rollingStocks,
+                rjsSimulation.trainSchedules
+        ));
+        var result = new RsPrint(
+                new SimulationEndpoint(infraHandlerMock).act(new RqFake("POST", "/simulation", requestBody))
+        ).printBody();
+        var simResult = SimulationEndpoint.adapterResult.fromJson(result);
+        assert simResult != null;
+        var encodedSize = SimulationResultColumnar.encode(simResult).length;
+
+        // the size of the curves, if their doubles and ints were written as is
+        var rawCurvesSize = 0;
+        for (var train : simResult.trains.values()) {
+            rawCurvesSize += train.speeds.size() * 3 * Double.BYTES;
+            var positionCount = train.headPositions.size() + train.tailPositions.size();
+            rawCurvesSize += positionCount * (3 * Double.BYTES + Integer.BYTES);
+            train.speeds = new ArrayList<>();
+            train.headPositions = new ArrayList<>();
+            train.tailPositions = new ArrayList<>();
+        }
+        assertTrue(rawCurvesSize > 0);
+        var curvesSize = encodedSize - SimulationResultColumnar.encode(simResult).length;
+        assertTrue(curvesSize < rawCurvesSize);
+    }
 }
@@ -6,6 +6,11 @@ import fr.sncf.osrd.utils.IntervalNode;
 import fr.sncf.osrd.utils.IntervalTree;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Objects;
 
@@ -13,6 +18,8 @@ import java.util.Objects;
 public class IntervalTreeTest {
 
     static final class TestNode extends IntervalNode {
+        private static final long serialVersionUID = 238644112163485632L;
+
         public final int value;
 
         /**
@@ -163,4 +170,18 @@ public class IntervalTreeTest {
                 && expected.containsAll(results)
                 && results.containsAll(expected));
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serializedTree() throws IOException, ClassNotFoundException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tree);
+        }
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            tree = (IntervalTree<TestNode>) in.readObject();
+        }
+
+        manyOverlap();
+    }
+}
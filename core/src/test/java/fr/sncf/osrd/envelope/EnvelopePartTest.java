@@ -33,6 +33,37 @@ class EnvelopePartTest {
         assertThrows(AssertionError.class, () -> ep.findStep(5.1));
     }
 
+    @Test
+    void interpolatePositionTest() {
+        var ep = EnvelopePart.generateTimes(
+                null,
+                new double[] {1.5, 5},
+                new double[] {3, 4}
+        );
+        var timeDelta = ep.interpolateTime(0, 2.75);
+        assertEquals(2.75, ep.interpolatePosition(0, timeDelta), 1e-9);
+        assertEquals(1.5, ep.interpolatePosition(0, 0));
+        assertEquals(5, ep.interpolatePosition(0, ep.getStepTime(0)));
+    }
+
+    @Test
+    void sliceKeepsStepTimes() {
+        var ep = EnvelopePart.generateTimes(
+                null,
+                new double[] {0, 4, 10},
+                new double[] {2, 4, 4}
+        );
+        var sliced = ep.slice(2, 7);
+        var expected = EnvelopePart.generateTimes(
+                null,
+                new double[] {2, 4, 7},
+                new double[] {ep.interpolateSpeed(2), 4, 4}
+        );
+        EnvelopeTestUtils.assertEquals(expected, sliced, 1e-9);
+        var sameStep = ep.slice(5, 7);
+        assertEquals(0.5, sameStep.getStepTime(0), 1e-9);
+    }
+
     @Test
     void testEquals() {
         var ep1 = EnvelopePart.generateTimes(
@@ -0,0 +1,53 @@
+package fr.sncf.osrd.envelope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class EnvelopeTest {
+    private static Envelope makeEnvelope() {
+        // accelerate from 0 to 2 m/s over 4 m, cruise for 6 m, then stop over 2 m
+        return Envelope.make(
+                EnvelopePart.generateTimes(null, new double[] {0, 1, 4}, new double[] {0, 1, 2}),
+                EnvelopePart.generateTimes(null, new double[] {4, 10}, new double[] {2, 2}),
+                EnvelopePart.generateTimes(null, new double[] {10, 12}, new double[] {2, 0})
+        );
+    }
+
+    @Test
+    void findPart() {
+        var envelope = makeEnvelope();
+        assertEquals(0, envelope.findPart(0));
+        assertEquals(0, envelope.findPart(4));
+        assertEquals(1, envelope.findNextPart(4));
+        assertEquals(1, envelope.findPart(7));
+        assertEquals(2, envelope.findPart(12));
+        assertEquals(-1, envelope.findNextPart(12));
+        assertEquals(-1, envelope.findPart(-1));
+        assertEquals(-1, envelope.findPart(13));
+    }
+
+    @Test
+    void interpolateTotalTime() {
+        var envelope = makeEnvelope();
+        // constant acceleration of 0.5 m/s^2: 4 s to accelerate, 3 s of cruise, then 2 s to stop
+        assertEquals(4, envelope.interpolateTotalTime(4), 1e-9);
+        assertEquals(5.5, envelope.interpolateTotalTime(7), 1e-9);
+        assertEquals(9, envelope.getTotalTime(), 1e-9);
+        assertEquals(2, envelope.interpolateSpeed(7));
+    }
+
+    @Test
+    void interpolatePosition() {
+        var envelope = makeEnvelope();
+        assertEquals(0, envelope.interpolatePosition(0), 1e-9);
+        assertEquals(1, envelope.interpolatePosition(2), 1e-9);
+        assertEquals(7, envelope.interpolatePosition(5.5), 1e-9);
+        assertEquals(11.875, envelope.interpolatePosition(8.5), 1e-9);
+        assertEquals(12, envelope.interpolatePosition(20), 1e-9);
+        for (double position = 0; position <= 12; position += 0.25) {
+            var time = envelope.interpolateTotalTime(position);
+            assertEquals(position, envelope.interpolatePosition(time), 1e-6);
+        }
+    }
+}
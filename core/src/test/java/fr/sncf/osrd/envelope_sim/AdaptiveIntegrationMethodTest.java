@@ -0,0 +1,126 @@
+package fr.sncf.osrd.envelope_sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.sncf.osrd.envelope.Envelope;
+import fr.sncf.osrd.envelope.EnvelopePart;
+import fr.sncf.osrd.envelope_sim.pipelines.MaxEffortEnvelope;
+import fr.sncf.osrd.envelope_sim.pipelines.MaxSpeedEnvelope;
+import fr.sncf.osrd.train.RollingStock;
+import fr.sncf.osrd.train.TestTrains;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveIntegrationMethodTest {
+    /** A rolling stock which counts how many times the forces applied to the train are evaluated */
+    private static final class CountingRollingStock implements PhysicsRollingStock {
+        private final PhysicsRollingStock rollingStock;
+        int evaluations = 0;
+
+        CountingRollingStock(PhysicsRollingStock rollingStock) {
+            this.rollingStock = rollingStock;
+        }
+
+        @Override
+        public double getMass() {
+            return rollingStock.getMass();
+        }
+
+        @Override
+        public double getInertia() {
+            return rollingStock.getInertia();
+        }
+
+        @Override
+        public double getLength() {
+            return rollingStock.getLength();
+        }
+
+        @Override
+        public RollingStock.GammaType getGammaType() {
+            return rollingStock.getGammaType();
+        }
+
+        @Override
+        public double getRollingResistance(double speed) {
+            return rollingStock.getRollingResistance(speed);
+        }
+
+        @Override
+        public double getMaxEffort(double speed) {
+            evaluations++;
+            return rollingStock.getMaxEffort(speed);
+        }
+
+        @Override
+        public double getDeceleration() {
+            return rollingStock.getDeceleration();
+        }
+
+        @Override
+        public double getMaxBrakingForce(double speed) {
+            return rollingStock.getMaxBrakingForce(speed);
+        }
+    }
+
+    /** Builds the max effort envelope of a path with two stops and a speed limit */
+    private static Envelope makeMaxEffortEnvelope(PhysicsRollingStock rollingStock, IntegrationMethod integrationMethod) {
+        var path = new FlatPath(20000, 2);
+        var mrsp = Envelope.make(
+                EnvelopePart.generateTimes(null, new double[] { 0, 8000 }, new double[] { 44.4, 44.4 }),
+                EnvelopePart.generateTimes(null, new double[] { 8000, 12000 }, new double[] { 30, 30 }),
+                EnvelopePart.generateTimes(null, new double[] { 12000, 20000 }, new double[] { 44.4, 44.4 })
+        );
+        var stops = new double[] { 15000, 20000 };
+        var maxSpeedEnvelope = MaxSpeedEnvelope.from(rollingStock, path, integrationMethod, stops, mrsp);
+        return MaxEffortEnvelope.from(rollingStock, path, integrationMethod, 0, maxSpeedEnvelope);
+    }
+
+    /** Returns the largest speed difference between two envelopes, sampled every meter */
+    private static double maxSpeedDifference(Envelope expected, Envelope actual) {
+        var res = 0.0;
+        for (double position = 0; position <= expected.getEndPos(); position += 1)
+            res = Math.max(res, Math.abs(expected.interpolateSpeed(position) - actual.interpolateSpeed(position)));
+        return res;
+    }
+
+    @Test
+    public void testSameEnvelope() {
+        var rollingStock = TestTrains.REALISTIC_FAST_TRAIN;
+        var reference = makeMaxEffortEnvelope(rollingStock, IntegrationMethod.fixed(0.05));
+        var adaptive = makeMaxEffortEnvelope(rollingStock, new AdaptiveIntegrationMethod(0.01, 0.0001));
+        assertEquals(reference.size(), adaptive.size());
+        assertTrue(maxSpeedDifference(reference, adaptive) < 0.01);
+        assertEquals(reference.getTotalTime(), adaptive.getTotalTime(), 0.1);
+    }
+
+    @Test
+    public void testFewerEvaluations() {
+        var reference = makeMaxEffortEnvelope(TestTrains.REALISTIC_FAST_TRAIN, IntegrationMethod.fixed(0.05));
+        var fixedRollingStock = new CountingRollingStock(TestTrains.REALISTIC_FAST_TRAIN);
+        var fixed = makeMaxEffortEnvelope(fixedRollingStock, IntegrationMethod.fixed(0.2));
+        var adaptiveRollingStock = new CountingRollingStock(TestTrains.REALISTIC_FAST_TRAIN);
+        var adaptive = makeMaxEffortEnvelope(adaptiveRollingStock, new AdaptiveIntegrationMethod(0.01, 0.0001));
+
+        // the adaptive method is at least as accurate, with about half the evaluations of the forces.
+        // The effort curve of the train is piecewise constant, and steps must shrink around each of its jumps,
+        // which is why the gain isn't larger.
+        assertTrue(maxSpeedDifference(reference, adaptive) <= maxSpeedDifference(reference, fixed));
+        assertTrue(adaptiveRollingStock.evaluations < fixedRollingStock.evaluations * 0.55);
+    }
+
+    @Test
+    public void testToleranceShrinksSteps() {
+        var rollingStock = TestTrains.REALISTIC_FAST_TRAIN;
+        var path = new FlatPath(20000, 0);
+        var loose = new AdaptiveIntegrationMethod(10, 1).newCurve(rollingStock, path, Action.ACCELERATE, 1);
+        var strict = new AdaptiveIntegrationMethod(1E-3, 1E-4).newCurve(rollingStock, path, Action.ACCELERATE, 1);
+        var looseTime = 0.0;
+        var strictTime = 0.0;
+        for (int i = 0; i < 10; i++) {
+            looseTime += loose.step(0, 10).timeDelta;
+            strictTime += strict.step(0, 10).timeDelta;
+        }
+        assertTrue(strictTime < looseTime);
+    }
+}
@@ -0,0 +1,78 @@
+package fr.sncf.osrd.envelope_sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fr.sncf.osrd.train.RollingStock;
+import fr.sncf.osrd.train.TestTrains;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class BatchTrainPhysicsIntegratorTest {
+    private static final RollingStock[] ROLLING_STOCKS = new RollingStock[] {
+            TestTrains.REALISTIC_FAST_TRAIN,
+            TestTrains.REALISTIC_FAST_TRAIN_MAX_DEC_TYPE,
+            TestTrains.FAST_NO_FRICTION_TRAIN,
+    };
+    private static final double[] SLOPES = new double[] { 0, 10, -10, 25 };
+    private static final Action[] ACTIONS = Action.values();
+
+    /** Creates a batch of trains with all combinations of rolling stocks, slopes and actions */
+    static BatchTrainPhysicsIntegrator makeBatch(int size, double directionSign) {
+        var rollingStocks = new RollingStock[size];
+        var paths = new PhysicsPath[size];
+        for (int i = 0; i < size; i++) {
+            rollingStocks[i] = ROLLING_STOCKS[i % ROLLING_STOCKS.length];
+            paths[i] = new FlatPath(100000, SLOPES[i % SLOPES.length]);
+        }
+        var batch = new BatchTrainPhysicsIntegrator(rollingStocks, paths, directionSign);
+        for (int i = 0; i < size; i++) {
+            batch.setState(i, 1000 + i, (i % 7) * 5);
+            batch.setAction(i, ACTIONS[i % ACTIONS.length]);
+        }
+        return batch;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    public void testSameStepsAsScalarIntegrator(boolean forward) {
+        var directionSign = forward ? 1 : -1;
+        var size = 84;
+        var batch = makeBatch(size, directionSign);
+        var positions = new double[size];
+        var speeds = new double[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = batch.getPosition(i);
+            speeds[i] = batch.getSpeed(i);
+        }
+
+        for (int step = 0; step < 50; step++) {
+            // change the actions of trains along the way
+            if (step == 25)
+                for (int i = 0; i < size; i += 3)
+                    batch.setAction(i, ACTIONS[(i / 3) % ACTIONS.length]);
+            var timeStep = step % 2 == 0 ? 1 : 0.4;
+            batch.step(timeStep);
+            for (int i = 0; i < size; i++) {
+                var expected = TrainPhysicsIntegrator.step(
+                        ROLLING_STOCKS[i % ROLLING_STOCKS.length], new FlatPath(100000, SLOPES[i % SLOPES.length]),
+                        timeStep, positions[i], speeds[i], batch.getAction(i), directionSign);
+                positions[i] += expected.positionDelta;
+                speeds[i] = expected.endSpeed;
+                assertEquals(positions[i], batch.getPosition(i), 0);
+                assertEquals(speeds[i], batch.getSpeed(i), 0);
+                assertEquals(expected.acceleration, batch.getAcceleration(i), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testStoppedTrainStaysStill() {
+        var batch = makeBatch(1, 1);
+        batch.setState(0, 0, 0);
+        batch.setAction(0, Action.COAST);
+        batch.step(1);
+        assertEquals(0, batch.getPosition(0));
+        assertEquals(0, batch.getSpeed(0));
+    }
+}
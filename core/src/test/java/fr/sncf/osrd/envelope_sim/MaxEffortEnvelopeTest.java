@@ -1,6 +1,7 @@
 package fr.sncf.osrd.envelope_sim;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import fr.sncf.osrd.envelope.Envelope;
 import fr.sncf.osrd.envelope.EnvelopePart;
@@ -23,4 +24,27 @@ public class MaxEffortEnvelopeTest {
         var maxEffortEnvelope = MaxEffortEnvelope.from(testRollingStock, testPath, 0, maxSpeedEnvelope);
         assertEquals(5, maxEffortEnvelope.size());
     }
+
+    @Test
+    public void testPartialAcceleration() {
+        var testRollingStock = TestTrains.REALISTIC_FAST_TRAIN;
+        var testPath = new FlatPath(10000, 0);
+        var stops = new double[] { 10000 };
+
+        var flatMRSP = Envelope.make(
+                EnvelopePart.generateTimes(null, new double[] { 0, 10000 }, new double[] { 44.4, 44.4})
+        );
+        var maxSpeedEnvelope = MaxSpeedEnvelope.from(testRollingStock, testPath, stops, flatMRSP);
+        var maxEffortEnvelope = MaxEffortEnvelope.from(testRollingStock, testPath, 0, maxSpeedEnvelope);
+
+        // slow the train down to 10 m/s in the middle of the path, then accelerate again
+        var envelope = MaxEffortEnvelope.addAccelerationCurve(testRollingStock, testPath, maxEffortEnvelope, 5000, 10);
+        var partIndex = envelope.findNextPart(5000);
+        assertEquals(10, envelope.get(partIndex).getBeginSpeed());
+        assertEquals(MaxEffortEnvelope.ACCELERATION, envelope.get(partIndex).meta);
+        assertTrue(envelope.get(partIndex).getEndPos() < 10000);
+        // the rest of the envelope is left untouched
+        assertEquals(maxEffortEnvelope.interpolateSpeed(9000), envelope.interpolateSpeed(9000));
+        assertTrue(envelope.getTotalTime() > maxEffortEnvelope.getTotalTime());
+    }
 }
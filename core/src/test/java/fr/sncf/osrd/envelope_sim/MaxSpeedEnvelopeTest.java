@@ -1,10 +1,15 @@
 package fr.sncf.osrd.envelope_sim;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import fr.sncf.osrd.envelope.Envelope;
+import fr.sncf.osrd.envelope.EnvelopeOverlayBuilder;
 import fr.sncf.osrd.envelope.EnvelopePart;
+import fr.sncf.osrd.envelope_sim.overlays.EnvelopeDeceleration;
 import fr.sncf.osrd.envelope_sim.pipelines.MaxSpeedEnvelope;
+import fr.sncf.osrd.envelope_sim.pipelines.MaxSpeedEnvelope.StopMeta;
 import fr.sncf.osrd.train.TestTrains;
 import org.junit.jupiter.api.Test;
 
@@ -23,4 +28,59 @@ public class MaxSpeedEnvelopeTest {
         assertTrue(maxSpeedEnvelope.spaceContinuous);
 
     }
+
+    /** Adds stop braking curves one stop at a time, rebuilding the whole envelope for each stop */
+    private static Envelope addStopBrakingCurvesOneByOne(
+            PhysicsRollingStock rollingStock,
+            PhysicsPath path,
+            double[] stopPositions,
+            Envelope curveWithDecelerations
+    ) {
+        for (int i = 0; i < stopPositions.length; i++) {
+            var stopPosition = stopPositions[i];
+            var overlayBuilder = EnvelopeOverlayBuilder.backward(curveWithDecelerations);
+            overlayBuilder.cursor.findPosition(stopPosition);
+            overlayBuilder.startDiscontinuousOverlay(new StopMeta(i), 0);
+            EnvelopeDeceleration.decelerate(rollingStock, path, 4, stopPosition, 0, overlayBuilder);
+            curveWithDecelerations = overlayBuilder.build();
+        }
+        return curveWithDecelerations;
+    }
+
+    static void assertSameEnvelope(Envelope expected, Envelope actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            var expectedPart = expected.get(i);
+            var actualPart = actual.get(i);
+            if (expectedPart.meta == null)
+                assertNull(actualPart.meta);
+            else
+                assertEquals(expectedPart.meta.getClass(), actualPart.meta.getClass());
+            if (expectedPart.meta instanceof StopMeta)
+                assertEquals(((StopMeta) expectedPart.meta).stopIndex, ((StopMeta) actualPart.meta).stopIndex);
+            assertEquals(expectedPart.pointCount(), actualPart.pointCount());
+            for (int j = 0; j < expectedPart.pointCount(); j++) {
+                assertEquals(expectedPart.getPointPos(j), actualPart.getPointPos(j), 1e-6);
+                assertEquals(expectedPart.getPointSpeed(j), actualPart.getPointSpeed(j), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testManyStops() {
+        var testRollingStock = TestTrains.REALISTIC_FAST_TRAIN;
+        var testPath = new FlatPath(10000, 0);
+        // the stops at 4000 and 4200 are closer than the braking distance
+        var stops = new double[] { 2500, 4000, 4200, 7000, 10000 };
+
+        var mrsp = Envelope.make(
+                EnvelopePart.generateTimes(null, new double[] { 0, 3000 }, new double[] { 44.4, 44.4 }),
+                EnvelopePart.generateTimes(null, new double[] { 3000, 6000 }, new double[] { 30, 30 }),
+                EnvelopePart.generateTimes(null, new double[] { 6000, 10000 }, new double[] { 44.4, 44.4 })
+        );
+        var withDecelerations = MaxSpeedEnvelope.addBrakingCurves(testRollingStock, testPath, mrsp);
+        var expected = addStopBrakingCurvesOneByOne(testRollingStock, testPath, stops, withDecelerations);
+        var actual = MaxSpeedEnvelope.addStopBrakingCurves(testRollingStock, testPath, stops, withDecelerations);
+        assertSameEnvelope(expected, actual);
+    }
 }
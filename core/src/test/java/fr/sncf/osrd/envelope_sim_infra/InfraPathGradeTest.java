@@ -0,0 +1,136 @@
+package fr.sncf.osrd.envelope_sim_infra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import fr.sncf.osrd.infra.trackgraph.TrackGraph;
+import fr.sncf.osrd.infra.trackgraph.TrackSection;
+import fr.sncf.osrd.train.TrackSectionRange;
+import fr.sncf.osrd.utils.SortedDoubleMap;
+import fr.sncf.osrd.utils.graph.EdgeDirection;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+public class InfraPathGradeTest {
+    @Test
+    public void sameGradesAsSortedDoubleMap() {
+        var prefixSum = new SortedDoubleMap();
+        prefixSum.put(0., 0.);
+        prefixSum.put(100., 0.);
+        prefixSum.put(250., 1.5);
+        prefixSum.put(250.000001, 1.5);
+        prefixSum.put(400., -3.);
+        var pathGrade = new InfraPathGrade(prefixSum, 500);
+
+        var positions = new double[] { -10, 0, 50, 100, 175, 250, 250.0000005, 300, 400, 450, 600 };
+        for (int i = 0; i < positions.length; i++) {
+            for (int j = 0; j < positions.length; j++) {
+                if (i == j)
+                    continue;
+                var begin = positions[i];
+                var end = positions[j];
+                var expected = (prefixSum.interpolate(end) - prefixSum.interpolate(begin)) / (end - begin);
+                assertEquals(expected, pathGrade.getAverageGrade(begin, end));
+            }
+        }
+    }
+
+    private static TrackSection makeTrack() {
+        var graph = new TrackGraph();
+        var track = graph.makeTrackSection(0, 1, "track", 10000, null);
+        track.forwardGradients.addRange(0, 5000, 2.);
+        track.forwardGradients.addRange(5000, 10000, -1.);
+        track.backwardGradients.addRange(0, 10000, 0.);
+        return track;
+    }
+
+    /** Makes a new path on the track, which is the same as all the other paths of the same index */
+    private static List<TrackSectionRange> makePath(TrackSection track, int index) {
+        return List.of(new TrackSectionRange(track, EdgeDirection.START_TO_STOP, 0, 1 + index));
+    }
+
+    @Test
+    public void samePathsShareGrades() {
+        var track = makeTrack();
+        var pathGrade = InfraPathGrade.from(makePath(track, 42));
+        assertSame(pathGrade, InfraPathGrade.from(makePath(track, 42)));
+        assertNotSame(pathGrade, InfraPathGrade.from(makePath(track, 43)));
+        assertEquals(2, track.getCachedPathCount());
+    }
+
+    @Test
+    public void pathsOfOtherInfrasDontShareGrades() {
+        var track = makeTrack();
+        var otherTrack = makeTrack();
+        var pathGrade = InfraPathGrade.from(makePath(track, 42));
+        assertNotSame(pathGrade, InfraPathGrade.from(makePath(otherTrack, 42)));
+        assertEquals(1, track.getCachedPathCount());
+        assertEquals(1, otherTrack.getCachedPathCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedPathsAreEvicted() {
+        var track = makeTrack();
+        var pathGrades = new ArrayList<InfraPathGrade>();
+        for (int i = 0; i < TrackSection.MAX_CACHED_PATHS; i++)
+            pathGrades.add(InfraPathGrade.from(makePath(track, i)));
+        assertEquals(TrackSection.MAX_CACHED_PATHS, track.getCachedPathCount());
+
+        // the first path is used again, which makes the second one the least recently used
+        assertSame(pathGrades.get(0), InfraPathGrade.from(makePath(track, 0)));
+        InfraPathGrade.from(makePath(track, TrackSection.MAX_CACHED_PATHS));
+        assertEquals(TrackSection.MAX_CACHED_PATHS, track.getCachedPathCount());
+        assertSame(pathGrades.get(0), InfraPathGrade.from(makePath(track, 0)));
+        assertSame(pathGrades.get(2), InfraPathGrade.from(makePath(track, 2)));
+        assertNotSame(pathGrades.get(1), InfraPathGrade.from(makePath(track, 1)));
+    }
+
+    @Test
+    public void concurrentLookupsShareGrades() throws Exception {
+        var track = makeTrack();
+        var pathCount = 64;
+        var threadCount = 8;
+
+        // each thread looks up all the paths many times, in its own order
+        var lookups = new ArrayList<Callable<InfraPathGrade[]>>();
+        for (int i = 0; i < threadCount; i++) {
+            var random = new Random(i);
+            lookups.add(() -> {
+                var res = new InfraPathGrade[pathCount];
+                var order = new ArrayList<Integer>();
+                for (int j = 0; j < pathCount; j++)
+                    order.add(j);
+                for (int round = 0; round < 20; round++) {
+                    Collections.shuffle(order, random);
+                    for (var index : order) {
+                        var pathGrade = InfraPathGrade.from(makePath(track, index));
+                        if (res[index] == null)
+                            res[index] = pathGrade;
+                        assertSame(res[index], pathGrade);
+                    }
+                }
+                return res;
+            });
+        }
+
+        var executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            var results = executor.invokeAll(lookups);
+            var expected = results.get(0).get();
+            for (var result : results)
+                for (int i = 0; i < pathCount; i++)
+                    assertSame(expected[i], result.get()[i]);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(pathCount, track.getCachedPathCount());
+        for (int i = 0; i < pathCount; i++)
+            assertEquals(2., InfraPathGrade.from(makePath(track, i)).getAverageGrade(0, 1 + i), 1e-9);
+    }
+}
@@ -0,0 +1,57 @@
+package fr.sncf.osrd.infra.trackgraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import fr.sncf.osrd.utils.TrackSectionLocation;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TrackGeometryTest {
+    private static List<List<Double>> coords(double beginX, double beginY, double endX, double endY) {
+        return List.of(List.of(beginX, beginY), List.of(endX, endY));
+    }
+
+    @Test
+    public void testEstimateIsLowerBound() {
+        var trackGraph = new TrackGraph();
+        var nodeA = trackGraph.makePlaceholderNode("A");
+        var nodeB = trackGraph.makePlaceholderNode("B");
+        var nodeC = trackGraph.makePlaceholderNode("C");
+        // a curved track, twice as long as the straight line between its endpoints
+        var curved = trackGraph.makeTrackSection(nodeA.index, nodeB.index, "curved", 200, coords(0, 0, 100, 0));
+        var straight = trackGraph.makeTrackSection(nodeB.index, nodeC.index, "straight", 100, coords(100, 0, 100, 100));
+
+        // the straight track is the one which is the closest to the straight line between its endpoints
+        var geometry = TrackGeometry.from(trackGraph);
+        assertEquals(0.99, geometry.scale, 1e-9);
+        assertEquals(50, geometry.getX(curved, 100));
+        assertEquals(50, geometry.getY(straight, 50));
+
+        var heuristic = geometry.heuristic(List.of(new TrackSectionLocation(straight, 100)));
+        assertEquals(0, heuristic.estimate(straight, 100), 1e-9);
+        // the actual distance is 300, as the path goes through the curved track
+        var estimate = heuristic.estimate(curved, 0);
+        assertEquals(Math.hypot(100, 100) * 0.99, estimate, 1e-9);
+    }
+
+    @Test
+    public void testNoGeometry() {
+        var trackGraph = new TrackGraph();
+        var nodeA = trackGraph.makePlaceholderNode("A");
+        var nodeB = trackGraph.makePlaceholderNode("B");
+        var nodeC = trackGraph.makePlaceholderNode("C");
+        trackGraph.makeTrackSection(nodeA.index, nodeB.index, "a", 100, coords(0, 0, 100, 0));
+        trackGraph.makeTrackSection(nodeB.index, nodeC.index, "b", 100, null);
+        assertNull(TrackGeometry.from(trackGraph));
+
+        // linked track sections which don't meet
+        trackGraph = new TrackGraph();
+        nodeA = trackGraph.makePlaceholderNode("A");
+        nodeB = trackGraph.makePlaceholderNode("B");
+        nodeC = trackGraph.makePlaceholderNode("C");
+        trackGraph.makeTrackSection(nodeA.index, nodeB.index, "a", 100, coords(0, 0, 100, 0));
+        trackGraph.makeTrackSection(nodeB.index, nodeC.index, "b", 100, coords(50, 0, 150, 0));
+        assertNull(TrackGeometry.from(trackGraph));
+    }
+}
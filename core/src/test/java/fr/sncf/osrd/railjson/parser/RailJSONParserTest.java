@@ -0,0 +1,29 @@
+package fr.sncf.osrd.railjson.parser;
+
+import static fr.sncf.osrd.Helpers.getBaseInfra;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import fr.sncf.osrd.infra.InvalidInfraException;
+import org.junit.jupiter.api.Test;
+
+public class RailJSONParserTest {
+    @Test
+    public void parseAndReleaseBuildsTheSameInfra() throws InvalidInfraException {
+        var expected = RailJSONParser.parse(getBaseInfra());
+
+        var rjsInfra = getBaseInfra();
+        var infra = RailJSONParser.parseAndRelease(rjsInfra);
+
+        assertEquals(expected.trackGraph.getEdgeCount(), infra.trackGraph.getEdgeCount());
+        assertEquals(expected.trackGraph.getNodeCount(), infra.trackGraph.getNodeCount());
+        assertEquals(expected.routeGraph.getEdgeCount(), infra.routeGraph.getEdgeCount());
+        assertEquals(expected.tvdSections.keySet(), infra.tvdSections.keySet());
+        assertEquals(expected.signals.size(), infra.signals.size());
+        assertEquals(expected.switches.size(), infra.switches.size());
+
+        assertNull(rjsInfra.trackSections);
+        assertNull(rjsInfra.routes);
+        assertNull(rjsInfra.tvdSections);
+    }
+}
@@ -192,6 +192,7 @@ public class DelayTests {
 
 
     public static class UpdatableBool extends RSExpr<RSBool> {
+        private static final long serialVersionUID = 8004246201312180556L;
 
         boolean value = false;
 
@@ -0,0 +1,75 @@
+package fr.sncf.osrd.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class EventQueueTest {
+    private static final class QueuedEvent extends TimelineEvent {
+        QueuedEvent(double time, long revision) {
+            super(new TimelineEventId(time, revision));
+        }
+
+        @Override
+        protected void onOccurrence(Simulation sim) { }
+
+        @Override
+        protected void onCancellation(Simulation sim) { }
+
+        @Override
+        protected TimelineEvent copy(ForkContext context) {
+            return new QueuedEvent(eventId.scheduledTime, eventId.revision);
+        }
+
+        @Override
+        public boolean deepEquals(TimelineEvent other) {
+            return eventId.equals(other.eventId);
+        }
+    }
+
+    @Test
+    public void sameOrderAsTreeMap() {
+        var random = new Random(42);
+        var queue = new EventQueue();
+        var reference = new TreeMap<TimelineEventId, TimelineEvent>();
+        var revision = 0L;
+        var time = 0.;
+
+        for (int i = 0; i < 10000; i++) {
+            var operation = random.nextInt(10);
+            if (operation < 5 || reference.isEmpty()) {
+                // events often share the same time
+                var event = new QueuedEvent(time + random.nextInt(20), revision++);
+                queue.add(event);
+                reference.put(event.eventId, event);
+            } else if (operation < 8) {
+                // cancel a random event
+                var events = new ArrayList<>(reference.keySet());
+                var eventId = events.get(random.nextInt(events.size()));
+                queue.remove(eventId);
+                reference.remove(eventId);
+                assertNull(queue.get(eventId));
+            } else {
+                // step to the next event
+                var eventId = reference.firstKey();
+                assertSame(reference.get(eventId), queue.peek());
+                queue.remove(eventId);
+                reference.remove(eventId);
+                time = eventId.scheduledTime;
+            }
+
+            assertEquals(reference.size(), queue.size());
+            if (!reference.isEmpty())
+                assertSame(reference.firstEntry().getValue(), queue.peek());
+        }
+
+        for (var event : reference.values())
+            assertSame(event, queue.get(event.eventId));
+        assertEquals(reference.size(), queue.getEvents().size());
+    }
+}
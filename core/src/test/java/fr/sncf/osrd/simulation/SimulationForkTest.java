@@ -0,0 +1,82 @@
+package fr.sncf.osrd.simulation;
+
+import static fr.sncf.osrd.Helpers.TestEvent;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fr.sncf.osrd.TestConfig;
+import fr.sncf.osrd.train.TrainStatus;
+import fr.sncf.osrd.train.events.TrainCreatedEvent;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+
+@SuppressWarnings("MissingJavadocMethod")
+public class SimulationForkTest {
+    @Test
+    public void testForkTimeline() throws SimulationError {
+        var sim = Simulation.createWithoutInfra(0.0, null);
+        var a = TestEvent.plan(sim, 1.0, "a");
+        var b = TestEvent.plan(sim, 2.0, "b");
+        assertSame(a, sim.step());
+
+        var fork = sim.fork(null);
+        assertEquals(sim.getTime(), fork.getTime(), 0.0);
+        TestEvent.plan(fork, 1.5, "c");
+
+        // the original simulation doesn't see the events planned in the fork
+        assertSame(b, sim.step());
+        assertTrue(sim.isSimulationOver());
+
+        assertEquals("c", fork.step().toString());
+        var forkedB = fork.step();
+        assertNotSame(b, forkedB);
+        assertEquals("b", forkedB.toString());
+        assertEquals(TimelineEvent.State.OCCURRED, forkedB.getState());
+        assertTrue(fork.isSimulationOver());
+    }
+
+    @Test
+    public void testForkIsIndependent() throws SimulationError {
+        var reference = TestConfig.readResource("tiny_infra/config_railjson.json").prepare();
+        var referenceEventCount = reference.run().size();
+        var referenceStates = getFinalStates(reference.sim);
+
+        var preparedSim = TestConfig.readResource("tiny_infra/config_railjson.json").prepare();
+        var sim = preparedSim.sim;
+        for (var schedule : preparedSim.config.trainSchedules)
+            TrainCreatedEvent.plan(sim, schedule);
+        var eventCount = 0;
+        while (sim.getTime() < 60) {
+            sim.step();
+            eventCount++;
+        }
+        assertFalse(sim.trains.isEmpty());
+
+        // run the fork to its end first, which must not change the original simulation
+        var fork = sim.fork(null);
+        var forkEventCount = eventCount;
+        while (!fork.isSimulationOver()) {
+            fork.step();
+            forkEventCount++;
+        }
+        while (!sim.isSimulationOver()) {
+            sim.step();
+            eventCount++;
+        }
+
+        assertEquals(referenceEventCount, eventCount);
+        assertEquals(referenceEventCount, forkEventCount);
+        assertEquals(referenceStates, getFinalStates(sim));
+        assertEquals(referenceStates, getFinalStates(fork));
+    }
+
+    /** Returns the time and position at which each train reached its destination */
+    private static HashMap<String, String> getFinalStates(Simulation sim) {
+        var res = new HashMap<String, String>();
+        for (var train : sim.trains.values()) {
+            var state = train.getLastState();
+            assertEquals(TrainStatus.REACHED_DESTINATION, state.status);
+            res.put(train.getID(), String.format("%.6f %.6f", state.time, state.location.getPathPosition()));
+        }
+        return res;
+    }
+}
@@ -4,9 +4,16 @@ import static fr.sncf.osrd.Helpers.TestEvent;
 import static org.junit.jupiter.api.Assertions.*;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fr.sncf.osrd.simulation.changelog.ChangeConsumer;
 import fr.sncf.osrd.simulation.changelog.ChangeConsumerMultiplexer;
+import fr.sncf.osrd.simulation.trace.TraceDecoder;
+import fr.sncf.osrd.simulation.trace.TraceRecorder;
 import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiConsumer;
 
 @SuppressWarnings("MissingJavadocMethod")
@@ -54,4 +61,80 @@ public class SimulationTest {
         assertEquals(sim.getTime(), 4.5, 0.0);
         assertTrue(sim.isSimulationOver());
     }
+
+    @Test
+    @SuppressFBWarnings(value = {"SIC_INNER_SHOULD_BE_STATIC_ANON"})
+    public void testUnconsumedChanges() throws SimulationError {
+        var publishedChanges = new ArrayList<Change>();
+        var consumer = new ChangeConsumer() {
+            @Override
+            public boolean consumes(Class<? extends Change> changeType) {
+                return changeType == TestEvent.TestEventPlanned.class;
+            }
+
+            @Override
+            public void changeCreationCallback(Change change) { }
+
+            @Override
+            public void changePublishedCallback(Change change) {
+                publishedChanges.add(change);
+            }
+        };
+        var sim = Simulation.createWithoutInfra(0.0, consumer);
+
+        var first = TestEvent.plan(sim, 1.0, "a");
+        var cancelled = TestEvent.plan(sim, 2.0, "b");
+        var last = TestEvent.plan(sim, 3.0, "c");
+        sim.cancel(cancelled);
+        assertSame(first, sim.step());
+        assertSame(last, sim.step());
+        assertEquals(3.0, sim.getTime(), 0.0);
+        assertTrue(sim.isSimulationOver());
+
+        // the timeline changes weren't created, only the planned events were published
+        assertEquals(3, publishedChanges.size());
+        for (var change : publishedChanges)
+            assertSame(TestEvent.TestEventPlanned.class, change.getClass());
+    }
+
+    /** Runs a simulation which cancels an event, and returns its trace */
+    private static List<TraceDecoder.TraceRecord> traceSimulation(
+            ChangeConsumer consumer
+    ) throws SimulationError, IOException {
+        var sim = Simulation.createWithoutInfra(0.0, consumer);
+        var recorder = new TraceRecorder(TraceRecorder.DEFAULT_CAPACITY, null);
+        sim.setTraceRecorder(recorder);
+        TestEvent.plan(sim, 1.0, "a");
+        var cancelled = TestEvent.plan(sim, 2.0, "b");
+        TestEvent.plan(sim, 3.0, "c");
+        sim.cancel(cancelled);
+        while (!sim.isSimulationOver())
+            sim.step();
+
+        var out = new ByteArrayOutputStream();
+        recorder.write(out);
+        return TraceDecoder.read(new ByteArrayInputStream(out.toByteArray())).records;
+    }
+
+    @Test
+    public void testTraceOfUnconsumedChanges() throws SimulationError, IOException {
+        // this consumer needs all the changes, which are thus created
+        var expected = traceSimulation(new ChangeConsumer() {
+            @Override
+            public void changeCreationCallback(Change change) { }
+
+            @Override
+            public void changePublishedCallback(Change change) { }
+        });
+        var records = traceSimulation(null);
+
+        // changes which weren't created are recorded all the same
+        assertEquals(expected.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(expected.get(i).kind, records.get(i).kind);
+            assertEquals(expected.get(i).type, records.get(i).type);
+            assertEquals(expected.get(i).revision, records.get(i).revision);
+            assertEquals(expected.get(i).simTime, records.get(i).simTime, 0.0);
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package fr.sncf.osrd.simulation.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.sncf.osrd.simulation.trace.TraceRecorder.RecordKind;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class TraceRecorderTest {
+    private static TraceDecoder.Trace writeAndRead(TraceRecorder recorder) throws IOException {
+        var out = new ByteArrayOutputStream();
+        recorder.write(out);
+        return TraceDecoder.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        var recorder = new TraceRecorder(16, null);
+        recorder.record(RecordKind.CHANGE_PUBLISHED, String.class, 0, 0.);
+        recorder.record(RecordKind.EVENT_OCCURRED, Integer.class, 0, 1.5);
+        recorder.record(RecordKind.EVENT_CANCELLED, String.class, -1, 2.);
+
+        var trace = writeAndRead(recorder);
+        assertEquals(0, trace.overwrittenCount);
+        assertEquals(3, trace.records.size());
+        var first = trace.records.get(0);
+        assertEquals(RecordKind.CHANGE_PUBLISHED, first.kind);
+        assertEquals(String.class.getName(), first.type);
+        var second = trace.records.get(1);
+        assertEquals(RecordKind.EVENT_OCCURRED, second.kind);
+        assertEquals(Integer.class.getName(), second.type);
+        assertEquals(1.5, second.simTime, 0.);
+        var last = trace.records.get(2);
+        assertEquals(RecordKind.EVENT_CANCELLED, last.kind);
+        assertEquals(String.class.getName(), last.type);
+        assertEquals(-1, last.revision);
+    }
+
+    @Test
+    public void testOverwrite() throws IOException {
+        var recorder = new TraceRecorder(10, null);
+        for (int i = 0; i < 25; i++)
+            recorder.record(RecordKind.EVENT_OCCURRED, Object.class, i, i);
+        assertEquals(10, recorder.size());
+        assertEquals(15, recorder.getOverwrittenCount());
+
+        // only the newest records are kept, from the oldest to the newest
+        var trace = writeAndRead(recorder);
+        assertEquals(15, trace.overwrittenCount);
+        assertEquals(10, trace.records.size());
+        for (int i = 0; i < 10; i++) {
+            var record = trace.records.get(i);
+            assertEquals(15 + i, record.revision);
+            assertEquals(15 + i, record.simTime, 0.);
+            if (i > 0)
+                assertTrue(record.wallTime >= trace.records.get(i - 1).wallTime);
+        }
+    }
+}
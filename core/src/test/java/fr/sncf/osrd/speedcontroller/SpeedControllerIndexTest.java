@@ -0,0 +1,112 @@
+package fr.sncf.osrd.speedcontroller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class SpeedControllerIndexTest {
+    /** Generates controllers of all kinds, with overlapping ranges */
+    private static Set<SpeedController> makeControllers(Random random, int count) {
+        var res = new HashSet<SpeedController>();
+        for (int i = 0; i < count; i++) {
+            var begin = random.nextDouble() * 10000;
+            var end = begin + random.nextDouble() * 2000;
+            var speed = 10 + random.nextDouble() * 30;
+            switch (i % 3) {
+                case 0:
+                    res.add(new MaxSpeedController(speed, begin, end, random.nextInt(4) - 1));
+                    break;
+                case 1:
+                    res.add(new LimitAnnounceSpeedController(speed, begin, end, 0.5, random.nextInt(4) - 1));
+                    break;
+                default:
+                    if (i % 10 == 2)
+                        res.add(new CoastingSpeedController(begin, end));
+                    else
+                        res.add(new MaxSpeedController(speed, begin, end));
+            }
+        }
+        return res;
+    }
+
+    @Test
+    public void testSameDirectives() {
+        var random = new Random(42);
+        var controllers = makeControllers(random, 500);
+        var cursor = new SpeedControllerIndex(controllers).cursor();
+        var position = 0.0;
+        var stopIndex = 0;
+        while (position < 12000) {
+            cursor.moveTo(position);
+            // look up a few positions ahead of the cursor, in no particular order
+            for (int i = 0; i < 4; i++) {
+                var lookupPosition = position + random.nextDouble() * 50;
+                var expected = SpeedController.getDirective(controllers, lookupPosition, stopIndex);
+                var directive = cursor.getDirective(lookupPosition, stopIndex);
+                assertEquals(expected.allowedSpeed, directive.allowedSpeed);
+                assertEquals(expected.isCoasting, directive.isCoasting);
+            }
+            position += random.nextDouble() * 40;
+            if (random.nextInt(100) == 0)
+                stopIndex++;
+        }
+    }
+
+    @Test
+    public void testActiveControllers() {
+        var random = new Random(7);
+        var controllers = makeControllers(random, 200);
+        var cursor = new SpeedControllerIndex(controllers).cursor();
+        for (var position : new double[] { 100, 2000, 1500, 5000, 5001, 9000, 0 }) {
+            var expected = new HashSet<SpeedController>();
+            for (var controller : controllers)
+                if (controller.isActive(position, 1))
+                    expected.add(controller);
+            var active = new HashSet<SpeedController>();
+            cursor.moveTo(position);
+            cursor.addActiveControllers(position, 1, active);
+            assertEquals(expected, active);
+        }
+    }
+
+    @Test
+    public void testMergeDirectivesAtTwoPositions() {
+        var random = new Random(13);
+        var controllers = makeControllers(random, 300);
+        var cursor = new SpeedControllerIndex(controllers).cursor();
+        for (double position = 0; position < 12000; position += random.nextDouble() * 40) {
+            cursor.moveTo(position);
+            var lookupPosition = position + random.nextDouble() * 50;
+            var directivePosition = position + random.nextDouble() * 50;
+
+            // the directive of the controllers active at the lookup position, as trains used to find it
+            var active = new HashSet<SpeedController>();
+            for (var controller : controllers)
+                if (controller.isActive(lookupPosition, 0))
+                    active.add(controller);
+            var expected = SpeedController.getDirective(active, directivePosition, 0);
+
+            var directive = SpeedDirective.getMax();
+            cursor.mergeDirectives(directive, lookupPosition, directivePosition, 0);
+            assertEquals(expected.allowedSpeed, directive.allowedSpeed);
+            assertEquals(expected.isCoasting, directive.isCoasting);
+        }
+    }
+
+    @Test
+    public void testDirectiveIsReused() {
+        var controllers = new HashSet<SpeedController>();
+        controllers.add(new MaxSpeedController(10, 0, 100));
+        controllers.add(new MaxSpeedController(5, 50, 100));
+        var cursor = new SpeedControllerIndex(controllers).cursor();
+        var first = cursor.getDirective(10, 0);
+        assertEquals(10, first.allowedSpeed);
+        var second = cursor.getDirective(60, 0);
+        assertSame(first, second);
+        assertEquals(5, second.allowedSpeed);
+    }
+}
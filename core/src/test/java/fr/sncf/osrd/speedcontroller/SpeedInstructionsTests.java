@@ -2,16 +2,20 @@ package fr.sncf.osrd.speedcontroller;
 
 import static fr.sncf.osrd.Helpers.*;
 import static java.lang.Math.abs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import fr.sncf.osrd.TestConfig;
 import fr.sncf.osrd.railjson.parser.RailJSONParser;
+import fr.sncf.osrd.railjson.schema.schedule.RJSAllowance.MarginType;
 import fr.sncf.osrd.railjson.schema.schedule.RJSTrainSchedule;
 import fr.sncf.osrd.railjson.schema.schedule.RJSTrainStop;
 import fr.sncf.osrd.simulation.Simulation;
 import fr.sncf.osrd.simulation.SimulationError;
 import fr.sncf.osrd.train.TrainSchedule;
 import fr.sncf.osrd.infra.InvalidInfraException;
+import fr.sncf.osrd.speedcontroller.generators.MarecoAllowanceGenerator;
 import fr.sncf.osrd.speedcontroller.generators.SpeedControllerGenerator;
 import fr.sncf.osrd.train.Train;
 import fr.sncf.osrd.train.events.TrainMoveEvent;
@@ -54,6 +58,11 @@ public class SpeedInstructionsTests {
     /** Get a speed generator indicating the given speed at every point */
     public static SpeedControllerGenerator getStaticGenerator(double maxSpeed) {
         return new SpeedControllerGenerator(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY) {
+            @Override
+            public SpeedControllerGenerator copy() {
+                return getStaticGenerator(maxSpeed);
+            }
+
             @Override
             public Set<SpeedController> generate(Simulation sim, TrainSchedule schedule, Set<SpeedController>
                     maxSpeeds) {
@@ -208,6 +217,21 @@ public class SpeedInstructionsTests {
         prepared.run();
     }
 
+    @Test
+    public void testCopiesDontShareGenerators() {
+        var generator = new MarecoAllowanceGenerator(0, 1000, 10, MarginType.PERCENTAGE);
+        var instructions = SpeedInstructions.fromController(generator);
+        var copy = instructions.copy();
+
+        // generators keep intermediate results, so each fork of a simulation needs its own
+        var generatorCopy = (MarecoAllowanceGenerator) copy.targetSpeedGenerators.get(0).iterator().next();
+        assertNotSame(generator, generatorCopy);
+        assertEquals(generator.getBegin(), generatorCopy.getBegin());
+        assertEquals(generator.getEnd(), generatorCopy.getEnd());
+        assertEquals(generator.value, generatorCopy.value);
+        assertEquals(generator.allowanceType, generatorCopy.allowanceType);
+    }
+
     /** Helper function: returns true if the train is late at the time it is called */
     public static boolean isLate(Simulation sim) {
         var event = getLastTrainEvent(sim);
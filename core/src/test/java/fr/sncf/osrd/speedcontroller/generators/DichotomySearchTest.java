@@ -0,0 +1,74 @@
+package fr.sncf.osrd.speedcontroller.generators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.sncf.osrd.simulation.SimulationError;
+import fr.sncf.osrd.speedcontroller.generators.DichotomyControllerGenerator.Candidate;
+import fr.sncf.osrd.speedcontroller.generators.DichotomyControllerGenerator.CandidateEvaluator;
+import org.junit.jupiter.api.Test;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+public class DichotomySearchTest {
+    private static final double PRECISION = 0.5;
+
+    /** The run time decreases by a second when the value increases by one */
+    private static final CandidateEvaluator EVALUATOR = value -> new Candidate(value, Set.of(), 1000 - value);
+
+    private static Candidate search(int candidatesPerRound, double targetTime) throws SimulationError {
+        return DichotomyControllerGenerator.search(EVALUATOR, candidatesPerRound, 0, 1000, targetTime, PRECISION);
+    }
+
+    /** Runs a task in a pool with several workers, so that candidates are evaluated by different threads */
+    private static <T> T runInPool(Callable<T> task) throws Exception {
+        var pool = new ForkJoinPool(4);
+        try {
+            return pool.submit(task).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sameResultAsBinarySearch() throws Exception {
+        for (var targetTime : new double[] { 1, 42, 337.3, 500, 871.9, 999 }) {
+            var binary = search(1, targetTime);
+            var kary = runInPool(() -> search(DichotomyControllerGenerator.CANDIDATES_PER_ROUND, targetTime));
+            assertEquals(targetTime, binary.time, PRECISION);
+            assertEquals(targetTime, kary.time, PRECISION);
+            assertEquals(binary.value, kary.value, 2 * PRECISION);
+        }
+    }
+
+    @Test
+    public void deterministicResult() throws Exception {
+        var expected = search(DichotomyControllerGenerator.CANDIDATES_PER_ROUND, 337.3);
+        for (int i = 0; i < 20; i++) {
+            var candidate = runInPool(() -> search(DichotomyControllerGenerator.CANDIDATES_PER_ROUND, 337.3));
+            assertEquals(expected.value, candidate.value);
+        }
+    }
+
+    @Test
+    public void candidateErrorsArePropagated() throws Exception {
+        CandidateEvaluator evaluator = value -> {
+            if (value > 500)
+                throw new SimulationError("invalid value");
+            // keep the calling thread busy, so that failing candidates get evaluated by other threads
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new SimulationError("interrupted", e);
+            }
+            return EVALUATOR.eval(value);
+        };
+        Callable<SimulationError> failingSearch = () -> assertThrows(SimulationError.class,
+                () -> DichotomyControllerGenerator.search(evaluator, 4, 0, 1000, 100, PRECISION));
+
+        // candidates are either evaluated by workers of the common pool, or of the pool of the caller
+        assertEquals("invalid value", failingSearch.call().getMessage());
+        assertEquals("invalid value", runInPool(failingSearch).getMessage());
+    }
+}
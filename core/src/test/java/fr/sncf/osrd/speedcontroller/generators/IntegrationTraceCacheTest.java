@@ -0,0 +1,79 @@
+package fr.sncf.osrd.speedcontroller.generators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import fr.sncf.osrd.speedcontroller.MaxSpeedController;
+import fr.sncf.osrd.speedcontroller.SpeedController;
+import fr.sncf.osrd.train.IntegrationStep;
+import fr.sncf.osrd.train.TestTrains;
+import fr.sncf.osrd.train.TrainSchedule;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinTask;
+import org.junit.jupiter.api.Test;
+
+public class IntegrationTraceCacheTest {
+    private int simulations = 0;
+
+    private NavigableMap<Double, IntegrationStep> simulate() {
+        simulations++;
+        var res = new TreeMap<Double, IntegrationStep>();
+        res.put(10., new IntegrationStep(1, 10, 10, 0, 0));
+        return res;
+    }
+
+    @Test
+    public void testIdenticalRunsAreSimulatedOnce() {
+        var schedule = new TrainSchedule("train", TestTrains.REALISTIC_FAST_TRAIN, 0, null, null, 0,
+                null, null, null, null, null);
+        var cache = new IntegrationTraceCache();
+        var controllers = new HashSet<SpeedController>();
+        controllers.add(new MaxSpeedController(10, 0, 100));
+
+        var first = cache.get(schedule, controllers, 0.4, 0, 100, 0, this::simulate);
+        // a copy of the controller set is the same run
+        var second = cache.get(schedule, new HashSet<>(controllers), 0.4, 0, 100, 0, this::simulate);
+        assertSame(first, second);
+        assertEquals(1, simulations);
+        assertEquals(1, cache.getHits());
+
+        // changing the set after the run doesn't change the cached run
+        controllers.add(new MaxSpeedController(5, 50, 100));
+        cache.get(schedule, controllers, 0.4, 0, 100, 0, this::simulate);
+        assertEquals(2, simulations);
+
+        // any other parameter of the run makes a new run
+        cache.get(schedule, controllers, 0.4, 0, 100, 1, this::simulate);
+        cache.get(schedule, controllers, 0.4, 10, 100, 0, this::simulate);
+        cache.get(schedule, controllers, 1, 0, 100, 0, this::simulate);
+        assertEquals(5, simulations);
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void testConcurrentRunsShareTheirTrace() {
+        var schedule = new TrainSchedule("train", TestTrains.REALISTIC_FAST_TRAIN, 0, null, null, 0,
+                null, null, null, null, null);
+        var cache = new IntegrationTraceCache();
+        var controllers = new HashSet<SpeedController>();
+        controllers.add(new MaxSpeedController(10, 0, 100));
+
+        var tasks = new ArrayList<ForkJoinTask<NavigableMap<Double, IntegrationStep>>>();
+        for (int i = 0; i < 16; i++) {
+            var initialSpeed = i % 4;
+            tasks.add(ForkJoinTask.adapt(() -> cache.get(schedule, controllers, 0.4, 0, 100, initialSpeed, () -> {
+                var res = new TreeMap<Double, IntegrationStep>();
+                res.put(10., new IntegrationStep(1, 10, 10, 0, 0));
+                return res;
+            })));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        // all the tasks running the same run get the same trace, even if it was simulated more than once
+        for (int i = 4; i < 16; i++)
+            assertSame(tasks.get(i % 4).join(), tasks.get(i).join());
+        assertEquals(4, cache.size());
+    }
+}
@@ -0,0 +1,59 @@
+package fr.sncf.osrd.train;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fr.sncf.osrd.TestConfig;
+import fr.sncf.osrd.railjson.schema.schedule.RJSTrainStop;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+
+@SuppressWarnings("MissingJavadocMethod")
+public class EnvelopeControlTest {
+    /** Runs the simulation, and returns the time at which each train reached its destination */
+    private static HashMap<String, Double> getArrivalTimes(TestConfig config) {
+        var preparedSim = config.prepare();
+        preparedSim.run();
+        var res = new HashMap<String, Double>();
+        for (var train : preparedSim.getTrains()) {
+            var state = train.getLastState();
+            assertEquals(TrainStatus.REACHED_DESTINATION, state.status);
+            res.put(train.getID(), state.time);
+        }
+        return res;
+    }
+
+    private static TestConfig withControlMethod(TestConfig config, String controlMethod) {
+        for (var schedule : config.rjsSimulation.trainSchedules)
+            schedule.trainControlMethod = controlMethod;
+        return config;
+    }
+
+    @Test
+    public void testSameArrivalTimes() {
+        var config = TestConfig.readResource("tiny_infra/config_railjson.json").clearAllowances();
+        var expected = getArrivalTimes(config);
+        var envelopeConfig = TestConfig.readResource("tiny_infra/config_railjson.json").clearAllowances();
+        var arrivalTimes = getArrivalTimes(withControlMethod(envelopeConfig, "envelope"));
+
+        assertEquals(expected.keySet(), arrivalTimes.keySet());
+        for (var train : expected.keySet())
+            assertEquals(expected.get(train), arrivalTimes.get(train), expected.get(train) * 0.05);
+    }
+
+    @Test
+    public void testStops() {
+        var config = TestConfig.readResource("tiny_infra/config_railjson.json").clearAllowances();
+        var envelopeConfig = TestConfig.readResource("tiny_infra/config_railjson.json").clearAllowances();
+        for (var testConfig : new TestConfig[] { config, envelopeConfig }) {
+            for (var schedule : testConfig.rjsSimulation.trainSchedules)
+                schedule.stops = new RJSTrainStop[]{
+                        new RJSTrainStop(1000., null, 30),
+                        new RJSTrainStop(-1., null, 1)
+                };
+        }
+        var expected = getArrivalTimes(config);
+        var arrivalTimes = getArrivalTimes(withControlMethod(envelopeConfig, "envelope"));
+        for (var train : expected.keySet())
+            assertEquals(expected.get(train), arrivalTimes.get(train), expected.get(train) * 0.05);
+    }
+}
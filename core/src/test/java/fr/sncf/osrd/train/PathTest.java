@@ -2,6 +2,8 @@ package fr.sncf.osrd.train;
 
 import static fr.sncf.osrd.Helpers.*;
 import static fr.sncf.osrd.infra.Infra.parseFromFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import fr.sncf.osrd.config.JsonConfig;
@@ -13,6 +15,7 @@ import fr.sncf.osrd.railjson.schema.RJSSimulation;
 import fr.sncf.osrd.railjson.schema.common.ID;
 import fr.sncf.osrd.railjson.schema.infra.RJSRoute;
 import fr.sncf.osrd.utils.PathUtils;
+import fr.sncf.osrd.utils.TrackSectionLocation;
 import fr.sncf.osrd.utils.moshi.MoshiUtils;
 import org.junit.jupiter.api.Test;
 import java.io.IOException;
@@ -132,4 +135,27 @@ public class PathTest {
 
         assertThrows(InvalidSchedule.class, () -> RJSSimulationParser.parse(rjsInfra, schedule));
     }
+
+    @Test
+    public void testLocationCursor() throws IOException, InvalidInfraException, InvalidRollingStock, InvalidSchedule {
+        var path = getResourcePath("tiny_infra/config_railjson.json");
+        var baseDirPath = path.getParent();
+        var jsonConfig = MoshiUtils.deserialize(JsonConfig.adapter, path);
+        final var infraPath = PathUtils.relativeTo(baseDirPath, jsonConfig.infraPath);
+        final var rjsInfra = parseFromFile(jsonConfig.infraType, infraPath.toString());
+        var schedulePath = PathUtils.relativeTo(baseDirPath, jsonConfig.simulationPath);
+        var schedule = MoshiUtils.deserialize(RJSSimulation.adapter, schedulePath);
+        var trainPath = RJSSimulationParser.parse(rjsInfra, schedule).get(0).plannedPath;
+
+        var cursor = new TrainPath.LocationCursor(trainPath);
+        for (double position = 0; position <= trainPath.length; position += trainPath.length / 100)
+            assertSameLocation(trainPath.findLocation(position), cursor.findLocation(position));
+        // going backward must still work
+        assertSameLocation(trainPath.findLocation(0), cursor.findLocation(0));
+    }
+
+    private static void assertSameLocation(TrackSectionLocation expected, TrackSectionLocation actual) {
+        assertSame(expected.edge, actual.edge);
+        assertEquals(expected.offset, actual.offset, 1e-6);
+    }
 }
@@ -0,0 +1,54 @@
+package fr.sncf.osrd.train;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class RollingStockTest {
+    /** The straightforward implementation of getMaxEffort, which walks the curve */
+    private static double walkEffortCurve(RollingStock.TractiveEffortPoint[] curve, double speed) {
+        double maxEffort = 0.0;
+        for (var dataPoint : curve) {
+            if (dataPoint.speed > Math.abs(speed))
+                break;
+            maxEffort = dataPoint.maxEffort;
+        }
+        return maxEffort;
+    }
+
+    private static RollingStock withEffortCurve(RollingStock.TractiveEffortPoint[] curve) {
+        var base = TestTrains.REALISTIC_FAST_TRAIN;
+        return new RollingStock(
+                base.id, base.source, base.verboseName, base.length, base.mass, base.inertiaCoefficient,
+                base.A, base.B, base.C, base.features, base.maxSpeed, base.startUpTime, base.startUpAcceleration,
+                base.comfortAcceleration, base.gamma, base.gammaType, curve
+        );
+    }
+
+    private static void assertSameEfforts(RollingStock rollingStock) {
+        for (double speed = -10; speed < rollingStock.maxSpeed + 10; speed += 0.25)
+            assertEquals(walkEffortCurve(rollingStock.tractiveEffortCurve, speed), rollingStock.getMaxEffort(speed));
+        for (var point : rollingStock.tractiveEffortCurve) {
+            assertEquals(walkEffortCurve(rollingStock.tractiveEffortCurve, point.speed),
+                    rollingStock.getMaxEffort(point.speed));
+        }
+    }
+
+    @Test
+    public void maxEffortMatchesCurve() {
+        assertSameEfforts(TestTrains.REALISTIC_FAST_TRAIN);
+    }
+
+    @Test
+    public void maxEffortUnsortedCurve() {
+        assertSameEfforts(withEffortCurve(new RollingStock.TractiveEffortPoint[] {
+                new RollingStock.TractiveEffortPoint(10, 300),
+                new RollingStock.TractiveEffortPoint(5, 400),
+                new RollingStock.TractiveEffortPoint(20, 200),
+                new RollingStock.TractiveEffortPoint(20, 150),
+                new RollingStock.TractiveEffortPoint(15, 100),
+                new RollingStock.TractiveEffortPoint(40, 50),
+        }));
+        assertSameEfforts(withEffortCurve(new RollingStock.TractiveEffortPoint[0]));
+    }
+}
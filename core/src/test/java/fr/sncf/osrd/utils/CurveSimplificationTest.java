@@ -74,4 +74,22 @@ class CurveSimplificationTest {
         var filteredPoints = CurveSimplification.rdp(points, 0.1, new Dist());
         assertEquals(1876, filteredPoints.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void indexSimplification() {
+        var xs = new double[2000];
+        var ys = new double[2000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i * 0.5;
+            ys[i] = customSin(xs[i], 0.1);
+        }
+
+        var kept = CurveSimplification.rdpIndexes(xs.length, 0.1, (point, start, end) -> {
+            var proj = ys[start] + (xs[point] - xs[start]) * (ys[end] - ys[start]) / (xs[end] - xs[start]);
+            return Math.abs(ys[point] - proj);
+        });
+        assertEquals(32, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(xs.length - 1, kept[kept.length - 1]);
+    }
+}
@@ -0,0 +1,116 @@
+package fr.sncf.osrd.utils.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.sncf.osrd.utils.graph.ContractionHierarchyTest.TestEdge;
+import fr.sncf.osrd.utils.graph.ContractionHierarchyTest.TestGraph;
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class AStarTest {
+    /** A grid of points, where each edge goes from a point to one of its neighbors */
+    private static final class GridGraph {
+        final TestGraph graph = new TestGraph();
+        final ArrayList<double[]> edgeBegins = new ArrayList<>();
+        final ArrayList<double[]> edgeEnds = new ArrayList<>();
+
+        GridGraph(Random random, int size) {
+            var outEdges = new ArrayList<ArrayList<TestEdge>>();
+            var edgeTargets = new ArrayList<Integer>();
+            for (int i = 0; i < size * size; i++)
+                outEdges.add(new ArrayList<>());
+            int[][] moves = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    for (var move : moves) {
+                        var targetX = x + move[0];
+                        var targetY = y + move[1];
+                        if (targetX < 0 || targetY < 0 || targetX >= size || targetY >= size)
+                            continue;
+                        // tracks are longer than the straight line between their endpoints
+                        var edge = graph.makeEdge(100 * (1 + 0.2 * random.nextDouble()));
+                        edgeBegins.add(new double[] { x * 100, y * 100 });
+                        edgeEnds.add(new double[] { targetX * 100, targetY * 100 });
+                        outEdges.get(x * size + y).add(edge);
+                        edgeTargets.add(targetX * size + targetY);
+                    }
+                }
+            }
+            for (var edge : graph.iterEdges())
+                edge.neighbors.addAll(outEdges.get(edgeTargets.get(edge.index)));
+        }
+
+        AStarHeuristic<TestEdge> heuristic(TestEdge goalEdge, double goalPosition) {
+            var goal = getPoint(goalEdge, goalPosition);
+            return (edge, position) -> {
+                var point = getPoint(edge, position);
+                return Math.hypot(goal[0] - point[0], goal[1] - point[1]);
+            };
+        }
+
+        double[] getPoint(TestEdge edge, double position) {
+            var begin = edgeBegins.get(edge.index);
+            var end = edgeEnds.get(edge.index);
+            var ratio = position / edge.length;
+            return new double[] { begin[0] + (end[0] - begin[0]) * ratio, begin[1] + (end[1] - begin[1]) * ratio };
+        }
+    }
+
+    private static final class SearchResult {
+        double cost = Double.POSITIVE_INFINITY;
+        int exploredCount = 0;
+    }
+
+    private static SearchResult search(
+            TestGraph graph,
+            AStarHeuristic<TestEdge> heuristic,
+            BasicPathNode<TestEdge> start,
+            TestEdge goalEdge,
+            double goalPosition
+    ) {
+        var res = new SearchResult();
+        DijkstraSearch.findPaths(
+                graph,
+                List.of(start),
+                new DistCostFunction<>(),
+                heuristic,
+                List.of(new BasicPathNode<>(goalEdge, goalPosition)),
+                (cost) -> {
+                    // the stop checker is called once for each explored candidate
+                    res.exploredCount++;
+                    return false;
+                },
+                (pathToGoal) -> {
+                    res.cost = pathToGoal.cost;
+                    return false;
+                });
+        return res;
+    }
+
+    @Test
+    public void testSameCostsAsDijkstra() {
+        var random = new Random(42);
+        var grid = new GridGraph(random, 30);
+        var graph = grid.graph;
+        var exploredByDijkstra = 0;
+        var exploredByAStar = 0;
+        for (int i = 0; i < 50; i++) {
+            var startEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+            var goalEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+            var start = new BasicPathNode<>(startEdge, random.nextDouble() * startEdge.length);
+            var goalPosition = random.nextDouble() * goalEdge.length;
+
+            var expected = search(graph, null, start, goalEdge, goalPosition);
+            var result = search(graph, grid.heuristic(goalEdge, goalPosition), start, goalEdge, goalPosition);
+            assertEquals(expected.cost, result.cost, 1e-6);
+            exploredByDijkstra += expected.exploredCount;
+            exploredByAStar += result.exploredCount;
+        }
+        assertTrue(exploredByAStar < exploredByDijkstra / 2,
+                "A* explored " + exploredByAStar + " edges, dijkstra " + exploredByDijkstra);
+    }
+}
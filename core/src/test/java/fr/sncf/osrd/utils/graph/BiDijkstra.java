@@ -9,6 +9,10 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.PriorityQueue;
 
+/**
+ * A straightforward implementation of Dijkstra's algorithm in bidirectional graphs, which allocates path nodes
+ * as it explores the graph. It is used to check the results of DijkstraSearch.
+ */
 public abstract class BiDijkstra {
     public interface GoalChecker<EdgeT extends Edge> {
         BasicDirPathNode<EdgeT> findGoalOnPathEdge(BasicDirPathNode<EdgeT> node);
@@ -0,0 +1,151 @@
+package fr.sncf.osrd.utils.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ContractionHierarchyTest {
+    static final class TestEdge extends Edge {
+        private static final long serialVersionUID = -7146198580941083023L;
+
+        final ArrayList<TestEdge> neighbors = new ArrayList<>();
+
+        TestEdge(int index, double length) {
+            super(index, length);
+        }
+    }
+
+    static final class TestGraph extends DirGraph<TestEdge> {
+        private static final long serialVersionUID = 1474207209840116181L;
+
+        @Override
+        public List<TestEdge> getNeighbors(TestEdge edge) {
+            return edge.neighbors;
+        }
+
+        TestEdge makeEdge(double length) {
+            var edge = new TestEdge(nextEdgeIndex(), length);
+            registerEdge(edge);
+            return edge;
+        }
+
+        /** Creates a random graph, where most edges have a few neighbors */
+        static TestGraph makeRandom(Random random, int edgeCount) {
+            var graph = new TestGraph();
+            for (int i = 0; i < edgeCount; i++)
+                graph.makeEdge(10 + random.nextInt(1000));
+            for (var edge : graph.iterEdges()) {
+                var neighborCount = random.nextInt(4);
+                for (int i = 0; i < neighborCount; i++)
+                    edge.neighbors.add(graph.getEdge(random.nextInt(edgeCount)));
+            }
+            return graph;
+        }
+    }
+
+    /** Finds the cost of the shortest path using a plain dijkstra */
+    private static double dijkstraCost(
+            TestGraph graph,
+            List<BasicPathNode<TestEdge>> starts,
+            TestEdge goalEdge,
+            double goalPosition
+    ) {
+        var costFunction = new DistCostFunction<TestEdge>();
+        var res = new ArrayList<BasicPathNode<TestEdge>>();
+        Dijkstra.findPaths(
+                graph,
+                Dijkstra.makePriorityQueue(starts),
+                costFunction,
+                (pathNode) -> {
+                    if (pathNode.edge != goalEdge || goalPosition < pathNode.position)
+                        return null;
+                    var addedCost = costFunction.evaluate(goalEdge, pathNode.position, goalPosition);
+                    return pathNode.end(addedCost, goalEdge, goalPosition);
+                },
+                (pathNode) -> false,
+                (pathToGoal) -> {
+                    res.add(pathToGoal);
+                    return false;
+                });
+        if (res.isEmpty())
+            return Double.POSITIVE_INFINITY;
+        return res.get(0).cost;
+    }
+
+    /** Checks that a path goes from edge to neighboring edge, and that its cost adds up */
+    private static void checkPath(BasicPathNode<TestEdge> path, List<BasicPathNode<TestEdge>> starts) {
+        var costFunction = new DistCostFunction<TestEdge>();
+        var node = path;
+        while (node.getPrevious() != null) {
+            var previous = node.getPrevious();
+            double expectedCost;
+            if (node.edge == previous.edge) {
+                expectedCost = costFunction.evaluate(node.edge, previous.position, node.position);
+            } else {
+                assertTrue(previous.edge.neighbors.contains(node.edge));
+                expectedCost = costFunction.evaluate(previous.edge, previous.position, previous.edge.length);
+            }
+            assertEquals(previous.cost + expectedCost, node.cost, 1e-6);
+            node = previous;
+        }
+        assertTrue(starts.contains(node));
+    }
+
+    @Test
+    public void testSameCostsAsDijkstra() {
+        var random = new Random(42);
+        var graph = TestGraph.makeRandom(random, 300);
+        var hierarchy = ContractionHierarchy.build(graph, new DistCostFunction<>());
+        var query = hierarchy.query();
+        for (int i = 0; i < 300; i++) {
+            var starts = new ArrayList<BasicPathNode<TestEdge>>();
+            var startCount = 1 + random.nextInt(2);
+            for (int j = 0; j < startCount; j++) {
+                var startEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+                starts.add(new BasicPathNode<>(startEdge, random.nextDouble() * startEdge.length));
+            }
+            // some goals are on the starting edge
+            var goalEdge = i % 10 == 0 ? starts.get(0).edge : graph.getEdge(random.nextInt(graph.getEdgeCount()));
+            var goalPosition = random.nextDouble() * goalEdge.length;
+
+            var expectedCost = dijkstraCost(graph, starts, goalEdge, goalPosition);
+            var path = query.findPath(starts, goalEdge, goalPosition);
+            if (expectedCost == Double.POSITIVE_INFINITY) {
+                assertNull(path);
+                continue;
+            }
+            assertNotNull(path);
+            assertEquals(expectedCost, path.cost, 1e-6);
+            assertSame(goalEdge, path.edge);
+            assertEquals(goalPosition, path.position);
+            checkPath(path, starts);
+        }
+    }
+
+    @Test
+    public void testFewEdgesSettled() {
+        // a long line, where a dijkstra has to settle all the edges to reach the end
+        var graph = new TestGraph();
+        var edgeCount = 2000;
+        for (int i = 0; i < edgeCount; i++)
+            graph.makeEdge(100);
+        for (int i = 0; i + 1 < edgeCount; i++)
+            graph.getEdge(i).neighbors.add(graph.getEdge(i + 1));
+
+        var hierarchy = ContractionHierarchy.build(graph, new DistCostFunction<>());
+        var query = hierarchy.query();
+        var start = new BasicPathNode<>(graph.getEdge(0), 50);
+        var path = query.findPath(List.of(start), graph.getEdge(edgeCount - 1), 50);
+        assertNotNull(path);
+        assertEquals(100. * (edgeCount - 1), path.cost, 1e-6);
+        assertTrue(query.getSettledCount() < 100, "settled " + query.getSettledCount() + " edges");
+    }
+}
@@ -6,6 +6,10 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.PriorityQueue;
 
+/**
+ * A straightforward implementation of Dijkstra's algorithm in directed graphs, which allocates path nodes
+ * as it explores the graph. It is used to check the results of DijkstraSearch.
+ */
 public abstract class Dijkstra {
     public interface GoalChecker<EdgeT extends Edge> {
         BasicPathNode<EdgeT> findGoalOnPathEdge(BasicPathNode<EdgeT> node);
@@ -0,0 +1,283 @@
+package fr.sncf.osrd.utils.graph;
+
+import static fr.sncf.osrd.utils.graph.EdgeDirection.START_TO_STOP;
+import static fr.sncf.osrd.utils.graph.EdgeDirection.STOP_TO_START;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.sncf.osrd.utils.graph.ContractionHierarchyTest.TestEdge;
+import fr.sncf.osrd.utils.graph.ContractionHierarchyTest.TestGraph;
+import fr.sncf.osrd.utils.graph.path.BasicDirPathNode;
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import fr.sncf.osrd.utils.graph.path.PathNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class DijkstraSearchTest {
+    static final class TestBiEdge extends BiNEdge<TestBiEdge> {
+        private static final long serialVersionUID = 2304395084304871907L;
+
+        TestBiEdge(int index, int startNode, int endNode, double length) {
+            super(index, startNode, endNode, length);
+        }
+    }
+
+    /** A bidirectional graph, where edges are linked to all the other edges of their endpoints */
+    static final class TestBiGraph extends BiGraph<TestBiEdge> {
+        private static final long serialVersionUID = 4840803944306676615L;
+
+        final ArrayList<ArrayList<TestBiEdge>> nodeEdges = new ArrayList<>();
+
+        TestBiGraph(Random random, int nodeCount, int edgeCount) {
+            for (int i = 0; i < nodeCount; i++)
+                nodeEdges.add(new ArrayList<>());
+            for (int i = 0; i < edgeCount; i++) {
+                var startNode = random.nextInt(nodeCount);
+                var endNode = (startNode + 1 + random.nextInt(nodeCount - 1)) % nodeCount;
+                var edge = new TestBiEdge(nextEdgeIndex(), startNode, endNode, 10 + random.nextInt(1000));
+                registerEdge(edge);
+                nodeEdges.get(startNode).add(edge);
+                nodeEdges.get(endNode).add(edge);
+            }
+        }
+
+        @Override
+        public List<TestBiEdge> getNeighborRels(TestBiEdge edge, EdgeEndpoint endpoint) {
+            var node = endpoint == EdgeEndpoint.BEGIN ? edge.startNode : edge.endNode;
+            var res = new ArrayList<>(nodeEdges.get(node));
+            res.remove(edge);
+            return res;
+        }
+    }
+
+    private static List<BasicPathNode<TestEdge>> dijkstraPaths(
+            TestGraph graph,
+            List<BasicPathNode<TestEdge>> starts,
+            List<BasicPathNode<TestEdge>> goals
+    ) {
+        var costFunction = new DistCostFunction<TestEdge>();
+        var res = new ArrayList<BasicPathNode<TestEdge>>();
+        Dijkstra.findPaths(
+                graph,
+                Dijkstra.makePriorityQueue(starts),
+                costFunction,
+                (pathNode) -> {
+                    BasicPathNode<TestEdge> bestEnd = null;
+                    for (var goal : goals) {
+                        if (goal.edge != pathNode.edge || goal.position < pathNode.position)
+                            continue;
+                        var addedCost = costFunction.evaluate(goal.edge, pathNode.position, goal.position);
+                        if (bestEnd == null || pathNode.cost + addedCost < bestEnd.cost)
+                            bestEnd = pathNode.end(addedCost, goal.edge, goal.position);
+                    }
+                    return bestEnd;
+                },
+                (pathNode) -> false,
+                (pathToGoal) -> {
+                    res.add(pathToGoal);
+                    return true;
+                });
+        return res;
+    }
+
+    private static List<BasicDirPathNode<TestBiEdge>> biDijkstraPaths(
+            TestBiGraph graph,
+            List<BasicDirPathNode<TestBiEdge>> starts,
+            List<BasicDirPathNode<TestBiEdge>> goals
+    ) {
+        var costFunction = new DistCostFunction<TestBiEdge>();
+        var res = new ArrayList<BasicDirPathNode<TestBiEdge>>();
+        BiDijkstra.findPaths(
+                graph,
+                BiDijkstra.makePriorityQueue(starts),
+                costFunction,
+                (pathNode) -> {
+                    BasicDirPathNode<TestBiEdge> bestEnd = null;
+                    for (var goal : goals) {
+                        if (goal.edge != pathNode.edge || goal.direction != pathNode.direction)
+                            continue;
+                        if (goal.direction == START_TO_STOP ? goal.position < pathNode.position
+                                : goal.position > pathNode.position)
+                            continue;
+                        var addedCost = costFunction.evaluate(goal.edge, pathNode.position, goal.position);
+                        if (bestEnd == null || pathNode.cost + addedCost < bestEnd.cost)
+                            bestEnd = pathNode.end(addedCost, goal.edge, goal.position, goal.direction);
+                    }
+                    return bestEnd;
+                },
+                (pathToGoal) -> {
+                    res.add(pathToGoal);
+                    return true;
+                });
+        return res;
+    }
+
+    /**
+     * Checks that the paths are sorted by cost, starting with the same shortest path as the reference search.
+     * The search may find more paths than the reference, as it reports all the goals of an edge.
+     */
+    private static <NodeT extends PathNode<?, NodeT>> void checkPaths(
+            List<NodeT> expected,
+            List<NodeT> paths,
+            List<NodeT> starts
+    ) {
+        assertEquals(expected.isEmpty(), paths.isEmpty());
+        if (paths.isEmpty())
+            return;
+        assertEquals(expected.get(0).cost, paths.get(0).cost, 1e-6);
+        assertSame(expected.get(0).edge, paths.get(0).edge);
+        assertTrue(paths.size() >= expected.size());
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0)
+                assertTrue(paths.get(i).cost >= paths.get(i - 1).cost);
+            checkPath(paths.get(i), starts);
+        }
+    }
+
+    /** Checks that a path is made of path nodes which follow each other, from one of the starts */
+    private static <NodeT extends PathNode<?, NodeT>> void checkPath(NodeT path, List<NodeT> starts) {
+        assertSame(PathNode.Type.END, path.type);
+        var node = path;
+        while (node.getPrevious() != null) {
+            assertTrue(node.cost >= node.getPrevious().cost);
+            node = node.getPrevious();
+        }
+        assertTrue(starts.contains(node));
+    }
+
+    @Test
+    public void testSameCostsAsDijkstra() {
+        var random = new Random(42);
+        var graph = TestGraph.makeRandom(random, 300);
+        for (int i = 0; i < 200; i++) {
+            var starts = new ArrayList<BasicPathNode<TestEdge>>();
+            var goals = new ArrayList<BasicPathNode<TestEdge>>();
+            for (int j = 0; j < 2; j++) {
+                var startEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+                starts.add(new BasicPathNode<>(startEdge, random.nextDouble() * startEdge.length));
+                var goalEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+                goals.add(new BasicPathNode<>(goalEdge, random.nextDouble() * goalEdge.length));
+            }
+
+            var expected = dijkstraPaths(graph, starts, goals);
+            var paths = new ArrayList<BasicPathNode<TestEdge>>();
+            var found = DijkstraSearch.findPaths(graph, starts, new DistCostFunction<>(), null, goals, null,
+                    (path) -> {
+                        paths.add(path);
+                        return true;
+                    });
+            assertEquals(paths.size(), found);
+            checkPaths(expected, paths, starts);
+        }
+    }
+
+    @Test
+    public void testSameCostsAsBiDijkstra() {
+        var random = new Random(42);
+        var graph = new TestBiGraph(random, 100, 200);
+        var directions = new EdgeDirection[] { START_TO_STOP, STOP_TO_START };
+        for (int i = 0; i < 200; i++) {
+            var starts = new ArrayList<BasicDirPathNode<TestBiEdge>>();
+            var goals = new ArrayList<BasicDirPathNode<TestBiEdge>>();
+            for (int j = 0; j < 2; j++) {
+                var startEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+                var startPosition = random.nextDouble() * startEdge.length;
+                starts.add(new BasicDirPathNode<>(startEdge, startPosition, directions[random.nextInt(2)]));
+                var goalEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+                var goalPosition = random.nextDouble() * goalEdge.length;
+                goals.add(new BasicDirPathNode<>(goalEdge, goalPosition, directions[random.nextInt(2)]));
+            }
+
+            var expected = biDijkstraPaths(graph, starts, goals);
+            var paths = new ArrayList<BasicDirPathNode<TestBiEdge>>();
+            var found = DijkstraSearch.findPaths(graph, starts, new DistCostFunction<>(), null, goals,
+                    (path) -> {
+                        paths.add(path);
+                        return true;
+                    });
+            assertEquals(paths.size(), found);
+            checkPaths(expected, paths, starts);
+        }
+    }
+
+    @Test
+    public void testShortestPathToEachGoal() {
+        var random = new Random(42);
+        var graph = TestGraph.makeRandom(random, 300);
+        for (int i = 0; i < 20; i++) {
+            var starts = new ArrayList<BasicPathNode<TestEdge>>();
+            var startEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+            starts.add(new BasicPathNode<>(startEdge, random.nextDouble() * startEdge.length));
+            var goals = new ArrayList<BasicPathNode<TestEdge>>();
+            for (int j = 0; j < 30; j++) {
+                var goalEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+                goals.add(new BasicPathNode<>(goalEdge, random.nextDouble() * goalEdge.length));
+            }
+
+            var paths = DijkstraSearch.findShortestPaths(graph, starts, new DistCostFunction<>(), goals);
+            assertEquals(goals.size(), paths.size());
+            for (int j = 0; j < goals.size(); j++) {
+                // paths to other goals may go through this one, so each goal is checked on its own
+                var expected = dijkstraPaths(graph, starts, List.of(goals.get(j)));
+                var path = paths.get(j);
+                if (expected.isEmpty()) {
+                    assertNull(path);
+                    continue;
+                }
+                assertEquals(expected.get(0).cost, path.cost, 1e-6);
+                assertSame(goals.get(j).edge, path.edge);
+                checkPath(path, starts);
+            }
+        }
+    }
+
+    @Test
+    public void testGoalsOnTheStartEdge() {
+        var random = new Random(42);
+        var graph = TestGraph.makeRandom(random, 100);
+        var edge = graph.getEdge(0);
+        var starts = List.of(new BasicPathNode<>(edge, edge.length / 2));
+        var goals = new ArrayList<BasicPathNode<TestEdge>>();
+        for (var ratio : new double[] { 0.9, 0.25, 0.75, 0.5 })
+            goals.add(new BasicPathNode<>(edge, edge.length * ratio));
+
+        var paths = DijkstraSearch.findShortestPaths(graph, starts, new DistCostFunction<>(), goals);
+        assertEquals(edge.length * 0.4, paths.get(0).cost, 1e-6);
+        assertEquals(edge.length * 0.25, paths.get(2).cost, 1e-6);
+        assertEquals(0, paths.get(3).cost, 1e-6);
+        // the goal behind the start can only be reached by coming back to the edge
+        var expected = dijkstraPaths(graph, starts, List.of(goals.get(1)));
+        if (expected.isEmpty())
+            assertNull(paths.get(1));
+        else
+            assertEquals(expected.get(0).cost, paths.get(1).cost, 1e-6);
+    }
+
+    @Test
+    public void testNestedSearches() {
+        var random = new Random(42);
+        var graph = TestGraph.makeRandom(random, 100);
+        var costFunction = new DistCostFunction<TestEdge>();
+        var start = List.of(new BasicPathNode<>(graph.getEdge(0), 0));
+        var goals = new ArrayList<BasicPathNode<TestEdge>>();
+        for (var edge : graph.iterEdges())
+            goals.add(new BasicPathNode<>(edge, edge.length));
+
+        // a search started while another one is running doesn't change the state of the first one
+        var outerPaths = new ArrayList<BasicPathNode<TestEdge>>();
+        DijkstraSearch.findPaths(graph, start, costFunction, null, goals, null, (path) -> {
+            outerPaths.add(path);
+            var innerStart = List.of(new BasicPathNode<>(path.edge, 0));
+            DijkstraSearch.findPaths(graph, innerStart, costFunction, null, goals, null, (innerPath) -> true);
+            return true;
+        });
+        var expected = dijkstraPaths(graph, start, goals);
+        assertEquals(expected.size(), outerPaths.size());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i).cost, outerPaths.get(i).cost, 1e-6);
+    }
+}
@@ -0,0 +1,109 @@
+package fr.sncf.osrd.utils.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.sncf.osrd.utils.graph.ContractionHierarchyTest.TestEdge;
+import fr.sncf.osrd.utils.graph.ContractionHierarchyTest.TestGraph;
+import fr.sncf.osrd.utils.graph.path.BasicPathNode;
+import fr.sncf.osrd.utils.graph.path.FullPathArray;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class KShortestPathsTest {
+    /** Lists the costs of all the loopless paths from a start to a goal, by going through all of them */
+    private static void listPathCosts(
+            TestEdge edge,
+            double position,
+            double cost,
+            HashSet<TestEdge> visited,
+            BasicPathNode<TestEdge> goal,
+            ArrayList<Double> res
+    ) {
+        if (edge == goal.edge) {
+            // a path can't go through the goal edge twice, so it either ends here or doesn't exist
+            if (goal.position >= position)
+                res.add(cost + goal.position - position);
+            return;
+        }
+        visited.add(edge);
+        for (var neighbor : new LinkedHashSet<>(edge.neighbors))
+            if (!visited.contains(neighbor))
+                listPathCosts(neighbor, 0, cost + edge.length - position, visited, goal, res);
+        visited.remove(edge);
+    }
+
+    private static List<TestEdge> getEdges(BasicPathNode<TestEdge> path) {
+        var res = new ArrayList<TestEdge>();
+        for (var node : FullPathArray.from(path).pathNodes)
+            if (res.isEmpty() || res.get(res.size() - 1) != node.edge)
+                res.add(node.edge);
+        return res;
+    }
+
+    @Test
+    public void testSameCostsAsAllPaths() {
+        var random = new Random(42);
+        var costFunction = new DistCostFunction<TestEdge>();
+        for (int i = 0; i < 50; i++) {
+            var graph = TestGraph.makeRandom(random, 25);
+            var startEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+            var start = new BasicPathNode<>(startEdge, random.nextDouble() * startEdge.length);
+            var goalEdge = graph.getEdge(random.nextInt(graph.getEdgeCount()));
+            var goal = new BasicPathNode<>(goalEdge, random.nextDouble() * goalEdge.length);
+
+            var expectedCosts = new ArrayList<Double>();
+            listPathCosts(startEdge, start.position, 0, new HashSet<>(), goal, expectedCosts);
+            expectedCosts.sort(Double::compare);
+            var shortestPath = DijkstraSearch.findShortestPath(
+                    graph, List.of(start), costFunction, List.of(goal), null);
+            if (shortestPath == null || expectedCosts.isEmpty())
+                continue;
+
+            var paths = KShortestPaths.find(graph, costFunction, shortestPath, 5);
+            assertEquals(Math.min(5, expectedCosts.size()), paths.size());
+            var pathEdges = new HashSet<List<TestEdge>>();
+            for (int j = 0; j < paths.size(); j++) {
+                var path = paths.get(j);
+                assertEquals(expectedCosts.get(j), path.cost, 1e-6);
+                assertSame(goalEdge, path.edge);
+                assertEquals(goal.position, path.position);
+                assertSame(start, FullPathArray.from(path).start);
+                var edges = getEdges(path);
+                assertEquals(edges.size(), new HashSet<>(edges).size());
+                assertTrue(pathEdges.add(edges));
+            }
+        }
+    }
+
+    @Test
+    public void testAlternativeAroundLoop() {
+        // two ways around a loop, with a longer way on the right side
+        var graph = new TestGraph();
+        var start = graph.makeEdge(100);
+        var left = graph.makeEdge(100);
+        var right = graph.makeEdge(200);
+        var end = graph.makeEdge(100);
+        start.neighbors.add(left);
+        start.neighbors.add(right);
+        left.neighbors.add(end);
+        right.neighbors.add(end);
+
+        var costFunction = new DistCostFunction<TestEdge>();
+        var startNode = new BasicPathNode<>(start, 50);
+        var goal = new BasicPathNode<>(end, 50);
+        var shortestPath = DijkstraSearch.findShortestPath(
+                graph, List.of(startNode), costFunction, List.of(goal), null);
+        var paths = KShortestPaths.find(graph, costFunction, shortestPath, 3);
+        assertEquals(2, paths.size());
+        assertEquals(List.of(start, left, end), getEdges(paths.get(0)));
+        assertEquals(List.of(start, right, end), getEdges(paths.get(1)));
+        assertEquals(200, paths.get(0).cost, 1e-6);
+        assertEquals(300, paths.get(1).cost, 1e-6);
+    }
+}